@@ -14,8 +14,8 @@ import java.util.Map;
 import io.github.javiergames.pieldelobo.GestorJuego.GameState;
 import io.github.javiergames.pieldelobo.GestorJuego.Screens;
 import io.github.javiergames.pieldelobo.LobbyScreen;
-import io.github.javiergames.pieldelobo.MainScreen;
 import io.github.javiergames.pieldelobo.MenuScreen;
+import io.github.javiergames.pieldelobo.PantallaCarga;
 
 /**
  * Sistema completo de guardado manual de partidas.
@@ -738,8 +738,7 @@ public class SaveSystem {
             if (sessionData.currentScreen.equals("LobbyScreen")) {
                 Screens.juego.setScreen(new LobbyScreen(Screens.juego));
             } else if (sessionData.currentScreen.equals("MainScreen")) {
-                MainScreen mainScreen = new MainScreen(Screens.juego);
-                Screens.juego.setScreen(mainScreen);
+                Screens.juego.setScreen(new PantallaCarga(Screens.juego));
             } else if (sessionData.currentScreen.equals("MenuScreen")) {
                 Screens.juego.setScreen(new MenuScreen(Screens.juego));
             } else {
@@ -0,0 +1,139 @@
+package io.github.javiergames.pieldelobo.GestorJuego;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Contador de depuración de la memoria que se reserva en cada frame de juego.
+ *
+ * Si la plataforma instala un {@link MedidorMemoria} (el lanzador de
+ * escritorio lo hace con el ThreadMXBean de la JVM), se mide todo lo que
+ * reserva el hilo de render entre {@link #comenzarFrame()} y
+ * {@link #terminarFrame()}, venga de donde venga: un new o un cpy() perdidos
+ * en el código del frame aparecen aquí. En Android no hay medidor y solo
+ * queda el recuento de abajo.
+ *
+ * Además, las entidades crean sus hitboxes y vectores con
+ * {@link #rectangulo()} y {@link #vector()}, así que se sabe cuántos
+ * {@link Rectangle} y {@link Vector2} de entidades nuevas se crean en cada
+ * frame (por ejemplo, al aparecer enemigos de un segmento). Ese recuento no
+ * ve los objetos creados con new en otros sitios.
+ *
+ * Con el nivel de log en DEBUG, {@link #terminarFrame()} avisa de cada frame
+ * que reserve memoria.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public final class ContadorAsignaciones {
+
+    /** Mide la memoria reservada por el hilo actual (dependiente de la plataforma). */
+    public interface MedidorMemoria {
+        /** Bytes reservados hasta ahora por el hilo que llama. */
+        long bytesReservados();
+    }
+
+    private static MedidorMemoria medidor;
+
+    // Totales desde el arranque
+    private static long rectangulos = 0;
+    private static long vectores = 0;
+
+    // Valores al empezar el frame actual y resultado del último frame
+    private static long rectangulosInicioFrame = 0;
+    private static long vectoresInicioFrame = 0;
+    private static int rectangulosFrame = 0;
+    private static int vectoresFrame = 0;
+    private static int framesConAsignaciones = 0;
+    private static long bytesInicioFrame = 0;
+    private static long bytesFrame = 0;
+
+    private ContadorAsignaciones() {
+    }
+
+    // ====================== CREACIÓN ======================
+
+    public static Rectangle rectangulo() {
+        rectangulos++;
+        return new Rectangle();
+    }
+
+    public static Rectangle rectangulo(float x, float y, float ancho, float alto) {
+        rectangulos++;
+        return new Rectangle(x, y, ancho, alto);
+    }
+
+    public static Vector2 vector() {
+        vectores++;
+        return new Vector2();
+    }
+
+    public static Vector2 vector(float x, float y) {
+        vectores++;
+        return new Vector2(x, y);
+    }
+
+    // ====================== MEDIDOR ======================
+
+    /**
+     * Instala el medidor de memoria de la plataforma (null para quitarlo).
+     * Se llama antes de arrancar el juego.
+     */
+    public static void setMedidor(MedidorMemoria nuevoMedidor) {
+        medidor = nuevoMedidor;
+    }
+
+    /** true si se mide la memoria real reservada en cada frame. */
+    public static boolean midiendoMemoria() {
+        return medidor != null;
+    }
+
+    // ====================== FRAMES ======================
+
+    /** Marca el inicio de un frame de juego. */
+    public static void comenzarFrame() {
+        rectangulosInicioFrame = rectangulos;
+        vectoresInicioFrame = vectores;
+        if (medidor != null) {
+            bytesInicioFrame = medidor.bytesReservados();
+        }
+    }
+
+    /**
+     * Cierra el frame y guarda cuánta memoria se reservó en él.
+     *
+     * @return true si el frame no reservó nada (con medidor) o no creó
+     *         hitboxes ni vectores de entidades (sin él)
+     */
+    public static boolean terminarFrame() {
+        // Medir antes que nada: el resto de este método no debe contar
+        bytesFrame = medidor != null ? medidor.bytesReservados() - bytesInicioFrame : 0;
+        rectangulosFrame = (int) (rectangulos - rectangulosInicioFrame);
+        vectoresFrame = (int) (vectores - vectoresInicioFrame);
+
+        if (bytesFrame == 0 && rectangulosFrame == 0 && vectoresFrame == 0) {
+            return true;
+        }
+
+        framesConAsignaciones++;
+        if (Gdx.app != null && Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+            Gdx.app.debug("ContadorAsignaciones", "Frame con asignaciones: " +
+                (medidor != null ? bytesFrame + " bytes, " : "") +
+                rectangulosFrame + " Rectangle, " + vectoresFrame + " Vector2");
+        }
+        return false;
+    }
+
+    // ====================== GETTERS ======================
+
+    public static long getRectangulos() { return rectangulos; }
+    public static long getVectores() { return vectores; }
+    public static int getRectangulosFrame() { return rectangulosFrame; }
+    public static int getVectoresFrame() { return vectoresFrame; }
+    /** Bytes reservados en el último frame (0 si no hay medidor). */
+    public static long getBytesFrame() { return bytesFrame; }
+    /** Frames que han reservado memoria o creado algún rectángulo o vector. */
+    public static int getFramesConAsignaciones() { return framesConAsignaciones; }
+}
@@ -0,0 +1,108 @@
+package io.github.javiergames.pieldelobo.GestorJuego;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+/**
+ * Interpolación de los actores de un stage entre los dos últimos pasos de
+ * simulación (ver {@link PasoFijo}).
+ *
+ * Antes de cada paso se guarda la posición de los actores. Al dibujar,
+ * {@link #aplicar(float)} los coloca entre la posición guardada y la actual
+ * y {@link #restaurar()} les devuelve la real, de modo que la lógica nunca
+ * ve la posición interpolada.
+ *
+ * Los actores que se han movido más de {@link #DISTANCIA_SALTO} en un paso
+ * (teletransporte, reaparición) se dibujan donde están.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class InterpolacionActores {
+
+    public static final float DISTANCIA_SALTO = 64f;
+
+    private final Group raiz;
+
+    // Actores guardados y su posición antes del último paso
+    private final Array<Actor> actores = new Array<>();
+    private final FloatArray anteriorX = new FloatArray();
+    private final FloatArray anteriorY = new FloatArray();
+
+    // Posición real mientras está aplicada la interpolación
+    private final FloatArray realX = new FloatArray();
+    private final FloatArray realY = new FloatArray();
+    private boolean aplicada = false;
+
+    /**
+     * @param raiz Grupo cuyos hijos directos se interpolan (normalmente stage.getRoot())
+     */
+    public InterpolacionActores(Group raiz) {
+        this.raiz = raiz;
+    }
+
+    /** Guarda la posición de los actores. Llamar justo antes de cada paso. */
+    public void guardar() {
+        actores.clear();
+        anteriorX.clear();
+        anteriorY.clear();
+
+        SnapshotArray<Actor> hijos = raiz.getChildren();
+        for (int i = 0; i < hijos.size; i++) {
+            Actor actor = hijos.get(i);
+            actores.add(actor);
+            anteriorX.add(actor.getX());
+            anteriorY.add(actor.getY());
+        }
+    }
+
+    /**
+     * Coloca los actores en la posición interpolada.
+     *
+     * @param alfa Fracción del siguiente paso ya transcurrida (0..1)
+     */
+    public void aplicar(float alfa) {
+        if (aplicada) return;
+
+        realX.clear();
+        realY.clear();
+        for (int i = 0; i < actores.size; i++) {
+            Actor actor = actores.get(i);
+            float x = actor.getX();
+            float y = actor.getY();
+            realX.add(x);
+            realY.add(y);
+
+            if (actor.getParent() != raiz) continue;
+
+            float dx = x - anteriorX.get(i);
+            float dy = y - anteriorY.get(i);
+            if (dx == 0 && dy == 0) continue;
+            if (Math.abs(dx) > DISTANCIA_SALTO || Math.abs(dy) > DISTANCIA_SALTO) continue;
+
+            actor.setPosition(anteriorX.get(i) + dx * alfa, anteriorY.get(i) + dy * alfa);
+        }
+        aplicada = true;
+    }
+
+    /** Devuelve a los actores su posición real. */
+    public void restaurar() {
+        if (!aplicada) return;
+
+        for (int i = 0; i < actores.size; i++) {
+            actores.get(i).setPosition(realX.get(i), realY.get(i));
+        }
+        aplicada = false;
+    }
+
+    /** Olvida los actores guardados (p. ej. al liberar el nivel). */
+    public void vaciar() {
+        restaurar();
+        actores.clear();
+        anteriorX.clear();
+        anteriorY.clear();
+    }
+}
@@ -5,7 +5,13 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 
 import io.github.javiergames.pieldelobo.DataBase.ConfiguracionPantalla;
+import io.github.javiergames.pieldelobo.Mapas.CacheNiveles;
+import io.github.javiergames.pieldelobo.Personajes.CatalogoEnemigos;
+import io.github.javiergames.pieldelobo.Personajes.Proyectil;
 import io.github.javiergames.pieldelobo.MenuScreen;
+import io.github.javiergames.pieldelobo.Recursos.BibliotecaAnimaciones;
+import io.github.javiergames.pieldelobo.Recursos.CacheAtlas;
+import io.github.javiergames.pieldelobo.Recursos.GestorRecursos;
 /**
  * Clase principal del juego que extiende de Game de LibGDX.
  * Configura el juego, maneja excepciones globales y oculta el cursor.
@@ -96,6 +102,12 @@ public class Main extends Game {
     @Override
     public void dispose() {
         super.dispose();
+        CacheNiveles.disposeInstancia();
+        Proyectil.liberarRecursosCompartidos();
+        CatalogoEnemigos.disposeInstancia();
+        BibliotecaAnimaciones.disposeInstancia();
+        CacheAtlas.disposeInstancia();
+        GestorRecursos.disposeInstancia();
         Gdx.app.log("Main", "Recursos del juego liberados");
 
         // Opcional: Restaurar cursor al salir del juego
@@ -0,0 +1,96 @@
+package io.github.javiergames.pieldelobo.GestorJuego;
+
+/**
+ * Acumulador de paso fijo para la simulación.
+ *
+ * Cada frame se le suma el tiempo real y {@link #siguientePaso()} dice
+ * cuántas veces hay que simular con {@link #getPaso()} segundos. Lo que sobra
+ * queda para el frame siguiente y {@link #getAlfa()} indica cuánto se ha
+ * avanzado hacia el próximo paso, para interpolar al dibujar.
+ *
+ * Si un frame tarda mucho (carga, depurador, ventana arrastrada) no se
+ * simulan más de {@link #getMaxPasos()} pasos y se descarta el resto, para
+ * no entrar en una espiral en la que cada frame tarda más que el anterior.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class PasoFijo {
+
+    public static final float PASO_POR_DEFECTO = 1f / 120f;
+    public static final int MAX_PASOS_POR_DEFECTO = 8;
+
+    private final float paso;
+    private final int maxPasos;
+
+    private float acumulador = 0f;
+    private int pasosFrame = 0;
+
+    // Estadísticas
+    private int pasosUltimoFrame = 0;
+    private long framesRecortados = 0;
+
+    public PasoFijo() {
+        this(PASO_POR_DEFECTO, MAX_PASOS_POR_DEFECTO);
+    }
+
+    /**
+     * @param paso Duración de cada paso de simulación en segundos
+     * @param maxPasos Pasos como máximo por frame
+     */
+    public PasoFijo(float paso, int maxPasos) {
+        this.paso = paso;
+        this.maxPasos = maxPasos;
+    }
+
+    // ====================== FRAMES ======================
+
+    /**
+     * Suma el tiempo real del frame. Llamar una vez por frame antes de
+     * pedir los pasos.
+     */
+    public void acumular(float delta) {
+        pasosFrame = 0;
+        if (delta > 0) {
+            acumulador += delta;
+        }
+    }
+
+    /**
+     * @return true si hay que simular otro paso; en ese caso ya lo descuenta
+     */
+    public boolean siguientePaso() {
+        if (acumulador < paso) {
+            pasosUltimoFrame = pasosFrame;
+            return false;
+        }
+
+        if (pasosFrame >= maxPasos) {
+            // Espiral de la muerte: tirar el tiempo que no da tiempo a simular
+            acumulador %= paso;
+            framesRecortados++;
+            pasosUltimoFrame = pasosFrame;
+            return false;
+        }
+
+        acumulador -= paso;
+        pasosFrame++;
+        return true;
+    }
+
+    /** Olvida el tiempo acumulado (al volver de la pausa o reiniciar). */
+    public void reiniciar() {
+        acumulador = 0f;
+        pasosFrame = 0;
+    }
+
+    // ====================== GETTERS ======================
+
+    public float getPaso() { return paso; }
+    public int getMaxPasos() { return maxPasos; }
+    /** Fracción (0..1) del siguiente paso ya transcurrida. */
+    public float getAlfa() { return acumulador / paso; }
+    public int getPasosUltimoFrame() { return pasosUltimoFrame; }
+    /** Frames en los que se descartó tiempo por superar el máximo de pasos. */
+    public long getFramesRecortados() { return framesRecortados; }
+}
@@ -0,0 +1,52 @@
+package io.github.javiergames.pieldelobo.Input;
+
+/**
+ * Entrada del jugador en un frame de juego: eje horizontal y acciones
+ * pulsadas, ya combinados teclado y gamepad.
+ *
+ * {@link Procesador} la rellena y la aplica al Protagonista; entre medias se
+ * puede grabar o sustituir por una grabada (ver {@link RepeticionEntrada}).
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class EntradaJugador {
+
+    // ====================== ACCIONES ======================
+    public static final int SALTAR = 1;
+    public static final int ATACAR = 1 << 1;
+    public static final int ESPECIAL = 1 << 2;
+    public static final int DEFENDER = 1 << 3;
+
+    private float ejeX = 0f;
+    private int botones = 0;
+
+    public void limpiar() {
+        ejeX = 0f;
+        botones = 0;
+    }
+
+    public void set(float ejeX, int botones) {
+        this.ejeX = ejeX;
+        this.botones = botones;
+    }
+
+    public void pulsar(int accion) {
+        botones |= accion;
+    }
+
+    public boolean estaPulsado(int accion) {
+        return (botones & accion) != 0;
+    }
+
+    public void setEjeX(float ejeX) {
+        this.ejeX = ejeX;
+    }
+
+    // ====================== GETTERS ======================
+
+    /** Dirección horizontal (-1 izquierda, 1 derecha, 0 quieto). */
+    public float getEjeX() { return ejeX; }
+    /** Acciones pulsadas como máscara de {@link #SALTAR}, {@link #ATACAR}... */
+    public int getBotones() { return botones; }
+}
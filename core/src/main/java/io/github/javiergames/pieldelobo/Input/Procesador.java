@@ -53,6 +53,9 @@ public class Procesador extends InputAdapter implements ControllerListener {
     private static final int EJE_X_IZQ = 0;           // Código del eje horizontal joystick izquierdo
     private static final int EJE_Y_IZQ = 1;           // Código del eje vertical joystick izquierdo
 
+    // Entrada del frame cuando el Procesador la aplica él mismo
+    private final EntradaJugador entrada = new EntradaJugador();
+
     // ====================== CONSTRUCTORES ======================
 
     /**
@@ -339,53 +342,69 @@ public class Procesador extends InputAdapter implements ControllerListener {
 
         // ====================== APLICAR ACCIONES SEGÚN EL TIPO DE PERSONAJE ======================
         if (jugador != null) {
-            actualizarProtagonista(delta, movX);
+            capturar(entrada);
+            aplicar(entrada, delta);
         } else if (jugadorLobby != null) {
             actualizarPersonajeLobby(delta, movX, movY);
         }
     }
 
     /**
-     * Actualiza las acciones específicas del Protagonista (juego principal de plataformas).
-     * @param delta Tiempo transcurrido
-     * @param movX Dirección horizontal de movimiento (-1 izquierda, 1 derecha, 0 quieto)
+     * Vuelca en la entrada el estado actual de teclado y gamepad para el
+     * Protagonista, sin aplicarlo todavía.
+     *
+     * @param destino Entrada a rellenar (se limpia antes)
      */
-    private void actualizarProtagonista(float delta, float movX) {
-        // DEBUG: Mostrar información de input
-        if (botonAGamepad || botonBGamepad || botonXGamepad || botonYGamepad) {
-            Gdx.app.log("Protagonista_Input",
-                String.format("Botones - A:%b B:%b X:%b Y:%b",
-                    botonAGamepad, botonBGamepad, botonXGamepad, botonYGamepad));
+    public void capturar(EntradaJugador destino) {
+        destino.limpiar();
+
+        // Movimiento horizontal: gamepad con prioridad sobre teclado
+        float movX = 0;
+        if (aPresionado || leftPresionado) movX -= 1;
+        if (dPresionado || rightPresionado) movX += 1;
+        if (Math.abs(ejeXGamepad) > ZONA_MUERTA) {
+            movX = ejeXGamepad;
         }
+        destino.setEjeX(movX);
+
+        if (spacePresionado || botonAGamepad) destino.pulsar(EntradaJugador.SALTAR);
+        if (ePresionado || botonBGamepad) destino.pulsar(EntradaJugador.ATACAR);
+        if (fPresionado || botonXGamepad) destino.pulsar(EntradaJugador.ESPECIAL);
+        if (qPresionado || botonYGamepad) destino.pulsar(EntradaJugador.DEFENDER);
+    }
+
+    /**
+     * Aplica una entrada al Protagonista (juego principal de plataformas).
+     * @param entrada Entrada del frame, capturada o grabada
+     * @param delta Tiempo transcurrido
+     */
+    public void aplicar(EntradaJugador entrada, float delta) {
+        if (jugador == null) return;
 
         // SALTO (SPACE o Botón A del gamepad)
-        if ((spacePresionado || botonAGamepad) && !jugador.estaAtacando()) {
-            Gdx.app.log("Protagonista", "SALTANDO - space:" + spacePresionado + " botonA:" + botonAGamepad);
+        if (entrada.estaPulsado(EntradaJugador.SALTAR) && !jugador.estaAtacando()) {
+            Gdx.app.log("Protagonista", "SALTANDO");
             jugador.saltar();
         }
 
         // ATAQUE BÁSICO (E o Botón B del gamepad)
-        if ((ePresionado || botonBGamepad) && !jugador.estaAtacando()) {
-            Gdx.app.log("Protagonista", "ATACANDO - e:" + ePresionado + " botonB:" + botonBGamepad);
+        if (entrada.estaPulsado(EntradaJugador.ATACAR) && !jugador.estaAtacando()) {
+            Gdx.app.log("Protagonista", "ATACANDO");
             jugador.atacar();
         }
 
         // ATAQUE ESPECIAL (F o Botón X del gamepad)
-        if ((fPresionado || botonXGamepad) && !jugador.estaAtacando()) {
-            Gdx.app.log("Protagonista", "ATAQUE ESPECIAL - f:" + fPresionado + " botonX:" + botonXGamepad);
+        if (entrada.estaPulsado(EntradaJugador.ESPECIAL) && !jugador.estaAtacando()) {
+            Gdx.app.log("Protagonista", "ATAQUE ESPECIAL");
             jugador.atacarEspecial();
         }
 
         // DEFENDER/BLOQUEAR (Q o Botón Y del gamepad)
-        if (qPresionado || botonYGamepad) {
-            jugador.defender(true);
-        } else {
-            jugador.defender(false);
-        }
+        jugador.defender(entrada.estaPulsado(EntradaJugador.DEFENDER));
 
         // MOVIMIENTO HORIZONTAL
         // IMPORTANTE: Llamar siempre, incluso con movX = 0, para transiciones de animación
-        jugador.mover(delta, movX, 0);
+        jugador.mover(delta, entrada.getEjeX(), 0);
     }
 
     /**
@@ -0,0 +1,272 @@
+package io.github.javiergames.pieldelobo.Input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Grabación y reproducción de la entrada del jugador en un nivel.
+ *
+ * Por cada frame de juego se guarda el delta del frame, el eje horizontal y
+ * las acciones pulsadas (9 bytes antes de comprimir), junto con la semilla
+ * de {@link com.badlogic.gdx.math.MathUtils#random} y el nivel. Al
+ * reproducir, la pantalla usa el delta grabado en lugar del real y la
+ * entrada grabada en lugar de la del teclado o el gamepad, así que con el
+ * paso fijo la simulación es la misma. Al terminar se registra el perfil de
+ * tiempos de frame reales, que sirve de prueba de rendimiento repetible.
+ *
+ * Mientras la repetición está activa el juego no se puede pausar: la pausa
+ * no forma parte de los ticks y, al reanudar, reinicia el paso fijo.
+ *
+ * Se activa al arrancar el juego en escritorio con
+ * {@code -Dpieldelobo.grabar=ruta} o {@code -Dpieldelobo.reproducir=ruta}
+ * (ruta relativa al almacenamiento local). Solo afecta al primer nivel que
+ * se juega.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class RepeticionEntrada {
+
+    public enum Modo { GRABANDO, REPRODUCIENDO }
+
+    public static final String PROPIEDAD_GRABAR = "pieldelobo.grabar";
+    public static final String PROPIEDAD_REPRODUCIR = "pieldelobo.reproducir";
+
+    private static final int MAGIA = 0x504C5250; // "PLRP"
+    private static final int VERSION = 1;
+
+    // Las propiedades solo valen para el primer nivel (no para los reinicios)
+    private static boolean propiedadesUsadas = false;
+
+    private final Modo modo;
+    private final FileHandle archivo;
+    private long semilla;
+    private String nivel = "";
+
+    // ====================== TICKS ======================
+    private final FloatArray deltas = new FloatArray();
+    private final FloatArray ejes = new FloatArray();
+    private final ByteArray botones = new ByteArray();
+    private int tick = 0;
+    private float deltaPendiente = 0f;
+    private boolean activa = true;
+
+    // ====================== PERFIL DE LA REPRODUCCIÓN ======================
+    private int framesMedidos = 0;
+    private float sumaFrames = 0f;
+    private float maximoFrame = 0f;
+
+    private RepeticionEntrada(Modo modo, FileHandle archivo) {
+        this.modo = modo;
+        this.archivo = archivo;
+    }
+
+    // ====================== CREACIÓN ======================
+
+    /**
+     * Repetición pedida por las propiedades del sistema, o null si no hay
+     * ninguna (o ya se usó en un nivel anterior).
+     */
+    public static RepeticionEntrada desdePropiedades() {
+        if (propiedadesUsadas) return null;
+        propiedadesUsadas = true;
+
+        String reproducir = System.getProperty(PROPIEDAD_REPRODUCIR);
+        if (reproducir != null && !reproducir.isEmpty()) {
+            return cargar(Gdx.files.local(reproducir));
+        }
+        String grabar = System.getProperty(PROPIEDAD_GRABAR);
+        if (grabar != null && !grabar.isEmpty()) {
+            return grabar(Gdx.files.local(grabar));
+        }
+        return null;
+    }
+
+    /** Empieza una grabación con una semilla nueva. Se escribe al terminar. */
+    public static RepeticionEntrada grabar(FileHandle archivo) {
+        RepeticionEntrada repeticion = new RepeticionEntrada(Modo.GRABANDO, archivo);
+        repeticion.semilla = TimeUtils.nanoTime();
+        Gdx.app.log("RepeticionEntrada", "Grabando entrada en " + archivo.path() +
+            " (semilla " + repeticion.semilla + ")");
+        return repeticion;
+    }
+
+    /**
+     * Carga una grabación para reproducirla.
+     *
+     * @return La repetición, o null si el archivo no existe o no es válido
+     */
+    public static RepeticionEntrada cargar(FileHandle archivo) {
+        if (!archivo.exists()) {
+            Gdx.app.error("RepeticionEntrada", "No existe la repetición " + archivo.path());
+            return null;
+        }
+
+        RepeticionEntrada repeticion = new RepeticionEntrada(Modo.REPRODUCIENDO, archivo);
+        DataInputStream entrada = null;
+        try {
+            entrada = new DataInputStream(new InflaterInputStream(archivo.read()));
+            if (entrada.readInt() != MAGIA) {
+                throw new IOException("no es un archivo de repetición");
+            }
+            int version = entrada.readInt();
+            if (version != VERSION) {
+                throw new IOException("versión " + version + " no soportada");
+            }
+            repeticion.semilla = entrada.readLong();
+            repeticion.nivel = entrada.readUTF();
+
+            int ticks = entrada.readInt();
+            repeticion.deltas.ensureCapacity(ticks);
+            repeticion.ejes.ensureCapacity(ticks);
+            repeticion.botones.ensureCapacity(ticks);
+            for (int i = 0; i < ticks; i++) {
+                repeticion.deltas.add(entrada.readFloat());
+                repeticion.ejes.add(entrada.readFloat());
+                repeticion.botones.add(entrada.readByte());
+            }
+        } catch (Exception e) {
+            Gdx.app.error("RepeticionEntrada", "No se pudo leer la repetición " + archivo.path(), e);
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(entrada);
+        }
+
+        Gdx.app.log("RepeticionEntrada", "Reproduciendo " + archivo.path() + ": " +
+            repeticion.deltas.size + " ticks, nivel '" + repeticion.nivel +
+            "', semilla " + repeticion.semilla);
+        return repeticion;
+    }
+
+    // ====================== TICKS ======================
+
+    /**
+     * Empieza el tick de un frame.
+     *
+     * @param deltaReal Delta del frame real
+     * @return Delta con el que simular: el grabado al reproducir, el real si no
+     */
+    public float comenzarTick(float deltaReal) {
+        if (!activa) return deltaReal;
+
+        if (modo == Modo.GRABANDO) {
+            deltaPendiente = deltaReal;
+            return deltaReal;
+        }
+
+        if (tick >= deltas.size) {
+            terminar();
+            return deltaReal;
+        }
+        medirFrame(deltaReal);
+        return deltas.get(tick);
+    }
+
+    /**
+     * Cierra el tick con la entrada del frame: al grabar la guarda y al
+     * reproducir la sustituye por la grabada.
+     */
+    public void procesar(EntradaJugador entrada) {
+        if (!activa) return;
+
+        if (modo == Modo.GRABANDO) {
+            deltas.add(deltaPendiente);
+            ejes.add(entrada.getEjeX());
+            botones.add((byte) entrada.getBotones());
+            tick++;
+        } else if (tick < deltas.size) {
+            entrada.set(ejes.get(tick), botones.get(tick));
+            tick++;
+        }
+    }
+
+    /**
+     * Termina la repetición: la grabación se escribe en el archivo y la
+     * reproducción registra su perfil de tiempos. A partir de aquí la
+     * entrada vuelve a ser la del jugador.
+     */
+    public void terminar() {
+        if (!activa) return;
+        activa = false;
+
+        if (modo == Modo.GRABANDO) {
+            guardar();
+        } else {
+            Gdx.app.log("RepeticionEntrada", "Reproducción terminada: " + tick + " ticks, " +
+                "frame medio " + String.format("%.2f", getMilisegundosMedio()) + " ms, " +
+                "máximo " + String.format("%.2f", getMilisegundosMaximo()) + " ms");
+        }
+    }
+
+    private void guardar() {
+        DataOutputStream salida = null;
+        try {
+            salida = new DataOutputStream(new DeflaterOutputStream(archivo.write(false)));
+            salida.writeInt(MAGIA);
+            salida.writeInt(VERSION);
+            salida.writeLong(semilla);
+            salida.writeUTF(nivel);
+            salida.writeInt(deltas.size);
+            for (int i = 0; i < deltas.size; i++) {
+                salida.writeFloat(deltas.get(i));
+                salida.writeFloat(ejes.get(i));
+                salida.writeByte(botones.get(i));
+            }
+            salida.flush();
+            Gdx.app.log("RepeticionEntrada", "Repetición guardada en " + archivo.path() +
+                ": " + deltas.size + " ticks");
+        } catch (Exception e) {
+            Gdx.app.error("RepeticionEntrada", "No se pudo guardar la repetición " + archivo.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(salida);
+        }
+    }
+
+    private void medirFrame(float deltaReal) {
+        // El primer frame incluye la carga del nivel
+        if (tick == 0) return;
+
+        framesMedidos++;
+        sumaFrames += deltaReal;
+        if (deltaReal > maximoFrame) {
+            maximoFrame = deltaReal;
+        }
+    }
+
+    // ====================== NIVEL ======================
+
+    /**
+     * Al grabar apunta el nivel; al reproducir avisa si no es el grabado.
+     */
+    public void comprobarNivel(String nivelActual) {
+        String id = nivelActual != null ? nivelActual : "";
+        if (modo == Modo.GRABANDO) {
+            nivel = id;
+        } else if (!nivel.equals(id)) {
+            Gdx.app.error("RepeticionEntrada", "La repetición es del nivel '" + nivel +
+                "' y se está jugando '" + id + "': no se reproducirá igual");
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public Modo getModo() { return modo; }
+    public boolean estaActiva() { return activa; }
+    /** Semilla con la que inicializar MathUtils.random al crear el nivel. */
+    public long getSemilla() { return semilla; }
+    public String getNivel() { return nivel; }
+    public int getTick() { return tick; }
+    public int getTicks() { return deltas.size; }
+    public float getMilisegundosMedio() { return framesMedidos > 0 ? sumaFrames / framesMedidos * 1000f : 0f; }
+    public float getMilisegundosMaximo() { return maximoFrame * 1000f; }
+}
@@ -26,6 +26,8 @@ import io.github.javiergames.pieldelobo.Personajes.PersonajeLobby;
 import io.github.javiergames.pieldelobo.Puertas.IconoInteraccion;
 import io.github.javiergames.pieldelobo.Puertas.PuertaTransicion;
 import io.github.javiergames.pieldelobo.Puertas.StageOrdenado;
+import io.github.javiergames.pieldelobo.Recursos.CargaNivel;
+import io.github.javiergames.pieldelobo.Recursos.GestorRecursos;
 import io.github.javiergames.pieldelobo.Videos.VideoManager;
 import io.github.javiergames.pieldelobo.Videos.ViewportManager;
 
@@ -580,6 +582,9 @@ public class LobbyScreen extends PantallaInicio {
             }
         }
 
+        // Avanzar la precarga del nivel (si hay una en curso) sin bloquear el frame
+        GestorRecursos.getInstance().actualizar(4);
+
         // ========== MODO DIÁLOGO ACTIVO ==========
         if (enDialogo || mostrarDialogoPuerta) {
             renderModoDialogo(delta);
@@ -1013,6 +1018,11 @@ public class LobbyScreen extends PantallaInicio {
             icono.setMostrar(false);
         }
 
+        // Mientras el jugador decide, empezar a cargar el mapa de la puerta
+        if (puerta.isActiva() && !puerta.isBloqueada()) {
+            CargaNivel.precargarMapa(resolverMapaPuerta(puerta, GameState.getInstance()));
+        }
+
         Gdx.app.log("LobbyScreen",
             "Mostrando diálogo puerta: " + puerta.getNombreMostrar() +
                 " estado: " + (puerta.isBloqueada() ? "BLOQUEADA" :
@@ -1198,34 +1208,7 @@ public class LobbyScreen extends PantallaInicio {
             gameState.setNivelActual(puerta.getIdNivel());
 
             // Determinar qué mapa cargar
-            String mapaACargar;
-
-            // SOLUCIÓN: Ignorar mapaDestino si es el por defecto o vacío
-            String mapaDestino = puerta.getMapaDestino();
-            boolean mapaDestinoValido = mapaDestino != null &&
-                !mapaDestino.isEmpty() &&
-                !mapaDestino.equals("Tiled/nivel_villa.tmx") &&
-                !mapaDestino.equals("default") &&
-                !mapaDestino.toLowerCase().contains("villa");
-
-            if (mapaDestinoValido) {
-                // Si la puerta tiene un mapa destino específico DIFERENTE a villa, usarlo
-                mapaACargar = mapaDestino;
-                Gdx.app.log("LobbyScreen", "Usando mapa destino específico de la puerta: " + mapaACargar);
-            } else {
-                // Si no, usar el mapeo por ID del nivel desde GameState
-                mapaACargar = gameState.obtenerRutaMapaPorNivelId(puerta.getIdNivel());
-                Gdx.app.log("LobbyScreen", "Usando mapeo por ID: " + puerta.getIdNivel() + " -> " + mapaACargar);
-
-                // Verificar que el archivo existe
-                boolean existe = gameState.existeMapa(mapaACargar);
-                if (!existe) {
-                    Gdx.app.error("LobbyScreen", "Mapa no encontrado: " + mapaACargar);
-                    // Fallback al mapa por defecto
-                    mapaACargar = "Tiled/nivel_villa.tmx";
-                    Gdx.app.log("LobbyScreen", "Usando fallback: " + mapaACargar);
-                }
-            }
+            String mapaACargar = resolverMapaPuerta(puerta, gameState);
 
             // Establecer el mapa a cargar en GameState
             gameState.setMapaACargar(mapaACargar);
@@ -1251,11 +1234,12 @@ public class LobbyScreen extends PantallaInicio {
                 Gdx.app.log("LobbyScreen", "Música del lobby detenida");
             }
 
-            // ========== 3. CREAR Y MOSTRAR MAINSCREEN ==========
-            // Crear MainScreen (usará la configuración de GameState)
-            MainScreen nivel = new MainScreen(game);
+            // ========== 3. CREAR Y MOSTRAR LA PANTALLA DE CARGA ==========
+            // PantallaCarga carga el nivel (usando la configuración de GameState)
+            // y después pasa a MainScreen
+            PantallaCarga nivel = new PantallaCarga(game);
 
-            // Cambiar a MainScreen
+            // Cambiar a la pantalla de carga
             game.setScreen(nivel);
 
             // Liberar recursos del lobby
@@ -1273,6 +1257,42 @@ public class LobbyScreen extends PantallaInicio {
             cancelarDialogoPuerta();
         }
     }
+    /**
+     * Determina el mapa al que lleva una puerta: su mapa destino si es
+     * específico, o el mapeo por ID del nivel (con la villa como respaldo).
+     */
+    private String resolverMapaPuerta(PuertaTransicion puerta, GameState gameState) {
+        String mapaACargar;
+
+        // SOLUCIÓN: Ignorar mapaDestino si es el por defecto o vacío
+        String mapaDestino = puerta.getMapaDestino();
+        boolean mapaDestinoValido = mapaDestino != null &&
+            !mapaDestino.isEmpty() &&
+            !mapaDestino.equals("Tiled/nivel_villa.tmx") &&
+            !mapaDestino.equals("default") &&
+            !mapaDestino.toLowerCase().contains("villa");
+
+        if (mapaDestinoValido) {
+            // Si la puerta tiene un mapa destino específico DIFERENTE a villa, usarlo
+            mapaACargar = mapaDestino;
+            Gdx.app.log("LobbyScreen", "Usando mapa destino específico de la puerta: " + mapaACargar);
+        } else {
+            // Si no, usar el mapeo por ID del nivel desde GameState
+            mapaACargar = gameState.obtenerRutaMapaPorNivelId(puerta.getIdNivel());
+            Gdx.app.log("LobbyScreen", "Usando mapeo por ID: " + puerta.getIdNivel() + " -> " + mapaACargar);
+
+            // Verificar que el archivo existe
+            boolean existe = gameState.existeMapa(mapaACargar);
+            if (!existe) {
+                Gdx.app.error("LobbyScreen", "Mapa no encontrado: " + mapaACargar);
+                // Fallback al mapa por defecto
+                mapaACargar = "Tiled/nivel_villa.tmx";
+                Gdx.app.log("LobbyScreen", "Usando fallback: " + mapaACargar);
+            }
+        }
+        return mapaACargar;
+    }
+
     /**
      * Cancela el diálogo de puerta.
      */
@@ -1280,6 +1300,9 @@ public class LobbyScreen extends PantallaInicio {
         mostrarDialogoPuerta = false;
         puertaSeleccionada = null;
 
+        // Ya no se va a entrar: descartar el mapa precargado
+        CargaNivel.cancelarPrecarga();
+
         // Reanudar NPCs
         for (NpcLobby npc : npcs) {
             npc.setPausado(false);
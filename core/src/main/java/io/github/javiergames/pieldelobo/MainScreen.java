@@ -12,27 +12,43 @@ import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.GestorJuego.GameState;
 import io.github.javiergames.pieldelobo.GestorJuego.EventManager;
+import io.github.javiergames.pieldelobo.GestorJuego.InterpolacionActores;
 import io.github.javiergames.pieldelobo.GestorJuego.Main;
+import io.github.javiergames.pieldelobo.GestorJuego.PasoFijo;
+import io.github.javiergames.pieldelobo.Input.EntradaJugador;
 import io.github.javiergames.pieldelobo.Input.Procesador;
+import io.github.javiergames.pieldelobo.Input.RepeticionEntrada;
+import io.github.javiergames.pieldelobo.Mapas.CacheNiveles;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 import io.github.javiergames.pieldelobo.Mapas.IndicadorNivel;
+import io.github.javiergames.pieldelobo.Mapas.SegmentosNivel;
+import io.github.javiergames.pieldelobo.Personajes.ActividadEnemigos;
+import io.github.javiergames.pieldelobo.Personajes.Combate;
 import io.github.javiergames.pieldelobo.Personajes.Enemigos;
 import io.github.javiergames.pieldelobo.Personajes.Esqueleto;
 import io.github.javiergames.pieldelobo.Personajes.Bandido;
 import io.github.javiergames.pieldelobo.Personajes.Arquero;
+import io.github.javiergames.pieldelobo.Personajes.CatalogoEnemigos;
 import io.github.javiergames.pieldelobo.Personajes.FabricaEnemigos;
 import io.github.javiergames.pieldelobo.Personajes.Golem;
 import io.github.javiergames.pieldelobo.Personajes.BrujaFuego;
 import io.github.javiergames.pieldelobo.Personajes.Necromancer;
 import io.github.javiergames.pieldelobo.Personajes.Protagonista;
+import io.github.javiergames.pieldelobo.Personajes.SistemaProyectiles;
+import io.github.javiergames.pieldelobo.Recursos.CargaNivel;
 import io.github.javiergames.pieldelobo.Videos.ViewportManager;
 
 /**
@@ -57,11 +73,43 @@ public class MainScreen extends PantallaInicio {
 
     private Music musicaNivel;
     private boolean musicaCargada = false;
+    // true si la música la gestiona GestorRecursos (no se libera aquí)
+    private boolean musicaCompartida = false;
 
     // ====================== SISTEMA DE ENEMIGOS ======================
     private Array<Enemigos> enemigos;
     private int enemigosEliminados = 0;
 
+    // ====================== SEGMENTOS DEL NIVEL ======================
+    // Los enemigos del mapa se crean al acercarse la cámara y se liberan al alejarse
+    private SegmentosNivel segmentos;
+    private FabricaEnemigos fabrica;
+    // Spawn del que salió cada enemigo creado por segmentos
+    private final ObjectIntMap<Enemigos> spawnDeEnemigo = new ObjectIntMap<>();
+
+    // ====================== ACTIVIDAD DE ENEMIGOS ======================
+    // Los enemigos lejos de la cámara se simulan menos o se congelan
+    private final ActividadEnemigos actividadEnemigos = new ActividadEnemigos();
+    private final Rectangle vistaCamara = ContadorAsignaciones.rectangulo();
+
+    // ====================== PROYECTILES ======================
+    private SistemaProyectiles sistemaProyectiles;
+
+    // ====================== COMBATE ======================
+    // Hash espacial de enemigos para golpes y daño por contacto
+    private final Combate combate = new Combate();
+    private final Array<Enemigos> enemigosCercanos = new Array<>();
+
+    // ====================== PASO FIJO ======================
+    // La simulación avanza a 120 Hz sea cual sea la frecuencia de dibujado
+    private final PasoFijo pasoFijo = new PasoFijo();
+    private InterpolacionActores interpolacion;
+
+    // ====================== ENTRADA Y REPETICIONES ======================
+    // Entrada del jugador de este frame (teclado + gamepad, o la grabada)
+    private final EntradaJugador entrada = new EntradaJugador();
+    private RepeticionEntrada repeticion;
+
     // ====================== INDICADOR DE NIVEL ======================
     private IndicadorNivel indicadorNivel;
     private boolean nivelListoParaCompletar = false;
@@ -84,6 +132,12 @@ public class MainScreen extends PantallaInicio {
     private Texture corazonLleno;
     private Texture corazonVacio;
 
+    // ====================== CARGA ASÍNCRONA ======================
+    // Recursos ya cargados por PantallaCarga (null si se carga de forma síncrona)
+    private CargaNivel carga;
+    private boolean texturasCompartidas = false;
+    private boolean fuenteCompartida = false;
+
     // ====================== CONSTANTES ======================
     private static final int ENEMIGOS_OBJETIVO = 10;
     private static final float TIEMPO_MENSAJE_INDICADOR = 3.0f;
@@ -94,14 +148,30 @@ public class MainScreen extends PantallaInicio {
 
     /**
      * Constructor de la pantalla principal del juego.
+     * Carga el nivel de forma síncrona.
      */
     public MainScreen(Main game) {
+        this(game, null);
+    }
+
+    /**
+     * Constructor con los recursos del nivel ya cargados.
+     *
+     * @param carga Carga terminada por {@link PantallaCarga}, o null para cargar aquí
+     */
+    public MainScreen(Main game, CargaNivel carga) {
         super(game);
         this.batch = new SpriteBatch();
         this.enemigos = new Array<>();
+        this.carga = carga;
 
         // Inicializar fuentes y managers
-        cargarFuenteHUD();
+        if (carga != null && carga.getFuenteHUD() != null) {
+            this.font = carga.getFuenteHUD();
+            this.fuenteCompartida = true;
+        } else {
+            cargarFuenteHUD();
+        }
 
         // Obtener instancias de GameState y EventManager
         gameState = GameState.getInstance();
@@ -160,8 +230,6 @@ public class MainScreen extends PantallaInicio {
         }
 
 
-        // Inicializar juego por primera vez
-        inicializarJuego();
         // Inicializar juego por primera vez
         inicializarJuego();
 
@@ -176,6 +244,10 @@ public class MainScreen extends PantallaInicio {
             }
         }
 
+        if (repeticion != null) {
+            repeticion.comprobarNivel(gameState.getNivelActual());
+        }
+
         Gdx.app.log("MainScreen", "Juego inicializado - Nivel: " +
             (gameState.getNivelActual() != null ? gameState.getNivelActual() : "No especificado"));
 
@@ -190,6 +262,12 @@ public class MainScreen extends PantallaInicio {
         Gdx.app.log("MainScreen", "=== INICIALIZANDO JUEGO ===");
         Gdx.app.log("MainScreen", "Reiniciando: " + reiniciando);
 
+        // ====================== SEMILLA ALEATORIA ======================
+        // Con la semilla de la repetición los enemigos deciden lo mismo
+        repeticion = RepeticionEntrada.desdePropiedades();
+        long semilla = repeticion != null ? repeticion.getSemilla() : TimeUtils.nanoTime();
+        MathUtils.random.setSeed(semilla);
+
         // ====================== CONFIGURAR CÁMARA Y VIEWPORT ======================
         camara = new OrthographicCamera();
         viewport = ViewportManager.createViewport(ViewportManager.ViewportType.EXTEND, camara);
@@ -210,6 +288,13 @@ public class MainScreen extends PantallaInicio {
         // ====================== CONFIGURAR STAGE ======================
         stage.addActor(jugador);
 
+        // Proyectiles enemigos: un solo actor para todos
+        sistemaProyectiles = new SistemaProyectiles(mapaManager, jugador);
+        stage.addActor(sistemaProyectiles);
+
+        interpolacion = new InterpolacionActores(stage.getRoot());
+        pasoFijo.reiniciar();
+
         // ====================== CONFIGURAR INPUT ======================
         procesador = new Procesador(jugador);
         Gdx.input.setInputProcessor(procesador);
@@ -217,21 +302,19 @@ public class MainScreen extends PantallaInicio {
         // Añadir detección directa de gamepad
         configurarGamepadDirecto();
 
-        // ====================== CARGAR RECURSOS DE RESPALDO ======================
-        fondo = new Texture("fondo.jpg");
-
-        // ====================== CARGAR RECURSOS HUD ======================
-        try {
-            corazonLleno = new Texture(Gdx.files.internal("corazon_lleno.png"));
-            corazonVacio = new Texture(Gdx.files.internal("corazon_vacio.png"));
-            Gdx.app.log("MainScreen", "Texturas HUD cargadas correctamente");
-        } catch (Exception e) {
-            Gdx.app.error("MainScreen", "Error al cargar texturas HUD", e);
-            corazonLleno = crearTexturaRespaldo(true);
-            corazonVacio = crearTexturaRespaldo(false);
-            Gdx.app.log("MainScreen", "Texturas de respaldo creadas");
+        // ====================== RECURSOS YA CARGADOS ======================
+        if (carga != null && carga.getFondo() != null
+            && carga.getCorazonLleno() != null && carga.getCorazonVacio() != null) {
+            fondo = carga.getFondo();
+            corazonLleno = carga.getCorazonLleno();
+            corazonVacio = carga.getCorazonVacio();
+            texturasCompartidas = true;
+            Gdx.app.log("MainScreen", "Texturas HUD tomadas de la carga asíncrona");
+        } else {
+            cargarTexturasHUD();
         }
 
+
         // ====================== CONFIGURAR VISTA DEL MAPA ======================
         if (mapaManager.estaCargado()) {
             mapaManager.setView(camara);
@@ -244,30 +327,24 @@ public class MainScreen extends PantallaInicio {
         enemigos = new Array<>();
 
         // Crear fábrica de enemigos
-        FabricaEnemigos fabrica = new FabricaEnemigos(mapaManager, jugador);
+        fabrica = new FabricaEnemigos(mapaManager, jugador);
 
         // Obtener información de spawn del mapa
         Array<MapaManager.EnemigoSpawnInfo> spawnInfos = mapaManager.obtenerInfoSpawnEnemigos();
 
         if (spawnInfos.size > 0) {
-            // Crear enemigos desde la información del mapa
-            Array<Enemigos> enemigosDelMapa = fabrica.crearEnemigosDesdeSpawnInfo(spawnInfos);
-            enemigos.addAll(enemigosDelMapa);
-
-            // Añadir enemigos al stage
-            for (Enemigos enemigo : enemigosDelMapa) {
-                stage.addActor(enemigo);
-            }
-
-            Gdx.app.log("MainScreen", "Enemigos cargados desde mapa: " + enemigos.size);
+            // Los enemigos del mapa se crean por segmentos, empezando por los que rodean al jugador
+            iniciarSegmentos();
+            Gdx.app.log("MainScreen", "Enemigos cargados desde mapa: " + enemigos.size +
+                " (pendientes en otros segmentos: " + segmentos.getEnemigosPendientes() + ")");
         } else {
             // Si no hay enemigos en el mapa, crear algunos por defecto
             Gdx.app.log("MainScreen", "No se encontraron enemigos en el mapa, creando enemigos por defecto");
             crearEnemigosPorDefecto();
-        }
 
-        // CORREGIR POSICIÓN DE TODOS LOS ENEMIGOS
-        corregirPosicionesEnemigos();
+            // CORREGIR POSICIÓN DE TODOS LOS ENEMIGOS
+            corregirPosicionesEnemigos();
+        }
 
         // ====================== CREAR INDICADOR DE NIVEL ======================
         crearIndicadorNivelDesdeMapa();
@@ -290,6 +367,26 @@ public class MainScreen extends PantallaInicio {
         }
     }
 
+    /**
+     * Carga el fondo de respaldo y las texturas del HUD.
+     */
+    private void cargarTexturasHUD() {
+        // ====================== CARGAR RECURSOS DE RESPALDO ======================
+        fondo = new Texture("fondo.jpg");
+
+        // ====================== CARGAR RECURSOS HUD ======================
+        try {
+            corazonLleno = new Texture(Gdx.files.internal("corazon_lleno.png"));
+            corazonVacio = new Texture(Gdx.files.internal("corazon_vacio.png"));
+            Gdx.app.log("MainScreen", "Texturas HUD cargadas correctamente");
+        } catch (Exception e) {
+            Gdx.app.error("MainScreen", "Error al cargar texturas HUD", e);
+            corazonLleno = crearTexturaRespaldo(true);
+            corazonVacio = crearTexturaRespaldo(false);
+            Gdx.app.log("MainScreen", "Texturas de respaldo creadas");
+        }
+    }
+
     /**
      * Carga el mapa específico basado en la puerta seleccionada.
      */
@@ -299,76 +396,32 @@ public class MainScreen extends PantallaInicio {
         // Debug: mostrar estado actual
         verificarCargaMapa();
 
-        // Inicializar variables
-        String rutaMapaFinal = null;
-        boolean usarRutaDirecta = false;
-
-        // ========== OPCIÓN 1: Verificar mapa específico en GameState ==========
-        String mapaACargar = gameState.getMapaACargar();
-
-        if (mapaACargar != null && !mapaACargar.isEmpty()) {
-            Gdx.app.log("MainScreen", "Mapa especificado en GameState: " + mapaACargar);
+        String rutaMapaFinal;
+        boolean usarRutaDirecta;
 
-            // Verificar si el archivo existe
-            if (gameState.existeMapa(mapaACargar)) {
-                rutaMapaFinal = mapaACargar;
-                usarRutaDirecta = true;
-                Gdx.app.log("MainScreen", "✅ Usando mapa especificado en GameState");
-            } else {
-                Gdx.app.error("MainScreen", "❌ Archivo no encontrado: " + mapaACargar);
-            }
-        }
-
-        // ========== OPCIÓN 2: Determinar por ID del nivel ==========
-        if (rutaMapaFinal == null) {
-            String nivelId = gameState.getNivelSeleccionadoId();
-
-            if (nivelId != null && !nivelId.isEmpty()) {
-                Gdx.app.log("MainScreen", "Nivel seleccionado ID: " + nivelId);
-
-                // Obtener ruta del mapa usando el switch case
-                rutaMapaFinal = gameState.obtenerRutaMapaPorNivelId(nivelId);
-
-                // Verificar si existe
-                if (gameState.existeMapa(rutaMapaFinal)) {
-                    Gdx.app.log("MainScreen", "✅ Mapeo por ID exitoso: " + nivelId + " -> " + rutaMapaFinal);
-                } else {
-                    Gdx.app.error("MainScreen", "❌ Mapa mapeado no existe: " + rutaMapaFinal);
-                    rutaMapaFinal = null;
-                }
-            }
-        }
-
-        // ========== OPCIÓN 3: Por nivel actual ==========
-        if (rutaMapaFinal == null) {
-            String nivelActual = gameState.getNivelActual();
-
-            if (nivelActual != null && !nivelActual.isEmpty()) {
-                Gdx.app.log("MainScreen", "Nivel actual: " + nivelActual);
-
-                rutaMapaFinal = gameState.obtenerRutaMapaPorNivelId(nivelActual);
-
-                if (gameState.existeMapa(rutaMapaFinal)) {
-                    Gdx.app.log("MainScreen", "✅ Mapeo por nivel actual exitoso");
-                } else {
-                    Gdx.app.error("MainScreen", "❌ Mapa no existe: " + rutaMapaFinal);
-                    rutaMapaFinal = null;
-                }
+        if (carga != null && carga.getMapaManager() != null) {
+            // ========== MAPA YA CARGADO POR PantallaCarga ==========
+            rutaMapaFinal = carga.getRutaMapa();
+            usarRutaDirecta = carga.isRutaDirecta();
+            mapaManager = carga.getMapaManager();
+            Gdx.app.log("MainScreen", "Mapa tomado de la carga asíncrona: " + rutaMapaFinal);
+        } else {
+            // ========== OPCIONES 1-4: mapa indicado, ID, nivel actual o por defecto ==========
+            rutaMapaFinal = CargaNivel.resolverRutaMapa(gameState);
+            usarRutaDirecta = rutaMapaFinal.equals(gameState.getMapaACargar());
+
+            // ========== CARGAR EL MAPA (O REUTILIZARLO DE LA CACHÉ) ==========
+            mapaManager = CacheNiveles.getInstance().obtener(rutaMapaFinal);
+            if (mapaManager == null) {
+                Gdx.app.log("MainScreen", "Cargando mapa: " + rutaMapaFinal);
+
+                // Crear MapaManager con la ruta final; es dueño de su mapa,
+                // así que la caché lo libera entero al expulsarlo
+                mapaManager = new MapaManager(rutaMapaFinal);
+                CacheNiveles.getInstance().guardar(rutaMapaFinal, mapaManager, null);
             }
         }
 
-        // ========== OPCIÓN 4: Último recurso ==========
-        if (rutaMapaFinal == null) {
-            rutaMapaFinal = "Tiled/nivel_villa.tmx";
-            Gdx.app.log("MainScreen", "⚠️ Usando mapa por defecto");
-        }
-
-        // ========== CARGAR EL MAPA ==========
-        Gdx.app.log("MainScreen", "Cargando mapa: " + rutaMapaFinal);
-
-        // Crear MapaManager con la ruta final
-        mapaManager = new MapaManager(rutaMapaFinal);
-
         // ========== VERIFICAR CARGA ==========
         if (mapaManager.estaCargado()) {
             Gdx.app.log("MainScreen",
@@ -436,7 +489,22 @@ public class MainScreen extends PantallaInicio {
     }
 
     /**
-     * Detección y manejo directo de gamepad.
+     * Lee la entrada del frame (teclado, gamepad del Procesador y gamepad
+     * leído directamente) y la graba o la sustituye si hay una repetición.
+     * Se aplica al jugador en cada paso de simulación.
+     */
+    private void actualizarEntrada(float delta) {
+        procesador.capturar(entrada);
+        manejarGamepadDirecto(delta);
+
+        if (repeticion != null) {
+            repeticion.procesar(entrada);
+        }
+    }
+
+    /**
+     * Detección directa de gamepad. Suma a la entrada del frame el eje y el
+     * botón que lea del primer mando.
      */
     private void manejarGamepadDirecto(float delta) {
         if (com.badlogic.gdx.controllers.Controllers.getControllers().size == 0) {
@@ -465,12 +533,9 @@ public class MainScreen extends PantallaInicio {
             float ejeX = controller.getAxis(0);  // Eje X del joystick izquierdo
             float ejeY = controller.getAxis(1);  // Eje Y del joystick izquierdo
 
-            // Aplicar zona muerta
-            if (Math.abs(ejeX) > 0.2f || Math.abs(ejeY) > 0.2f) {
-                // Mover al jugador directamente con el gamepad
-                if (jugador != null && !jugador.estaDefendiendo()) {
-                    jugador.mover(delta, ejeX, 0);
-                }
+            // Aplicar zona muerta; el eje del Procesador tiene prioridad
+            if ((Math.abs(ejeX) > 0.2f || Math.abs(ejeY) > 0.2f) && entrada.getEjeX() == 0) {
+                entrada.setEjeX(ejeX);
             }
 
             // Detectar botones presionados
@@ -490,34 +555,26 @@ public class MainScreen extends PantallaInicio {
      * Maneja los botones del gamepad.
      */
     private void manejarBotonGamepad(int buttonCode) {
-        if (jugador == null) return;
-
         switch (buttonCode) {
             case 0: // Botón A (XBOX: A, PS: X) - Saltar
-                if (!jugador.estaAtacando()) {
-                    jugador.saltar();
-                }
+                entrada.pulsar(EntradaJugador.SALTAR);
                 break;
 
             case 1: // Botón B (XBOX: B, PS: Círculo) - Atacar
-                if (!jugador.estaAtacando()) {
-                    jugador.atacar();
-                }
+                entrada.pulsar(EntradaJugador.ATACAR);
                 break;
 
             case 2: // Botón X (XBOX: X, PS: Cuadrado) - Ataque especial
-                if (!jugador.estaAtacando()) {
-                    jugador.atacarEspecial();
-                }
+                entrada.pulsar(EntradaJugador.ESPECIAL);
                 break;
 
             case 3: // Botón Y (XBOX: Y, PS: Triángulo) - Defender
-                jugador.defender(true);
+                entrada.pulsar(EntradaJugador.DEFENDER);
                 break;
 
             case 7: // Botón Start
             case 9: // Botón Start alternativo
-                if (!pausado) {
+                if (!pausado && puedePausar()) {
                     mostrarPausa();
                 }
                 break;
@@ -525,23 +582,17 @@ public class MainScreen extends PantallaInicio {
     }
 
     /**
-     * Maneja la liberación de botones del gamepad.
+     * La pausa no se graba y reinicia el paso fijo: mientras se graba o se
+     * reproduce una repetición, pausar haría que la simulación no fuese la
+     * misma al reproducirla, así que la entrada de pausa se ignora.
      */
-    private void manejarSueltaBotonGamepad() {
-        if (jugador == null) return;
-
-        try {
-            if (com.badlogic.gdx.controllers.Controllers.getControllers().size > 0) {
-                com.badlogic.gdx.controllers.Controller controller =
-                    com.badlogic.gdx.controllers.Controllers.getControllers().first();
+    private boolean puedePausar() {
+        return repeticion == null || !repeticion.estaActiva();
+    }
 
-                // Solo manejar botón Y (defender) que necesita saber cuando se suelta
-                if (!controller.getButton(3)) { // Botón Y
-                    jugador.defender(false);
-                }
-            }
-        } catch (Exception e) {
-            // Ignorar errores
+    private void terminarRepeticion() {
+        if (repeticion != null) {
+            repeticion.terminar();
         }
     }
 
@@ -549,19 +600,140 @@ public class MainScreen extends PantallaInicio {
      * Crea enemigos por defecto cuando no hay en el mapa
      */
     private void crearEnemigosPorDefecto() {
-        // Enemigos de ejemplo (posición hardcodeada)
+        // Enemigos de ejemplo (posición hardcodeada); sus valores salen del catálogo
+        CatalogoEnemigos catalogo = CatalogoEnemigos.getInstance();
+
         Esqueleto esqueleto = new Esqueleto(300, 100);
+        esqueleto.aplicarArquetipo(catalogo.getPorId("esqueleto"));
         configurarEnemigo(esqueleto);
 
         Bandido bandidoPesado = new Bandido(500, 100, true);
+        bandidoPesado.aplicarArquetipo(catalogo.getPorId("bandido_pesado"));
         configurarEnemigo(bandidoPesado);
 
         Arquero arquero = new Arquero(900, 200);
+        arquero.aplicarArquetipo(catalogo.getPorId("arquero"));
         configurarEnemigo(arquero);
 
         Gdx.app.log("MainScreen", "Enemigos por defecto creados: " + enemigos.size);
     }
 
+    // ====================== CREACIÓN DE ENEMIGOS POR SEGMENTOS ======================
+
+    /**
+     * Divide el nivel en segmentos y crea los enemigos de los que rodean al jugador.
+     */
+    private void iniciarSegmentos() {
+        segmentos = mapaManager.crearSegmentos();
+        segmentos.setOyente(new SegmentosNivel.Oyente() {
+            @Override
+            public void crearSegmento(int segmento, IntArray spawns) {
+                crearEnemigosSegmento(spawns);
+            }
+
+            @Override
+            public boolean liberarSegmento(int segmento) {
+                return liberarEnemigosSegmento(segmento);
+            }
+        });
+
+        float centroX = jugador.getX() + jugador.getWidth() / 2;
+        float mitadVista = viewport.getWorldWidth() / 2;
+        segmentos.actualizar(centroX - mitadVista, centroX + mitadVista, 0);
+    }
+
+    /**
+     * Activa o libera segmentos según la posición de la cámara.
+     */
+    private void actualizarSegmentos(float delta) {
+        if (segmentos == null) return;
+
+        float mitadVista = viewport.getWorldWidth() * camara.zoom / 2;
+        segmentos.actualizar(camara.position.x - mitadVista, camara.position.x + mitadVista, delta);
+    }
+
+    /**
+     * Asigna a cada enemigo su nivel de actividad según su distancia a la vista.
+     */
+    private void actualizarActividadEnemigos() {
+        float anchoVista = viewport.getWorldWidth() * camara.zoom;
+        float altoVista = viewport.getWorldHeight() * camara.zoom;
+        vistaCamara.set(camara.position.x - anchoVista / 2, camara.position.y - altoVista / 2,
+            anchoVista, altoVista);
+        actividadEnemigos.actualizar(enemigos, vistaCamara);
+    }
+
+    /**
+     * Umbrales de actividad y número de enemigos en cada nivel.
+     */
+    public ActividadEnemigos getActividadEnemigos() {
+        return actividadEnemigos;
+    }
+
+    /**
+     * Fase amplia del combate, con los pares comprobados en el frame.
+     */
+    public Combate getCombate() {
+        return combate;
+    }
+
+    public SistemaProyectiles getSistemaProyectiles() {
+        return sistemaProyectiles;
+    }
+
+    private void crearEnemigosSegmento(IntArray spawns) {
+        for (int k = 0; k < spawns.size; k++) {
+            int spawn = spawns.get(k);
+            Enemigos enemigo = fabrica.crearEnemigo(segmentos.getSpawn(spawn));
+            if (enemigo != null) {
+                configurarEnemigo(enemigo);
+                spawnDeEnemigo.put(enemigo, spawn);
+            }
+        }
+    }
+
+    /**
+     * Quita del stage y libera los enemigos de un segmento. No lo hace si
+     * alguno de ellos, vivo, sigue dentro de la vista (por ejemplo, porque
+     * ha perseguido al jugador hasta otro segmento).
+     */
+    private boolean liberarEnemigosSegmento(int segmento) {
+        float mitadVista = viewport.getWorldWidth() * camara.zoom / 2;
+        float vistaX0 = camara.position.x - mitadVista;
+        float vistaX1 = camara.position.x + mitadVista;
+
+        for (Enemigos enemigo : enemigos) {
+            int spawn = spawnDeEnemigo.get(enemigo, -1);
+            if (spawn < 0 || segmentos.getSegmentoDeSpawn(spawn) != segmento || !enemigo.estaVivo()) continue;
+            if (enemigo.getX() + enemigo.getWidth() >= vistaX0 && enemigo.getX() <= vistaX1) {
+                return false;
+            }
+        }
+
+        for (int i = enemigos.size - 1; i >= 0; i--) {
+            Enemigos enemigo = enemigos.get(i);
+            int spawn = spawnDeEnemigo.get(enemigo, -1);
+            if (spawn < 0 || segmentos.getSegmentoDeSpawn(spawn) != segmento) continue;
+
+            olvidarEnemigo(enemigo);
+            enemigo.remove();
+            fabrica.liberar(enemigo);
+            enemigos.removeIndex(i);
+        }
+        return true;
+    }
+
+    /**
+     * Deja de seguir un enemigo creado por segmentos; si ha muerto, su spawn
+     * queda marcado para no volver a crearlo.
+     */
+    private void olvidarEnemigo(Enemigos enemigo) {
+        int spawn = spawnDeEnemigo.remove(enemigo, -1);
+        if (spawn >= 0 && !enemigo.estaVivo()) {
+            segmentos.marcarEliminado(spawn);
+        }
+    }
+
     /**
      * Crea una textura de respaldo para corazones.
      */
@@ -592,6 +764,7 @@ public class MainScreen extends PantallaInicio {
     private void configurarEnemigo(Enemigos enemigo) {
         enemigo.setMapaManager(mapaManager);
         enemigo.setObjetivo(jugador);
+        enemigo.setSistemaProyectiles(sistemaProyectiles);
 
         // PASAR STAGE A ENEMIGOS CON PROYECTILES
         if (enemigo instanceof Arquero) {
@@ -607,8 +780,9 @@ public class MainScreen extends PantallaInicio {
         // Posición
         corregirPosicionEnemigo(enemigo);
 
-        // Añadir al stage
+        // Añadir al stage (los proyectiles se siguen dibujando por encima)
         stage.addActor(enemigo);
+        sistemaProyectiles.toFront();
         enemigos.add(enemigo);
     }
 
@@ -618,9 +792,6 @@ public class MainScreen extends PantallaInicio {
     private void corregirPosicionEnemigo(Enemigos enemigo) {
         if (mapaManager == null || !enemigo.aplicarGravedad) return;
 
-        float xOriginal = enemigo.getX();
-        float yOriginal = enemigo.getY();
-
         String nombreClase = enemigo.getClass().getSimpleName();
 
         // Diferentes ajustes según el tipo de enemigo
@@ -631,29 +802,15 @@ public class MainScreen extends PantallaInicio {
             maxBajar = 300;
         }
 
-        // Bajar hasta encontrar suelo
-        boolean encontroSuelo = false;
-        for (int i = 0; i < maxBajar; i++) {
-            enemigo.setY(enemigo.getY() - 1);
-            if (mapaManager.hayColision(enemigo.getHitbox())) {
-                enemigo.setY(enemigo.getY() + 1); // Subir un píxel para no estar dentro del suelo
-                enemigo.enSuelo = true;
-                enemigo.velocidadY = 0;
-                encontroSuelo = true;
-                break;
-            }
-        }
+        // Bajar hasta encontrar suelo (un solo barrido)
+        boolean encontroSuelo = enemigo.asentarEnSuelo(maxBajar);
 
         // Si no encontró suelo después de bajar
         if (!encontroSuelo) {
-            enemigo.setY(yOriginal); // Volver a la posición original
-
             // Intentar subir para evitar colisión inicial
-            for (int i = 0; i < 100; i++) {
-                enemigo.setY(enemigo.getY() + 1);
-                if (!mapaManager.hayColision(enemigo.getHitbox())) {
-                    break;
-                }
+            float subida = mapaManager.calcularSubidaParaLiberar(enemigo.getHitbox(), 100);
+            if (subida > 0) {
+                enemigo.setY(enemigo.getY() + subida);
             }
         }
     }
@@ -711,6 +868,9 @@ public class MainScreen extends PantallaInicio {
 
     @Override
     public void render(float delta) {
+        // Contar los Rectangle/Vector2 creados en este frame (depuración)
+        ContadorAsignaciones.comenzarFrame();
+
         // Actualizar tiempo del juego
         tiempoTranscurrido += delta;
         if (gameState != null) {
@@ -726,7 +886,7 @@ public class MainScreen extends PantallaInicio {
         }
 
         // Verificar si se presionó ESC para pausa
-        if (Gdx.input.isKeyJustPressed(Keys.ESCAPE)) {
+        if (Gdx.input.isKeyJustPressed(Keys.ESCAPE) && puedePausar()) {
             mostrarPausa();
             return;
         }
@@ -736,27 +896,78 @@ public class MainScreen extends PantallaInicio {
             return;
         }
 
-        // ========== DETECCIÓN DIRECTA DE GAMEPAD ==========
-        manejarGamepadDirecto(delta);
-        manejarSueltaBotonGamepad();
-
-        // ========== LÓGICA PRINCIPAL DEL JUEGO ==========
+        // En una repetición se simula con el delta grabado, no con el del frame
+        if (repeticion != null) {
+            delta = repeticion.comenzarTick(delta);
+        }
 
         // Limpiar pantalla
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.1f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        // ========== ENTRADA DEL JUGADOR ==========
+        actualizarEntrada(delta);
+
+        // ========== LÓGICA PRINCIPAL DEL JUEGO ==========
+
+        // Crear o liberar los enemigos de los segmentos cercanos
+        actualizarSegmentos(delta);
+
+        // Decidir cuánto se simula cada enemigo este frame
+        actualizarActividadEnemigos();
+
+        // Los contadores de pares suman todos los pasos del frame
+        combate.comenzarFrame();
+        sistemaProyectiles.comenzarFrame();
+
+        // Simular en pasos fijos el tiempo acumulado
+        pasoFijo.acumular(delta);
+        while (pasoFijo.siguientePaso()) {
+            simularPaso(pasoFijo.getPaso());
+            if (game.getScreen() != this) {
+                // Reinicio o cambio de nivel: el resto del frame ya no es de este nivel
+                break;
+            }
+        }
+
+        // Dibujar entre los dos últimos pasos
+        float alfa = pasoFijo.getAlfa();
+        interpolacion.aplicar(alfa);
+        sistemaProyectiles.setRetrasoDibujo((1f - alfa) * pasoFijo.getPaso());
+
         // Actualizar cámara para seguir al jugador
         actualizarCamara();
 
         // Renderizar mapa o fondo de respaldo
         renderizarFondo();
 
-        // Actualizar procesador de input (solo para teclado)
-        procesador.actualizar(delta);
+        // Dibujar stage (jugador, enemigos e indicador)
+        stage.draw();
+        interpolacion.restaurar();
+
+        // Dibujar HUD
+        dibujarHUD();
+
+        // Dibujar mensaje del indicador si es necesario
+        if (mostrandoMensajeIndicador) {
+            dibujarMensajeIndicador();
+        }
+
+        ContadorAsignaciones.terminarFrame();
+    }
+
+    /**
+     * Un paso de simulación de duración fija. La posición de los actores se
+     * guarda antes para poder interpolar al dibujar.
+     */
+    private void simularPaso(float paso) {
+        interpolacion.guardar();
+
+        // Mover al jugador con la entrada del frame y el paso fijo
+        procesador.aplicar(entrada, paso);
 
         // Actualizar lógica del juego
-        actualizarLogicaJuego(delta);
+        actualizarLogicaJuego(paso);
 
         // Verificar combate
         verificarCombate();
@@ -767,17 +978,12 @@ public class MainScreen extends PantallaInicio {
         // Verificar condiciones de victoria/derrota
         verificarEstadoJuego();
 
-        // Actualizar y dibujar stage (jugador, enemigos e indicador)
-        stage.act(delta);
-        stage.draw();
-
-        // Dibujar HUD
-        dibujarHUD();
+        // Actualizar stage (jugador, enemigos, proyectiles e indicador)
+        stage.act(paso);
+    }
 
-        // Dibujar mensaje del indicador si es necesario
-        if (mostrandoMensajeIndicador) {
-            dibujarMensajeIndicador();
-        }
+    public PasoFijo getPasoFijo() {
+        return pasoFijo;
     }
 
     /**
@@ -785,24 +991,29 @@ public class MainScreen extends PantallaInicio {
      */
     private void actualizarCamara() {
         if (jugador != null) {
-            float targetX = jugador.getX() + jugador.getWidth() / 2;
-            float targetY = jugador.getY() + jugador.getHeight() / 2;
-
-            float anchoMapa = mapaManager.getAnchoMapa();
-            float altoMapa = mapaManager.getAltoMapa();
-            float anchoViewport = viewport.getWorldWidth();
-            float altoViewport = viewport.getWorldHeight();
-
-            targetX = Math.max(targetX, anchoViewport / 2);
-            targetX = Math.min(targetX, anchoMapa - anchoViewport / 2);
-            targetY = Math.max(targetY, altoViewport / 2);
-            targetY = Math.min(targetY, altoMapa - altoViewport / 2);
-
-            camara.position.set(targetX, targetY, 0);
+            centrarCamara(jugador.getX() + jugador.getWidth() / 2,
+                jugador.getY() + jugador.getHeight() / 2);
         }
         camara.update();
     }
 
+    /**
+     * Centra la cámara en un punto sin salirse del mapa.
+     */
+    private void centrarCamara(float targetX, float targetY) {
+        float anchoMapa = mapaManager.getAnchoMapa();
+        float altoMapa = mapaManager.getAltoMapa();
+        float anchoViewport = viewport.getWorldWidth();
+        float altoViewport = viewport.getWorldHeight();
+
+        targetX = Math.max(targetX, anchoViewport / 2);
+        targetX = Math.min(targetX, anchoMapa - anchoViewport / 2);
+        targetY = Math.max(targetY, altoViewport / 2);
+        targetY = Math.min(targetY, altoMapa - altoViewport / 2);
+
+        camara.position.set(targetX, targetY, 0);
+    }
+
     /**
      * Renderiza el fondo (mapa o textura de respaldo)
      */
@@ -829,12 +1040,16 @@ public class MainScreen extends PantallaInicio {
      * Verifica combate entre jugador y enemigos
      */
     private void verificarCombate() {
+        // Indexar a los enemigos vivos para mirar solo los cercanos
+        combate.actualizar(enemigos);
+
         // 1. Ataques del jugador hacia enemigos
         if (jugador.estaAtacando()) {
-            Rectangle areaAtaque = jugador.getAreaAtaque();
+            combate.buscarGolpeados(jugador.getAreaAtaque(), enemigosCercanos);
 
-            for (Enemigos enemigo : enemigos) {
-                if (enemigo.estaVivo() && areaAtaque.overlaps(enemigo.getHitbox())) {
+            for (int i = 0; i < enemigosCercanos.size; i++) {
+                Enemigos enemigo = enemigosCercanos.get(i);
+                if (enemigo.estaVivo()) {
                     enemigo.recibirDano();
                     Gdx.app.log("Combate", "¡Golpe a " +
                         enemigo.getClass().getSimpleName() + "!");
@@ -856,16 +1071,18 @@ public class MainScreen extends PantallaInicio {
         // 2. Daño por contacto con enemigos
         verificarDañoPorContacto();
 
-        // 3. Los proyectiles ya manejan su propia colisión con el jugador
+        // 3. Los proyectiles ya manejan su propia colisión con el jugador (SistemaProyectiles)
     }
 
     /**
      * Verifica daño por contacto con enemigos
      */
     private void verificarDañoPorContacto() {
-        for (Enemigos enemigo : enemigos) {
-            if (enemigo.estaVivo() && !enemigo.estaAtacando() &&
-                jugador.getHitbox().overlaps(enemigo.getHitbox())) {
+        combate.buscarEnContacto(jugador.getHitbox(), enemigosCercanos);
+
+        for (int i = 0; i < enemigosCercanos.size; i++) {
+            Enemigos enemigo = enemigosCercanos.get(i);
+            if (enemigo.estaVivo() && !enemigo.estaAtacando()) {
                 jugador.recibirDano();
                 break;
             }
@@ -879,7 +1096,9 @@ public class MainScreen extends PantallaInicio {
         for (int i = enemigos.size - 1; i >= 0; i--) {
             Enemigos enemigo = enemigos.get(i);
             if (!enemigo.estaVivo() && enemigo.getStage() == null) {
+                olvidarEnemigo(enemigo);
                 enemigos.removeIndex(i);
+                fabrica.liberar(enemigo);
             }
         }
     }
@@ -987,6 +1206,8 @@ public class MainScreen extends PantallaInicio {
     public void reanudarDesdePausa() {
         Gdx.app.log("MainScreen", "Reanudando desde pausa");
         pausado = false;
+        // No recuperar de golpe el tiempo que ha estado en pausa
+        pasoFijo.reiniciar();
 
         if (procesadorGuardado != null) {
             procesador = procesadorGuardado;
@@ -1014,8 +1235,12 @@ public class MainScreen extends PantallaInicio {
         gameState.setReiniciandoNivel(true);
 
         // NO limpiar la selección de mapa - mantener el mismo nivel
-        // Solo crear nuevo MainScreen
-        game.setScreen(new MainScreen(game));
+        // La nueva carga reutiliza el mapa y la música, que siguen en memoria
+        PantallaCarga recarga = new PantallaCarga(game);
+        if (carga != null) {
+            carga.liberar();
+        }
+        game.setScreen(recarga);
     }
 
     /**
@@ -1233,84 +1458,34 @@ public class MainScreen extends PantallaInicio {
         try {
             // Primero, asegurarse de que no haya música previa
             if (musicaNivel != null) {
-                musicaNivel.dispose();
+                if (!musicaCompartida) musicaNivel.dispose();
                 musicaNivel = null;
             }
 
-            // Obtener el ID del nivel actual
-            String nivelId = gameState.getNivelActual();
-            if (nivelId == null || nivelId.isEmpty()) {
-                nivelId = gameState.getNivelSeleccionadoId();
-            }
-
-            // Determinar qué música cargar según el nivel
-            String rutaMusica = "Musica/nivel_generico.mp3"; // Ruta por defecto
-
-            if (nivelId != null) {
-                switch (nivelId) {
-                    case "nivel_1":
-                    case "nivel_villa":
-                    case "La Villa":
-                        rutaMusica = "Musica/Villa.mp3";
-                        break;
-                    case "nivel_2":
-                    case "jb-32.tmx":
-                    case "Las Columnas":
-                        rutaMusica = "Musica/Columnas.mp3";
-                        break;
-
-                    case "nivel_3":
-                    case "mylevel1":
-                    case "Las Cavernas":
-                        rutaMusica = "Musica/Caverna.mp3";
-                        break;
-                    case "nivel_4":
-                    case "level25":
-                    case "La Luna":
-                        rutaMusica = "Musica/Luna.mp3";
-                        break;
-                    case "nivel_5":
-                    case "magicland":
-                    case "El Cartillo":
-                        rutaMusica = "Musica/Castillo.mp3";
-                        break;
-                    default:
-                        rutaMusica = "musica/nivel_generico.mp3";
-                        break;
-                }
-            }
-
-            Gdx.app.log("MainScreen", "Intentando cargar música: " + rutaMusica);
-
-            // Verificar si el archivo existe
-            if (Gdx.files.internal(rutaMusica).exists()) {
-                musicaNivel = Gdx.audio.newMusic(Gdx.files.internal(rutaMusica));
-                musicaNivel.setLooping(true);
-                musicaNivel.setVolume(0.5f);
-                musicaNivel.play();
-                musicaCargada = true;
-                Gdx.app.log("MainScreen", "✅ Música cargada: " + rutaMusica);
+            // Música ya cargada por PantallaCarga
+            Music precargada = carga != null ? carga.getMusica() : null;
+            if (precargada != null) {
+                musicaNivel = precargada;
+                musicaCompartida = true;
             } else {
-                Gdx.app.error("MainScreen", "❌ Archivo de música no encontrado: " + rutaMusica);
-
-                // Intentar con música genérica como respaldo
-                try {
-                    rutaMusica = "musica/nivel_generico.mp3";
-                    if (Gdx.files.internal(rutaMusica).exists()) {
-                        musicaNivel = Gdx.audio.newMusic(Gdx.files.internal(rutaMusica));
-                        musicaNivel.setLooping(true);
-                        musicaNivel.setVolume(0.5f);
-                        musicaNivel.play();
-                        musicaCargada = true;
-                        Gdx.app.log("MainScreen", "✅ Música genérica cargada como respaldo");
-                    }
-                } catch (Exception e2) {
-                    Gdx.app.error("MainScreen", "Error cargando música de respaldo", e2);
+                String rutaMusica = CargaNivel.resolverRutaMusica(gameState);
+                if (rutaMusica == null) {
+                    Gdx.app.error("MainScreen", "❌ No hay música disponible para este nivel");
                     musicaNivel = null;
                     musicaCargada = false;
+                    return;
                 }
+                Gdx.app.log("MainScreen", "Intentando cargar música: " + rutaMusica);
+                musicaNivel = Gdx.audio.newMusic(Gdx.files.internal(rutaMusica));
+                musicaCompartida = false;
             }
 
+            musicaNivel.setLooping(true);
+            musicaNivel.setVolume(0.5f);
+            musicaNivel.play();
+            musicaCargada = true;
+            Gdx.app.log("MainScreen", "✅ Música del nivel en reproducción");
+
         } catch (Exception e) {
             Gdx.app.error("MainScreen", "Error cargando música del nivel", e);
             musicaNivel = null;
@@ -1326,7 +1501,7 @@ public class MainScreen extends PantallaInicio {
 
         if (musicaNivel != null) {
             musicaNivel.stop();
-            musicaNivel.dispose();
+            if (!musicaCompartida) musicaNivel.dispose();
             musicaNivel = null;
             musicaCargada = false;
             Gdx.app.log("MainScreen", "Música del nivel detenida correctamente");
@@ -1389,6 +1564,9 @@ public class MainScreen extends PantallaInicio {
         for (Enemigos enemigo : enemigos) {
             if (enemigo.estaVivo()) enemigosVivos++;
         }
+        if (segmentos != null) {
+            enemigosVivos += segmentos.getEnemigosPendientes();
+        }
         font.draw(batch, "ALIVE: " + enemigosVivos,
             textoX, textoY - 50);
 
@@ -1436,10 +1614,21 @@ public class MainScreen extends PantallaInicio {
         }
     }
 
+    @Override
+    public void hide() {
+        // Al menú de pausa se va con pausado a true; cualquier otra salida deja el nivel
+        if (pausado) {
+            return;
+        }
+        terminarRepeticion();
+    }
+
     @Override
     public void dispose() {
         Gdx.app.log("MainScreen", "Liberando recursos del juego...");
 
+        terminarRepeticion();
+
         if (jugador != null) {
             jugador.dispose();
         }
@@ -1451,11 +1640,14 @@ public class MainScreen extends PantallaInicio {
             }
             enemigos.clear();
         }
+        if (fabrica != null) {
+            fabrica.dispose();
+        }
 
         // **LIBERAR MÚSICA**
         if (musicaNivel != null) {
             musicaNivel.stop();
-            musicaNivel.dispose();
+            if (!musicaCompartida) musicaNivel.dispose();
             Gdx.app.log("MainScreen", "Música liberada");
         }
 
@@ -1463,15 +1655,23 @@ public class MainScreen extends PantallaInicio {
             indicadorNivel.dispose();
         }
 
-        if (fondo != null) fondo.dispose();
-        if (corazonLleno != null) corazonLleno.dispose();
-        if (corazonVacio != null) corazonVacio.dispose();
-        if (font != null) font.dispose();
+        if (!texturasCompartidas) {
+            if (fondo != null) fondo.dispose();
+            if (corazonLleno != null) corazonLleno.dispose();
+            if (corazonVacio != null) corazonVacio.dispose();
+        }
+        if (font != null && !fuenteCompartida) font.dispose();
 
         if (stage != null) stage.dispose();
-        if (mapaManager != null) mapaManager.dispose();
+        // Los niveles guardados en la caché se liberan al expulsarlos
+        CacheNiveles.getInstance().liberar(mapaManager);
         if (batch != null) batch.dispose();
 
+        // Devolver mapa y música al gestor de recursos
+        if (carga != null) {
+            carga.liberar();
+        }
+
         Gdx.app.log("MainScreen", "Todos los recursos liberados correctamente");
     }
 
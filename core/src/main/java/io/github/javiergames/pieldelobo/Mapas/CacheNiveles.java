@@ -0,0 +1,214 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU de niveles ya preparados, indexada por la ruta del mapa (.tmx).
+ *
+ * Cada entrada guarda el {@link MapaManager} completo (mapa, renderer,
+ * colisiones, rejilla, mapa de bits e índice de objetos), de modo que al
+ * reiniciar un nivel o volver a entrar desde el lobby no hay que leer ni
+ * procesar nada. Tiene un límite de entradas y otro de memoria estimada;
+ * al superarlos se expulsa el nivel usado hace más tiempo y se liberan sus
+ * recursos.
+ *
+ * Un {@link MapaManager} guardado aquí pertenece a la caché: quien lo usa no
+ * debe llamar a {@link MapaManager#dispose()} (ver {@link #liberar(MapaManager)}).
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class CacheNiveles {
+
+    // ====================== CONFIGURACIÓN POR DEFECTO ======================
+    private static final int MAX_ENTRADAS_POR_DEFECTO = 3;
+    private static final long MAX_BYTES_POR_DEFECTO = 192L * 1024 * 1024;
+
+    // ====================== INSTANCIA SINGLETON ======================
+    private static CacheNiveles instance;
+
+    /** Nivel guardado junto con lo necesario para liberarlo */
+    private static class Entrada {
+        final MapaManager mapaManager;
+        final Disposable liberarMapa;
+        final long bytes;
+
+        Entrada(MapaManager mapaManager, Disposable liberarMapa, long bytes) {
+            this.mapaManager = mapaManager;
+            this.liberarMapa = liberarMapa;
+            this.bytes = bytes;
+        }
+    }
+
+    // Orden de acceso: el primero es el usado hace más tiempo
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(8, 0.75f, true);
+
+    private int maxEntradas = MAX_ENTRADAS_POR_DEFECTO;
+    private long maxBytes = MAX_BYTES_POR_DEFECTO;
+    private long bytesEnUso = 0;
+
+    // Estadísticas
+    private int aciertos = 0;
+    private int fallos = 0;
+
+    // ====================== CONSTRUCTOR PRIVADO ======================
+    private CacheNiveles() {
+    }
+
+    /**
+     * Obtiene la instancia única de CacheNiveles
+     */
+    public static CacheNiveles getInstance() {
+        if (instance == null) {
+            instance = new CacheNiveles();
+        }
+        return instance;
+    }
+
+    // ====================== CONSULTA ======================
+
+    /**
+     * Devuelve el nivel guardado para un mapa y lo marca como usado.
+     *
+     * @param rutaMapa Ruta del .tmx
+     * @return El MapaManager listo para usar, o null si no está en la caché
+     */
+    public MapaManager obtener(String rutaMapa) {
+        Entrada entrada = entradas.get(rutaMapa);
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        Gdx.app.log("CacheNiveles", "Nivel reutilizado desde la caché: " + rutaMapa);
+        return entrada.mapaManager;
+    }
+
+    public boolean contiene(String rutaMapa) {
+        return entradas.containsKey(rutaMapa);
+    }
+
+    /**
+     * Indica si un MapaManager pertenece a la caché.
+     */
+    public boolean contiene(MapaManager mapaManager) {
+        for (Entrada entrada : entradas.values()) {
+            if (entrada.mapaManager == mapaManager) return true;
+        }
+        return false;
+    }
+
+    // ====================== ALTA Y BAJA ======================
+
+    /**
+     * Guarda un nivel recién preparado. A partir de aquí la caché es la
+     * dueña del MapaManager y del mapa.
+     *
+     * @param rutaMapa Ruta del .tmx
+     * @param mapaManager Nivel cargado correctamente
+     * @param liberarMapa Libera el TiledMap al expulsar el nivel si el
+     *                    MapaManager no es su dueño (por ejemplo, devolverlo
+     *                    al AssetManager); null si lo libera el propio MapaManager
+     * @return true si se guardó; si es false el nivel sigue siendo de quien lo cargó
+     */
+    public boolean guardar(String rutaMapa, MapaManager mapaManager, Disposable liberarMapa) {
+        if (maxEntradas == 0 || mapaManager == null || !mapaManager.estaCargado()) return false;
+
+        Entrada anterior = entradas.remove(rutaMapa);
+        if (anterior != null && anterior.mapaManager != mapaManager) {
+            liberarEntrada(rutaMapa, anterior);
+        } else if (anterior != null) {
+            bytesEnUso -= anterior.bytes;
+        }
+
+        Entrada entrada = new Entrada(mapaManager, liberarMapa, mapaManager.estimarMemoria());
+        entradas.put(rutaMapa, entrada);
+        bytesEnUso += entrada.bytes;
+
+        Gdx.app.log("CacheNiveles", "Nivel guardado: " + rutaMapa + " (" + (entrada.bytes / 1024) +
+            " KB, total " + (bytesEnUso / 1024) + " KB en " + entradas.size() + " niveles)");
+
+        expulsarSobrantes();
+        return true;
+    }
+
+    /**
+     * Libera un MapaManager que ya no se usa, salvo que lo guarde la caché.
+     */
+    public void liberar(MapaManager mapaManager) {
+        if (mapaManager != null && !contiene(mapaManager)) {
+            mapaManager.dispose();
+        }
+    }
+
+    /**
+     * Cambia los límites de la caché y expulsa lo que sobre.
+     *
+     * @param maxEntradas Número máximo de niveles guardados (0 desactiva la caché)
+     * @param maxBytes Memoria estimada máxima
+     */
+    public void configurar(int maxEntradas, long maxBytes) {
+        this.maxEntradas = Math.max(0, maxEntradas);
+        this.maxBytes = Math.max(0, maxBytes);
+        expulsarSobrantes();
+    }
+
+    /**
+     * Expulsa por orden de uso hasta cumplir los límites. El nivel más
+     * reciente nunca se expulsa aquí, porque normalmente es el que se está
+     * jugando (aunque supere por sí solo el límite de memoria).
+     */
+    private void expulsarSobrantes() {
+        Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+        while (it.hasNext() && entradas.size() > 1 &&
+            (entradas.size() > maxEntradas || bytesEnUso > maxBytes)) {
+            Map.Entry<String, Entrada> masAntigua = it.next();
+            it.remove();
+            liberarEntrada(masAntigua.getKey(), masAntigua.getValue());
+        }
+    }
+
+    private void liberarEntrada(String rutaMapa, Entrada entrada) {
+        bytesEnUso -= entrada.bytes;
+        entrada.mapaManager.dispose();
+        if (entrada.liberarMapa != null) {
+            entrada.liberarMapa.dispose();
+        }
+        Gdx.app.log("CacheNiveles", "Nivel expulsado de la caché: " + rutaMapa);
+    }
+
+    /** Libera todos los niveles guardados. */
+    public void vaciar() {
+        for (Map.Entry<String, Entrada> entrada : entradas.entrySet()) {
+            liberarEntrada(entrada.getKey(), entrada.getValue());
+        }
+        entradas.clear();
+        bytesEnUso = 0;
+    }
+
+    /**
+     * Vacía la caché. Se llama al cerrar el juego, antes de liberar el AssetManager.
+     */
+    public static void disposeInstancia() {
+        if (instance != null) {
+            instance.vaciar();
+            Gdx.app.log("CacheNiveles", "Caché de niveles liberada (aciertos: " + instance.aciertos +
+                ", fallos: " + instance.fallos + ")");
+            instance = null;
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getNumeroEntradas() { return entradas.size(); }
+    public long getBytesEnUso() { return bytesEnUso; }
+    public int getMaxEntradas() { return maxEntradas; }
+    public long getMaxBytes() { return maxBytes; }
+    public int getAciertos() { return aciertos; }
+    public int getFallos() { return fallos; }
+}
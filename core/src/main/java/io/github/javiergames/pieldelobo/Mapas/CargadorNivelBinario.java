@@ -0,0 +1,514 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.BaseTiledMapLoader;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Carga los niveles precompilados (.nivel) que genera el {@code CompiladorNiveles}
+ * del módulo tools.
+ * El fichero ya trae las capas de tiles empaquetadas, los objetos con la Y
+ * invertida, las referencias a las imágenes de los tilesets y los rectángulos
+ * de colisión, de modo que no hay que analizar XML ni abrir los .tsx.
+ *
+ * Funciona igual que {@code TmxMapLoader}: de forma síncrona con
+ * {@link #load(String)} o a través de un {@link AssetManager}.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class CargadorNivelBinario extends BaseTiledMapLoader<BaseTiledMapLoader.Parameters> {
+    /** Extensión de los niveles compilados */
+    public static final String EXTENSION = ".nivel";
+    /** Clave de las propiedades del mapa con los rectángulos de colisión ya calculados */
+    public static final String PROPIEDAD_COLISIONES = "colisionesCompiladas";
+
+    // ====================== FORMATO ======================
+    static final int MAGICO = 0x504C4E56; // "PLNV"
+    static final int VERSION = 1;
+
+    static final byte CAPA_TILES = 0;
+    static final byte CAPA_OBJETOS = 1;
+    static final byte CAPA_IMAGEN = 2;
+    static final byte CAPA_GRUPO = 3;
+
+    static final byte OBJETO_GENERICO = 0;
+    static final byte OBJETO_RECTANGULO = 1;
+    static final byte OBJETO_ELIPSE = 2;
+    static final byte OBJETO_POLIGONO = 3;
+    static final byte OBJETO_POLILINEA = 4;
+
+    static final byte PROP_TEXTO = 's';
+    static final byte PROP_ENTERO = 'i';
+    static final byte PROP_LARGO = 'l';
+    static final byte PROP_DECIMAL = 'f';
+    static final byte PROP_DOBLE = 'd';
+    static final byte PROP_BOOLEANO = 'b';
+    static final byte PROP_COLOR = 'c';
+    static final byte PROP_CLASE = 'p';
+    static final byte PROP_OBJETO = 'o';
+
+    // Bits de cada celda empaquetada: gid en los 28 bajos, rotación en 28-29, volteos en 30-31
+    static final int BIT_VOLTEO_H = 0x80000000;
+    static final int BIT_VOLTEO_V = 0x40000000;
+    static final int DESPLAZAMIENTO_ROTACION = 28;
+    static final int MASCARA_GID = 0x0FFFFFFF;
+
+    // Rutas de las imágenes leídas en getDependencies / load
+    private Array<String> rutasImagenes;
+
+    public CargadorNivelBinario() {
+        super(new InternalFileHandleResolver());
+    }
+
+    public CargadorNivelBinario(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Devuelve la ruta del nivel compilado correspondiente a un .tmx.
+     */
+    public static String rutaCompilada(String rutaTmx) {
+        int punto = rutaTmx.lastIndexOf('.');
+        return (punto > 0 ? rutaTmx.substring(0, punto) : rutaTmx) + EXTENSION;
+    }
+
+    /**
+     * Carga el nivel de forma síncrona creando sus propias texturas,
+     * que quedan en manos del mapa y se liberan con {@link TiledMap#dispose()}.
+     */
+    public TiledMap load(String fileName) {
+        return load(fileName, new Parameters());
+    }
+
+    public TiledMap load(String fileName, Parameters parameter) {
+        FileHandle fichero = resolve(fileName);
+        rutasImagenes = leerImagenes(fichero);
+
+        ObjectMap<String, Texture> texturas = new ObjectMap<>();
+        for (String ruta : rutasImagenes) {
+            FileHandle imagen = getRelativeFileHandle(fichero, ruta);
+            if (texturas.containsKey(imagen.path())) continue;
+
+            Texture textura = new Texture(imagen, parameter.generateMipMaps);
+            textura.setFilter(parameter.textureMinFilter, parameter.textureMagFilter);
+            texturas.put(imagen.path(), textura);
+        }
+
+        TiledMap mapa = loadTiledMap(fichero, parameter, new ImageResolver.DirectImageResolver(texturas));
+        mapa.setOwnedResources(texturas.values().toArray());
+        return mapa;
+    }
+
+    // ====================== ASSET MANAGER ======================
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        rutasImagenes = leerImagenes(file);
+
+        TextureLoader.TextureParameter parametrosTextura = new TextureLoader.TextureParameter();
+        if (parameter != null) {
+            parametrosTextura.genMipMaps = parameter.generateMipMaps;
+            parametrosTextura.minFilter = parameter.textureMinFilter;
+            parametrosTextura.magFilter = parameter.textureMagFilter;
+        }
+        return getDependencyAssetDescriptors(file, parametrosTextura);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected Array<AssetDescriptor> getDependencyAssetDescriptors(FileHandle mapFile,
+                                                                   TextureLoader.TextureParameter textureParameter) {
+        Array<AssetDescriptor> descriptores = new Array<>();
+        for (String ruta : rutasImagenes) {
+            descriptores.add(new AssetDescriptor<>(getRelativeFileHandle(mapFile, ruta), Texture.class, textureParameter));
+        }
+        return descriptores;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        this.map = loadTiledMap(file, parameter, new ImageResolver.AssetManagerImageResolver(manager));
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        return map;
+    }
+
+    // ====================== LECTURA ======================
+
+    private static DataInputStream abrir(FileHandle fichero) throws IOException {
+        DataInputStream cabecera = new DataInputStream(new BufferedInputStream(fichero.read(), 8192));
+        if (cabecera.readInt() != MAGICO) {
+            StreamUtils.closeQuietly(cabecera);
+            throw new GdxRuntimeException("No es un nivel compilado: " + fichero.path());
+        }
+        int version = cabecera.readUnsignedShort();
+        if (version != VERSION) {
+            StreamUtils.closeQuietly(cabecera);
+            throw new GdxRuntimeException("Versión de nivel no soportada (" + version + "): " + fichero.path());
+        }
+        // El resto del fichero va comprimido
+        return new DataInputStream(new BufferedInputStream(new InflaterInputStream(cabecera), 16384));
+    }
+
+    /** Lee solo la tabla de imágenes del principio del fichero. */
+    private static Array<String> leerImagenes(FileHandle fichero) {
+        DataInputStream in = null;
+        try {
+            in = abrir(fichero);
+            return leerTablaImagenes(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error leyendo nivel compilado " + fichero.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    private static Array<String> leerTablaImagenes(DataInputStream in) throws IOException {
+        int numero = in.readInt();
+        Array<String> rutas = new Array<>(numero);
+        for (int i = 0; i < numero; i++) {
+            rutas.add(in.readUTF());
+        }
+        return rutas;
+    }
+
+    @Override
+    protected TiledMap loadTiledMap(FileHandle mapFile, Parameters parameter, ImageResolver imageResolver) {
+        this.map = new TiledMap();
+        this.idToObject = new IntMap<>();
+        this.runOnEndOfLoadTiled = new Array<>();
+
+        DataInputStream in = null;
+        try {
+            in = abrir(mapFile);
+
+            Array<String> rutas = leerTablaImagenes(in);
+            TextureRegion[] imagenes = new TextureRegion[rutas.size];
+            for (int i = 0; i < rutas.size; i++) {
+                imagenes[i] = imageResolver.getImage(getRelativeFileHandle(mapFile, rutas.get(i)).path());
+            }
+
+            leerPropiedades(in, map.getProperties());
+            mapTileWidth = map.getProperties().get("tilewidth", 0, Integer.class);
+            mapTileHeight = map.getProperties().get("tileheight", 0, Integer.class);
+
+            int numeroTilesets = in.readInt();
+            for (int i = 0; i < numeroTilesets; i++) {
+                leerTileset(in, imagenes);
+            }
+
+            leerCapas(in, map.getLayers(), null, imagenes);
+            leerColisiones(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error leyendo nivel compilado " + mapFile.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+
+        for (Runnable tarea : runOnEndOfLoadTiled) {
+            tarea.run();
+        }
+        runOnEndOfLoadTiled = null;
+
+        return map;
+    }
+
+    private void leerTileset(DataInputStream in, TextureRegion[] imagenes) throws IOException {
+        TiledMapTileSet tileset = new TiledMapTileSet();
+        tileset.setName(leerTextoOpcional(in));
+        leerPropiedades(in, tileset.getProperties());
+
+        // Tiles estáticos: imagen y recorte de cada gid
+        int numeroEstaticos = in.readInt();
+        IntMap<StaticTiledMapTile> estaticos = new IntMap<>(numeroEstaticos);
+        for (int i = 0; i < numeroEstaticos; i++) {
+            int gid = in.readInt();
+            int imagen = in.readInt();
+            int x = in.readInt();
+            int y = in.readInt();
+            int ancho = in.readInt();
+            int alto = in.readInt();
+            float desplazamientoX = in.readFloat();
+            float desplazamientoY = in.readFloat();
+
+            StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion(imagenes[imagen], x, y, ancho, alto));
+            tile.setId(gid);
+            tile.setOffsetX(desplazamientoX);
+            tile.setOffsetY(desplazamientoY);
+            estaticos.put(gid, tile);
+            tileset.putTile(gid, tile);
+        }
+
+        // Animaciones, que sustituyen al tile estático del mismo gid
+        int numeroAnimados = in.readInt();
+        for (int i = 0; i < numeroAnimados; i++) {
+            int gid = in.readInt();
+            int fotogramas = in.readInt();
+            Array<StaticTiledMapTile> tiles = new Array<>(fotogramas);
+            IntArray intervalos = new IntArray(fotogramas);
+            for (int f = 0; f < fotogramas; f++) {
+                tiles.add(estaticos.get(in.readInt()));
+                intervalos.add(in.readInt());
+            }
+            AnimatedTiledMapTile animado = new AnimatedTiledMapTile(intervalos, tiles);
+            animado.setId(gid);
+            tileset.putTile(gid, animado);
+        }
+
+        // Propiedades y objetos por tile
+        int numeroConDatos = in.readInt();
+        for (int i = 0; i < numeroConDatos; i++) {
+            TiledMapTile tile = tileset.getTile(in.readInt());
+            leerPropiedades(in, tile.getProperties());
+            leerObjetos(in, tile.getObjects());
+        }
+
+        map.getTileSets().addTileSet(tileset);
+    }
+
+    private void leerCapas(DataInputStream in, MapLayers capas, MapGroupLayer padre,
+                           TextureRegion[] imagenes) throws IOException {
+        int numero = in.readInt();
+        for (int i = 0; i < numero; i++) {
+            byte tipo = in.readByte();
+            MapLayer capa;
+
+            switch (tipo) {
+                case CAPA_TILES:
+                    capa = leerCapaTiles(in);
+                    break;
+                case CAPA_IMAGEN:
+                    int imagen = in.readInt();
+                    float x = in.readFloat();
+                    float y = in.readFloat();
+                    boolean repetirX = in.readBoolean();
+                    boolean repetirY = in.readBoolean();
+                    capa = new TiledMapImageLayer(imagen >= 0 ? imagenes[imagen] : null, x, y, repetirX, repetirY);
+                    break;
+                case CAPA_GRUPO:
+                    capa = new MapGroupLayer();
+                    break;
+                default:
+                    capa = new MapLayer();
+                    break;
+            }
+
+            leerInfoCapa(in, capa);
+            leerPropiedades(in, capa.getProperties());
+
+            if (tipo == CAPA_OBJETOS) {
+                leerObjetos(in, capa.getObjects());
+            } else if (tipo == CAPA_GRUPO) {
+                leerCapas(in, ((MapGroupLayer) capa).getLayers(), (MapGroupLayer) capa, imagenes);
+            }
+
+            if (padre != null) capa.setParent(padre);
+            capas.add(capa);
+        }
+    }
+
+    private void leerInfoCapa(DataInputStream in, MapLayer capa) throws IOException {
+        capa.setName(leerTextoOpcional(in));
+        capa.setOpacity(in.readFloat());
+        capa.setVisible(in.readBoolean());
+        capa.setOffsetX(in.readFloat());
+        capa.setOffsetY(in.readFloat());
+        capa.setParallaxX(in.readFloat());
+        capa.setParallaxY(in.readFloat());
+        capa.setTintColor(new Color(in.readInt()));
+    }
+
+    /**
+     * Las celdas vienen en tramos (repeticiones, valor) fila a fila,
+     * ya en el orden de Y hacia arriba que usa libGDX.
+     */
+    private TiledMapTileLayer leerCapaTiles(DataInputStream in) throws IOException {
+        int ancho = in.readInt();
+        int alto = in.readInt();
+        int anchoTile = in.readInt();
+        int altoTile = in.readInt();
+        TiledMapTileLayer capa = new TiledMapTileLayer(ancho, alto, anchoTile, altoTile);
+
+        int total = ancho * alto;
+        int indice = 0;
+        while (indice < total) {
+            int repeticiones = in.readInt();
+            int valor = in.readInt();
+            if (valor == 0) {
+                indice += repeticiones;
+                continue;
+            }
+
+            TiledMapTile tile = map.getTileSets().getTile(valor & MASCARA_GID);
+            for (int r = 0; r < repeticiones; r++, indice++) {
+                if (tile == null) continue;
+                TiledMapTileLayer.Cell celda = new TiledMapTileLayer.Cell();
+                celda.setTile(tile);
+                celda.setFlipHorizontally((valor & BIT_VOLTEO_H) != 0);
+                celda.setFlipVertically((valor & BIT_VOLTEO_V) != 0);
+                celda.setRotation((valor >>> DESPLAZAMIENTO_ROTACION) & 3);
+                capa.setCell(indice % ancho, indice / ancho, celda);
+            }
+        }
+        return capa;
+    }
+
+    private void leerObjetos(DataInputStream in, MapObjects objetos) throws IOException {
+        int numero = in.readInt();
+        for (int i = 0; i < numero; i++) {
+            byte tipo = in.readByte();
+            MapObject objeto;
+
+            switch (tipo) {
+                case OBJETO_RECTANGULO:
+                    objeto = new RectangleMapObject(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+                    break;
+                case OBJETO_ELIPSE:
+                    objeto = new EllipseMapObject(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+                    break;
+                case OBJETO_POLIGONO: {
+                    float x = in.readFloat();
+                    float y = in.readFloat();
+                    Polygon poligono = new Polygon(leerVertices(in));
+                    poligono.setPosition(x, y);
+                    objeto = new PolygonMapObject(poligono);
+                    break;
+                }
+                case OBJETO_POLILINEA: {
+                    float x = in.readFloat();
+                    float y = in.readFloat();
+                    Polyline polilinea = new Polyline(leerVertices(in));
+                    polilinea.setPosition(x, y);
+                    objeto = new PolylineMapObject(polilinea);
+                    break;
+                }
+                default:
+                    objeto = new MapObject();
+                    break;
+            }
+
+            objeto.setName(leerTextoOpcional(in));
+            objeto.setVisible(in.readBoolean());
+            objeto.setOpacity(in.readFloat());
+            objeto.setColor(new Color(in.readInt()));
+            leerPropiedades(in, objeto.getProperties());
+
+            int id = objeto.getProperties().get("id", 0, Integer.class);
+            idToObject.put(id, objeto);
+            objetos.add(objeto);
+        }
+    }
+
+    private static float[] leerVertices(DataInputStream in) throws IOException {
+        float[] vertices = new float[in.readInt()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = in.readFloat();
+        }
+        return vertices;
+    }
+
+    private void leerPropiedades(DataInputStream in, final MapProperties propiedades) throws IOException {
+        int numero = in.readInt();
+        for (int i = 0; i < numero; i++) {
+            final String clave = in.readUTF();
+            byte tipo = in.readByte();
+
+            switch (tipo) {
+                case PROP_ENTERO:
+                    propiedades.put(clave, in.readInt());
+                    break;
+                case PROP_LARGO:
+                    propiedades.put(clave, in.readLong());
+                    break;
+                case PROP_DECIMAL:
+                    propiedades.put(clave, in.readFloat());
+                    break;
+                case PROP_DOBLE:
+                    propiedades.put(clave, in.readDouble());
+                    break;
+                case PROP_BOOLEANO:
+                    propiedades.put(clave, in.readBoolean());
+                    break;
+                case PROP_COLOR:
+                    propiedades.put(clave, new Color(in.readInt()));
+                    break;
+                case PROP_CLASE: {
+                    MapProperties clase = new MapProperties();
+                    leerPropiedades(in, clase);
+                    propiedades.put(clave, clase);
+                    break;
+                }
+                case PROP_OBJETO: {
+                    // Igual que el cargador TMX: se resuelve cuando ya existen todos los objetos
+                    final int id = in.readInt();
+                    runOnEndOfLoadTiled.add(new Runnable() {
+                        @Override
+                        public void run() {
+                            propiedades.put(clave, idToObject.get(id));
+                        }
+                    });
+                    break;
+                }
+                default:
+                    propiedades.put(clave, in.readUTF());
+                    break;
+            }
+        }
+    }
+
+    private void leerColisiones(DataInputStream in) throws IOException {
+        int numero = in.readInt();
+        Array<Rectangle> colisiones = new Array<>(numero);
+        for (int i = 0; i < numero; i++) {
+            colisiones.add(new Rectangle(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+        }
+        map.getProperties().put(PROPIEDAD_COLISIONES, colisiones);
+    }
+
+    private static String leerTextoOpcional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
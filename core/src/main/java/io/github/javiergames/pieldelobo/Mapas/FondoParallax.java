@@ -0,0 +1,395 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Fondos con parallax configurados desde las propiedades de las capas en Tiled.
+ *
+ * Una capa (de tiles o de imagen) se trata como fondo si tiene alguna de estas
+ * propiedades:
+ * <ul>
+ *   <li>{@code fondo} (bool): capa de fondo con el desplazamiento de Tiled.</li>
+ *   <li>{@code parallax} (float): factor de desplazamiento en ambos ejes
+ *       (0 = fija a la cámara, 1 = se mueve con el mapa).</li>
+ *   <li>{@code parallaxX} / {@code parallaxY} (float): factor por eje.</li>
+ *   <li>{@code repetirX} / {@code repetirY} (bool): repetir la imagen en ese eje
+ *       (por defecto se repite en X y no en Y).</li>
+ * </ul>
+ *
+ * Las capas de tiles se dibujan una sola vez en una textura (FrameBuffer) al
+ * cargar el mapa. Cada fondo se pinta después como un único quad con la
+ * textura en modo repetición, en lugar de miles de tiles por frame. Los fondos
+ * se dibujan detrás de todas las capas; el renderer del mapa se salta las
+ * capas de {@link #getCapasMapa()}. El TiledMap no se modifica, porque lo
+ * comparte el AssetManager con cualquier otro MapaManager del mismo nivel.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class FondoParallax implements Disposable {
+
+    // ====================== PROPIEDADES DE TILED ======================
+    public static final String PROPIEDAD_FONDO = "fondo";
+    public static final String PROPIEDAD_PARALLAX = "parallax";
+    public static final String PROPIEDAD_PARALLAX_X = "parallaxX";
+    public static final String PROPIEDAD_PARALLAX_Y = "parallaxY";
+    public static final String PROPIEDAD_REPETIR_X = "repetirX";
+    public static final String PROPIEDAD_REPETIR_Y = "repetirY";
+
+    // Lado máximo de la textura de una capa de tiles; si la capa es mayor se reduce
+    private static final int TAMAÑO_MAXIMO_TEXTURA = 4096;
+
+    /** Un fondo ya preparado para dibujar */
+    private static class Capa {
+        String nombre;
+        Texture textura;
+        FrameBuffer frameBuffer;      // Solo si la capa era de tiles
+        boolean premultiplicada;      // Contenido de un FrameBuffer (alfa premultiplicado)
+        float color;
+        // Coordenadas de textura de la imagen (abajo y arriba)
+        float u1, u2, vAbajo, vArriba;
+        // Posición y tamaño en el mundo
+        float x, y, ancho, alto;
+        float factorX, factorY;
+        boolean repetirX, repetirY;
+        boolean repeticionPorHardware;
+    }
+
+    private final Array<Capa> capas = new Array<>();
+    // Capas del mapa que dibuja el fondo y no el renderer
+    private final ObjectSet<MapLayer> capasMapa = new ObjectSet<>();
+
+    private FondoParallax() {
+    }
+
+    /**
+     * Prepara los fondos del mapa. Debe llamarse desde el hilo de render.
+     *
+     * @return Los fondos, o null si el mapa no tiene capas de fondo configuradas
+     */
+    public static FondoParallax crear(TiledMap mapa, float unidadEscala) {
+        FondoParallax fondos = new FondoParallax();
+        fondos.buscarCapas(mapa, mapa.getLayers(), unidadEscala);
+        if (fondos.capas.size == 0) return null;
+
+        Gdx.app.log("FondoParallax", "Fondos con parallax: " + fondos.capas.size);
+        return fondos;
+    }
+
+    private void buscarCapas(TiledMap mapa, MapLayers capasMapa, float unidadEscala) {
+        for (MapLayer capa : capasMapa) {
+            if (!capa.isVisible()) continue;
+
+            if (capa instanceof MapGroupLayer) {
+                buscarCapas(mapa, ((MapGroupLayer) capa).getLayers(), unidadEscala);
+                continue;
+            }
+            if (!esCapaDeFondo(capa.getProperties())) continue;
+
+            Capa fondo = null;
+            if (capa instanceof TiledMapTileLayer) {
+                fondo = prepararCapaTiles(mapa, (TiledMapTileLayer) capa, unidadEscala);
+            } else if (capa instanceof TiledMapImageLayer) {
+                fondo = prepararCapaImagen((TiledMapImageLayer) capa, unidadEscala);
+            }
+            if (fondo == null) continue;
+
+            leerConfiguracion(capa, fondo);
+            configurarRepeticion(fondo);
+            capas.add(fondo);
+
+            // A partir de aquí la capa la dibuja el fondo, no el renderer del mapa
+            capasMapa.add(capa);
+
+            Gdx.app.log("FondoParallax", "Fondo '" + fondo.nombre + "': parallax " + fondo.factorX + "x" +
+                fondo.factorY + ", repetir " + fondo.repetirX + "/" + fondo.repetirY +
+                (fondo.repeticionPorHardware ? " (un solo quad)" : " (copias)"));
+        }
+    }
+
+    private static boolean esCapaDeFondo(MapProperties propiedades) {
+        return esVerdadero(propiedades.get(PROPIEDAD_FONDO))
+            || propiedades.containsKey(PROPIEDAD_PARALLAX)
+            || propiedades.containsKey(PROPIEDAD_PARALLAX_X)
+            || propiedades.containsKey(PROPIEDAD_PARALLAX_Y);
+    }
+
+    // ====================== PREPARACIÓN ======================
+
+    /**
+     * Dibuja la capa de tiles completa en un FrameBuffer, reduciéndola si
+     * supera {@link #TAMAÑO_MAXIMO_TEXTURA}.
+     */
+    private static Capa prepararCapaTiles(TiledMap mapa, TiledMapTileLayer capa, float unidadEscala) {
+        int anchoPx = Math.round(capa.getWidth() * capa.getTileWidth());
+        int altoPx = Math.round(capa.getHeight() * capa.getTileHeight());
+        if (anchoPx <= 0 || altoPx <= 0) return null;
+
+        float reduccion = Math.min(1f, Math.min(TAMAÑO_MAXIMO_TEXTURA / (float) anchoPx,
+            TAMAÑO_MAXIMO_TEXTURA / (float) altoPx));
+        int anchoTextura = Math.max(1, Math.round(anchoPx * reduccion));
+        int altoTextura = Math.max(1, Math.round(altoPx * reduccion));
+
+        FrameBuffer frameBuffer;
+        try {
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, anchoTextura, altoTextura, false);
+        } catch (Exception e) {
+            Gdx.app.error("FondoParallax", "No se pudo crear la textura de la capa " + capa.getName(), e);
+            return null;
+        }
+
+        float offsetX = capa.getRenderOffsetX();
+        float offsetY = -capa.getRenderOffsetY();
+
+        // Cámara que encuadra exactamente la capa (con su offset)
+        OrthographicCamera camara = new OrthographicCamera(anchoPx, altoPx);
+        camara.position.set(offsetX + anchoPx / 2f, offsetY + altoPx / 2f, 0);
+        camara.update();
+
+        SpriteBatch lote = new SpriteBatch();
+        // Alfa correcto sobre fondo transparente: el color queda premultiplicado
+        lote.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA,
+            GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        OrthogonalTiledMapRenderer renderer = new OrthogonalTiledMapRenderer(mapa, 1f, lote);
+        renderer.setView(camara);
+
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        lote.begin();
+        renderer.renderTileLayer(capa);
+        lote.end();
+        frameBuffer.end();
+
+        renderer.dispose();
+        lote.dispose();
+
+        Capa fondo = new Capa();
+        fondo.nombre = capa.getName();
+        fondo.frameBuffer = frameBuffer;
+        fondo.textura = frameBuffer.getColorBufferTexture();
+        fondo.textura.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        fondo.premultiplicada = true;
+        fondo.color = Color.WHITE_FLOAT_BITS;
+        // El FrameBuffer guarda la imagen con la Y hacia arriba
+        fondo.u1 = 0f;
+        fondo.u2 = 1f;
+        fondo.vAbajo = 0f;
+        fondo.vArriba = 1f;
+        fondo.x = offsetX * unidadEscala;
+        fondo.y = offsetY * unidadEscala;
+        fondo.ancho = anchoPx * unidadEscala;
+        fondo.alto = altoPx * unidadEscala;
+        return fondo;
+    }
+
+    private static Capa prepararCapaImagen(TiledMapImageLayer capa, float unidadEscala) {
+        TextureRegion region = capa.getTextureRegion();
+        if (region == null) return null;
+
+        Color tinte = capa.getCombinedTintColor();
+
+        Capa fondo = new Capa();
+        fondo.nombre = capa.getName();
+        fondo.textura = region.getTexture();
+        fondo.premultiplicada = false;
+        fondo.color = Color.toFloatBits(tinte.r, tinte.g, tinte.b, tinte.a * capa.getOpacity());
+        fondo.u1 = region.getU();
+        fondo.u2 = region.getU2();
+        fondo.vAbajo = region.getV2();
+        fondo.vArriba = region.getV();
+        fondo.x = capa.getX() * unidadEscala;
+        fondo.y = capa.getY() * unidadEscala;
+        fondo.ancho = region.getRegionWidth() * unidadEscala;
+        fondo.alto = region.getRegionHeight() * unidadEscala;
+        return fondo;
+    }
+
+    /** Lee factores y repetición: primero las propiedades propias y, si no, los valores de Tiled. */
+    private static void leerConfiguracion(MapLayer capa, Capa fondo) {
+        MapProperties propiedades = capa.getProperties();
+
+        float comun = leerFloat(propiedades, PROPIEDAD_PARALLAX, Float.NaN);
+        fondo.factorX = leerFloat(propiedades, PROPIEDAD_PARALLAX_X, Float.isNaN(comun) ? capa.getParallaxX() : comun);
+        fondo.factorY = leerFloat(propiedades, PROPIEDAD_PARALLAX_Y, Float.isNaN(comun) ? capa.getParallaxY() : comun);
+
+        boolean repetirXTiled = capa instanceof TiledMapImageLayer && ((TiledMapImageLayer) capa).isRepeatX();
+        boolean repetirYTiled = capa instanceof TiledMapImageLayer && ((TiledMapImageLayer) capa).isRepeatY();
+        fondo.repetirX = leerBoolean(propiedades, PROPIEDAD_REPETIR_X, true) || repetirXTiled;
+        fondo.repetirY = leerBoolean(propiedades, PROPIEDAD_REPETIR_Y, false) || repetirYTiled;
+    }
+
+    /**
+     * La repetición por hardware necesita que la imagen ocupe toda la textura
+     * y, en OpenGL ES 2.0, que sus lados sean potencia de dos. Si no se puede,
+     * se dibujan copias de la imagen.
+     */
+    private static void configurarRepeticion(Capa fondo) {
+        if (!fondo.repetirX && !fondo.repetirY) return;
+
+        boolean texturaCompleta = fondo.u1 == 0f && fondo.u2 == 1f &&
+            Math.min(fondo.vAbajo, fondo.vArriba) == 0f && Math.max(fondo.vAbajo, fondo.vArriba) == 1f;
+        boolean potenciaDeDos = MathUtils.isPowerOfTwo(fondo.textura.getWidth()) &&
+            MathUtils.isPowerOfTwo(fondo.textura.getHeight());
+        boolean soportaNpot = Gdx.gl30 != null || Gdx.app.getType() == Application.ApplicationType.Desktop;
+
+        fondo.repeticionPorHardware = texturaCompleta && (potenciaDeDos || soportaNpot);
+        if (fondo.repeticionPorHardware) {
+            fondo.textura.setWrap(
+                fondo.repetirX ? Texture.TextureWrap.Repeat : Texture.TextureWrap.ClampToEdge,
+                fondo.repetirY ? Texture.TextureWrap.Repeat : Texture.TextureWrap.ClampToEdge);
+        }
+    }
+
+    // ====================== RENDERIZADO ======================
+
+    /**
+     * Dibuja todos los fondos. El lote debe tener ya la proyección de la cámara.
+     *
+     * @param lote Lote del renderer del mapa (sin empezar)
+     * @param vista Rectángulo visible en unidades de mundo
+     */
+    public void renderizar(Batch lote, Rectangle vista) {
+        lote.begin();
+        for (Capa capa : capas) {
+            if (capa.premultiplicada) {
+                lote.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            } else {
+                lote.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            }
+            lote.setPackedColor(capa.color);
+
+            // Posición de la imagen según la cámara y el factor de cada eje
+            float origenX = capa.x + vista.x * (1f - capa.factorX);
+            float origenY = capa.y + vista.y * (1f - capa.factorY);
+
+            if (capa.repeticionPorHardware) {
+                dibujarQuadRepetido(lote, capa, vista, origenX, origenY);
+            } else {
+                dibujarCopias(lote, capa, vista, origenX, origenY);
+            }
+        }
+        lote.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        lote.setPackedColor(Color.WHITE_FLOAT_BITS);
+        lote.end();
+    }
+
+    /** Un quad que cubre la vista en los ejes repetidos; la textura se repite sola. */
+    private static void dibujarQuadRepetido(Batch lote, Capa capa, Rectangle vista, float origenX, float origenY) {
+        float x1 = capa.repetirX ? vista.x : origenX;
+        float x2 = capa.repetirX ? vista.x + vista.width : origenX + capa.ancho;
+        float y1 = capa.repetirY ? vista.y : origenY;
+        float y2 = capa.repetirY ? vista.y + vista.height : origenY + capa.alto;
+        if (x2 < vista.x || x1 > vista.x + vista.width || y2 < vista.y || y1 > vista.y + vista.height) return;
+
+        float u1 = capa.u1 + (x1 - origenX) / capa.ancho * (capa.u2 - capa.u1);
+        float u2 = capa.u1 + (x2 - origenX) / capa.ancho * (capa.u2 - capa.u1);
+        float v1 = capa.vAbajo + (y1 - origenY) / capa.alto * (capa.vArriba - capa.vAbajo);
+        float v2 = capa.vAbajo + (y2 - origenY) / capa.alto * (capa.vArriba - capa.vAbajo);
+
+        lote.draw(capa.textura, x1, y1, x2 - x1, y2 - y1, u1, v1, u2, v2);
+    }
+
+    /** Copias de la imagen que tocan la vista (cuando no hay repetición por hardware). */
+    private static void dibujarCopias(Batch lote, Capa capa, Rectangle vista, float origenX, float origenY) {
+        float inicioX = origenX;
+        float finX = origenX;
+        if (capa.repetirX) {
+            inicioX = origenX + (float) Math.floor((vista.x - origenX) / capa.ancho) * capa.ancho;
+            finX = vista.x + vista.width;
+        }
+        float inicioY = origenY;
+        float finY = origenY;
+        if (capa.repetirY) {
+            inicioY = origenY + (float) Math.floor((vista.y - origenY) / capa.alto) * capa.alto;
+            finY = vista.y + vista.height;
+        }
+
+        for (float y = inicioY; y <= finY; y += capa.alto) {
+            for (float x = inicioX; x <= finX; x += capa.ancho) {
+                if (x + capa.ancho < vista.x || x > vista.x + vista.width ||
+                    y + capa.alto < vista.y || y > vista.y + vista.height) {
+                    continue;
+                }
+                lote.draw(capa.textura, x, y, capa.ancho, capa.alto, capa.u1, capa.vAbajo, capa.u2, capa.vArriba);
+            }
+        }
+    }
+
+    // ====================== UTILIDADES ======================
+
+    private static float leerFloat(MapProperties propiedades, String clave, float porDefecto) {
+        Object valor = propiedades.get(clave);
+        if (valor instanceof Number) return ((Number) valor).floatValue();
+        if (valor instanceof String) {
+            try {
+                return Float.parseFloat((String) valor);
+            } catch (NumberFormatException e) {
+                Gdx.app.error("FondoParallax", "Valor no válido para " + clave + ": " + valor);
+            }
+        }
+        return porDefecto;
+    }
+
+    private static boolean leerBoolean(MapProperties propiedades, String clave, boolean porDefecto) {
+        Object valor = propiedades.get(clave);
+        return valor == null ? porDefecto : esVerdadero(valor);
+    }
+
+    private static boolean esVerdadero(Object valor) {
+        if (valor instanceof Boolean) return (Boolean) valor;
+        return valor != null && "true".equalsIgnoreCase(valor.toString());
+    }
+
+    /** Memoria de las texturas propias (las de las capas de imagen son del mapa). */
+    public long estimarMemoria() {
+        long bytes = 0;
+        for (Capa capa : capas) {
+            if (capa.frameBuffer != null) {
+                bytes += (long) capa.textura.getWidth() * capa.textura.getHeight() * 4;
+            }
+        }
+        return bytes;
+    }
+
+    public int getNumeroCapas() {
+        return capas.size;
+    }
+
+    /** Capas del mapa que dibujan los fondos; el renderer del mapa no debe dibujarlas. */
+    public ObjectSet<MapLayer> getCapasMapa() {
+        return capasMapa;
+    }
+
+    @Override
+    public void dispose() {
+        for (Capa capa : capas) {
+            if (capa.frameBuffer != null) capa.frameBuffer.dispose();
+        }
+        capas.clear();
+        capasMapa.clear();
+    }
+}
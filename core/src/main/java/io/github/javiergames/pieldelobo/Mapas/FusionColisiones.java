@@ -0,0 +1,149 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * Fusiona los rectángulos de colisión que se tocan o se solapan en franjas y
+ * cajas más grandes, sin cambiar la zona sólida que cubren.
+ *
+ * Solo se juntan dos rectángulos cuando su unión es exactamente otro
+ * rectángulo: misma franja horizontal (igual Y y alto) y contiguos en X, o
+ * misma columna (igual X y ancho) y contiguos en Y. Además se quitan los
+ * rectángulos contenidos en otro. Se repite hasta que no cambia nada.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public final class FusionColisiones {
+
+    // Tolerancia para comparar coordenadas (los mapas usan píxeles enteros)
+    private static final float EPSILON = 0.01f;
+
+    private static final Comparator<Rectangle> POR_FILA = new Comparator<Rectangle>() {
+        @Override
+        public int compare(Rectangle a, Rectangle b) {
+            if (a.y != b.y) return Float.compare(a.y, b.y);
+            if (a.height != b.height) return Float.compare(a.height, b.height);
+            return Float.compare(a.x, b.x);
+        }
+    };
+
+    private static final Comparator<Rectangle> POR_COLUMNA = new Comparator<Rectangle>() {
+        @Override
+        public int compare(Rectangle a, Rectangle b) {
+            if (a.x != b.x) return Float.compare(a.x, b.x);
+            if (a.width != b.width) return Float.compare(a.width, b.width);
+            return Float.compare(a.y, b.y);
+        }
+    };
+
+    private FusionColisiones() {
+    }
+
+    /**
+     * Devuelve una lista nueva con los rectángulos fusionados.
+     * Los rectángulos originales no se modifican (pueden ser los de los objetos del mapa).
+     *
+     * @param originales Rectángulos de colisión
+     * @return Rectángulos nuevos que cubren exactamente la misma zona
+     */
+    public static Array<Rectangle> fusionar(Array<Rectangle> originales) {
+        Array<Rectangle> rects = new Array<>(originales.size);
+        for (Rectangle r : originales) {
+            rects.add(new Rectangle(r));
+        }
+
+        int anterior;
+        do {
+            anterior = rects.size;
+            fusionarFilas(rects);
+            fusionarColumnas(rects);
+            eliminarContenidos(rects);
+        } while (rects.size < anterior);
+
+        return rects;
+    }
+
+    /** Junta rectángulos de la misma franja horizontal que se tocan en X. */
+    private static void fusionarFilas(Array<Rectangle> rects) {
+        if (rects.size < 2) return;
+        rects.sort(POR_FILA);
+
+        int escritos = 0;
+        Rectangle actual = rects.get(0);
+        for (int i = 1; i < rects.size; i++) {
+            Rectangle siguiente = rects.get(i);
+            if (igual(actual.y, siguiente.y) && igual(actual.height, siguiente.height) &&
+                siguiente.x <= actual.x + actual.width + EPSILON) {
+                float derecha = Math.max(actual.x + actual.width, siguiente.x + siguiente.width);
+                actual.width = derecha - actual.x;
+            } else {
+                rects.set(escritos++, actual);
+                actual = siguiente;
+            }
+        }
+        rects.set(escritos++, actual);
+        rects.truncate(escritos);
+    }
+
+    /** Junta rectángulos de la misma columna que se tocan en Y. */
+    private static void fusionarColumnas(Array<Rectangle> rects) {
+        if (rects.size < 2) return;
+        rects.sort(POR_COLUMNA);
+
+        int escritos = 0;
+        Rectangle actual = rects.get(0);
+        for (int i = 1; i < rects.size; i++) {
+            Rectangle siguiente = rects.get(i);
+            if (igual(actual.x, siguiente.x) && igual(actual.width, siguiente.width) &&
+                siguiente.y <= actual.y + actual.height + EPSILON) {
+                float arriba = Math.max(actual.y + actual.height, siguiente.y + siguiente.height);
+                actual.height = arriba - actual.y;
+            } else {
+                rects.set(escritos++, actual);
+                actual = siguiente;
+            }
+        }
+        rects.set(escritos++, actual);
+        rects.truncate(escritos);
+    }
+
+    /** Quita los rectángulos que están dentro de otro. */
+    private static void eliminarContenidos(Array<Rectangle> rects) {
+        // Los más grandes primero: un rectángulo solo puede estar dentro de uno de área mayor o igual
+        rects.sort(new Comparator<Rectangle>() {
+            @Override
+            public int compare(Rectangle a, Rectangle b) {
+                return Float.compare(b.area(), a.area());
+            }
+        });
+
+        int escritos = 0;
+        for (int i = 0; i < rects.size; i++) {
+            Rectangle r = rects.get(i);
+            boolean contenido = false;
+            for (int j = 0; j < escritos; j++) {
+                if (contiene(rects.get(j), r)) {
+                    contenido = true;
+                    break;
+                }
+            }
+            if (!contenido) rects.set(escritos++, r);
+        }
+        rects.truncate(escritos);
+    }
+
+    private static boolean contiene(Rectangle exterior, Rectangle interior) {
+        return interior.x >= exterior.x - EPSILON &&
+            interior.y >= exterior.y - EPSILON &&
+            interior.x + interior.width <= exterior.x + exterior.width + EPSILON &&
+            interior.y + interior.height <= exterior.y + exterior.height + EPSILON;
+    }
+
+    private static boolean igual(float a, float b) {
+        return Math.abs(a - b) <= EPSILON;
+    }
+}
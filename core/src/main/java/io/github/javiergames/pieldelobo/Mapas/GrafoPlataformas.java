@@ -0,0 +1,454 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Comparator;
+
+/**
+ * Grafo de plataformas para la IA de los enemigos, construido una sola vez
+ * al cargar el mapa a partir de los rectángulos de colisión.
+ *
+ * Cada nodo es un tramo horizontal sobre el que se puede andar (la parte de
+ * arriba de un rectángulo que no tapa otro). Las conexiones indican cómo se
+ * pasa de un tramo a otro: andando, dejándose caer por el borde o saltando.
+ * Sobre el grafo se busca la ruta con el A* indexado de gdx-ai.
+ *
+ * Los saltos dependen de quién los da: cada conexión de salto guarda la
+ * velocidad horizontal que hace falta para cubrir el hueco en el tiempo que
+ * dura el salto, y la búsqueda de ruta descarta las que el enemigo no alcanza.
+ *
+ * Con la plataforma en la que está un enemigo, saber si tiene un borde
+ * delante es una comparación, sin consultar colisiones.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class GrafoPlataformas implements IndexedGraph<GrafoPlataformas.Plataforma> {
+
+    // ====================== PARÁMETROS ======================
+    /** Velocidad vertical con la que despega un enemigo al saltar */
+    public static final float IMPULSO_SALTO = 300f;
+    /** Gravedad de los enemigos (hacia abajo) */
+    public static final float GRAVEDAD = 800f;
+    /** Desnivel que se sube o baja andando */
+    public static final float ESCALON = 4f;
+    /** Altura máxima de un salto: la de la cima (300²/1600 = 56.25) menos un escalón de margen */
+    public static final float ALTURA_SALTO = IMPULSO_SALTO * IMPULSO_SALTO / (2 * GRAVEDAD) - ESCALON;
+    /** Hueco máximo que se estudia como salto; si un enemigo llega lo decide su velocidad */
+    public static final float ALCANCE_SALTO = 96f;
+    /** Bajada que no cuenta como borde (la misma que comprobaba el sensor de suelo) */
+    public static final float BAJADA_SIN_BORDE = 20f;
+    /** Tolerancia vertical al buscar la plataforma bajo unos pies */
+    private static final float TOLERANCIA_PIES = 6f;
+    /** Tramos más estrechos que esto no se consideran plataformas */
+    private static final float ANCHO_MINIMO = 4f;
+    /** Distancia más allá del borde a la que se aterriza al caer */
+    private static final float MARGEN_CAIDA = 8f;
+    private static final float EPSILON = 0.5f;
+
+    // Penalizaciones para preferir andar frente a caer o saltar
+    private static final float COSTE_CAIDA = 8f;
+    private static final float COSTE_SALTO = 32f;
+
+    /** Forma de pasar de una plataforma a otra */
+    public enum TipoConexion { ANDAR, CAER, SALTAR }
+
+    // ====================== ESTRUCTURA ======================
+    private final Array<Plataforma> plataformas = new Array<>();
+    private final RejillaColisiones rejilla;
+    private final MapaManager.ResultadoRayo rayo = new MapaManager.ResultadoRayo();
+    private final float anchoColumna;
+    private IntArray[] columnas = new IntArray[0];
+    private int totalConexiones = 0;
+
+    // Velocidad del enemigo que busca ruta y conexiones que puede recorrer
+    private float velocidadBusqueda = Float.MAX_VALUE;
+    private final Array<Connection<Plataforma>> conexionesAlcanzables = new Array<>(8);
+
+    private final IndexedAStarPathFinder<Plataforma> buscador;
+    private final Heuristic<Plataforma> heuristica = new Heuristic<Plataforma>() {
+        @Override
+        public float estimate(Plataforma a, Plataforma b) {
+            return (float) Math.hypot(a.getCentroX() - b.getCentroX(), a.y - b.y);
+        }
+    };
+
+    /**
+     * Construye el grafo sobre las colisiones del mapa.
+     *
+     * @param colisiones Rectángulos de colisión (ya fusionados)
+     * @param rejilla Rejilla sobre esos rectángulos, para comprobar que los saltos y caídas están despejados
+     * @param anchoColumna Ancho de las columnas del índice de búsqueda, normalmente el del tile
+     */
+    GrafoPlataformas(Array<Rectangle> colisiones, RejillaColisiones rejilla, float anchoColumna) {
+        this.rejilla = rejilla;
+        this.anchoColumna = Math.max(1f, anchoColumna);
+
+        extraerPlataformas(colisiones);
+        construirIndice();
+        for (int i = 0; i < plataformas.size; i++) {
+            conectar(plataformas.get(i));
+        }
+
+        buscador = new IndexedAStarPathFinder<>(this);
+    }
+
+    // ====================== CONSTRUCCIÓN ======================
+
+    /**
+     * La cara superior de cada rectángulo, quitando los tramos que tapa otro
+     * rectángulo, es una superficie transitable.
+     */
+    private void extraerPlataformas(Array<Rectangle> colisiones) {
+        Array<float[]> tramos = new Array<>();
+        Array<float[]> restantes = new Array<>();
+
+        for (int i = 0; i < colisiones.size; i++) {
+            Rectangle r = colisiones.get(i);
+            float y = r.y + r.height;
+
+            tramos.clear();
+            tramos.add(new float[]{r.x, r.x + r.width});
+
+            for (int j = 0; j < colisiones.size && tramos.size > 0; j++) {
+                if (j == i) continue;
+                Rectangle s = colisiones.get(j);
+                // Solo tapan los rectángulos que ocupan justo lo que hay encima de la superficie
+                if (s.y > y + EPSILON || s.y + s.height <= y + EPSILON) continue;
+                if (s.x >= r.x + r.width || s.x + s.width <= r.x) continue;
+
+                restantes.clear();
+                for (float[] tramo : tramos) {
+                    if (s.x > tramo[0]) restantes.add(new float[]{tramo[0], Math.min(tramo[1], s.x)});
+                    if (s.x + s.width < tramo[1]) restantes.add(new float[]{Math.max(tramo[0], s.x + s.width), tramo[1]});
+                }
+                tramos.clear();
+                tramos.addAll(restantes);
+            }
+
+            for (float[] tramo : tramos) {
+                if (tramo[1] - tramo[0] >= ANCHO_MINIMO) {
+                    plataformas.add(new Plataforma(tramo[0], tramo[1], y));
+                }
+            }
+        }
+
+        // Unir los tramos a la misma altura que se tocan (rectángulos vecinos de distinto alto)
+        plataformas.sort(new Comparator<Plataforma>() {
+            @Override
+            public int compare(Plataforma a, Plataforma b) {
+                if (a.y != b.y) return Float.compare(a.y, b.y);
+                return Float.compare(a.x0, b.x0);
+            }
+        });
+        int escritas = 0;
+        for (int i = 0; i < plataformas.size; i++) {
+            Plataforma p = plataformas.get(i);
+            if (escritas > 0) {
+                Plataforma anterior = plataformas.get(escritas - 1);
+                if (Math.abs(anterior.y - p.y) <= EPSILON && p.x0 <= anterior.x1 + EPSILON) {
+                    anterior.x1 = Math.max(anterior.x1, p.x1);
+                    continue;
+                }
+            }
+            plataformas.set(escritas++, p);
+        }
+        plataformas.truncate(escritas);
+
+        for (int i = 0; i < plataformas.size; i++) {
+            plataformas.get(i).indice = i;
+        }
+    }
+
+    /** Índice por columnas para encontrar en O(1) la plataforma bajo un punto. */
+    private void construirIndice() {
+        float maxX = 0;
+        for (Plataforma p : plataformas) maxX = Math.max(maxX, p.x1);
+
+        columnas = new IntArray[(int) Math.ceil(maxX / anchoColumna) + 1];
+        for (Plataforma p : plataformas) {
+            int c0 = columna(p.x0);
+            int c1 = columna(p.x1);
+            for (int c = c0; c <= c1; c++) {
+                if (columnas[c] == null) columnas[c] = new IntArray(2);
+                columnas[c].add(p.indice);
+            }
+        }
+    }
+
+    private void conectar(Plataforma a) {
+        Plataforma caidaDerecha = buscarDebajo(a.x1 + MARGEN_CAIDA, a.y - ESCALON);
+        Plataforma caidaIzquierda = buscarDebajo(a.x0 - MARGEN_CAIDA, a.y - ESCALON);
+
+        // Una pared pegada al borde impide caer por ese lado
+        if (caidaDerecha != null && !caidaDespejada(a, caidaDerecha, a.x1, a.x1 + MARGEN_CAIDA)) caidaDerecha = null;
+        if (caidaIzquierda != null && !caidaDespejada(a, caidaIzquierda, a.x0, a.x0 - MARGEN_CAIDA)) caidaIzquierda = null;
+
+        if (caidaDerecha != null) {
+            anadir(a, caidaDerecha, TipoConexion.CAER, a.x1, a.x1 + MARGEN_CAIDA, 0f);
+            if (a.y - caidaDerecha.y <= BAJADA_SIN_BORDE) a.sigueDerecha = true;
+        }
+        if (caidaIzquierda != null) {
+            anadir(a, caidaIzquierda, TipoConexion.CAER, a.x0, a.x0 - MARGEN_CAIDA, 0f);
+            if (a.y - caidaIzquierda.y <= BAJADA_SIN_BORDE) a.sigueIzquierda = true;
+        }
+
+        for (int i = 0; i < plataformas.size; i++) {
+            Plataforma b = plataformas.get(i);
+            if (b == a || b == caidaDerecha || b == caidaIzquierda) continue;
+
+            float desnivel = b.y - a.y;
+            if (desnivel > ALTURA_SALTO) continue;
+
+            boolean aLaDerecha = b.x0 >= a.x1 - EPSILON;
+            boolean aLaIzquierda = b.x1 <= a.x0 + EPSILON;
+            if (!aLaDerecha && !aLaIzquierda) continue;
+
+            float hueco = aLaDerecha ? b.x0 - a.x1 : a.x0 - b.x1;
+            if (hueco > ALCANCE_SALTO) continue;
+
+            float salida = aLaDerecha ? a.x1 : a.x0;
+            float llegada = aLaDerecha
+                ? b.x0 + Math.min(MARGEN_CAIDA, b.getAncho() / 2)
+                : b.x1 - Math.min(MARGEN_CAIDA, b.getAncho() / 2);
+
+            if (Math.abs(desnivel) <= ESCALON && hueco <= EPSILON) {
+                anadir(a, b, TipoConexion.ANDAR, salida, aLaDerecha ? b.x0 : b.x1, 0f);
+                if (aLaDerecha) a.sigueDerecha = true;
+                else a.sigueIzquierda = true;
+            } else if (saltoDespejado(a, b, salida, llegada)) {
+                float velocidadMinima = Math.abs(llegada - salida) / tiempoDeVuelo(desnivel);
+                anadir(a, b, TipoConexion.SALTAR, salida, llegada, velocidadMinima);
+                a.velocidadSaltoMaxima = Math.max(a.velocidadSaltoMaxima, velocidadMinima);
+            }
+        }
+    }
+
+    /**
+     * Tiempo desde que se despega hasta que, ya bajando, se vuelve a pasar
+     * por la altura del destino.
+     *
+     * @param desnivel Altura del destino sobre el origen (no mayor que {@link #ALTURA_SALTO})
+     */
+    static float tiempoDeVuelo(float desnivel) {
+        float discriminante = IMPULSO_SALTO * IMPULSO_SALTO - 2 * GRAVEDAD * desnivel;
+        return (IMPULSO_SALTO + (float) Math.sqrt(Math.max(0f, discriminante))) / GRAVEDAD;
+    }
+
+    private boolean caidaDespejada(Plataforma a, Plataforma b, float salida, float llegada) {
+        float arriba = a.y + 1f;
+        return libre(salida, arriba, llegada, arriba) && libre(llegada, arriba, llegada, b.y + 1f);
+    }
+
+    /** Subida en vertical hasta la altura del salto y recorrido horizontal por encima. */
+    private boolean saltoDespejado(Plataforma a, Plataforma b, float salida, float llegada) {
+        float cima = Math.max(a.y, b.y) + ESCALON;
+        return libre(salida, a.y + 1f, salida, cima) && libre(salida, cima, llegada, cima);
+    }
+
+    private boolean libre(float x0, float y0, float x1, float y1) {
+        rayo.reiniciar(x0, y0, x1 - x0, y1 - y0);
+        return rejilla == null || !rejilla.lanzarRayo(x0, y0, x1 - x0, y1 - y0, rayo);
+    }
+
+    /** Plataforma más alta por debajo de {@code techo} que cubre la X indicada. */
+    private Plataforma buscarDebajo(float x, float techo) {
+        if (x < 0) return null;
+        int c = columna(x);
+        if (c >= columnas.length || columnas[c] == null) return null;
+
+        Plataforma mejor = null;
+        IntArray candidatas = columnas[c];
+        for (int k = 0; k < candidatas.size; k++) {
+            Plataforma p = plataformas.get(candidatas.items[k]);
+            if (p.y <= techo && p.contieneX(x) && (mejor == null || p.y > mejor.y)) {
+                mejor = p;
+            }
+        }
+        return mejor;
+    }
+
+    private void anadir(Plataforma desde, Plataforma hasta, TipoConexion tipo,
+                        float xSalida, float xLlegada, float velocidadMinima) {
+        float coste = Math.abs(xSalida - desde.getCentroX())
+            + (float) Math.hypot(xLlegada - xSalida, hasta.y - desde.y)
+            + Math.abs(hasta.getCentroX() - xLlegada);
+        if (tipo == TipoConexion.CAER) coste += COSTE_CAIDA;
+        else if (tipo == TipoConexion.SALTAR) coste += COSTE_SALTO;
+
+        desde.conexiones.add(new Conexion(desde, hasta, tipo, xSalida, xLlegada, velocidadMinima, coste));
+        totalConexiones++;
+    }
+
+    private int columna(float x) {
+        return MathUtils.clamp((int) Math.floor(x / anchoColumna), 0, Math.max(0, columnas.length - 1));
+    }
+
+    // ====================== CONSULTAS ======================
+
+    /**
+     * Busca la plataforma sobre la que se apoyan unos pies.
+     *
+     * @param x Centro horizontal del personaje
+     * @param yPies Borde inferior de su caja
+     * @return La plataforma, o null si no hay ninguna (por ejemplo, en el aire)
+     */
+    public Plataforma buscarPlataforma(float x, float yPies) {
+        if (x < 0 || columnas.length == 0) return null;
+        int c = columna(x);
+        if (columnas[c] == null) return null;
+
+        Plataforma mejor = null;
+        float mejorDistancia = TOLERANCIA_PIES;
+        IntArray candidatas = columnas[c];
+        for (int k = 0; k < candidatas.size; k++) {
+            Plataforma p = plataformas.get(candidatas.items[k]);
+            float distancia = Math.abs(p.y - yPies);
+            if (distancia <= mejorDistancia && p.contieneX(x)) {
+                mejor = p;
+                mejorDistancia = distancia;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Busca la ruta más corta entre dos plataformas para un enemigo que anda
+     * a la velocidad indicada: los saltos que no alcanzaría no se usan.
+     *
+     * @param velocidad Velocidad horizontal del enemigo (píxeles por segundo)
+     * @param ruta Se vacía y se rellena con las conexiones a recorrer, en orden
+     * @return true si hay ruta
+     */
+    public boolean buscarRuta(Plataforma desde, Plataforma hasta, float velocidad,
+                              GraphPath<Connection<Plataforma>> ruta) {
+        ruta.clear();
+        if (desde == null || hasta == null) return false;
+        if (desde == hasta) return true;
+
+        velocidadBusqueda = velocidad;
+        try {
+            return buscador.searchConnectionPath(desde, hasta, heuristica, ruta);
+        } finally {
+            velocidadBusqueda = Float.MAX_VALUE;
+        }
+    }
+
+    // ====================== INDEXED GRAPH ======================
+
+    @Override
+    public int getIndex(Plataforma nodo) {
+        return nodo.indice;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return plataformas.size;
+    }
+
+    /**
+     * Conexiones de un nodo que puede recorrer el enemigo que está buscando
+     * ruta. El A* recorre el array antes de pedir el del siguiente nodo, así
+     * que basta con uno reutilizado para las plataformas con saltos largos.
+     */
+    @Override
+    public Array<Connection<Plataforma>> getConnections(Plataforma nodo) {
+        if (nodo.velocidadSaltoMaxima <= velocidadBusqueda) {
+            return nodo.conexiones;
+        }
+
+        conexionesAlcanzables.clear();
+        for (int i = 0; i < nodo.conexiones.size; i++) {
+            Conexion conexion = (Conexion) nodo.conexiones.get(i);
+            if (conexion.velocidadMinima <= velocidadBusqueda) {
+                conexionesAlcanzables.add(conexion);
+            }
+        }
+        return conexionesAlcanzables;
+    }
+
+    // ====================== CLASES INTERNAS ======================
+
+    /**
+     * Tramo horizontal sobre el que se puede andar.
+     */
+    public static class Plataforma {
+        /** Extremos del tramo */
+        public float x0, x1;
+        /** Altura de la superficie */
+        public final float y;
+        /** true si al salir por ese lado se sigue pisando suelo (no es un borde) */
+        public boolean sigueIzquierda, sigueDerecha;
+
+        int indice;
+        final Array<Connection<Plataforma>> conexiones = new Array<>(4);
+        // La mayor velocidadMinima de sus saltos
+        float velocidadSaltoMaxima = 0f;
+
+        Plataforma(float x0, float x1, float y) {
+            this.x0 = x0;
+            this.x1 = x1;
+            this.y = y;
+        }
+
+        public boolean contieneX(float x) { return x >= x0 && x <= x1; }
+        public float getCentroX() { return (x0 + x1) / 2f; }
+        public float getAncho() { return x1 - x0; }
+        public int getIndice() { return indice; }
+
+        @Override
+        public String toString() {
+            return "Plataforma{" + indice + ": x=" + x0 + ".." + x1 + ", y=" + y + ", conexiones=" + conexiones.size + "}";
+        }
+    }
+
+    /**
+     * Paso de una plataforma a otra.
+     */
+    public static class Conexion implements Connection<Plataforma> {
+        public final Plataforma origen;
+        public final Plataforma destino;
+        public final TipoConexion tipo;
+        /** X del borde de la plataforma de origen por donde se sale */
+        public final float xSalida;
+        /** X a la que hay que dirigirse para llegar al destino */
+        public final float xLlegada;
+        /** Velocidad horizontal necesaria para completar el salto (0 andando o cayendo) */
+        public final float velocidadMinima;
+        private final float coste;
+
+        Conexion(Plataforma origen, Plataforma destino, TipoConexion tipo, float xSalida, float xLlegada,
+                 float velocidadMinima, float coste) {
+            this.origen = origen;
+            this.destino = destino;
+            this.tipo = tipo;
+            this.xSalida = xSalida;
+            this.xLlegada = xLlegada;
+            this.velocidadMinima = velocidadMinima;
+            this.coste = coste;
+        }
+
+        @Override public float getCost() { return coste; }
+        @Override public Plataforma getFromNode() { return origen; }
+        @Override public Plataforma getToNode() { return destino; }
+
+        @Override
+        public String toString() {
+            return tipo + " " + origen.indice + " -> " + destino.indice + " (x " + xSalida + " -> " + xLlegada + ")";
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getNumeroPlataformas() { return plataformas.size; }
+    public int getNumeroConexiones() { return totalConexiones; }
+    public Array<Plataforma> getPlataformas() { return plataformas; }
+}
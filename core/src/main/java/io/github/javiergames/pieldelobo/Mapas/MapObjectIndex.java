@@ -0,0 +1,372 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Índice de los objetos del mapa Tiled, construido una sola vez al cargarlo.
+ * Recorre todas las capas de objetos, clasifica cada objeto (puerta, enemigo,
+ * indicador, spawn de NPC o de jugador) y guarda los registros ya creados.
+ * También permite buscar objetos por nombre y por capa.
+ *
+ * Las reglas de clasificación son las mismas que usaba {@link MapaManager}
+ * (mismas capas candidatas, en el mismo orden), así que los resultados no cambian.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class MapObjectIndex {
+
+    /** Tipos de objeto que reconoce el índice */
+    public enum Tipo {
+        PUERTA, ENEMIGO, INDICADOR, SPAWN_NPC, SPAWN_JUGADOR
+    }
+
+    // Capas candidatas por tipo de objeto (en orden de búsqueda)
+    private static final String[] CAPAS_PUERTAS = {"puertas", "doors", "transiciones", "zonas", "objects", "objetos", "points"};
+    private static final String[] CAPAS_ENEMIGOS = {"enemigos", "enemies", "spawns", "objects", "objetos", "npcs", "personajes"};
+    private static final String[] CAPAS_INDICADORES = {"indicadores", "points", "objects", "objetos", "spawns", "fin", "exit"};
+    private static final String[] CAPAS_NPCS = {"spawn", "objects", "objetos", "points", "npcs", "spawns"};
+    private static final String[] CAPAS_SPAWN_JUGADOR = {"spawn", "objects", "objetos", "points", "player", "spawns"};
+    private static final String[] CAPAS_SPAWN_GENERICO = {"spawn", "objects", "objetos", "points", "player"};
+
+    private static final String[] TIPOS_ENEMIGO_VALIDOS = {
+        "esqueleto", "bandido_pesado", "bandido_ligero", "bandido",
+        "arquero", "golem", "bruja_fuego", "necromancer"
+    };
+
+    // Registros ya construidos
+    private final Array<MapaManager.PuertaInfo> puertas = new Array<>();
+    private final Array<MapaManager.EnemigoSpawnInfo> enemigos = new Array<>();
+    private final Array<MapaManager.IndicadorSpawnInfo> indicadores = new Array<>();
+    private final Array<MapaManager.NpcSpawnInfo> npcs = new Array<>();
+    private Vector2 spawnJugador;
+    private Vector2 spawnGenerico;
+    private String capaSpawnGenerico;
+
+    // Índices por nombre de objeto y por nombre de capa
+    private final ObjectMap<String, Array<MapObject>> porNombre = new ObjectMap<>();
+    private final ObjectMap<String, Array<Entrada>> porCapa = new ObjectMap<>();
+    private final ObjectMap<Tipo, Array<MapObject>> porTipo = new ObjectMap<>();
+
+    // Resultado de esTipoEnemigoValido por cadena de tipo
+    private final ObjectMap<String, Boolean> tiposEnemigoValidados = new ObjectMap<>();
+
+    private int totalObjetos = 0;
+
+    /**
+     * Objeto del mapa con los datos que necesita la clasificación ya calculados.
+     */
+    private static class Entrada {
+        final MapObject objeto;
+        final Rectangle rect;           // null si no es un rectángulo
+        final String nombre;            // puede ser null
+        final String nombreMinusculas;  // puede ser null
+        final String tipo;              // propiedad "tipo" o null
+        final String tipoMinusculas;
+
+        Entrada(MapObject objeto) {
+            this.objeto = objeto;
+            this.rect = objeto instanceof RectangleMapObject ? ((RectangleMapObject) objeto).getRectangle() : null;
+            this.nombre = objeto.getName();
+            this.nombreMinusculas = nombre != null ? nombre.toLowerCase() : null;
+            MapProperties propiedades = objeto.getProperties();
+            Object valorTipo = propiedades.get("tipo");
+            this.tipo = valorTipo != null ? valorTipo.toString() : null;
+            this.tipoMinusculas = tipo != null ? tipo.toLowerCase() : null;
+        }
+    }
+
+    /**
+     * Construye el índice recorriendo una vez todas las capas de objetos.
+     *
+     * @param mapa Mapa ya cargado
+     */
+    public MapObjectIndex(TiledMap mapa) {
+        for (Tipo tipo : Tipo.values()) {
+            porTipo.put(tipo, new Array<MapObject>());
+        }
+
+        indexarCapas(mapa);
+        clasificarPuertas();
+        clasificarEnemigos();
+        clasificarIndicadores();
+        clasificarNpcs();
+        clasificarSpawns();
+
+        Gdx.app.log("MapObjectIndex", "Índice de objetos: " + totalObjetos + " objetos en " + porCapa.size +
+            " capas (puertas: " + puertas.size + ", enemigos: " + enemigos.size +
+            ", indicadores: " + indicadores.size + ", npcs: " + npcs.size + ")");
+    }
+
+    private void indexarCapas(TiledMap mapa) {
+        for (MapLayer capa : mapa.getLayers()) {
+            // Igual que MapLayers.get(nombre): solo cuenta la primera capa con ese nombre
+            if (capa.getName() == null || porCapa.containsKey(capa.getName())) continue;
+
+            Array<Entrada> entradas = new Array<>();
+            for (MapObject obj : capa.getObjects()) {
+                Entrada entrada = new Entrada(obj);
+                entradas.add(entrada);
+                totalObjetos++;
+
+                if (entrada.nombre != null) {
+                    Array<MapObject> mismos = porNombre.get(entrada.nombre);
+                    if (mismos == null) {
+                        mismos = new Array<>(1);
+                        porNombre.put(entrada.nombre, mismos);
+                    }
+                    mismos.add(obj);
+                }
+            }
+            porCapa.put(capa.getName(), entradas);
+        }
+    }
+
+    // ====================== CLASIFICACIÓN ======================
+
+    private void clasificarPuertas() {
+        for (String nombreCapa : CAPAS_PUERTAS) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            boolean capaDePuertas = nombreCapa.equals("puertas") || nombreCapa.equals("doors");
+
+            for (Entrada e : capa) {
+                if (e.rect == null) continue;
+
+                boolean esPuerta = false;
+                String tipoObjeto = "";
+
+                if (e.nombreMinusculas != null) {
+                    esPuerta = e.nombreMinusculas.contains("puerta") ||
+                        e.nombreMinusculas.contains("door") ||
+                        e.nombreMinusculas.contains("entrada") ||
+                        e.nombreMinusculas.contains("nivel");
+                    tipoObjeto = e.nombre;
+                }
+
+                if (e.tipo != null) {
+                    esPuerta = esPuerta || e.tipoMinusculas.contains("puerta") ||
+                        e.tipoMinusculas.contains("door") ||
+                        e.tipoMinusculas.contains("nivel");
+                    tipoObjeto = e.tipo;
+                }
+
+                // Si no tiene nombre específico pero está en capa "puertas", asumir que es puerta
+                if (!esPuerta && !capaDePuertas) continue;
+
+                MapProperties propiedades = e.objeto.getProperties();
+                String idNivel = propiedades.get("nivel",
+                    tipoObjeto.isEmpty() ? "nivel_1" : tipoObjeto, String.class);
+                String nombre = propiedades.get("nombre",
+                    "Nivel " + idNivel.replace("nivel_", ""), String.class);
+                boolean activa = propiedades.get("activa", true, Boolean.class);
+                boolean bloqueada = propiedades.get("bloqueada", false, Boolean.class);
+                String mapaDestino = propiedades.get("mapa", "Tiled/nivel_villa.tmx", String.class);
+
+                puertas.add(new MapaManager.PuertaInfo(
+                    new Vector2(e.rect.x, e.rect.y),
+                    new Vector2(e.rect.width, e.rect.height),
+                    idNivel, nombre, activa, bloqueada, mapaDestino
+                ));
+                porTipo.get(Tipo.PUERTA).add(e.objeto);
+                Gdx.app.log("MapObjectIndex", "Puerta: " + nombre + " -> " + idNivel +
+                    " en [" + e.rect.x + "," + e.rect.y + "]");
+            }
+        }
+    }
+
+    private void clasificarEnemigos() {
+        for (String nombreCapa : CAPAS_ENEMIGOS) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            for (Entrada e : capa) {
+                if (e.rect == null) continue;
+
+                // Tipo de enemigo: propiedad "tipo" o, si no hay, el nombre del objeto
+                String tipoEnemigo = "";
+                if (e.tipo != null) {
+                    tipoEnemigo = e.tipo;
+                } else if (e.nombre != null && !e.nombre.isEmpty()) {
+                    tipoEnemigo = e.nombreMinusculas;
+                }
+
+                if (tipoEnemigo.isEmpty() || !esTipoEnemigoValido(tipoEnemigo)) continue;
+
+                MapProperties propiedades = e.objeto.getProperties();
+                int vida = propiedades.get("vida", -1, Integer.class);
+                boolean mirandoDerecha = propiedades.get("mirandoDerecha", true, Boolean.class);
+
+                enemigos.add(new MapaManager.EnemigoSpawnInfo(
+                    new Vector2(e.rect.x, e.rect.y), tipoEnemigo, vida, mirandoDerecha));
+                porTipo.get(Tipo.ENEMIGO).add(e.objeto);
+                Gdx.app.log("MapObjectIndex", "Enemigo: " + tipoEnemigo +
+                    " en [" + e.rect.x + "," + e.rect.y + "]");
+            }
+        }
+    }
+
+    private void clasificarIndicadores() {
+        for (String nombreCapa : CAPAS_INDICADORES) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            for (Entrada e : capa) {
+                if (e.rect == null) continue;
+
+                boolean esIndicador = false;
+                if (e.nombreMinusculas != null) {
+                    esIndicador = e.nombreMinusculas.contains("indicador") ||
+                        e.nombreMinusculas.contains("fin") ||
+                        e.nombreMinusculas.contains("meta") ||
+                        e.nombreMinusculas.contains("exit") ||
+                        e.nombreMinusculas.contains("salida");
+                }
+                if (e.tipo != null) {
+                    esIndicador = esIndicador ||
+                        e.tipoMinusculas.contains("indicador") ||
+                        e.tipoMinusculas.contains("fin") ||
+                        e.tipoMinusculas.contains("exit");
+                }
+                if (!esIndicador) continue;
+
+                String nombre = e.objeto.getProperties().get("nombre", "Portal de Salida", String.class);
+                indicadores.add(new MapaManager.IndicadorSpawnInfo(
+                    new Vector2(e.rect.x, e.rect.y),
+                    new Vector2(e.rect.width, e.rect.height),
+                    nombre
+                ));
+                porTipo.get(Tipo.INDICADOR).add(e.objeto);
+                Gdx.app.log("MapObjectIndex", "Indicador de nivel: " + nombre +
+                    " en [" + e.rect.x + "," + e.rect.y + "]");
+            }
+        }
+    }
+
+    private void clasificarNpcs() {
+        for (String nombreCapa : CAPAS_NPCS) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            for (Entrada e : capa) {
+                if (e.rect == null || e.nombre == null || !e.nombre.startsWith("spawn_npc")) continue;
+
+                String tipo = e.tipo != null ? e.tipo : "medico";
+                npcs.add(new MapaManager.NpcSpawnInfo(new Vector2(e.rect.x, e.rect.y), tipo));
+                porTipo.get(Tipo.SPAWN_NPC).add(e.objeto);
+                Gdx.app.log("MapObjectIndex", "Spawn NPC: " + tipo + " en " + e.rect.x + ", " + e.rect.y);
+            }
+        }
+    }
+
+    private void clasificarSpawns() {
+        // Spawn específico del jugador
+        for (String nombreCapa : CAPAS_SPAWN_JUGADOR) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            for (Entrada e : capa) {
+                if (e.rect == null || e.nombre == null) continue;
+                if (e.nombre.equals("spawn_jugador") || e.nombre.equals("player_spawn")) {
+                    spawnJugador = new Vector2(e.rect.x, e.rect.y);
+                    porTipo.get(Tipo.SPAWN_JUGADOR).add(e.objeto);
+                    break;
+                }
+            }
+            if (spawnJugador != null) break;
+        }
+
+        // Spawn genérico: primer rectángulo de las capas de spawn
+        for (String nombreCapa : CAPAS_SPAWN_GENERICO) {
+            Array<Entrada> capa = porCapa.get(nombreCapa);
+            if (capa == null) continue;
+
+            for (Entrada e : capa) {
+                if (e.rect != null) {
+                    spawnGenerico = new Vector2(e.rect.x, e.rect.y);
+                    capaSpawnGenerico = nombreCapa;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica si un tipo de enemigo es válido.
+     * El resultado se guarda por cadena, así cada tipo distinto se evalúa una sola vez.
+     */
+    public boolean esTipoEnemigoValido(String tipo) {
+        Boolean valido = tiposEnemigoValidados.get(tipo);
+        if (valido == null) {
+            valido = false;
+            String tipoMinusculas = tipo.toLowerCase();
+            for (String candidato : TIPOS_ENEMIGO_VALIDOS) {
+                if (tipoMinusculas.contains(candidato)) {
+                    valido = true;
+                    break;
+                }
+            }
+            tiposEnemigoValidados.put(tipo, valido);
+        }
+        return valido;
+    }
+
+    // ====================== CONSULTAS ======================
+    // Los arrays devueltos son compartidos: no deben modificarse.
+
+    public Array<MapaManager.PuertaInfo> getPuertas() { return puertas; }
+    public Array<MapaManager.EnemigoSpawnInfo> getEnemigos() { return enemigos; }
+    public Array<MapaManager.IndicadorSpawnInfo> getIndicadores() { return indicadores; }
+    public Array<MapaManager.NpcSpawnInfo> getNpcs() { return npcs; }
+
+    /** Posición del objeto "spawn_jugador"/"player_spawn", o null si no existe. */
+    public Vector2 getSpawnJugador() { return spawnJugador; }
+
+    /** Posición del primer rectángulo en las capas de spawn, o null si no existe. */
+    public Vector2 getSpawnGenerico() { return spawnGenerico; }
+
+    /** Capa en la que se encontró el spawn genérico, o null. */
+    public String getCapaSpawnGenerico() { return capaSpawnGenerico; }
+
+    /** Objetos clasificados como el tipo indicado. */
+    public Array<MapObject> getObjetos(Tipo tipo) { return porTipo.get(tipo); }
+
+    /**
+     * Objetos con el nombre indicado, en cualquier capa.
+     *
+     * @return Los objetos, o null si no hay ninguno
+     */
+    public Array<MapObject> getObjetosPorNombre(String nombre) { return porNombre.get(nombre); }
+
+    /** Primer objeto con el nombre indicado, o null. */
+    public MapObject getObjetoPorNombre(String nombre) {
+        Array<MapObject> objetos = porNombre.get(nombre);
+        return objetos != null && objetos.size > 0 ? objetos.first() : null;
+    }
+
+    /** Indica si existe una capa con ese nombre. */
+    public boolean tieneCapa(String nombreCapa) { return porCapa.containsKey(nombreCapa); }
+
+    /** Número de objetos de la capa indicada (0 si no existe). */
+    public int getNumeroObjetosCapa(String nombreCapa) {
+        Array<Entrada> capa = porCapa.get(nombreCapa);
+        return capa != null ? capa.size : 0;
+    }
+
+    /** Objeto {@code indice} de la capa indicada. */
+    public MapObject getObjetoDeCapa(String nombreCapa, int indice) {
+        return porCapa.get(nombreCapa).get(indice).objeto;
+    }
+
+    public int getTotalObjetos() { return totalObjetos; }
+}
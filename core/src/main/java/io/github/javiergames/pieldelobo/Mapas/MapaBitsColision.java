@@ -0,0 +1,215 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Mapa de bits de colisión con un bit por tile.
+ * Cada celda puede estar vacía, completamente sólida o parcialmente cubierta.
+ * Las celdas sólidas responden una consulta sin mirar ningún rectángulo;
+ * solo las parciales necesitan la prueba exacta contra la rejilla.
+ *
+ * Se rellena a partir de los rectángulos de colisión, que incluyen los
+ * generados desde las capas de tiles con la propiedad {@code solid=true}
+ * (ver {@link #extraerTilesSolidos}).
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+class MapaBitsColision {
+    /** Resultado de consulta: no hay colisión */
+    static final int LIBRE = 0;
+    /** Resultado de consulta: hay colisión segura */
+    static final int SOLIDO = 1;
+    /** Resultado de consulta: hay celdas parciales o la caja sale del mapa */
+    static final int DUDOSO = 2;
+
+    private final int columnas;
+    private final int filas;
+    private final float anchoCelda;
+    private final float altoCelda;
+    private final long[] solidas;
+    private final long[] parciales;
+
+    private int celdasSolidas = 0;
+    private int celdasParciales = 0;
+
+    MapaBitsColision(int columnas, int filas, float anchoCelda, float altoCelda) {
+        this.columnas = columnas;
+        this.filas = filas;
+        this.anchoCelda = anchoCelda;
+        this.altoCelda = altoCelda;
+        int palabras = (columnas * filas + 63) >>> 6;
+        this.solidas = new long[palabras];
+        this.parciales = new long[palabras];
+    }
+
+    /**
+     * Crea el mapa de bits para un mapa Tiled.
+     *
+     * @return El mapa de bits, o null si el mapa no tiene dimensiones válidas
+     */
+    static MapaBitsColision crear(TiledMap mapa, Array<Rectangle> rectangulos, float unidadEscala) {
+        MapProperties props = mapa.getProperties();
+        int columnas = props.get("width", 0, Integer.class);
+        int filas = props.get("height", 0, Integer.class);
+        int anchoTile = props.get("tilewidth", 0, Integer.class);
+        int altoTile = props.get("tileheight", 0, Integer.class);
+        if (columnas <= 0 || filas <= 0 || anchoTile <= 0 || altoTile <= 0) {
+            return null;
+        }
+
+        MapaBitsColision bits = new MapaBitsColision(columnas, filas,
+            anchoTile * unidadEscala, altoTile * unidadEscala);
+
+        for (int i = 0; i < rectangulos.size; i++) {
+            bits.rasterizar(rectangulos.get(i));
+        }
+
+        bits.contarCeldas();
+        return bits;
+    }
+
+    /**
+     * Marca las celdas que toca el rectángulo: sólidas si lo cubre por
+     * completo, parciales en otro caso.
+     */
+    private void rasterizar(Rectangle r) {
+        if (r.width <= 0 || r.height <= 0) return;
+
+        int cx0 = Math.max(0, (int) Math.floor(r.x / anchoCelda));
+        int cx1 = Math.min(columnas - 1, (int) Math.ceil((r.x + r.width) / anchoCelda) - 1);
+        int cy0 = Math.max(0, (int) Math.floor(r.y / altoCelda));
+        int cy1 = Math.min(filas - 1, (int) Math.ceil((r.y + r.height) / altoCelda) - 1);
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            float y0 = cy * altoCelda;
+            boolean cubreY = r.y <= y0 && r.y + r.height >= y0 + altoCelda;
+
+            for (int cx = cx0; cx <= cx1; cx++) {
+                float x0 = cx * anchoCelda;
+                boolean cubreX = r.x <= x0 && r.x + r.width >= x0 + anchoCelda;
+                int indice = cy * columnas + cx;
+
+                if (cubreX && cubreY) {
+                    poner(solidas, indice);
+                } else {
+                    poner(parciales, indice);
+                }
+            }
+        }
+    }
+
+    /**
+     * Convierte en rectángulos las celdas de las capas de tiles con
+     * {@code solid=true} (en la capa o en el tile). Las celdas contiguas de una
+     * misma fila se unen en un solo rectángulo.
+     *
+     * @return Número de celdas sólidas encontradas
+     */
+    static int extraerTilesSolidos(TiledMap mapa, float unidadEscala, Array<Rectangle> salida) {
+        int celdas = 0;
+
+        for (MapLayer capaMapa : mapa.getLayers()) {
+            if (!(capaMapa instanceof TiledMapTileLayer)) continue;
+
+            TiledMapTileLayer capa = (TiledMapTileLayer) capaMapa;
+            boolean capaSolida = esVerdadero(capa.getProperties().get("solid"));
+            float anchoTile = capa.getTileWidth() * unidadEscala;
+            float altoTile = capa.getTileHeight() * unidadEscala;
+
+            for (int y = 0; y < capa.getHeight(); y++) {
+                int inicio = -1;
+                for (int x = 0; x <= capa.getWidth(); x++) {
+                    boolean solida = x < capa.getWidth() && esCeldaSolida(capa.getCell(x, y), capaSolida);
+                    if (solida) {
+                        celdas++;
+                        if (inicio < 0) inicio = x;
+                    } else if (inicio >= 0) {
+                        salida.add(new Rectangle(inicio * anchoTile, y * altoTile,
+                            (x - inicio) * anchoTile, altoTile));
+                        inicio = -1;
+                    }
+                }
+            }
+        }
+        return celdas;
+    }
+
+    private static boolean esCeldaSolida(TiledMapTileLayer.Cell celda, boolean capaSolida) {
+        if (celda == null) return false;
+        TiledMapTile tile = celda.getTile();
+        if (tile == null) return false;
+        return capaSolida || esVerdadero(tile.getProperties().get("solid"));
+    }
+
+    private void contarCeldas() {
+        for (int i = 0; i < parciales.length; i++) {
+            // Una celda sólida no necesita prueba exacta aunque algún rectángulo la toque a medias
+            parciales[i] &= ~solidas[i];
+            celdasSolidas += Long.bitCount(solidas[i]);
+            celdasParciales += Long.bitCount(parciales[i]);
+        }
+    }
+
+    /**
+     * Consulta las celdas cuyo interior toca la caja.
+     *
+     * @return {@link #SOLIDO}, {@link #LIBRE} o {@link #DUDOSO} si hace falta la prueba exacta
+     */
+    int consultar(Rectangle caja) {
+        if (caja.width <= 0 || caja.height <= 0) return DUDOSO;
+
+        int cx0 = (int) Math.floor(caja.x / anchoCelda);
+        int cx1 = (int) Math.ceil((caja.x + caja.width) / anchoCelda) - 1;
+        int cy0 = (int) Math.floor(caja.y / altoCelda);
+        int cy1 = (int) Math.ceil((caja.y + caja.height) / altoCelda) - 1;
+
+        // Fuera del mapa puede haber rectángulos que el mapa de bits no cubre
+        if (cx0 < 0 || cy0 < 0 || cx1 >= columnas || cy1 >= filas) return DUDOSO;
+
+        boolean dudoso = false;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            int fila = cy * columnas;
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int indice = fila + cx;
+                if (activo(solidas, indice)) return SOLIDO;
+                if (activo(parciales, indice)) dudoso = true;
+            }
+        }
+        return dudoso ? DUDOSO : LIBRE;
+    }
+
+    /** Indica si la celda (columna, fila) es completamente sólida. */
+    boolean esSolida(int cx, int cy) {
+        if (cx < 0 || cy < 0 || cx >= columnas || cy >= filas) return false;
+        return activo(solidas, cy * columnas + cx);
+    }
+
+    private static void poner(long[] bits, int indice) {
+        bits[indice >>> 6] |= 1L << (indice & 63);
+    }
+
+    private static boolean activo(long[] bits, int indice) {
+        return (bits[indice >>> 6] & (1L << (indice & 63))) != 0;
+    }
+
+    private static boolean esVerdadero(Object valor) {
+        if (valor instanceof Boolean) return (Boolean) valor;
+        return valor != null && "true".equalsIgnoreCase(valor.toString());
+    }
+
+    // ====================== GETTERS ======================
+
+    int getColumnas() { return columnas; }
+    int getFilas() { return filas; }
+    float getAnchoCelda() { return anchoCelda; }
+    float getAltoCelda() { return altoCelda; }
+    int getCeldasSolidas() { return celdasSolidas; }
+    int getCeldasParciales() { return celdasParciales; }
+}
@@ -1,16 +1,25 @@
 package io.github.javiergames.pieldelobo.Mapas;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.MapGroupLayer;
 import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
 import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * Maneja la carga, renderizado y colisiones del mapa Tiled (.tmx).
@@ -22,14 +31,42 @@ import com.badlogic.gdx.utils.Array;
  */
 public class MapaManager {
     private TiledMap mapa;
-    private OrthogonalTiledMapRenderer renderer;
+    private RendererCapasEstaticas renderer;
+    // Capas de fondo con parallax (null si el mapa no tiene)
+    private FondoParallax fondoParallax;
     private Array<Rectangle> colisiones;
+    // Número de rectángulos antes de fusionar los contiguos
+    private int colisionesSinFusionar = 0;
     private boolean cargado;
+    private boolean propietarioMapa;
     private float unidadEscala;
 
     // Sistema de debug opcional
     private boolean debugColisiones = false;
     private com.badlogic.gdx.graphics.glutils.ShapeRenderer shapeRenderer;
+
+    // Índice espacial de colisiones y contadores de consultas
+    private RejillaColisiones rejillaColisiones;
+    private long consultasColision = 0;
+
+    // Modo de colisión por tiles (mapa de bits)
+    private MapaBitsColision mapaBits;
+    private boolean colisionPorTiles = true;
+    private long consultasResueltasPorTiles = 0;
+
+    // Temporales reutilizados por las consultas de barrido
+    private final IntArray candidatosTemp = new IntArray();
+    private final Rectangle cajaTemp = new Rectangle();
+    private final ResultadoRayo rayoTemp = new ResultadoRayo();
+
+    // Índice de objetos del mapa (puertas, enemigos, spawns...)
+    private MapObjectIndex indiceObjetos;
+
+    // Grafo de plataformas para la navegación de los enemigos
+    private GrafoPlataformas grafoPlataformas;
+
+    // Ancho de los segmentos en que se divide el nivel para crear enemigos bajo demanda
+    private static final int TILES_POR_SEGMENTO = 32;
     /**
      * Constructor principal que carga un mapa desde la ruta especificada.
      *
@@ -39,42 +76,144 @@ public class MapaManager {
         this.colisiones = new Array<>();
         this.cargado = false;
         this.unidadEscala = 1f;
+        this.propietarioMapa = true;
 
         try {
             Gdx.app.log("MapaManager", "Cargando mapa: " + rutaMapa);
+            inicializar(cargarMapa(rutaMapa), rutaMapa);
+        } catch (Exception e) {
+            Gdx.app.error("MapaManager", "Error al cargar mapa " + rutaMapa, e);
+            cargarMapaDeRespaldo();
+        }
+    }
+
+    /**
+     * Constructor para un mapa ya cargado (por ejemplo, desde el AssetManager).
+     * El mapa no se libera en {@link #dispose()}: lo libera quien lo cargó.
+     *
+     * @param mapaCargado Mapa ya cargado
+     * @param rutaMapa Ruta del archivo, solo para los logs
+     */
+    public MapaManager(TiledMap mapaCargado, String rutaMapa) {
+        this.colisiones = new Array<>();
+        this.cargado = false;
+        this.unidadEscala = 1f;
+        this.propietarioMapa = false;
 
-            TmxMapLoader.Parameters params = new TmxMapLoader.Parameters();
-            mapa = new TmxMapLoader().load(rutaMapa, params);
-            renderer = new OrthogonalTiledMapRenderer(mapa, unidadEscala);
+        try {
+            inicializar(mapaCargado, rutaMapa);
+        } catch (Exception e) {
+            Gdx.app.error("MapaManager", "Error al preparar mapa " + rutaMapa, e);
+            cargarMapaDeRespaldo();
+        }
+    }
 
-            // Inicializar ShapeRenderer para debug
-            shapeRenderer = new com.badlogic.gdx.graphics.glutils.ShapeRenderer();
+    private void inicializar(TiledMap mapaCargado, String rutaMapa) {
+        mapa = mapaCargado;
+        // Los fondos se preparan antes: sus capas no se hornean ni las dibuja el renderer
+        fondoParallax = FondoParallax.crear(mapa, unidadEscala);
+        // Las capas de tiles estáticas se hornean aquí una sola vez
+        renderer = new RendererCapasEstaticas(mapa, unidadEscala,
+            fondoParallax != null ? fondoParallax.getCapasMapa() : null);
 
-            cargarColisiones();
+        // Inicializar ShapeRenderer para debug
+        shapeRenderer = new com.badlogic.gdx.graphics.glutils.ShapeRenderer();
 
-            cargado = true;
-            Gdx.app.log("MapaManager", "Mapa cargado correctamente: " + rutaMapa);
-            Gdx.app.log("MapaManager", "Número de colisiones: " + colisiones.size);
+        cargarColisiones();
+        indiceObjetos = new MapObjectIndex(mapa);
 
-        } catch (Exception e) {
-            Gdx.app.error("MapaManager", "Error al cargar mapa " + rutaMapa, e);
-            cargarMapaDeRespaldo();
+        cargado = true;
+        Gdx.app.log("MapaManager", "Mapa cargado correctamente: " + rutaMapa);
+        Gdx.app.log("MapaManager", "Número de colisiones: " + colisiones.size);
+    }
+
+    /**
+     * Devuelve la ruta desde la que conviene cargar un mapa: el nivel
+     * compilado (.nivel) si existe y no es más antiguo que el .tmx, o el .tmx.
+     */
+    public static String rutaDeCarga(String rutaMapa) {
+        String rutaNivel = CargadorNivelBinario.rutaCompilada(rutaMapa);
+        FileHandle nivel = Gdx.files.internal(rutaNivel);
+
+        if (nivel.exists() && !estaDesactualizado(nivel, Gdx.files.internal(rutaMapa))) {
+            return rutaNivel;
+        }
+        return rutaMapa;
+    }
+
+    /**
+     * Carga el nivel compilado (.nivel) si existe y no es más antiguo que el
+     * .tmx; si no, analiza el .tmx como siempre.
+     */
+    private TiledMap cargarMapa(String rutaMapa) {
+        long inicio = TimeUtils.millis();
+        String rutaNivel = rutaDeCarga(rutaMapa);
+
+        if (!rutaNivel.equals(rutaMapa)) {
+            try {
+                TiledMap compilado = new CargadorNivelBinario().load(rutaNivel);
+                Gdx.app.log("MapaManager", "Nivel compilado cargado: " + rutaNivel +
+                    " (" + TimeUtils.timeSinceMillis(inicio) + " ms)");
+                return compilado;
+            } catch (Exception e) {
+                Gdx.app.error("MapaManager", "Nivel compilado no válido, se usa el TMX: " + rutaNivel, e);
+            }
         }
+
+        TmxMapLoader.Parameters params = new TmxMapLoader.Parameters();
+        TiledMap tmx = new TmxMapLoader().load(rutaMapa, params);
+        Gdx.app.log("MapaManager", "TMX analizado: " + rutaMapa + " (" + TimeUtils.timeSinceMillis(inicio) + " ms)");
+        return tmx;
+    }
+
+    /**
+     * Un nivel compilado está desactualizado si el .tmx se modificó después.
+     * Donde no hay fechas (assets empaquetados) se da por bueno.
+     */
+    private static boolean estaDesactualizado(FileHandle nivel, FileHandle tmx) {
+        long fechaTmx = tmx.exists() ? tmx.lastModified() : 0;
+        if (fechaTmx == 0 || nivel.lastModified() == 0) return false;
+        if (fechaTmx > nivel.lastModified()) {
+            Gdx.app.log("MapaManager", "Nivel compilado desactualizado, se usa el TMX: " + nivel.path());
+            return true;
+        }
+        return false;
     }
 
     private void cargarMapaDeRespaldo() {
         Gdx.app.log("MapaManager", "Modo respaldo: sin mapa cargado");
     }
 
-    private void cargarColisiones() {
-        if (mapa == null) return;
-
+    /**
+     * Busca la capa de objetos con las colisiones del mapa.
+     *
+     * @return La primera capa con un nombre reconocido, o null
+     */
+    static MapLayer buscarCapaColisiones(TiledMap mapa) {
         String[] posiblesNombres = {"colisiones", "collision", "obstaculos", "walls", "Colisiones"};
-
         for (String nombre : posiblesNombres) {
             MapLayer capa = mapa.getLayers().get(nombre);
+            if (capa != null) return capa;
+        }
+        return null;
+    }
+
+    private void cargarColisiones() {
+        if (mapa == null) return;
+
+        @SuppressWarnings("unchecked")
+        Array<Rectangle> compiladas = mapa.getProperties().get(CargadorNivelBinario.PROPIEDAD_COLISIONES, Array.class);
+        if (compiladas != null) {
+            // El nivel compilado ya trae la capa de colisiones y los tiles sólidos
+            for (Rectangle rect : compiladas) {
+                colisiones.add(new Rectangle(rect.x * unidadEscala, rect.y * unidadEscala,
+                    rect.width * unidadEscala, rect.height * unidadEscala));
+            }
+            Gdx.app.log("MapaManager", "Colisiones precompiladas: " + colisiones.size);
+        } else {
+            MapLayer capa = buscarCapaColisiones(mapa);
             if (capa != null) {
-                Gdx.app.log("MapaManager", "Encontrada capa de colisiones: " + nombre);
+                Gdx.app.log("MapaManager", "Encontrada capa de colisiones: " + capa.getName());
 
                 for (MapObject obj : capa.getObjects()) {
                     if (obj instanceof RectangleMapObject) {
@@ -83,10 +222,71 @@ public class MapaManager {
                         Gdx.app.log("MapaManager", "Colisión cargada: " + rect);
                     }
                 }
-                return;
+            } else {
+                Gdx.app.log("MapaManager", "No se encontró capa de colisiones");
+            }
+
+            // Las capas de tiles con solid=true se convierten en rectángulos como los demás
+            int celdasDeTiles = MapaBitsColision.extraerTilesSolidos(mapa, unidadEscala, colisiones);
+            if (celdasDeTiles > 0) {
+                Gdx.app.log("MapaManager", "Tiles sólidos añadidos a colisiones: " + celdasDeTiles);
             }
         }
-        Gdx.app.log("MapaManager", "No se encontró capa de colisiones");
+
+        fusionarColisiones();
+        construirRejillaColisiones();
+        construirMapaBits();
+        construirGrafoPlataformas();
+    }
+
+    /**
+     * Junta los rectángulos contiguos o solapados en franjas y cajas más
+     * grandes. La zona sólida no cambia, pero cada consulta (y el dibujo de
+     * debug) recorre menos rectángulos.
+     */
+    private void fusionarColisiones() {
+        colisionesSinFusionar = colisiones.size;
+        colisiones = FusionColisiones.fusionar(colisiones);
+        Gdx.app.log("MapaManager", "Colisiones fusionadas: " + colisionesSinFusionar + " -> " + colisiones.size);
+    }
+
+    /**
+     * Construye la rejilla espacial sobre las colisiones cargadas.
+     * Usa el tamaño de tile del mapa como tamaño de celda.
+     */
+    private void construirRejillaColisiones() {
+        int tamañoTile = mapa.getProperties().get("tilewidth", 32, Integer.class);
+        rejillaColisiones = new RejillaColisiones(colisiones, tamañoTile * unidadEscala);
+        Gdx.app.log("MapaManager", "Rejilla de colisiones: " + rejillaColisiones.getColumnas() + "x" +
+            rejillaColisiones.getFilas() + " celdas (" + rejillaColisiones.getCeldasOcupadas() + " ocupadas)");
+    }
+
+    /**
+     * Rasteriza las colisiones en un mapa de bits por tile.
+     * Incluye las capas de tiles con la propiedad {@code solid=true}.
+     */
+    private void construirMapaBits() {
+        mapaBits = MapaBitsColision.crear(mapa, colisiones, unidadEscala);
+        if (mapaBits == null) {
+            Gdx.app.log("MapaManager", "Mapa de bits no disponible, se usan solo rectángulos");
+            return;
+        }
+        Gdx.app.log("MapaManager", "Mapa de bits de colisión: " + mapaBits.getColumnas() + "x" +
+            mapaBits.getFilas() + " (sólidas: " + mapaBits.getCeldasSolidas() +
+            ", parciales: " + mapaBits.getCeldasParciales() + ")");
+    }
+
+    /**
+     * Construye el grafo de plataformas (superficies, caídas y saltos) que
+     * usan los enemigos para perseguir al jugador y detectar bordes.
+     */
+    private void construirGrafoPlataformas() {
+        int tamañoTile = mapa.getProperties().get("tilewidth", 32, Integer.class);
+        long inicio = TimeUtils.millis();
+        grafoPlataformas = new GrafoPlataformas(colisiones, rejillaColisiones, tamañoTile * unidadEscala);
+        Gdx.app.log("MapaManager", "Grafo de plataformas: " + grafoPlataformas.getNumeroPlataformas() +
+            " plataformas, " + grafoPlataformas.getNumeroConexiones() + " conexiones (" +
+            TimeUtils.timeSinceMillis(inicio) + " ms)");
     }
 
     // ====================== MÉTODOS DE OBTENCIÓN DE INFORMACIÓN ======================
@@ -150,17 +350,223 @@ public class MapaManager {
      * @return true si hay colisión, false en caso contrario
      */
     public boolean hayColision(Rectangle hitboxJugador) {
-        if (!cargado) {
+        if (!cargado || rejillaColisiones == null) {
             return false;
         }
 
-        for (Rectangle colision : colisiones) {
-            if (hitboxJugador.overlaps(colision)) {
-                return true;
+        consultasColision++;
+
+        // Primero el mapa de bits: las celdas llenas o vacías se resuelven sin rectángulos
+        if (colisionPorTiles && mapaBits != null) {
+            int resultado = mapaBits.consultar(hitboxJugador);
+            if (resultado != MapaBitsColision.DUDOSO) {
+                consultasResueltasPorTiles++;
+                return resultado == MapaBitsColision.SOLIDO;
             }
         }
 
-        return false;
+        return rejillaColisiones.hayColision(hitboxJugador);
+    }
+
+    // ====================== BARRIDO DE CAJAS ======================
+
+    /**
+     * Mueve una caja de forma continua y calcula hasta dónde puede llegar
+     * antes de tocar una colisión. Sustituye a los bucles que avanzan píxel a
+     * píxel llamando a {@link #hayColision(Rectangle)}.
+     *
+     * Los rectángulos que ya solapan la caja al empezar se ignoran (así se
+     * puede salir de ellos) y se indica con {@code solapadoInicial}.
+     *
+     * @param caja Caja en su posición inicial (no se modifica)
+     * @param dx Desplazamiento horizontal deseado
+     * @param dy Desplazamiento vertical deseado
+     * @param resultado Resultado a rellenar: movimiento permitido, normal y tiempo de impacto
+     * @return true si la caja choca antes de completar el movimiento
+     */
+    public boolean barrer(Rectangle caja, float dx, float dy, ResultadoBarrido resultado) {
+        resultado.reiniciar(dx, dy);
+        if (!cargado || rejillaColisiones == null) {
+            return false;
+        }
+
+        consultasColision++;
+
+        // Fase amplia: rectángulos cuyas celdas toca el recorrido completo
+        float minX = Math.min(caja.x, caja.x + dx);
+        float minY = Math.min(caja.y, caja.y + dy);
+        candidatosTemp.clear();
+        rejillaColisiones.candidatos(minX, minY, caja.width + Math.abs(dx), caja.height + Math.abs(dy), candidatosTemp);
+
+        int indiceImpacto = -1;
+        for (int k = 0; k < candidatosTemp.size; k++) {
+            int indice = candidatosTemp.items[k];
+            Rectangle r = rejillaColisiones.getRectangulo(indice);
+
+            if (caja.overlaps(r)) {
+                resultado.solapadoInicial = true;
+                continue;
+            }
+
+            // Tiempos de entrada y salida por eje (método de las franjas)
+            float entradaX, salidaX, entradaY, salidaY;
+            if (dx > 0) {
+                entradaX = (r.x - (caja.x + caja.width)) / dx;
+                salidaX = (r.x + r.width - caja.x) / dx;
+            } else if (dx < 0) {
+                entradaX = (r.x + r.width - caja.x) / dx;
+                salidaX = (r.x - (caja.x + caja.width)) / dx;
+            } else {
+                if (caja.x + caja.width <= r.x || caja.x >= r.x + r.width) continue;
+                entradaX = Float.NEGATIVE_INFINITY;
+                salidaX = Float.POSITIVE_INFINITY;
+            }
+
+            if (dy > 0) {
+                entradaY = (r.y - (caja.y + caja.height)) / dy;
+                salidaY = (r.y + r.height - caja.y) / dy;
+            } else if (dy < 0) {
+                entradaY = (r.y + r.height - caja.y) / dy;
+                salidaY = (r.y - (caja.y + caja.height)) / dy;
+            } else {
+                if (caja.y + caja.height <= r.y || caja.y >= r.y + r.height) continue;
+                entradaY = Float.NEGATIVE_INFINITY;
+                salidaY = Float.POSITIVE_INFINITY;
+            }
+
+            float entrada = Math.max(entradaX, entradaY);
+            float salida = Math.min(salidaX, salidaY);
+            if (entrada >= salida || entrada < 0 || entrada >= resultado.tiempo) continue;
+
+            resultado.tiempo = entrada;
+            indiceImpacto = indice;
+            if (entradaX > entradaY) {
+                resultado.normalX = dx > 0 ? -1 : 1;
+                resultado.normalY = 0;
+            } else {
+                resultado.normalX = 0;
+                resultado.normalY = dy > 0 ? -1 : 1;
+            }
+        }
+
+        if (indiceImpacto < 0) {
+            return false;
+        }
+
+        // Movimiento permitido; en el eje del choque se usa la distancia exacta al borde
+        Rectangle r = rejillaColisiones.getRectangulo(indiceImpacto);
+        resultado.colision = true;
+        resultado.dx = dx * resultado.tiempo;
+        resultado.dy = dy * resultado.tiempo;
+        if (resultado.normalX > 0) resultado.dx = r.x + r.width - caja.x;
+        else if (resultado.normalX < 0) resultado.dx = r.x - (caja.x + caja.width);
+        else if (resultado.normalY > 0) resultado.dy = r.y + r.height - caja.y;
+        else resultado.dy = r.y - (caja.y + caja.height);
+        return true;
+    }
+
+    /**
+     * Calcula cuánto hay que subir una caja para que deje de solapar
+     * con las colisiones del mapa (por ejemplo, un personaje hundido en el suelo).
+     *
+     * @param caja Caja a comprobar (no se modifica)
+     * @param maxSubida Distancia máxima permitida
+     * @return Distancia a subir (0 si ya está libre) o -1 si no se libera dentro del máximo
+     */
+    public float calcularSubidaParaLiberar(Rectangle caja, float maxSubida) {
+        if (!cargado || rejillaColisiones == null) {
+            return 0;
+        }
+
+        consultasColision++;
+        cajaTemp.set(caja);
+        float subida = 0;
+
+        // Cada pasada salta al borde superior más alto de lo que solapa
+        for (int pasada = 0; pasada < 16; pasada++) {
+            candidatosTemp.clear();
+            rejillaColisiones.candidatos(cajaTemp.x, cajaTemp.y, cajaTemp.width, cajaTemp.height, candidatosTemp);
+
+            float techo = -Float.MAX_VALUE;
+            for (int k = 0; k < candidatosTemp.size; k++) {
+                Rectangle r = rejillaColisiones.getRectangulo(candidatosTemp.items[k]);
+                if (cajaTemp.overlaps(r)) {
+                    techo = Math.max(techo, r.y + r.height);
+                }
+            }
+
+            if (techo == -Float.MAX_VALUE) {
+                return subida;
+            }
+
+            subida = techo - caja.y;
+            if (subida > maxSubida) {
+                return -1;
+            }
+            cajaTemp.y = caja.y + subida;
+        }
+        return -1;
+    }
+
+    // ====================== RAYOS Y LÍNEA DE VISIÓN ======================
+
+    /**
+     * Lanza un rayo desde un punto en una dirección y busca la primera colisión.
+     *
+     * @param origenX Origen del rayo
+     * @param origenY Origen del rayo
+     * @param dirX Dirección (no hace falta normalizarla)
+     * @param dirY Dirección (no hace falta normalizarla)
+     * @param distanciaMax Longitud máxima del rayo
+     * @param resultado Resultado a rellenar: punto, normal y distancia del impacto
+     * @return true si el rayo choca antes de recorrer la distancia máxima
+     */
+    public boolean lanzarRayo(float origenX, float origenY, float dirX, float dirY,
+                              float distanciaMax, ResultadoRayo resultado) {
+        float longitud = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+        if (longitud == 0) {
+            resultado.reiniciar(origenX, origenY, 0, 0);
+            return false;
+        }
+        float escala = distanciaMax / longitud;
+        return lanzarSegmento(origenX, origenY, origenX + dirX * escala, origenY + dirY * escala, resultado);
+    }
+
+    /**
+     * Busca la primera colisión en el segmento que une dos puntos.
+     * Recorre con DDA las celdas de la rejilla de colisiones que atraviesa,
+     * así que el coste depende de la longitud del segmento y no del tamaño del mapa.
+     *
+     * @param resultado Resultado a rellenar (si no hay impacto, el punto es el final del segmento)
+     * @return true si el segmento choca con alguna colisión
+     */
+    public boolean lanzarSegmento(float x0, float y0, float x1, float y1, ResultadoRayo resultado) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        resultado.reiniciar(x0, y0, dx, dy);
+        if (!cargado || rejillaColisiones == null) {
+            return false;
+        }
+
+        consultasColision++;
+
+        if (!rejillaColisiones.lanzarRayo(x0, y0, dx, dy, resultado)) {
+            return false;
+        }
+
+        resultado.colision = true;
+        resultado.puntoX = x0 + dx * resultado.fraccion;
+        resultado.puntoY = y0 + dy * resultado.fraccion;
+        resultado.distancia = resultado.longitud * resultado.fraccion;
+        return true;
+    }
+
+    /**
+     * Indica si no hay ninguna colisión entre dos puntos.
+     * Pensado para que los enemigos a distancia no disparen a través de las paredes.
+     */
+    public boolean hayLineaDeVision(float x0, float y0, float x1, float y1) {
+        return !lanzarSegmento(x0, y0, x1, y1, rayoTemp);
     }
 
     /**
@@ -175,26 +581,10 @@ public class MapaManager {
             return new Vector2(100, 100);
         }
 
-        // Buscar específicamente el spawn del jugador
-        String[] posiblesCapasSpawn = {"spawn", "objects", "objetos", "points", "player", "spawns"};
-
-        for (String nombreCapa : posiblesCapasSpawn) {
-            MapLayer spawnLayer = mapa.getLayers().get(nombreCapa);
-            if (spawnLayer != null) {
-                for (MapObject obj : spawnLayer.getObjects()) {
-                    // Buscar objeto llamado "spawn_jugador" o con propiedad específica
-                    if (obj instanceof RectangleMapObject) {
-                        String nombreObjeto = obj.getName();
-                        if (nombreObjeto != null && (nombreObjeto.equals("spawn_jugador") || nombreObjeto.equals("player_spawn"))) {
-                            Rectangle spawn = ((RectangleMapObject) obj).getRectangle();
-                            float x = spawn.x;
-                            float y = spawn.y;
-                            Gdx.app.log("MapaManager", "Spawn JUGADOR encontrado: " + x + ", " + y);
-                            return new Vector2(x, y);
-                        }
-                    }
-                }
-            }
+        Vector2 spawn = indiceObjetos.getSpawnJugador();
+        if (spawn != null) {
+            Gdx.app.log("MapaManager", "Spawn JUGADOR encontrado: " + spawn.x + ", " + spawn.y);
+            return new Vector2(spawn);
         }
 
         Gdx.app.log("MapaManager", "No se encontró spawn específico para jugador, usando spawn genérico");
@@ -202,52 +592,19 @@ public class MapaManager {
     }
 
     /**
-     * Obtiene información de spawn para NPCs desde el mapa
+     * Obtiene información de spawn para NPCs desde el mapa.
+     * El array devuelto es compartido con el índice de objetos: no modificarlo.
      */
     public Array<NpcSpawnInfo> obtenerInfoSpawnNpcs() {
-        Array<NpcSpawnInfo> npcInfo = new Array<>();
-
         if (!cargado) {
             Gdx.app.log("MapaManager", "Mapa no cargado, sin información de NPCs");
-            return npcInfo;
-        }
-
-        String[] posiblesCapas = {"spawn", "objects", "objetos", "points", "npcs", "spawns"};
-
-        for (String nombreCapa : posiblesCapas) {
-            MapLayer spawnLayer = mapa.getLayers().get(nombreCapa);
-            if (spawnLayer != null) {
-                for (MapObject obj : spawnLayer.getObjects()) {
-                    if (obj instanceof RectangleMapObject) {
-                        String nombreObjeto = obj.getName();
-                        if (nombreObjeto != null && nombreObjeto.startsWith("spawn_npc")) {
-                            Rectangle spawn = ((RectangleMapObject) obj).getRectangle();
-
-                            // Obtener propiedades del objeto
-                            MapProperties propiedades = obj.getProperties();
-                            String tipo = "medico"; // Valor por defecto
-
-                            // Verificar si existe la propiedad "tipo"
-                            if (propiedades.containsKey("tipo")) {
-                                tipo = propiedades.get("tipo", "medico", String.class);
-                            }
-
-                            NpcSpawnInfo info = new NpcSpawnInfo(
-                                new Vector2(spawn.x, spawn.y),
-                                tipo
-                            );
-                            npcInfo.add(info);
-                            Gdx.app.log("MapaManager", "Spawn NPC encontrado: " + tipo + " en " + spawn.x + ", " + spawn.y);
-                        }
-                    }
-                }
-            }
+            return new Array<>();
         }
 
+        Array<NpcSpawnInfo> npcInfo = indiceObjetos.getNpcs();
         if (npcInfo.size == 0) {
             Gdx.app.log("MapaManager", "No se encontraron spawns de NPCs específicos");
         }
-
         return npcInfo;
     }
 
@@ -260,21 +617,11 @@ public class MapaManager {
             return new Vector2(100, 100);
         }
 
-        String[] posiblesCapasSpawn = {"spawn", "objects", "objetos", "points", "player"};
-
-        for (String nombreCapa : posiblesCapasSpawn) {
-            MapLayer spawnLayer = mapa.getLayers().get(nombreCapa);
-            if (spawnLayer != null) {
-                for (MapObject obj : spawnLayer.getObjects()) {
-                    if (obj instanceof RectangleMapObject) {
-                        Rectangle spawn = ((RectangleMapObject) obj).getRectangle();
-                        float x = spawn.x;
-                        float y = spawn.y;
-                        Gdx.app.log("MapaManager", "Spawn encontrado en capa " + nombreCapa + ": " + x + ", " + y);
-                        return new Vector2(x, y);
-                    }
-                }
-            }
+        Vector2 spawn = indiceObjetos.getSpawnGenerico();
+        if (spawn != null) {
+            Gdx.app.log("MapaManager", "Spawn encontrado en capa " + indiceObjetos.getCapaSpawnGenerico() +
+                ": " + spawn.x + ", " + spawn.y);
+            return new Vector2(spawn);
         }
 
         Gdx.app.log("MapaManager", "No se encontró spawn, buscando área segura...");
@@ -297,215 +644,62 @@ public class MapaManager {
     }
 
     /**
-     * Obtiene información de puertas/transiciones desde el mapa Tiled
+     * Obtiene información de puertas/transiciones desde el mapa Tiled.
+     * El array devuelto es compartido con el índice de objetos: no modificarlo.
      */
     public Array<PuertaInfo> obtenerInfoPuertas() {
-        Array<PuertaInfo> puertasInfo = new Array<>();
-
         if (!cargado) {
             Gdx.app.log("MapaManager", "Mapa no cargado, sin información de puertas");
-            return puertasInfo;
-        }
-
-        // Buscar en diferentes nombres de capa
-        String[] posiblesCapas = {"puertas", "doors", "transiciones", "zonas", "objects", "objetos", "points"};
-
-        for (String nombreCapa : posiblesCapas) {
-            MapLayer capa = mapa.getLayers().get(nombreCapa);
-            if (capa != null) {
-                Gdx.app.log("MapaManager", "Buscando puertas en capa: " + nombreCapa);
-
-                for (MapObject obj : capa.getObjects()) {
-                    if (obj instanceof RectangleMapObject) {
-                        Rectangle rect = ((RectangleMapObject) obj).getRectangle();
-                        MapProperties propiedades = obj.getProperties();
-
-                        // Verificar si es una puerta (por nombre o propiedad)
-                        String nombreObjeto = obj.getName();
-                        boolean esPuerta = false;
-                        String tipoObjeto = "";
-
-                        if (nombreObjeto != null) {
-                            esPuerta = nombreObjeto.toLowerCase().contains("puerta") ||
-                                nombreObjeto.toLowerCase().contains("door") ||
-                                nombreObjeto.toLowerCase().contains("entrada") ||
-                                nombreObjeto.toLowerCase().contains("nivel");
-                            tipoObjeto = nombreObjeto;
-                        }
-
-                        // También verificar propiedad "tipo" si existe
-                        if (propiedades.containsKey("tipo")) {
-                            String tipo = propiedades.get("tipo", "", String.class);
-                            esPuerta = esPuerta || tipo.toLowerCase().contains("puerta") ||
-                                tipo.toLowerCase().contains("door") ||
-                                tipo.toLowerCase().contains("nivel");
-                            tipoObjeto = tipo;
-                        }
-
-                        // Si no tiene nombre específico pero está en capa "puertas", asumir que es puerta
-                        if (nombreCapa.equals("puertas") || nombreCapa.equals("doors")) {
-                            esPuerta = true;
-                        }
-
-                        if (esPuerta) {
-                            // Obtener propiedades con valores por defecto
-                            String idNivel = propiedades.get("nivel",
-                                tipoObjeto.isEmpty() ? "nivel_1" : tipoObjeto, String.class);
-                            String nombre = propiedades.get("nombre",
-                                "Nivel " + idNivel.replace("nivel_", ""), String.class);
-                            boolean activa = propiedades.get("activa", true, Boolean.class);
-                            boolean bloqueada = propiedades.get("bloqueada", false, Boolean.class);
-                            String mapaDestino = propiedades.get("mapa", "Tiled/nivel_villa.tmx", String.class);
-
-                            PuertaInfo info = new PuertaInfo(
-                                new Vector2(rect.x, rect.y),
-                                new Vector2(rect.width, rect.height),
-                                idNivel, nombre, activa, bloqueada, mapaDestino
-                            );
-
-                            puertasInfo.add(info);
-                            Gdx.app.log("MapaManager", "Puerta encontrada: " + nombre +
-                                " -> " + idNivel + " en [" + rect.x + "," + rect.y + "]");
-                        }
-                    }
-                }
-            }
+            return new Array<>();
         }
 
+        Array<PuertaInfo> puertasInfo = indiceObjetos.getPuertas();
         if (puertasInfo.size == 0) {
             Gdx.app.log("MapaManager", "No se encontraron puertas en el mapa");
         } else {
             Gdx.app.log("MapaManager", "Encontradas " + puertasInfo.size + " puertas");
         }
-
         return puertasInfo;
     }
 
     /**
      * Obtiene información de enemigos desde el mapa Tiled.
-     * Busca objetos en capas específicas y los convierte en información de spawn.
+     * El array devuelto es compartido con el índice de objetos: no modificarlo.
      */
     public Array<EnemigoSpawnInfo> obtenerInfoSpawnEnemigos() {
-        Array<EnemigoSpawnInfo> enemigosInfo = new Array<>();
-
         if (!cargado || mapa == null) {
             Gdx.app.log("MapaManager", "Mapa no cargado, sin información de enemigos");
-            return enemigosInfo;
-        }
-
-        // Buscar en diferentes nombres de capa para enemigos
-        String[] posiblesCapas = {"enemigos", "enemies", "spawns", "objects", "objetos", "npcs", "personajes"};
-
-        for (String nombreCapa : posiblesCapas) {
-            MapLayer capa = mapa.getLayers().get(nombreCapa);
-            if (capa != null) {
-                Gdx.app.log("MapaManager", "Buscando enemigos en capa: " + nombreCapa);
-
-                for (MapObject obj : capa.getObjects()) {
-                    if (obj instanceof RectangleMapObject) {
-                        Rectangle rect = ((RectangleMapObject) obj).getRectangle();
-                        MapProperties propiedades = obj.getProperties();
-
-                        // Obtener el tipo de enemigo (nombre del objeto o propiedad "tipo")
-                        String nombreObjeto = obj.getName();
-                        String tipoEnemigo = "";
-
-                        // Intentar obtener de propiedad "tipo"
-                        if (propiedades.containsKey("tipo")) {
-                            tipoEnemigo = propiedades.get("tipo", "", String.class);
-                        }
-                        // Si no, usar el nombre del objeto
-                        else if (nombreObjeto != null && !nombreObjeto.isEmpty()) {
-                            tipoEnemigo = nombreObjeto.toLowerCase();
-                        }
-
-                        // Si tenemos un tipo válido, crear información de spawn
-                        if (!tipoEnemigo.isEmpty() && esTipoEnemigoValido(tipoEnemigo)) {
-                            // Obtener propiedades adicionales
-                            int vida = propiedades.get("vida", -1, Integer.class);
-                            boolean mirandoDerecha = propiedades.get("mirandoDerecha", true, Boolean.class);
-
-                            EnemigoSpawnInfo info = new EnemigoSpawnInfo(
-                                new Vector2(rect.x, rect.y),
-                                tipoEnemigo,
-                                vida,
-                                mirandoDerecha
-                            );
-
-                            enemigosInfo.add(info);
-                            Gdx.app.log("MapaManager", "Enemigo encontrado: " + tipoEnemigo +
-                                " en [" + rect.x + "," + rect.y + "]");
-                        }
-                    }
-                }
-            }
+            return new Array<>();
         }
 
+        Array<EnemigoSpawnInfo> enemigosInfo = indiceObjetos.getEnemigos();
         Gdx.app.log("MapaManager", "Total enemigos encontrados en mapa: " + enemigosInfo.size);
         return enemigosInfo;
     }
 
+    /**
+     * Divide el nivel en segmentos de {@value #TILES_POR_SEGMENTO} tiles de
+     * ancho para crear los enemigos solo cerca de la cámara.
+     * Devuelve un objeto nuevo en cada llamada, con su propio registro de
+     * enemigos eliminados.
+     */
+    public SegmentosNivel crearSegmentos() {
+        int tamañoTile = cargado ? mapa.getProperties().get("tilewidth", 32, Integer.class) : 32;
+        return new SegmentosNivel(obtenerInfoSpawnEnemigos(), getAnchoMapa(),
+            TILES_POR_SEGMENTO * tamañoTile * unidadEscala);
+    }
+
     /**
      * Obtiene información de indicadores de nivel desde el mapa Tiled.
-     * Busca objetos con nombre "indicador_nivel" o similar.
-     * ¡NUEVO MÉTODO! Para implementar el sistema de indicadores de final de nivel.
+     * El array devuelto es compartido con el índice de objetos: no modificarlo.
      */
     public Array<IndicadorSpawnInfo> obtenerInfoIndicadoresNivel() {
-        Array<IndicadorSpawnInfo> indicadoresInfo = new Array<>();
-
         if (!cargado || mapa == null) {
             Gdx.app.log("MapaManager", "Mapa no cargado, sin información de indicadores");
-            return indicadoresInfo;
-        }
-
-        // Buscar en diferentes nombres de capa
-        String[] posiblesCapas = {"indicadores", "points", "objects", "objetos", "spawns", "fin", "exit"};
-
-        for (String nombreCapa : posiblesCapas) {
-            MapLayer capa = mapa.getLayers().get(nombreCapa);
-            if (capa != null) {
-                for (MapObject obj : capa.getObjects()) {
-                    if (obj instanceof RectangleMapObject) {
-                        Rectangle rect = ((RectangleMapObject) obj).getRectangle();
-                        String nombreObjeto = obj.getName();
-
-                        // Verificar si es un indicador de nivel
-                        boolean esIndicador = false;
-                        if (nombreObjeto != null) {
-                            esIndicador = nombreObjeto.toLowerCase().contains("indicador") ||
-                                nombreObjeto.toLowerCase().contains("fin") ||
-                                nombreObjeto.toLowerCase().contains("meta") ||
-                                nombreObjeto.toLowerCase().contains("exit") ||
-                                nombreObjeto.toLowerCase().contains("salida");
-                        }
-
-                        // También verificar propiedades
-                        MapProperties propiedades = obj.getProperties();
-                        if (propiedades.containsKey("tipo")) {
-                            String tipo = propiedades.get("tipo", "", String.class);
-                            esIndicador = esIndicador ||
-                                tipo.toLowerCase().contains("indicador") ||
-                                tipo.toLowerCase().contains("fin") ||
-                                tipo.toLowerCase().contains("exit");
-                        }
-
-                        if (esIndicador) {
-                            String nombre = propiedades.get("nombre", "Portal de Salida", String.class);
-                            IndicadorSpawnInfo info = new IndicadorSpawnInfo(
-                                new Vector2(rect.x, rect.y),
-                                new Vector2(rect.width, rect.height),
-                                nombre
-                            );
-
-                            indicadoresInfo.add(info);
-                            Gdx.app.log("MapaManager", "Indicador de nivel encontrado: " + nombre +
-                                " en [" + rect.x + "," + rect.y + "]");
-                        }
-                    }
-                }
-            }
+            return new Array<>();
         }
 
+        Array<IndicadorSpawnInfo> indicadoresInfo = indiceObjetos.getIndicadores();
         Gdx.app.log("MapaManager", "Total indicadores encontrados: " + indicadoresInfo.size);
         return indicadoresInfo;
     }
@@ -513,24 +707,33 @@ public class MapaManager {
     /**
      * Verifica si un tipo de enemigo es válido.
      */
-    private boolean esTipoEnemigoValido(String tipo) {
-        String[] tiposValidos = {
-            "esqueleto", "bandido_pesado", "bandido_ligero", "bandido",
-            "arquero", "golem", "bruja_fuego", "necromancer"
-        };
+    public boolean esTipoEnemigoValido(String tipo) {
+        return indiceObjetos != null && indiceObjetos.esTipoEnemigoValido(tipo);
+    }
 
-        for (String valido : tiposValidos) {
-            if (tipo.toLowerCase().contains(valido)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Índice de objetos del mapa, para búsquedas por nombre, capa o tipo.
+     *
+     * @return El índice, o null si el mapa no está cargado
+     */
+    public MapObjectIndex getIndiceObjetos() {
+        return indiceObjetos;
+    }
+
+    /**
+     * Grafo de plataformas del nivel, o null si el mapa no se cargó.
+     */
+    public GrafoPlataformas getGrafoPlataformas() {
+        return grafoPlataformas;
     }
 
     // ====================== MÉTODOS DE RENDERIZADO ======================
 
     public void renderizar() {
         if (cargado && renderer != null) {
+            if (fondoParallax != null) {
+                fondoParallax.renderizar(renderer.getBatch(), renderer.getViewBounds());
+            }
             renderer.render();
         }
 
@@ -568,9 +771,75 @@ public class MapaManager {
         Gdx.app.log("MapaManager", "Debug colisiones: " + debugColisiones);
     }
 
+    // ====================== MEMORIA ======================
+
+    /**
+     * Estimación de la memoria que ocupa el mapa cargado: texturas de los
+     * tilesets y capas de imagen, celdas de las capas de tiles, colisiones y
+     * estructuras de consulta. Solo sirve para el presupuesto de {@link CacheNiveles}.
+     *
+     * @return Bytes aproximados
+     */
+    public long estimarMemoria() {
+        if (mapa == null) return 0;
+
+        long bytes = 0;
+        ObjectSet<Texture> texturas = new ObjectSet<>();
+        for (TiledMapTileSet tileset : mapa.getTileSets()) {
+            for (TiledMapTile tile : tileset) {
+                if (tile.getTextureRegion() != null) texturas.add(tile.getTextureRegion().getTexture());
+            }
+        }
+        bytes += estimarCapas(mapa.getLayers(), texturas);
+        for (Texture textura : texturas) {
+            bytes += (long) textura.getWidth() * textura.getHeight() * 4;
+        }
+
+        bytes += colisiones.size * 48L;
+        if (rejillaColisiones != null) {
+            bytes += (long) rejillaColisiones.getColumnas() * rejillaColisiones.getFilas() * 24;
+        }
+        if (mapaBits != null) {
+            bytes += (long) mapaBits.getColumnas() * mapaBits.getFilas() / 4;
+        }
+        if (grafoPlataformas != null) {
+            bytes += grafoPlataformas.getNumeroPlataformas() * 96L + grafoPlataformas.getNumeroConexiones() * 48L;
+        }
+        if (indiceObjetos != null) {
+            bytes += indiceObjetos.getTotalObjetos() * 128L;
+        }
+        if (renderer != null) {
+            // Vértices de las capas horneadas (4 vértices de 5 floats por tile)
+            bytes += renderer.getTilesHorneados() * 80L;
+        }
+        if (fondoParallax != null) {
+            bytes += fondoParallax.estimarMemoria();
+        }
+        return bytes;
+    }
+
+    private static long estimarCapas(MapLayers capas, ObjectSet<Texture> texturas) {
+        long bytes = 0;
+        for (MapLayer capa : capas) {
+            if (capa instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tiles = (TiledMapTileLayer) capa;
+                // Referencia por celda más el objeto Cell
+                bytes += (long) tiles.getWidth() * tiles.getHeight() * 24;
+            } else if (capa instanceof TiledMapImageLayer) {
+                TiledMapImageLayer imagen = (TiledMapImageLayer) capa;
+                if (imagen.getTextureRegion() != null) texturas.add(imagen.getTextureRegion().getTexture());
+            } else if (capa instanceof MapGroupLayer) {
+                bytes += estimarCapas(((MapGroupLayer) capa).getLayers(), texturas);
+            }
+            bytes += capa.getObjects().getCount() * 128L;
+        }
+        return bytes;
+    }
+
     public void dispose() {
         if (renderer != null) renderer.dispose();
-        if (mapa != null) mapa.dispose();
+        if (fondoParallax != null) fondoParallax.dispose();
+        if (mapa != null && propietarioMapa) mapa.dispose();
         if (shapeRenderer != null) shapeRenderer.dispose();
         Gdx.app.log("MapaManager", "Recursos del mapa liberados");
     }
@@ -595,7 +864,11 @@ public class MapaManager {
             Gdx.app.log("MapaManager", "✅ Dimensiones: " + mapWidth + "x" + mapHeight + " tiles");
             Gdx.app.log("MapaManager", "✅ Tamaño total: " + getAnchoMapa() + "x" + getAltoMapa() + " px");
             Gdx.app.log("MapaManager", "✅ Capas: " + mapa.getLayers().getCount());
-            Gdx.app.log("MapaManager", "✅ Colisiones: " + colisiones.size);
+            Gdx.app.log("MapaManager", "✅ Colisiones: " + colisiones.size +
+                " (antes de fusionar: " + colisionesSinFusionar + ")");
+            Gdx.app.log("MapaManager", "✅ Consultas de colisión: " + consultasColision +
+                " (rectángulos probados: " + getRectangulosProbados() +
+                ", resueltas por tiles: " + consultasResueltasPorTiles + ")");
 
             // Listar capas disponibles
             for (int i = 0; i < mapa.getLayers().getCount(); i++) {
@@ -717,10 +990,112 @@ public class MapaManager {
         }
     }
 
+    /**
+     * Resultado de {@link #barrer(Rectangle, float, float, ResultadoBarrido)}.
+     * Se reutiliza entre llamadas para no crear objetos cada frame.
+     */
+    public static class ResultadoBarrido {
+        /** Movimiento permitido en cada eje */
+        public float dx, dy;
+        /** Fracción del movimiento recorrida antes del impacto (1 = sin impacto) */
+        public float tiempo;
+        /** Normal de la superficie tocada (0,0 si no hay impacto) */
+        public float normalX, normalY;
+        /** Indica si hubo impacto */
+        public boolean colision;
+        /** Indica si la caja ya solapaba alguna colisión al empezar */
+        public boolean solapadoInicial;
+
+        void reiniciar(float dx, float dy) {
+            this.dx = dx;
+            this.dy = dy;
+            this.tiempo = 1f;
+            this.normalX = 0;
+            this.normalY = 0;
+            this.colision = false;
+            this.solapadoInicial = false;
+        }
+
+        /** true si la superficie tocada es un suelo (normal hacia arriba). */
+        public boolean tocoSuelo() { return colision && normalY > 0; }
+
+        @Override
+        public String toString() {
+            return "ResultadoBarrido{dx=" + dx + ", dy=" + dy + ", tiempo=" + tiempo +
+                ", normal=(" + normalX + "," + normalY + "), colision=" + colision +
+                ", solapadoInicial=" + solapadoInicial + "}";
+        }
+    }
+
+    /**
+     * Resultado de {@link #lanzarRayo} y {@link #lanzarSegmento}.
+     * Se reutiliza entre llamadas para no crear objetos cada frame.
+     */
+    public static class ResultadoRayo {
+        /** Punto de impacto (o final del segmento si no hay impacto) */
+        public float puntoX, puntoY;
+        /** Normal de la superficie tocada (0,0 si no hay impacto o el origen ya estaba dentro) */
+        public float normalX, normalY;
+        /** Distancia desde el origen hasta el punto */
+        public float distancia;
+        /** Fracción del segmento recorrida antes del impacto (1 = sin impacto) */
+        public float fraccion;
+        /** Longitud total del segmento lanzado */
+        public float longitud;
+        /** Indica si hubo impacto */
+        public boolean colision;
+
+        void reiniciar(float x0, float y0, float dx, float dy) {
+            this.longitud = (float) Math.sqrt(dx * dx + dy * dy);
+            this.puntoX = x0 + dx;
+            this.puntoY = y0 + dy;
+            this.normalX = 0;
+            this.normalY = 0;
+            this.distancia = longitud;
+            this.fraccion = 1f;
+            this.colision = false;
+        }
+
+        @Override
+        public String toString() {
+            return "ResultadoRayo{punto=(" + puntoX + "," + puntoY + "), normal=(" + normalX + "," + normalY +
+                "), distancia=" + distancia + ", colision=" + colision + "}";
+        }
+    }
+
     // ====================== GETTERS ======================
 
     public boolean estaCargado() { return cargado; }
     public int getNumeroColisiones() { return colisiones.size; }
+    public int getNumeroColisionesSinFusionar() { return colisionesSinFusionar; }
     public boolean isDebugColisiones() { return debugColisiones; }
+
+    /** Número de llamadas a {@link #hayColision(Rectangle)} desde el último reinicio. */
+    public long getConsultasColision() { return consultasColision; }
+
+    /** Número de pruebas rectángulo contra rectángulo hechas por esas consultas. */
+    public long getRectangulosProbados() {
+        return rejillaColisiones != null ? rejillaColisiones.getRectangulosProbados() : 0;
+    }
+
+    /** Número de consultas que el mapa de bits resolvió sin prueba exacta. */
+    public long getConsultasResueltasPorTiles() { return consultasResueltasPorTiles; }
+
+    /**
+     * Activa o desactiva el modo de colisión por tiles.
+     * Desactivado, todas las consultas usan la prueba exacta con rectángulos.
+     */
+    public void setColisionPorTiles(boolean activo) {
+        this.colisionPorTiles = activo;
+        Gdx.app.log("MapaManager", "Colisión por tiles: " + activo);
+    }
+
+    public boolean isColisionPorTiles() { return colisionPorTiles && mapaBits != null; }
+
+    public void reiniciarContadoresColision() {
+        consultasColision = 0;
+        consultasResueltasPorTiles = 0;
+        if (rejillaColisiones != null) rejillaColisiones.reiniciarEstadisticas();
+    }
 }
 
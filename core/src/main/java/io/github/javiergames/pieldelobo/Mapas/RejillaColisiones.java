@@ -0,0 +1,317 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Rejilla uniforme sobre los rectángulos de colisión del mapa.
+ * Cada celda guarda los índices de los rectángulos que la tocan, de modo que
+ * una consulta solo prueba los rectángulos cercanos en lugar de recorrer la
+ * capa completa. Se construye una sola vez al cargar el mapa.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+class RejillaColisiones {
+    private final Array<Rectangle> rectangulos;
+    private final float tamañoCelda;
+    private final float origenX;
+    private final float origenY;
+    private final int columnas;
+    private final int filas;
+    private final IntArray[] celdas;
+
+    // Marcas por rectángulo para no probar dos veces el mismo en una consulta
+    private final int[] marcas;
+    private int marcaActual = 0;
+
+    // Estadísticas
+    private long rectangulosProbados = 0;
+
+    /**
+     * Construye la rejilla sobre los rectángulos indicados.
+     *
+     * @param rectangulos Rectángulos de colisión (no se copian)
+     * @param tamañoCelda Tamaño de celda en píxeles, normalmente el del tile
+     */
+    RejillaColisiones(Array<Rectangle> rectangulos, float tamañoCelda) {
+        this.rectangulos = rectangulos;
+        this.tamañoCelda = Math.max(1f, tamañoCelda);
+        this.marcas = new int[rectangulos.size];
+
+        if (rectangulos.size == 0) {
+            origenX = 0;
+            origenY = 0;
+            columnas = 0;
+            filas = 0;
+            celdas = new IntArray[0];
+            return;
+        }
+
+        // Límites de todos los rectángulos
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (Rectangle r : rectangulos) {
+            minX = Math.min(minX, r.x);
+            minY = Math.min(minY, r.y);
+            maxX = Math.max(maxX, r.x + r.width);
+            maxY = Math.max(maxY, r.y + r.height);
+        }
+
+        origenX = (float) Math.floor(minX / this.tamañoCelda) * this.tamañoCelda;
+        origenY = (float) Math.floor(minY / this.tamañoCelda) * this.tamañoCelda;
+        columnas = Math.max(1, (int) Math.ceil((maxX - origenX) / this.tamañoCelda));
+        filas = Math.max(1, (int) Math.ceil((maxY - origenY) / this.tamañoCelda));
+        celdas = new IntArray[columnas * filas];
+
+        for (int i = 0; i < rectangulos.size; i++) {
+            Rectangle r = rectangulos.get(i);
+            int cx0 = columna(r.x);
+            int cx1 = columna(r.x + r.width);
+            int cy0 = fila(r.y);
+            int cy1 = fila(r.y + r.height);
+
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    int indice = cy * columnas + cx;
+                    if (celdas[indice] == null) {
+                        celdas[indice] = new IntArray(4);
+                    }
+                    celdas[indice].add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si el rectángulo solapa con algún rectángulo de colisión.
+     * Mismo criterio que {@link Rectangle#overlaps(Rectangle)}.
+     */
+    boolean hayColision(Rectangle caja) {
+        if (columnas == 0) return false;
+
+        int cx0 = columna(caja.x);
+        int cx1 = columna(caja.x + caja.width);
+        int cy0 = fila(caja.y);
+        int cy1 = fila(caja.y + caja.height);
+        int marca = siguienteMarca();
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                IntArray celda = celdas[cy * columnas + cx];
+                if (celda == null) continue;
+
+                for (int k = 0; k < celda.size; k++) {
+                    int i = celda.items[k];
+                    if (marcas[i] == marca) continue;
+                    marcas[i] = marca;
+
+                    rectangulosProbados++;
+                    if (caja.overlaps(rectangulos.get(i))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Añade a {@code salida} los índices (sin repetir) de los rectángulos
+     * cuyas celdas tocan el área indicada. No hace la prueba exacta.
+     */
+    void candidatos(float x, float y, float ancho, float alto, IntArray salida) {
+        if (columnas == 0) return;
+
+        int cx0 = columna(x);
+        int cx1 = columna(x + ancho);
+        int cy0 = fila(y);
+        int cy1 = fila(y + alto);
+        int marca = siguienteMarca();
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                IntArray celda = celdas[cy * columnas + cx];
+                if (celda == null) continue;
+
+                for (int k = 0; k < celda.size; k++) {
+                    int i = celda.items[k];
+                    if (marcas[i] == marca) continue;
+                    marcas[i] = marca;
+                    salida.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lanza el segmento (x0,y0) -> (x0+dx, y0+dy) contra los rectángulos.
+     * Recorre con DDA solo las celdas que atraviesa el segmento, en orden, y
+     * se detiene en cuanto el impacto más cercano queda antes del borde de la
+     * celda actual.
+     *
+     * Los rectángulos que contienen el origen dan impacto en 0 con normal
+     * (0,0). Un segmento que solo roza un borde no choca, igual que
+     * {@link Rectangle#overlaps(Rectangle)}.
+     *
+     * @param resultado Se rellenan {@code fraccion} y la normal si hay impacto
+     * @return true si el segmento choca
+     */
+    boolean lanzarRayo(float x0, float y0, float dx, float dy, MapaManager.ResultadoRayo resultado) {
+        if (columnas == 0) return false;
+
+        // Recortar el segmento a los límites de la rejilla (fuera no hay rectángulos)
+        float finX = origenX + columnas * tamañoCelda;
+        float finY = origenY + filas * tamañoCelda;
+        float tMin = 0f, tMax = 1f;
+        if (dx != 0) {
+            float t1 = (origenX - x0) / dx, t2 = (finX - x0) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (x0 < origenX || x0 > finX) {
+            return false;
+        }
+        if (dy != 0) {
+            float t1 = (origenY - y0) / dy, t2 = (finY - y0) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (y0 < origenY || y0 > finY) {
+            return false;
+        }
+        if (tMin > tMax) return false;
+
+        // Celda de entrada y parámetros del DDA
+        int cx = columna(x0 + dx * tMin);
+        int cy = fila(y0 + dy * tMin);
+        int pasoX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int pasoY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        float deltaTX = pasoX != 0 ? tamañoCelda / Math.abs(dx) : Float.POSITIVE_INFINITY;
+        float deltaTY = pasoY != 0 ? tamañoCelda / Math.abs(dy) : Float.POSITIVE_INFINITY;
+        float siguienteTX = pasoX != 0
+            ? (origenX + (cx + (pasoX > 0 ? 1 : 0)) * tamañoCelda - x0) / dx : Float.POSITIVE_INFINITY;
+        float siguienteTY = pasoY != 0
+            ? (origenY + (cy + (pasoY > 0 ? 1 : 0)) * tamañoCelda - y0) / dy : Float.POSITIVE_INFINITY;
+
+        int marca = siguienteMarca();
+        float mejor = resultado.fraccion;
+        boolean impacto = false;
+
+        while (true) {
+            IntArray celda = celdas[cy * columnas + cx];
+            if (celda != null) {
+                for (int k = 0; k < celda.size; k++) {
+                    int i = celda.items[k];
+                    if (marcas[i] == marca) continue;
+                    marcas[i] = marca;
+
+                    rectangulosProbados++;
+                    if (cortarRectangulo(rectangulos.get(i), x0, y0, dx, dy, mejor, resultado)) {
+                        mejor = resultado.fraccion;
+                        impacto = true;
+                    }
+                }
+            }
+
+            // Salida de la celda actual: si el impacto queda antes, no hay nada más cerca
+            float salida = Math.min(siguienteTX, siguienteTY);
+            if ((impacto && mejor <= salida) || salida > tMax) break;
+
+            if (siguienteTX < siguienteTY) {
+                cx += pasoX;
+                siguienteTX += deltaTX;
+                if (cx < 0 || cx >= columnas) break;
+            } else {
+                cy += pasoY;
+                siguienteTY += deltaTY;
+                if (cy < 0 || cy >= filas) break;
+            }
+        }
+        return impacto;
+    }
+
+    /**
+     * Prueba de franjas entre el segmento y un rectángulo.
+     * Solo acepta impactos anteriores a {@code limite}.
+     */
+    private static boolean cortarRectangulo(Rectangle r, float x0, float y0, float dx, float dy,
+                                            float limite, MapaManager.ResultadoRayo resultado) {
+        float entradaX, salidaX, entradaY, salidaY;
+        if (dx != 0) {
+            float t1 = (r.x - x0) / dx, t2 = (r.x + r.width - x0) / dx;
+            entradaX = Math.min(t1, t2);
+            salidaX = Math.max(t1, t2);
+        } else {
+            if (x0 <= r.x || x0 >= r.x + r.width) return false;
+            entradaX = Float.NEGATIVE_INFINITY;
+            salidaX = Float.POSITIVE_INFINITY;
+        }
+        if (dy != 0) {
+            float t1 = (r.y - y0) / dy, t2 = (r.y + r.height - y0) / dy;
+            entradaY = Math.min(t1, t2);
+            salidaY = Math.max(t1, t2);
+        } else {
+            if (y0 <= r.y || y0 >= r.y + r.height) return false;
+            entradaY = Float.NEGATIVE_INFINITY;
+            salidaY = Float.POSITIVE_INFINITY;
+        }
+
+        float entrada = Math.max(entradaX, entradaY);
+        float salida = Math.min(salidaX, salidaY);
+        if (entrada >= salida || salida <= 0 || entrada > limite) return false;
+
+        if (entrada <= 0) {
+            // El origen está dentro del rectángulo
+            resultado.fraccion = 0;
+            resultado.normalX = 0;
+            resultado.normalY = 0;
+        } else {
+            resultado.fraccion = entrada;
+            if (entradaX > entradaY) {
+                resultado.normalX = dx > 0 ? -1 : 1;
+                resultado.normalY = 0;
+            } else {
+                resultado.normalX = 0;
+                resultado.normalY = dy > 0 ? -1 : 1;
+            }
+        }
+        return true;
+    }
+
+    int columna(float x) {
+        return MathUtils.clamp((int) Math.floor((x - origenX) / tamañoCelda), 0, columnas - 1);
+    }
+
+    int fila(float y) {
+        return MathUtils.clamp((int) Math.floor((y - origenY) / tamañoCelda), 0, filas - 1);
+    }
+
+    private int siguienteMarca() {
+        marcaActual++;
+        if (marcaActual == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(marcas, 0);
+            marcaActual = 1;
+        }
+        return marcaActual;
+    }
+
+    // ====================== GETTERS ======================
+
+    Rectangle getRectangulo(int indice) { return rectangulos.get(indice); }
+    float getTamañoCelda() { return tamañoCelda; }
+    float getOrigenX() { return origenX; }
+    float getOrigenY() { return origenY; }
+    int getColumnas() { return columnas; }
+    int getFilas() { return filas; }
+    long getRectangulosProbados() { return rectangulosProbados; }
+    void reiniciarEstadisticas() { rectangulosProbados = 0; }
+
+    int getCeldasOcupadas() {
+        int ocupadas = 0;
+        for (IntArray celda : celdas) {
+            if (celda != null) ocupadas++;
+        }
+        return ocupadas;
+    }
+}
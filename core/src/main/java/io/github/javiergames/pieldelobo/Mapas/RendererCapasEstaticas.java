@@ -0,0 +1,383 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import static com.badlogic.gdx.graphics.g2d.Batch.C1;
+import static com.badlogic.gdx.graphics.g2d.Batch.C2;
+import static com.badlogic.gdx.graphics.g2d.Batch.C3;
+import static com.badlogic.gdx.graphics.g2d.Batch.C4;
+import static com.badlogic.gdx.graphics.g2d.Batch.U1;
+import static com.badlogic.gdx.graphics.g2d.Batch.U2;
+import static com.badlogic.gdx.graphics.g2d.Batch.U3;
+import static com.badlogic.gdx.graphics.g2d.Batch.U4;
+import static com.badlogic.gdx.graphics.g2d.Batch.V1;
+import static com.badlogic.gdx.graphics.g2d.Batch.V2;
+import static com.badlogic.gdx.graphics.g2d.Batch.V3;
+import static com.badlogic.gdx.graphics.g2d.Batch.V4;
+import static com.badlogic.gdx.graphics.g2d.Batch.X1;
+import static com.badlogic.gdx.graphics.g2d.Batch.X2;
+import static com.badlogic.gdx.graphics.g2d.Batch.X3;
+import static com.badlogic.gdx.graphics.g2d.Batch.X4;
+import static com.badlogic.gdx.graphics.g2d.Batch.Y1;
+import static com.badlogic.gdx.graphics.g2d.Batch.Y2;
+import static com.badlogic.gdx.graphics.g2d.Batch.Y3;
+import static com.badlogic.gdx.graphics.g2d.Batch.Y4;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Renderer ortogonal que "hornea" las capas de tiles estáticas en
+ * {@link SpriteCache} al cargar el mapa.
+ *
+ * Cada capa sin tiles animados ni parallax se divide en bloques del tamaño
+ * aproximado de la pantalla; sus vértices se generan una sola vez y quedan en
+ * la GPU. Al dibujar solo se emiten los bloques que tocan la cámara, así que
+ * el coste de CPU por frame de los fondos es prácticamente nulo. El resto de
+ * capas (animadas, con parallax, de imagen, grupos...) se dibujan como siempre.
+ *
+ * Las capas que dibuja otro (los fondos de {@link FondoParallax}) se pasan al
+ * construirlo y ni se hornean ni se dibujan.
+ *
+ * Se asume que las celdas no cambian durante la partida; si se modifica una
+ * capa horneada hay que crear otro renderer.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class RendererCapasEstaticas extends OrthogonalTiledMapRenderer {
+
+    // ====================== CONFIGURACIÓN ======================
+    // Tamaño objetivo de un bloque, en píxeles del mapa (más o menos una pantalla)
+    private static final int ANCHO_BLOQUE_PX = 1024;
+    private static final int ALTO_BLOQUE_PX = 768;
+    // Máximo de tiles por SpriteCache con índices de 16 bits
+    private static final int MAX_TILES_POR_CACHE = 8191;
+    private static final int VERTICES_POR_TILE = 20;
+
+    /** Rango de celdas de una capa y su posición en una SpriteCache */
+    private static class Bloque {
+        int columnaInicio, filaInicio, columnaFin, filaFin;
+        int tiles;
+        int pagina;
+        int idCache;
+        // Límites reales en unidades de mundo (incluyen offsets de tile)
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+    }
+
+    private final ObjectMap<TiledMapTileLayer, Array<Bloque>> capasHorneadas = new ObjectMap<>();
+    private final ObjectSet<MapLayer> capasOmitidas;
+    private final Array<SpriteCache> paginas = new Array<>();
+    private final float[] verticesBloque = new float[VERTICES_POR_TILE];
+
+    private boolean horneadoActivo = true;
+    private int tilesHorneados = 0;
+    private int bloquesDibujados = 0;
+
+    public RendererCapasEstaticas(TiledMap mapa, float unidadEscala) {
+        this(mapa, unidadEscala, null);
+    }
+
+    /**
+     * @param capasOmitidas Capas que no dibuja este renderer (puede ser null)
+     */
+    public RendererCapasEstaticas(TiledMap mapa, float unidadEscala, ObjectSet<MapLayer> capasOmitidas) {
+        super(mapa, unidadEscala);
+        this.capasOmitidas = capasOmitidas != null ? capasOmitidas : new ObjectSet<MapLayer>();
+        hornearCapas();
+    }
+
+    // ====================== HORNEADO ======================
+
+    private void hornearCapas() {
+        long inicio = TimeUtils.millis();
+
+        Array<TiledMapTileLayer> estaticas = new Array<>();
+        buscarCapasEstaticas(map.getLayers(), estaticas);
+        if (estaticas.size == 0) return;
+
+        // Primera pasada: dividir en bloques y contar tiles
+        Array<Bloque> todos = new Array<>();
+        for (TiledMapTileLayer capa : estaticas) {
+            Array<Bloque> bloques = dividirEnBloques(capa);
+            if (bloques.size > 0) {
+                capasHorneadas.put(capa, bloques);
+                todos.addAll(bloques);
+            }
+        }
+
+        // Repartir los bloques en páginas de como mucho MAX_TILES_POR_CACHE tiles
+        IntArray tilesPorPagina = new IntArray();
+        for (Bloque bloque : todos) {
+            int ultima = tilesPorPagina.size - 1;
+            if (ultima < 0 || tilesPorPagina.get(ultima) + bloque.tiles > MAX_TILES_POR_CACHE) {
+                tilesPorPagina.add(0);
+                ultima++;
+            }
+            bloque.pagina = ultima;
+            tilesPorPagina.incr(ultima, bloque.tiles);
+        }
+        for (int i = 0; i < tilesPorPagina.size; i++) {
+            paginas.add(new SpriteCache(tilesPorPagina.get(i), true));
+        }
+
+        // Segunda pasada: generar los vértices de cada bloque
+        for (ObjectMap.Entry<TiledMapTileLayer, Array<Bloque>> entrada : capasHorneadas) {
+            float color = colorCapa(entrada.key);
+            for (Bloque bloque : entrada.value) {
+                hornearBloque(entrada.key, bloque, color);
+            }
+        }
+
+        Gdx.app.log("RendererCapasEstaticas", "Capas horneadas: " + capasHorneadas.size + " (" +
+            todos.size + " bloques, " + tilesHorneados + " tiles, " + paginas.size + " cachés) en " +
+            TimeUtils.timeSinceMillis(inicio) + " ms");
+    }
+
+    private void buscarCapasEstaticas(MapLayers capas, Array<TiledMapTileLayer> resultado) {
+        for (MapLayer capa : capas) {
+            // Las capas ocultas no se hornean (si se vuelven a mostrar se dibujan
+            // tile a tile) ni las que dibuja otro, como FondoParallax
+            if (!capa.isVisible() || capasOmitidas.contains(capa)) continue;
+
+            if (capa instanceof MapGroupLayer) {
+                buscarCapasEstaticas(((MapGroupLayer) capa).getLayers(), resultado);
+            } else if (capa instanceof TiledMapTileLayer && esEstatica((TiledMapTileLayer) capa)) {
+                resultado.add((TiledMapTileLayer) capa);
+            }
+        }
+    }
+
+    /**
+     * Una capa se puede hornear si no tiene parallax (su posición no depende
+     * de la cámara) ni tiles animados.
+     */
+    private static boolean esEstatica(TiledMapTileLayer capa) {
+        if (capa.getParallaxX() != 1f || capa.getParallaxY() != 1f) return false;
+
+        for (int fila = 0; fila < capa.getHeight(); fila++) {
+            for (int columna = 0; columna < capa.getWidth(); columna++) {
+                Cell celda = capa.getCell(columna, fila);
+                if (celda != null && celda.getTile() instanceof AnimatedTiledMapTile) return false;
+            }
+        }
+        return true;
+    }
+
+    private Array<Bloque> dividirEnBloques(TiledMapTileLayer capa) {
+        int columnasBloque = Math.max(1, ANCHO_BLOQUE_PX / Math.max(1, capa.getTileWidth()));
+        int filasBloque = Math.max(1, ALTO_BLOQUE_PX / Math.max(1, capa.getTileHeight()));
+        while (columnasBloque * filasBloque > MAX_TILES_POR_CACHE) {
+            if (columnasBloque >= filasBloque) columnasBloque /= 2; else filasBloque /= 2;
+        }
+
+        Array<Bloque> bloques = new Array<>();
+        for (int fila = 0; fila < capa.getHeight(); fila += filasBloque) {
+            for (int columna = 0; columna < capa.getWidth(); columna += columnasBloque) {
+                Bloque bloque = new Bloque();
+                bloque.columnaInicio = columna;
+                bloque.filaInicio = fila;
+                bloque.columnaFin = Math.min(capa.getWidth(), columna + columnasBloque);
+                bloque.filaFin = Math.min(capa.getHeight(), fila + filasBloque);
+
+                for (int f = bloque.filaInicio; f < bloque.filaFin; f++) {
+                    for (int c = bloque.columnaInicio; c < bloque.columnaFin; c++) {
+                        Cell celda = capa.getCell(c, f);
+                        if (celda != null && celda.getTile() != null) bloque.tiles++;
+                    }
+                }
+                if (bloque.tiles > 0) bloques.add(bloque);
+            }
+        }
+        return bloques;
+    }
+
+    /** Color de la capa (tinte y opacidad) con el lote en blanco, como lo calcula el renderer base. */
+    private static float colorCapa(TiledMapTileLayer capa) {
+        Color tinte = capa.getCombinedTintColor();
+        return Color.toFloatBits(tinte.r, tinte.g, tinte.b, tinte.a * capa.getOpacity());
+    }
+
+    private void hornearBloque(TiledMapTileLayer capa, Bloque bloque, float color) {
+        SpriteCache cache = paginas.get(bloque.pagina);
+        float anchoTile = capa.getTileWidth() * unitScale;
+        float altoTile = capa.getTileHeight() * unitScale;
+        float offsetX = capa.getRenderOffsetX() * unitScale;
+        // En Tiled el offset va con la Y hacia abajo
+        float offsetY = -capa.getRenderOffsetY() * unitScale;
+
+        cache.beginCache();
+        for (int fila = bloque.filaInicio; fila < bloque.filaFin; fila++) {
+            for (int columna = bloque.columnaInicio; columna < bloque.columnaFin; columna++) {
+                Cell celda = capa.getCell(columna, fila);
+                if (celda == null || celda.getTile() == null) continue;
+
+                float x = columna * anchoTile + offsetX;
+                float y = fila * altoTile + offsetY;
+                rellenarVertices(celda, x, y, color, verticesBloque);
+                cache.add(celda.getTile().getTextureRegion().getTexture(), verticesBloque, 0, VERTICES_POR_TILE);
+
+                bloque.minX = Math.min(bloque.minX, verticesBloque[X1]);
+                bloque.minY = Math.min(bloque.minY, verticesBloque[Y1]);
+                bloque.maxX = Math.max(bloque.maxX, verticesBloque[X3]);
+                bloque.maxY = Math.max(bloque.maxY, verticesBloque[Y3]);
+                tilesHorneados++;
+            }
+        }
+        bloque.idCache = cache.endCache();
+    }
+
+    /**
+     * Genera los 4 vértices de una celda con los mismos volteos y rotaciones
+     * que {@link OrthogonalTiledMapRenderer#renderTileLayer}.
+     */
+    private void rellenarVertices(Cell celda, float x, float y, float color, float[] vertices) {
+        TiledMapTile tile = celda.getTile();
+        TextureRegion region = tile.getTextureRegion();
+
+        float x1 = x + tile.getOffsetX() * unitScale;
+        float y1 = y + tile.getOffsetY() * unitScale;
+        float x2 = x1 + region.getRegionWidth() * unitScale;
+        float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        vertices[X1] = x1; vertices[Y1] = y1; vertices[C1] = color; vertices[U1] = u1; vertices[V1] = v1;
+        vertices[X2] = x1; vertices[Y2] = y2; vertices[C2] = color; vertices[U2] = u1; vertices[V2] = v2;
+        vertices[X3] = x2; vertices[Y3] = y2; vertices[C3] = color; vertices[U3] = u2; vertices[V3] = v2;
+        vertices[X4] = x2; vertices[Y4] = y1; vertices[C4] = color; vertices[U4] = u2; vertices[V4] = v1;
+
+        if (celda.getFlipHorizontally()) {
+            intercambiar(vertices, U1, U3);
+            intercambiar(vertices, U2, U4);
+        }
+        if (celda.getFlipVertically()) {
+            intercambiar(vertices, V1, V3);
+            intercambiar(vertices, V2, V4);
+        }
+        switch (celda.getRotation()) {
+            case Cell.ROTATE_90:
+                rotar(vertices, V1, V2, V3, V4);
+                rotar(vertices, U1, U2, U3, U4);
+                break;
+            case Cell.ROTATE_180:
+                intercambiar(vertices, U1, U3);
+                intercambiar(vertices, U2, U4);
+                intercambiar(vertices, V1, V3);
+                intercambiar(vertices, V2, V4);
+                break;
+            case Cell.ROTATE_270:
+                rotar(vertices, V1, V4, V3, V2);
+                rotar(vertices, U1, U4, U3, U2);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void intercambiar(float[] v, int a, int b) {
+        float temp = v[a];
+        v[a] = v[b];
+        v[b] = temp;
+    }
+
+    /** a recibe b, b recibe c, c recibe d y d recibe a */
+    private static void rotar(float[] v, int a, int b, int c, int d) {
+        float temp = v[a];
+        v[a] = v[b];
+        v[b] = v[c];
+        v[c] = v[d];
+        v[d] = temp;
+    }
+
+    // ====================== RENDERIZADO ======================
+
+    @Override
+    public void render() {
+        bloquesDibujados = 0;
+        super.render();
+    }
+
+    @Override
+    protected void renderMapLayer(MapLayer capa) {
+        if (capasOmitidas.contains(capa)) return;
+        super.renderMapLayer(capa);
+    }
+
+    @Override
+    public void renderTileLayer(TiledMapTileLayer capa) {
+        Array<Bloque> bloques = horneadoActivo ? capasHorneadas.get(capa) : null;
+        if (bloques == null) {
+            super.renderTileLayer(capa);
+            return;
+        }
+
+        // Vaciar el lote para respetar el orden de las capas
+        batch.end();
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        SpriteCache actual = null;
+        for (Bloque bloque : bloques) {
+            if (bloque.maxX < viewBounds.x || bloque.minX > viewBounds.x + viewBounds.width ||
+                bloque.maxY < viewBounds.y || bloque.minY > viewBounds.y + viewBounds.height) {
+                continue;
+            }
+
+            SpriteCache cache = paginas.get(bloque.pagina);
+            if (cache != actual) {
+                if (actual != null) actual.end();
+                cache.setProjectionMatrix(batch.getProjectionMatrix());
+                cache.begin();
+                actual = cache;
+            }
+            cache.draw(bloque.idCache);
+            bloquesDibujados++;
+        }
+        if (actual != null) actual.end();
+
+        batch.begin();
+    }
+
+    // ====================== CONFIGURACIÓN Y ESTADÍSTICAS ======================
+
+    /** Permite volver al renderizado tile a tile (para comparar o depurar). */
+    public void setHorneadoActivo(boolean activo) {
+        this.horneadoActivo = activo;
+    }
+
+    public boolean isHorneadoActivo() { return horneadoActivo; }
+    public int getCapasHorneadas() { return capasHorneadas.size; }
+    public int getTilesHorneados() { return tilesHorneados; }
+    public int getBloquesDibujados() { return bloquesDibujados; }
+
+    @Override
+    public void dispose() {
+        for (SpriteCache cache : paginas) {
+            cache.dispose();
+        }
+        paginas.clear();
+        capasHorneadas.clear();
+        super.dispose();
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Divide un nivel en franjas verticales (segmentos) a lo ancho del mapa y
+ * decide cuáles deben tener sus enemigos creados según lo que ve la cámara.
+ *
+ * Un segmento se activa cuando la vista se acerca a él y se libera cuando
+ * lleva un rato lejos. Los enemigos eliminados se recuerdan por punto de
+ * spawn, así que un segmento que vuelve a activarse no los resucita.
+ *
+ * La creación y liberación de los enemigos la hace quien escucha (ver
+ * {@link Oyente}); esta clase solo lleva el estado. Se crea una por partida
+ * con {@link MapaManager#crearSegmentos()}, porque el MapaManager puede
+ * estar guardado en la caché y reutilizarse.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class SegmentosNivel {
+
+    /** Recibe los cambios de estado de los segmentos */
+    public interface Oyente {
+        /**
+         * Hay que crear los enemigos de un segmento.
+         *
+         * @param segmento Índice del segmento
+         * @param spawns Índices de los spawns (no eliminados) del segmento
+         */
+        void crearSegmento(int segmento, IntArray spawns);
+
+        /**
+         * Hay que liberar los enemigos de un segmento.
+         *
+         * @return false si no se puede todavía (por ejemplo, un enemigo
+         *         persiguió al jugador y sigue a la vista)
+         */
+        boolean liberarSegmento(int segmento);
+    }
+
+    /** Segundos que un segmento debe estar lejos de la vista antes de liberarlo */
+    public static final float TIEMPO_LIBERACION = 5f;
+
+    private final Array<MapaManager.EnemigoSpawnInfo> spawns;
+    private final float anchoSegmento;
+    private final int numeroSegmentos;
+
+    private final IntArray[] spawnsPorSegmento;
+    private final int[] segmentoDeSpawn;
+    private final boolean[] eliminados;
+    private final boolean[] activos;
+    private final float[] tiempoLejos;
+
+    private final IntArray spawnsTemp = new IntArray();
+    private Oyente oyente;
+    private int segmentosActivos = 0;
+
+    /**
+     * @param spawns Spawns de enemigos del mapa (no se copian)
+     * @param anchoMapa Ancho del mapa en píxeles
+     * @param anchoSegmento Ancho de cada segmento en píxeles
+     */
+    SegmentosNivel(Array<MapaManager.EnemigoSpawnInfo> spawns, float anchoMapa, float anchoSegmento) {
+        this.spawns = spawns;
+        this.anchoSegmento = Math.max(1f, anchoSegmento);
+        this.numeroSegmentos = Math.max(1, (int) Math.ceil(anchoMapa / this.anchoSegmento));
+
+        spawnsPorSegmento = new IntArray[numeroSegmentos];
+        for (int i = 0; i < numeroSegmentos; i++) {
+            spawnsPorSegmento[i] = new IntArray();
+        }
+
+        segmentoDeSpawn = new int[spawns.size];
+        eliminados = new boolean[spawns.size];
+        for (int i = 0; i < spawns.size; i++) {
+            int segmento = getSegmento(spawns.get(i).posicion.x);
+            segmentoDeSpawn[i] = segmento;
+            spawnsPorSegmento[segmento].add(i);
+        }
+
+        activos = new boolean[numeroSegmentos];
+        tiempoLejos = new float[numeroSegmentos];
+
+        Gdx.app.log("SegmentosNivel", numeroSegmentos + " segmentos de " + (int) this.anchoSegmento +
+            " px para " + spawns.size + " enemigos");
+    }
+
+    public void setOyente(Oyente oyente) {
+        this.oyente = oyente;
+    }
+
+    // ====================== ACTUALIZACIÓN ======================
+
+    /**
+     * Activa los segmentos cercanos a la vista y libera los que llevan
+     * {@link #TIEMPO_LIBERACION} segundos lejos de ella.
+     *
+     * Se activa hasta medio segmento más allá de la vista y se libera a partir
+     * de uno entero, para no crear y destruir enemigos al moverse en el límite.
+     *
+     * @param vistaX0 Borde izquierdo de la vista
+     * @param vistaX1 Borde derecho de la vista
+     * @param delta Tiempo desde la última actualización
+     */
+    public void actualizar(float vistaX0, float vistaX1, float delta) {
+        if (oyente == null) return;
+
+        int activarDesde = getSegmento(vistaX0 - anchoSegmento / 2);
+        int activarHasta = getSegmento(vistaX1 + anchoSegmento / 2);
+        int mantenerDesde = getSegmento(vistaX0 - anchoSegmento);
+        int mantenerHasta = getSegmento(vistaX1 + anchoSegmento);
+
+        for (int s = 0; s < numeroSegmentos; s++) {
+            if (s >= activarDesde && s <= activarHasta) {
+                tiempoLejos[s] = 0;
+                if (!activos[s]) activar(s);
+            } else if (activos[s]) {
+                if (s >= mantenerDesde && s <= mantenerHasta) {
+                    tiempoLejos[s] = 0;
+                    continue;
+                }
+                tiempoLejos[s] += delta;
+                if (tiempoLejos[s] >= TIEMPO_LIBERACION) {
+                    if (oyente.liberarSegmento(s)) {
+                        activos[s] = false;
+                        segmentosActivos--;
+                        Gdx.app.log("SegmentosNivel", "Segmento " + s + " liberado");
+                    }
+                    tiempoLejos[s] = 0;
+                }
+            }
+        }
+    }
+
+    private void activar(int segmento) {
+        spawnsTemp.clear();
+        IntArray delSegmento = spawnsPorSegmento[segmento];
+        for (int k = 0; k < delSegmento.size; k++) {
+            int spawn = delSegmento.items[k];
+            if (!eliminados[spawn]) spawnsTemp.add(spawn);
+        }
+
+        activos[segmento] = true;
+        segmentosActivos++;
+        if (spawnsTemp.size > 0) {
+            oyente.crearSegmento(segmento, spawnsTemp);
+        }
+        Gdx.app.log("SegmentosNivel", "Segmento " + segmento + " activado (" + spawnsTemp.size + " enemigos)");
+    }
+
+    // ====================== ENEMIGOS ELIMINADOS ======================
+
+    /** Recuerda que el enemigo de un spawn ha muerto para no volver a crearlo. */
+    public void marcarEliminado(int spawn) {
+        if (spawn >= 0 && spawn < eliminados.length) eliminados[spawn] = true;
+    }
+
+    public boolean estaEliminado(int spawn) {
+        return eliminados[spawn];
+    }
+
+    /**
+     * Enemigos que siguen vivos en segmentos no activos (aún sin crear).
+     */
+    public int getEnemigosPendientes() {
+        int pendientes = 0;
+        for (int i = 0; i < segmentoDeSpawn.length; i++) {
+            if (!eliminados[i] && !activos[segmentoDeSpawn[i]]) pendientes++;
+        }
+        return pendientes;
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getSegmento(float x) {
+        return MathUtils.clamp((int) Math.floor(x / anchoSegmento), 0, numeroSegmentos - 1);
+    }
+
+    public int getSegmentoDeSpawn(int spawn) { return segmentoDeSpawn[spawn]; }
+    public MapaManager.EnemigoSpawnInfo getSpawn(int spawn) { return spawns.get(spawn); }
+    public boolean estaActivo(int segmento) { return activos[segmento]; }
+    public int getNumeroSegmentos() { return numeroSegmentos; }
+    public int getSegmentosActivos() { return segmentosActivos; }
+    public float getAnchoSegmento() { return anchoSegmento; }
+}
@@ -0,0 +1,111 @@
+package io.github.javiergames.pieldelobo;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+import io.github.javiergames.pieldelobo.GestorJuego.Main;
+import io.github.javiergames.pieldelobo.Graficos.GameUtils;
+import io.github.javiergames.pieldelobo.Recursos.CargaNivel;
+
+/**
+ * Pantalla intermedia que carga el nivel de forma asíncrona.
+ * Avanza la {@link CargaNivel} unos milisegundos por frame y dibuja una barra
+ * de progreso; al terminar pasa a {@link MainScreen} con todo ya en memoria.
+ * Si la carga falla se vuelve a la carga síncrona de siempre.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class PantallaCarga extends PantallaInicio {
+
+    // Tiempo máximo de carga por frame (deja margen para dibujar a 60 fps)
+    private static final int MILISEGUNDOS_POR_FRAME = 12;
+
+    private static final float ANCHO_BARRA = 400f;
+    private static final float ALTO_BARRA = 16f;
+
+    private final CargaNivel carga;
+    private final SpriteBatch batch;
+    private final BitmapFont font;
+    private final GlyphLayout layout = new GlyphLayout();
+    private final ScreenViewport viewport;
+
+    private boolean terminada = false;
+
+    public PantallaCarga(Main game) {
+        super(game);
+        this.batch = new SpriteBatch();
+        this.font = new BitmapFont();
+        this.viewport = new ScreenViewport();
+        this.carga = new CargaNivel();
+
+        Gdx.app.log("PantallaCarga", "Cargando nivel: " + carga.getRutaMapa());
+    }
+
+    @Override
+    public void render(float delta) {
+        if (terminada) return;
+
+        if (carga.actualizar(MILISEGUNDOS_POR_FRAME)) {
+            terminada = true;
+            pasarAlNivel();
+            return;
+        }
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        viewport.apply();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+        batch.begin();
+        dibujarProgreso(carga.getProgreso());
+        batch.end();
+    }
+
+    private void dibujarProgreso(float progreso) {
+        float ancho = viewport.getWorldWidth();
+        float alto = viewport.getWorldHeight();
+        float x = (ancho - ANCHO_BARRA) / 2f;
+        float y = alto / 2f - ALTO_BARRA / 2f;
+
+        // Fondo de la barra
+        batch.setColor(0.2f, 0.2f, 0.2f, 1f);
+        batch.draw(GameUtils.getWhitePixel(), x, y, ANCHO_BARRA, ALTO_BARRA);
+
+        // Parte completada
+        batch.setColor(0.8f, 0.7f, 0.3f, 1f);
+        batch.draw(GameUtils.getWhitePixel(), x, y, ANCHO_BARRA * progreso, ALTO_BARRA);
+        batch.setColor(Color.WHITE);
+
+        String texto = "Cargando... " + (int) (progreso * 100) + "%";
+        layout.setText(font, texto);
+        font.draw(batch, texto, (ancho - layout.width) / 2f, y + ALTO_BARRA + 30f);
+    }
+
+    private void pasarAlNivel() {
+        if (carga.isFallida()) {
+            Gdx.app.error("PantallaCarga", "Carga asíncrona fallida, usando carga síncrona");
+            carga.liberar();
+            game.setScreen(new MainScreen(game));
+        } else {
+            game.setScreen(new MainScreen(game, carga));
+        }
+        dispose();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Reparte a los enemigos en niveles de actividad según lo lejos que estén
+ * de la vista de la cámara:
+ * <ul>
+ *     <li>ACTIVO: dentro de la vista o a menos de {@link #getMargenActivo()}
+ *     píxeles de ella. Actualización completa.</li>
+ *     <li>CERCANO: a menos de {@link #getMargenCercano()}. Físicas cada frame,
+ *     IA cada {@link #getIntervaloIACercano()} segundos y sin animación.</li>
+ *     <li>DORMIDO: más lejos. Congelado; al despertar se ponen al día sus
+ *     temporizadores de una vez.</li>
+ * </ul>
+ * Así el coste de un nivel grande depende de lo que hay en pantalla y no del
+ * total de enemigos.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class ActividadEnemigos {
+
+    // ====================== VALORES POR DEFECTO ======================
+    public static final float MARGEN_ACTIVO_POR_DEFECTO = 128f;
+    public static final float MARGEN_CERCANO_POR_DEFECTO = 640f;
+    public static final float INTERVALO_IA_CERCANO_POR_DEFECTO = 0.2f;
+
+    private float margenActivo = MARGEN_ACTIVO_POR_DEFECTO;
+    private float margenCercano = MARGEN_CERCANO_POR_DEFECTO;
+    private float intervaloIACercano = INTERVALO_IA_CERCANO_POR_DEFECTO;
+
+    // Enemigos en cada nivel tras la última actualización
+    private int activos = 0;
+    private int cercanos = 0;
+    private int dormidos = 0;
+
+    /**
+     * Asigna su nivel de actividad a cada enemigo.
+     *
+     * @param enemigos Enemigos del nivel
+     * @param vista Rectángulo visible de la cámara
+     */
+    public void actualizar(Array<Enemigos> enemigos, Rectangle vista) {
+        activos = 0;
+        cercanos = 0;
+        dormidos = 0;
+
+        for (int i = 0; i < enemigos.size; i++) {
+            Enemigos enemigo = enemigos.get(i);
+            Enemigos.NivelActividad nivel;
+
+            if (!enemigo.estaVivo()) {
+                // La animación de muerte tiene que terminar para eliminarlo
+                nivel = Enemigos.NivelActividad.ACTIVO;
+            } else {
+                float distancia = distanciaAVista(enemigo.getHitbox(), vista);
+                if (distancia <= margenActivo) {
+                    nivel = Enemigos.NivelActividad.ACTIVO;
+                } else if (distancia <= margenCercano) {
+                    nivel = Enemigos.NivelActividad.CERCANO;
+                } else {
+                    nivel = Enemigos.NivelActividad.DORMIDO;
+                }
+            }
+
+            enemigo.setNivelActividad(nivel, intervaloIACercano);
+
+            switch (nivel) {
+                case ACTIVO: activos++; break;
+                case CERCANO: cercanos++; break;
+                default: dormidos++; break;
+            }
+        }
+    }
+
+    /**
+     * Distancia desde una caja hasta el rectángulo de la vista
+     * (0 si se solapan). Se usa la mayor de las dos componentes.
+     */
+    private static float distanciaAVista(Rectangle caja, Rectangle vista) {
+        float dx = Math.max(0, Math.max(vista.x - (caja.x + caja.width), caja.x - (vista.x + vista.width)));
+        float dy = Math.max(0, Math.max(vista.y - (caja.y + caja.height), caja.y - (vista.y + vista.height)));
+        return Math.max(dx, dy);
+    }
+
+    // ====================== CONFIGURACIÓN ======================
+
+    public void setMargenActivo(float margenActivo) {
+        this.margenActivo = Math.max(0, margenActivo);
+        if (margenCercano < this.margenActivo) margenCercano = this.margenActivo;
+    }
+
+    public void setMargenCercano(float margenCercano) {
+        this.margenCercano = Math.max(margenActivo, margenCercano);
+    }
+
+    public void setIntervaloIACercano(float intervaloIACercano) {
+        this.intervaloIACercano = Math.max(0, intervaloIACercano);
+    }
+
+    // ====================== GETTERS ======================
+
+    public float getMargenActivo() { return margenActivo; }
+    public float getMargenCercano() { return margenCercano; }
+    public float getIntervaloIACercano() { return intervaloIACercano; }
+    public int getActivos() { return activos; }
+    public int getCercanos() { return cercanos; }
+    public int getDormidos() { return dormidos; }
+}
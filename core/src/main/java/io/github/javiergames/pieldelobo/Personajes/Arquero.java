@@ -2,8 +2,8 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 
@@ -34,31 +34,9 @@ public class Arquero extends Enemigos {
      */
     public Arquero(float x, float y) {
         super(x, y);
-
-        // ====================== CONFIGURACIÓN DEL ARQUERO ======================
-        this.vidaMaxima = 2;
-        this.vidaActual = 2;
-        this.velocidad = 70f;
-        this.distanciaMaxima = 100f;
-        this.danoAtaque = 1;
-        this.rangoAtaque = 200f;
-        this.duracionAtaque = 1.0f;
-        this.cooldownAtaqueMaximo = 3.0f;
-
-        // ====================== CONFIGURACIÓN DE TAMAÑO Y HITBOX ======================
-        this.tamanioBase = 64f;
-        this.offsetHitboxX = 10f;
-        this.offsetHitboxY = 20f;
-        this.anchoHitbox = 44f;
-        this.altoHitbox = 36f;
-
-        setSize(tamanioBase, tamanioBase);
-
-        // Cargar animaciones con manejo de errores
-        cargarAnimacionesConSeguridad();
+        // Estadísticas, tamaño y animaciones llegan con aplicarArquetipo()
 
         Gdx.app.log("Arquero", "Creado en posición: " + x + ", " + y);
-        Gdx.app.log("Arquero", "Hitbox: offsetY=" + offsetHitboxY + ", alto=" + altoHitbox);
     }
 
     /**
@@ -73,7 +51,7 @@ public class Arquero extends Enemigos {
                 return;
             }
 
-            atlas = new TextureAtlas(Gdx.files.internal("Arquero.atlas"));
+            atlas = obtenerAtlas("Arquero.atlas");
             Gdx.app.log("Arquero", "Atlas Arquero cargado exitosamente");
 
             // ====================== ANIMACIÓN IDLE (QUIETO) - USANDO PRIMEROS FRAMES DE ANDAR ======================
@@ -235,6 +213,15 @@ public class Arquero extends Enemigos {
         this.stageReferencia = stage;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        disparando = false;
+        tiempoDisparo = 0;
+        tiempoEntreDisparos = 0;
+        stageReferencia = null;
+    }
+
     /**
      * Actualiza la IA específica del arquero.
      * @param delta Tiempo transcurrido desde el último frame
@@ -248,16 +235,16 @@ public class Arquero extends Enemigos {
 
         float distancia = calcularDistanciaAlObjetivo();
 
-        if (distancia <= rangoAtaque) {
-            // Objetivo en rango de disparo
+        if (distancia <= rangoAtaque && tieneLineaDeVision()) {
+            // Objetivo en rango de disparo y sin paredes en medio
             direccionMovimiento.set(0, 0);
             mirarAlObjetivo();
 
             if (puedeAtacar && !estaAtacando && tiempoEntreDisparos <= 0) {
                 prepararDisparo();
             }
-        } else if (distancia > rangoAtaque * 1.5f) {
-            // Objetivo muy lejos - acercarse
+        } else if (distancia > rangoAtaque * 1.5f || distancia <= rangoAtaque) {
+            // Objetivo muy lejos o tapado por el terreno - acercarse
             seguirObjetivo(delta);
         } else {
             // Mantener distancia óptima
@@ -336,7 +323,7 @@ public class Arquero extends Enemigos {
      * Lanza una flecha hacia el objetivo.
      */
     private void lanzarFlecha() {
-        if (stageReferencia == null || objetivo == null || !objetivo.estaVivo()) {
+        if ((stageReferencia == null && sistemaProyectiles == null) || objetivo == null || !objetivo.estaVivo()) {
             return;
         }
 
@@ -350,8 +337,8 @@ public class Arquero extends Enemigos {
 
         // Añadir un poco de aleatoriedad para que no sea perfecto
         float variacion = 0.1f; // 10% de variación
-        objetivoX += (Math.random() - 0.5) * 40 * variacion;
-        objetivoY += (Math.random() - 0.5) * 40 * variacion;
+        objetivoX += (MathUtils.random() - 0.5) * 40 * variacion;
+        objetivoY += (MathUtils.random() - 0.5) * 40 * variacion;
 
         float dirX = objetivoX - origenX;
         float dirY = objetivoY - origenY;
@@ -372,12 +359,16 @@ public class Arquero extends Enemigos {
             origenX -= tamanioBase * 0.3f;
         }
 
-        // Crear la flecha
-        Flecha flecha = new Flecha(origenX, origenY, dirX, dirY, danoAtaque,
-            mapaManager, objetivo);
+        if (sistemaProyectiles != null) {
+            sistemaProyectiles.disparar(SistemaProyectiles.Tipo.FLECHA, origenX, origenY, dirX, dirY, danoAtaque);
+        } else {
+            // Crear la flecha
+            Flecha flecha = Flecha.obtener(origenX, origenY, dirX, dirY, danoAtaque,
+                mapaManager, objetivo);
 
-        // Añadir al stage
-        stageReferencia.addActor(flecha);
+            // Añadir al stage
+            stageReferencia.addActor(flecha);
+        }
 
         Gdx.app.log("Arquero", "Flecha lanzada desde (" + origenX + "," + origenY +
             ") hacia (" + objetivoX + "," + objetivoY + ") Velocidad: " + velocidadBase);
@@ -426,21 +417,15 @@ public class Arquero extends Enemigos {
         float yOriginal = getY();
 
         // Bajar hasta encontrar suelo
-        for (int i = 0; i < 300; i++) {
-            setY(getY() - 1);
-            if (mapaManager.hayColision(getHitbox())) {
-                setY(getY() + 1);
-                enSuelo = true;
-                velocidadY = 0;
-                if (i > 0) {
-                    Gdx.app.log("Arquero", "Arquero bajado " + i + " píxeles al suelo");
-                }
-                return;
+        if (asentarEnSuelo(300)) {
+            float bajado = yOriginal - getY();
+            if (bajado > 0) {
+                Gdx.app.log("Arquero", "Arquero bajado " + bajado + " píxeles al suelo");
             }
+            return;
         }
 
-        // Si no encontró suelo, volver a la posición original
-        setY(yOriginal);
+        // Si no encontró suelo, se queda en la posición original
         Gdx.app.log("Arquero", "ADVERTENCIA: Arquero no encontró suelo después de bajar 300px");
     }
 }
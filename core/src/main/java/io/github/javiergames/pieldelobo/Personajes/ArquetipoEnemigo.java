@@ -0,0 +1,121 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+/**
+ * Datos de un tipo de enemigo leídos de enemigos.json: estadísticas, tamaño,
+ * hitbox, atlas y animaciones. El perfil indica qué clase le da el
+ * comportamiento (IA, ataques); el resto se aplica sobre ella con
+ * {@link Enemigos#aplicarArquetipo(ArquetipoEnemigo)}.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class ArquetipoEnemigo {
+
+    /**
+     * Frames de una animación: prefijo + número de frame en el atlas.
+     */
+    public static class AnimacionArquetipo {
+        public String prefijo;
+        /** Primer y último frame, ambos incluidos */
+        public int desde;
+        public int hasta;
+        /** Segundos por frame; 0 en la de ataque la reparte en duracionAtaque */
+        public float duracion;
+        /** true si el atlas usa índices (findRegion(prefijo, i)) en vez de prefijo000 */
+        public boolean indexado;
+
+        public AnimacionArquetipo copiar() {
+            AnimacionArquetipo copia = new AnimacionArquetipo();
+            copia.prefijo = prefijo;
+            copia.desde = desde;
+            copia.hasta = hasta;
+            copia.duracion = duracion;
+            copia.indexado = indexado;
+            return copia;
+        }
+    }
+
+    // ====================== IDENTIDAD ======================
+    public String id;
+    /** Clase que da el comportamiento (esqueleto, bandido_pesado, arquero...) */
+    public String perfil;
+    public String atlas;
+
+    // ====================== ESTADÍSTICAS ======================
+    public int vida;
+    public float velocidad;
+    public float distanciaMaxima;
+    public int dano;
+    public float rangoAtaque;
+    public float duracionAtaque;
+    public float cooldownAtaque;
+
+    // ====================== TAMAÑO Y FÍSICA ======================
+    public float tamanio;
+    public float hitboxX;
+    public float hitboxY;
+    public float hitboxAncho;
+    public float hitboxAlto;
+    public boolean gravedad = true;
+
+    // ====================== ANIMACIONES ======================
+    // null si el arquetipo no las define: se usan las de la clase
+    public AnimacionArquetipo animacionIdle;
+    public AnimacionArquetipo animacionCaminar;
+    public AnimacionArquetipo animacionAtacar;
+    public AnimacionArquetipo animacionDano;
+    public AnimacionArquetipo animacionMuerte;
+
+    /**
+     * Indica si el arquetipo define sus propias animaciones.
+     */
+    public boolean tieneAnimaciones() {
+        return animacionIdle != null;
+    }
+
+    /**
+     * Clave de sus animaciones en BibliotecaAnimaciones.
+     */
+    public String getClaveAnimaciones() {
+        return "arquetipo." + id;
+    }
+
+    /**
+     * Copia para las variantes que heredan de otro arquetipo ("base").
+     */
+    public ArquetipoEnemigo copiar(String nuevoId) {
+        ArquetipoEnemigo copia = new ArquetipoEnemigo();
+        copia.id = nuevoId;
+        copia.perfil = perfil;
+        copia.atlas = atlas;
+        copia.vida = vida;
+        copia.velocidad = velocidad;
+        copia.distanciaMaxima = distanciaMaxima;
+        copia.dano = dano;
+        copia.rangoAtaque = rangoAtaque;
+        copia.duracionAtaque = duracionAtaque;
+        copia.cooldownAtaque = cooldownAtaque;
+        copia.tamanio = tamanio;
+        copia.hitboxX = hitboxX;
+        copia.hitboxY = hitboxY;
+        copia.hitboxAncho = hitboxAncho;
+        copia.hitboxAlto = hitboxAlto;
+        copia.gravedad = gravedad;
+        copia.animacionIdle = copiar(animacionIdle);
+        copia.animacionCaminar = copiar(animacionCaminar);
+        copia.animacionAtacar = copiar(animacionAtacar);
+        copia.animacionDano = copiar(animacionDano);
+        copia.animacionMuerte = copiar(animacionMuerte);
+        return copia;
+    }
+
+    private static AnimacionArquetipo copiar(AnimacionArquetipo animacion) {
+        return animacion != null ? animacion.copiar() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ArquetipoEnemigo{id='" + id + "', perfil='" + perfil + "', vida=" + vida +
+            ", atlas='" + atlas + "'}";
+    }
+}
@@ -2,7 +2,6 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 
@@ -26,46 +25,20 @@ public class Bandido extends Enemigos {
     public Bandido(float x, float y, boolean esPesado) {
         super(x, y);
         this.esPesado = esPesado;
-
-        // ====================== CONFIGURACIÓN SEGÚN TIPO ======================
-        if (esPesado) {
-            // HEAVY BANDIT (Bandido Pesado)
-            this.vidaMaxima = 5;
-            this.vidaActual = 5;
-            this.velocidad = 50f;
-            this.danoAtaque = 2;
-            this.rangoAtaque = 55f;
-            this.duracionAtaque = 0.7f;
-        } else {
-            // LIGHT BANDIT (Bandido Ligero)
-            this.vidaMaxima = 2;
-            this.vidaActual = 2;
-            this.velocidad = 80f;
-            this.danoAtaque = 1;
-            this.rangoAtaque = 45f;
-            this.duracionAtaque = 0.4f;
-        }
-
-        // ====================== CONFIGURACIONES COMUNES ======================
-        this.distanciaMaxima = 200f;
-        this.cooldownAtaqueMaximo = 2.0f;
-
-        // ====================== CONFIGURACIÓN DE TAMAÑO Y HITBOX ======================
-        this.tamanioBase = 48f;
-        this.offsetHitboxX = 6f;
-        this.offsetHitboxY = 3f;
-        this.anchoHitbox = 36f;
-        this.altoHitbox = 42f;
-
-        setSize(tamanioBase, tamanioBase);
-
-        // Cargar animaciones con manejo de errores
-        cargarAnimacionesConSeguridad();
+        // Estadísticas, tamaño y animaciones llegan con aplicarArquetipo()
 
         Gdx.app.log("Bandido", (esPesado ? "Heavy" : "Light") +
             " Bandido creado en: " + x + ", " + y);
     }
 
+    /**
+     * El bandido ligero y el pesado usan frames distintos del mismo atlas.
+     */
+    @Override
+    protected String getClaveAnimaciones() {
+        return esPesado ? "Bandido.pesado" : "Bandido.ligero";
+    }
+
     /**
      * Carga las animaciones específicas del bandido desde el atlas.
      * CORREGIDO: Según la estructura exacta del atlas.
@@ -74,7 +47,7 @@ public class Bandido extends Enemigos {
     protected void cargarAnimaciones() {
         try {
             // Cargar atlas
-            atlas = new TextureAtlas(Gdx.files.internal("Bandido.atlas"));
+            atlas = obtenerAtlas("Bandido.atlas");
             Gdx.app.log("Bandido", "Atlas Bandido cargado exitosamente");
 
             // Prefijo según el tipo de bandido
@@ -2,8 +2,8 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 
 /**
@@ -60,7 +60,7 @@ public class Barbaro extends Enemigos {
     protected void cargarAnimaciones() {
         try {
             // Cargar atlas
-            atlas = new TextureAtlas(Gdx.files.internal("Barbaro.atlas"));
+            atlas = obtenerAtlas("Barbaro.atlas");
             Gdx.app.log("Barbaro", "Atlas Barbaro cargado exitosamente");
 
             String prefix = "LightBandit_";
@@ -241,7 +241,7 @@ public class Barbaro extends Enemigos {
             distanciaRecorrida = 0;
 
             // A veces hace una pausa agresiva
-            if (Math.random() < 0.3f) {
+            if (MathUtils.random() < 0.3f) {
                 direccionMovimiento.set(0, 0);
             }
         }
@@ -1,38 +1,56 @@
 package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
  * Proyectil Bola de Fuego lanzado por el Brujo.
+ * Se reutilizan desde un pool; la animación (y su textura) se carga una vez
+ * y la comparten todas.
  *
  *  * @author Javier Gala
  *  * @version 1.1
  */
 public class BolaFuego extends Proyectil {
 
+    private static final int TAMANIO_FRAME = 32;
+    private static final int NUMERO_FRAMES = 4;
+
     private static Animation<TextureRegion> animacionBolaFuego;
+    // Textura de la que salen los frames (del fichero o generada)
+    private static Texture texturaBolaFuego;
     private float tiempoAnimacion = 0;
 
-    static {
-        // Cargar animación estática
-        cargarAnimacion();
+    private static final Pool<BolaFuego> pool = new Pool<BolaFuego>(4, 32) {
+        @Override
+        protected BolaFuego newObject() {
+            return new BolaFuego();
+        }
+    };
+
+    static Animation<TextureRegion> getAnimacion() {
+        if (animacionBolaFuego == null) {
+            cargarAnimacion();
+        }
+        return animacionBolaFuego;
     }
 
     private static void cargarAnimacion() {
         try {
-            Texture tex = new Texture(Gdx.files.internal("bola_fuego.png"));
+            texturaBolaFuego = new Texture(Gdx.files.internal("bola_fuego.png"));
             // Suponiendo que la textura es un sprite sheet
-            TextureRegion[][] frames = TextureRegion.split(tex, 32, 32);
+            TextureRegion[][] frames = TextureRegion.split(texturaBolaFuego, TAMANIO_FRAME, TAMANIO_FRAME);
 
             Array<TextureRegion> animFrames = new Array<>();
-            for (int i = 0; i < 4; i++) { // 4 frames de animación
+            for (int i = 0; i < NUMERO_FRAMES; i++) { // 4 frames de animación
                 animFrames.add(frames[0][i]);
             }
 
@@ -41,28 +59,52 @@ public class BolaFuego extends Proyectil {
 
         } catch (Exception e) {
             Gdx.app.error("BolaFuego", "No se pudo cargar bola_fuego.png, creando animación por defecto", e);
+            if (texturaBolaFuego != null) {
+                texturaBolaFuego.dispose();
+                texturaBolaFuego = null;
+            }
             animacionBolaFuego = crearAnimacionPorDefecto();
         }
     }
 
-    public BolaFuego(float x, float y, float velocidadX, float velocidadY, float dano,
-                     MapaManager mapaManager, Protagonista objetivo) {
-        super(x, y, velocidadX, velocidadY, dano,
-            animacionBolaFuego != null ? animacionBolaFuego.getKeyFrame(0) : null,
+    private BolaFuego() {
+        super();
+    }
+
+    /**
+     * Saca una bola de fuego del pool y la prepara para el disparo.
+     */
+    public static BolaFuego obtener(float x, float y, float velocidadX, float velocidadY, float dano,
+                                    MapaManager mapaManager, Protagonista objetivo) {
+        Animation<TextureRegion> animacion = getAnimacion();
+        BolaFuego bolaFuego = pool.obtain();
+        bolaFuego.iniciar(x, y, velocidadX, velocidadY, dano,
+            animacion != null ? animacion.getKeyFrame(0) : null,
             mapaManager, objetivo);
 
         // Tamaño más grande para bola de fuego
-        setSize(32, 32);
+        bolaFuego.setSize(32, 32);
 
         // Velocidad más lenta pero con daño de área
-        this.velocidad.scl(0.8f);
+        bolaFuego.velocidad.scl(0.8f);
+        return bolaFuego;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        tiempoAnimacion = 0;
+    }
 
-        Gdx.app.log("BolaFuego", "Bola de fuego creada");
+    @Override
+    protected void devolverAlPool() {
+        pool.free(this);
     }
 
     @Override
     public void act(float delta) {
         super.act(delta);
+        if (!activo) return;
 
         tiempoAnimacion += delta;
 
@@ -93,13 +135,16 @@ public class BolaFuego extends Proyectil {
         batch.setColor(1, 1, 1, 1);
     }
 
+    /**
+     * Animación por defecto (círculo que cambia de tamaño). Los cuatro frames
+     * se dibujan en una sola textura.
+     */
     private static Animation<TextureRegion> crearAnimacionPorDefecto() {
-        // Crear animación por defecto (círculo que cambia de tamaño)
-        Array<TextureRegion> frames = new Array<>();
+        Pixmap pixmap = new Pixmap(TAMANIO_FRAME * NUMERO_FRAMES, TAMANIO_FRAME, Pixmap.Format.RGBA8888);
 
-        for (int i = 0; i < 4; i++) {
-            com.badlogic.gdx.graphics.Pixmap pixmap = new com.badlogic.gdx.graphics.Pixmap(32, 32,
-                com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
+        for (int i = 0; i < NUMERO_FRAMES; i++) {
+            int centroX = i * TAMANIO_FRAME + TAMANIO_FRAME / 2;
+            int centroY = TAMANIO_FRAME / 2;
 
             // Color que cambia del amarillo al rojo
             float t = i / 3f;
@@ -109,17 +154,32 @@ public class BolaFuego extends Proyectil {
 
             pixmap.setColor(r, g, b, 1);
             int radio = 12 + i * 2; // Crece un poco cada frame
-            pixmap.fillCircle(16, 16, radio);
+            pixmap.fillCircle(centroX, centroY, radio);
 
             // Borde brillante
             pixmap.setColor(1, 1, 0.8f, 1);
-            pixmap.drawCircle(16, 16, radio + 1);
-
-            Texture tex = new Texture(pixmap);
-            frames.add(new TextureRegion(tex));
-            pixmap.dispose();
+            pixmap.drawCircle(centroX, centroY, radio + 1);
         }
 
+        texturaBolaFuego = new Texture(pixmap);
+        pixmap.dispose();
+
+        Array<TextureRegion> frames = new Array<>();
+        for (int i = 0; i < NUMERO_FRAMES; i++) {
+            frames.add(new TextureRegion(texturaBolaFuego, i * TAMANIO_FRAME, 0, TAMANIO_FRAME, TAMANIO_FRAME));
+        }
         return new Animation<>(0.1f, frames);
     }
+
+    /**
+     * Libera la textura compartida y vacía el pool.
+     */
+    static void liberarRecursos() {
+        pool.clear();
+        animacionBolaFuego = null;
+        if (texturaBolaFuego != null) {
+            texturaBolaFuego.dispose();
+            texturaBolaFuego = null;
+        }
+    }
 }
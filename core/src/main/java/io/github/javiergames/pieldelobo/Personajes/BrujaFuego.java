@@ -2,8 +2,8 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 
@@ -34,32 +34,8 @@ public class BrujaFuego extends Enemigos {
      */
     public BrujaFuego(float x, float y) {
         super(x, y);
-
-        // ====================== CONFIGURACIÓN DE LA BRUJA DE FUEGO ======================
-        this.vidaMaxima = 4;
-        this.vidaActual = 4;
-        this.velocidad = 60f;
-        this.distanciaMaxima = 80f;
-        this.danoAtaque = 2;
-        this.rangoAtaque = 180f;
-        this.duracionAtaque = 1.5f;
-        this.cooldownAtaqueMaximo = 4.0f;
-
-        // ====================== CONFIGURACIÓN DE TAMAÑO Y HITBOX ======================
-        this.tamanioBase = 150f;
-        this.offsetHitboxX = 30f;
-        this.offsetHitboxY = 20f;
-        this.anchoHitbox = 90f;
-        this.altoHitbox = 110f;
-
-        // LA BRUJA DE FUEGO FLOTA - NO TIENE GRAVEDAD
-        this.aplicarGravedad = false;
-        this.enSuelo = true; // Considerarla "en suelo" aunque flote
-
-        setSize(tamanioBase, tamanioBase);
-
-        // Cargar animaciones con manejo de errores
-        cargarAnimacionesConSeguridad();
+        // Estadísticas, tamaño, animaciones y gravedad (la bruja flota)
+        // llegan con aplicarArquetipo()
 
         Gdx.app.log("BrujaFuego", "Creada en posición: " + x + ", " + y);
     }
@@ -76,7 +52,7 @@ public class BrujaFuego extends Enemigos {
                 return;
             }
 
-            atlas = new TextureAtlas(Gdx.files.internal("Bruja_Fuego.atlas"));
+            atlas = obtenerAtlas("Bruja_Fuego.atlas");
             Gdx.app.log("BrujaFuego", "Atlas Bruja_Fuego cargado exitosamente");
 
             // ====================== ANIMACIÓN IDLE (QUIETO) ======================
@@ -206,6 +182,16 @@ public class BrujaFuego extends Enemigos {
         this.stageReferencia = stage;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        lanzandoHechizo = false;
+        tiempoPreparacion = 0;
+        tiempoFlotacion = 0;
+        alturaFlotacion = 0;
+        stageReferencia = null;
+    }
+
     /**
      * Actualiza la IA específica de la bruja.
      * @param delta Tiempo transcurrido desde el último frame
@@ -219,16 +205,16 @@ public class BrujaFuego extends Enemigos {
 
         float distancia = calcularDistanciaAlObjetivo();
 
-        if (distancia <= rangoAtaque) {
-            // Objetivo en rango de hechizo
+        if (distancia <= rangoAtaque && tieneLineaDeVision()) {
+            // Objetivo en rango de hechizo y sin paredes en medio
             direccionMovimiento.set(0, 0);
             mirarAlObjetivo();
 
             if (puedeAtacar && !estaAtacando) {
                 prepararHechizo();
             }
-        } else if (distancia > rangoAtaque * 1.3f) {
-            // Objetivo muy lejos - acercarse flotando
+        } else if (distancia > rangoAtaque * 1.3f || distancia <= rangoAtaque) {
+            // Objetivo muy lejos o tapado por el terreno - acercarse flotando
             seguirObjetivoMagicamente(delta);
         } else {
             // Mantener distancia óptima para hechizos
@@ -329,7 +315,7 @@ public class BrujaFuego extends Enemigos {
      * Lanza una bola de fuego hacia el objetivo.
      */
     private void lanzarBolaFuego() {
-        if (stageReferencia == null || objetivo == null || !objetivo.estaVivo()) {
+        if ((stageReferencia == null && sistemaProyectiles == null) || objetivo == null || !objetivo.estaVivo()) {
             return;
         }
 
@@ -343,8 +329,8 @@ public class BrujaFuego extends Enemigos {
 
         // Añadir un poco de aleatoriedad para que no sea perfecto
         float variacion = 0.2f;
-        objetivoX += (Math.random() - 0.5) * 60 * variacion;
-        objetivoY += (Math.random() - 0.5) * 40 * variacion;
+        objetivoX += (MathUtils.random() - 0.5) * 60 * variacion;
+        objetivoY += (MathUtils.random() - 0.5) * 40 * variacion;
 
         float dirX = objetivoX - origenX;
         float dirY = objetivoY - origenY;
@@ -370,12 +356,16 @@ public class BrujaFuego extends Enemigos {
             dirY += 50f; // Dar un poco de elevación
         }
 
-        // Crear la bola de fuego
-        BolaFuego bolaFuego = new BolaFuego(origenX, origenY, dirX, dirY, danoAtaque,
-            mapaManager, objetivo);
+        if (sistemaProyectiles != null) {
+            sistemaProyectiles.disparar(SistemaProyectiles.Tipo.BOLA_FUEGO, origenX, origenY, dirX, dirY, danoAtaque);
+        } else {
+            // Crear la bola de fuego
+            BolaFuego bolaFuego = BolaFuego.obtener(origenX, origenY, dirX, dirY, danoAtaque,
+                mapaManager, objetivo);
 
-        // Añadir al stage
-        stageReferencia.addActor(bolaFuego);
+            // Añadir al stage
+            stageReferencia.addActor(bolaFuego);
+        }
 
         Gdx.app.log("BrujaFuego", "Bola de fuego lanzada desde (" + origenX + "," + origenY +
             ") hacia (" + objetivoX + "," + objetivoY + ") Velocidad: " + velocidadBase);
@@ -0,0 +1,295 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catálogo de arquetipos de enemigo, cargado una vez desde enemigos.json.
+ *
+ * Cada arquetipo se indexa por su id y por sus alias en un HashMap, así que
+ * el tipo de un spawn de Tiled se resuelve con una sola búsqueda. Los tipos
+ * que no coinciden exactamente (por ejemplo "Esqueleto_2") se buscan una vez
+ * por contenido, en el orden del archivo, y el resultado se guarda.
+ *
+ * Una variante puede heredar de otro arquetipo con "base" y cambiar solo
+ * algunos valores. Si el archivo falta o está roto se usan arquetipos de
+ * respaldo con los mismos valores, sin animaciones propias (cada clase
+ * carga las suyas).
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class CatalogoEnemigos {
+
+    public static final String RUTA_ARCHIVO = "enemigos/enemigos.json";
+
+    private static CatalogoEnemigos instance;
+
+    // Arquetipos en orden del archivo
+    private final Array<ArquetipoEnemigo> arquetipos = new Array<>();
+    // Búsqueda por id, alias y tipos de spawn ya resueltos
+    private final Map<String, ArquetipoEnemigo> porNombre = new HashMap<>();
+    // Alias de cada arquetipo, para la búsqueda por contenido
+    private final Map<ArquetipoEnemigo, String[]> aliasDe = new HashMap<>();
+
+    // ====================== CONSTRUCTOR PRIVADO ======================
+    private CatalogoEnemigos() {
+        cargar(RUTA_ARCHIVO);
+    }
+
+    /**
+     * Obtiene la instancia única, cargando el archivo la primera vez.
+     */
+    public static CatalogoEnemigos getInstance() {
+        if (instance == null) {
+            instance = new CatalogoEnemigos();
+        }
+        return instance;
+    }
+
+    // ====================== BÚSQUEDA ======================
+
+    /**
+     * Arquetipo de un tipo de spawn.
+     *
+     * @return El arquetipo, o null si el tipo no es conocido
+     */
+    public ArquetipoEnemigo buscar(String tipoSpawn) {
+        if (tipoSpawn == null) return null;
+
+        ArquetipoEnemigo arquetipo = porNombre.get(tipoSpawn);
+        if (arquetipo != null || porNombre.containsKey(tipoSpawn)) {
+            return arquetipo;
+        }
+
+        // Primera vez que se ve este nombre: buscar por contenido y recordarlo
+        arquetipo = buscarPorContenido(tipoSpawn.toLowerCase());
+        porNombre.put(tipoSpawn, arquetipo);
+        return arquetipo;
+    }
+
+    /**
+     * Misma correspondencia que tenía FabricaEnemigos: el primer arquetipo
+     * con algún alias contenido en el tipo.
+     */
+    private ArquetipoEnemigo buscarPorContenido(String tipo) {
+        for (ArquetipoEnemigo arquetipo : arquetipos) {
+            for (String alias : aliasDe.get(arquetipo)) {
+                if (tipo.contains(alias)) {
+                    return arquetipo;
+                }
+            }
+        }
+        return null;
+    }
+
+    public ArquetipoEnemigo getPorId(String id) {
+        return porNombre.get(id);
+    }
+
+    public Array<ArquetipoEnemigo> getArquetipos() {
+        return arquetipos;
+    }
+
+    // ====================== CARGA ======================
+
+    private void cargar(String rutaArchivo) {
+        try {
+            FileHandle archivo = Gdx.files.internal(rutaArchivo);
+            if (!archivo.exists()) {
+                Gdx.app.error("CatalogoEnemigos", "Archivo no encontrado: " + rutaArchivo);
+                crearArquetiposPorDefecto();
+                return;
+            }
+
+            JsonValue raiz = new JsonReader().parse(archivo);
+            for (JsonValue json = raiz.child; json != null; json = json.next) {
+                try {
+                    leerArquetipo(json);
+                } catch (Exception e) {
+                    Gdx.app.error("CatalogoEnemigos", "Error leyendo arquetipo, saltando...", e);
+                }
+            }
+        } catch (Exception e) {
+            Gdx.app.error("CatalogoEnemigos", "Error cargando " + rutaArchivo, e);
+        }
+
+        if (arquetipos.size == 0) {
+            crearArquetiposPorDefecto();
+            return;
+        }
+        Gdx.app.log("CatalogoEnemigos", "Arquetipos cargados: " + arquetipos.size);
+    }
+
+    private void leerArquetipo(JsonValue json) {
+        String id = json.getString("id");
+
+        ArquetipoEnemigo arquetipo;
+        String base = json.getString("base", null);
+        if (base != null) {
+            ArquetipoEnemigo padre = porNombre.get(base.toLowerCase());
+            if (padre == null) {
+                Gdx.app.error("CatalogoEnemigos", "Base '" + base + "' de " + id +
+                    " no encontrada (debe ir antes en el archivo)");
+                return;
+            }
+            arquetipo = padre.copiar(id);
+        } else {
+            arquetipo = new ArquetipoEnemigo();
+            arquetipo.id = id;
+        }
+
+        arquetipo.perfil = json.getString("perfil", arquetipo.perfil);
+        arquetipo.atlas = json.getString("atlas", arquetipo.atlas);
+        if (arquetipo.perfil == null) {
+            Gdx.app.error("CatalogoEnemigos", "Arquetipo sin perfil: " + id);
+            return;
+        }
+
+        arquetipo.vida = json.getInt("vida", arquetipo.vida);
+        arquetipo.velocidad = json.getFloat("velocidad", arquetipo.velocidad);
+        arquetipo.distanciaMaxima = json.getFloat("distanciaMaxima", arquetipo.distanciaMaxima);
+        arquetipo.dano = json.getInt("dano", arquetipo.dano);
+        arquetipo.rangoAtaque = json.getFloat("rangoAtaque", arquetipo.rangoAtaque);
+        arquetipo.duracionAtaque = json.getFloat("duracionAtaque", arquetipo.duracionAtaque);
+        arquetipo.cooldownAtaque = json.getFloat("cooldownAtaque", arquetipo.cooldownAtaque);
+        arquetipo.tamanio = json.getFloat("tamanio", arquetipo.tamanio);
+        arquetipo.gravedad = json.getBoolean("gravedad", arquetipo.gravedad);
+
+        JsonValue hitbox = json.get("hitbox");
+        if (hitbox != null) {
+            arquetipo.hitboxX = hitbox.getFloat("x", arquetipo.hitboxX);
+            arquetipo.hitboxY = hitbox.getFloat("y", arquetipo.hitboxY);
+            arquetipo.hitboxAncho = hitbox.getFloat("ancho", arquetipo.hitboxAncho);
+            arquetipo.hitboxAlto = hitbox.getFloat("alto", arquetipo.hitboxAlto);
+        }
+
+        JsonValue animaciones = json.get("animaciones");
+        if (animaciones != null) {
+            arquetipo.animacionIdle = leerAnimacion(animaciones.get("idle"), arquetipo.animacionIdle);
+            arquetipo.animacionCaminar = leerAnimacion(animaciones.get("caminar"), arquetipo.animacionCaminar);
+            arquetipo.animacionAtacar = leerAnimacion(animaciones.get("atacar"), arquetipo.animacionAtacar);
+            arquetipo.animacionDano = leerAnimacion(animaciones.get("dano"), arquetipo.animacionDano);
+            arquetipo.animacionMuerte = leerAnimacion(animaciones.get("muerte"), arquetipo.animacionMuerte);
+        }
+
+        // Alias: los del archivo, o el id si no tiene
+        String[] alias = json.has("alias") ? json.get("alias").asStringArray() : new String[] { id };
+        for (int i = 0; i < alias.length; i++) {
+            alias[i] = alias[i].toLowerCase();
+        }
+        registrar(arquetipo, alias);
+    }
+
+    private static ArquetipoEnemigo.AnimacionArquetipo leerAnimacion(JsonValue json,
+                                                                     ArquetipoEnemigo.AnimacionArquetipo anterior) {
+        if (json == null) return anterior;
+
+        ArquetipoEnemigo.AnimacionArquetipo animacion = new ArquetipoEnemigo.AnimacionArquetipo();
+        animacion.prefijo = json.getString("prefijo");
+        animacion.desde = json.getInt("desde", 0);
+        animacion.hasta = json.getInt("hasta", animacion.desde);
+        animacion.duracion = json.getFloat("duracion", 0.1f);
+        animacion.indexado = json.getBoolean("indexado", false);
+        return animacion;
+    }
+
+    private void registrar(ArquetipoEnemigo arquetipo, String[] alias) {
+        arquetipos.add(arquetipo);
+        aliasDe.put(arquetipo, alias);
+        porNombre.put(arquetipo.id.toLowerCase(), arquetipo);
+        for (String nombre : alias) {
+            if (!porNombre.containsKey(nombre)) {
+                porNombre.put(nombre, arquetipo);
+            }
+        }
+        Gdx.app.debug("CatalogoEnemigos", "Arquetipo registrado: " + arquetipo);
+    }
+
+    /**
+     * Arquetipos de respaldo con los mismos valores que enemigos.json.
+     * No definen animaciones: cada clase carga las suyas de su atlas.
+     */
+    private void crearArquetiposPorDefecto() {
+        Gdx.app.log("CatalogoEnemigos", "Usando arquetipos por defecto");
+
+        ArquetipoEnemigo esqueleto = porDefecto("esqueleto", "Esqueleto.atlas", true);
+        estadisticas(esqueleto, 3, 60f, 150f, 1, 50f, 0.5f, 1.5f);
+        tamanio(esqueleto, 40f, 8f, 4f, 24f, 32f);
+        registrar(esqueleto, new String[] { "esqueleto" });
+
+        ArquetipoEnemigo bandidoPesado = porDefecto("bandido_pesado", "Bandido.atlas", true);
+        estadisticas(bandidoPesado, 5, 50f, 200f, 2, 55f, 0.7f, 2.0f);
+        tamanio(bandidoPesado, 48f, 6f, 3f, 36f, 42f);
+        registrar(bandidoPesado, new String[] { "bandido_pesado", "heavy" });
+
+        ArquetipoEnemigo bandidoLigero = porDefecto("bandido_ligero", "Bandido.atlas", true);
+        estadisticas(bandidoLigero, 2, 80f, 200f, 1, 45f, 0.4f, 2.0f);
+        tamanio(bandidoLigero, 48f, 6f, 3f, 36f, 42f);
+        registrar(bandidoLigero, new String[] { "bandido_ligero", "light", "bandido" });
+
+        ArquetipoEnemigo arquero = porDefecto("arquero", "Arquero.atlas", true);
+        estadisticas(arquero, 2, 70f, 100f, 1, 200f, 1.0f, 3.0f);
+        tamanio(arquero, 64f, 10f, 20f, 44f, 36f);
+        registrar(arquero, new String[] { "arquero" });
+
+        ArquetipoEnemigo golem = porDefecto("golem", "Golem.atlas", true);
+        estadisticas(golem, 10, 30f, 120f, 3, 70f, 1.2f, 3.0f);
+        tamanio(golem, 90f, 15f, 10f, 60f, 44f);
+        registrar(golem, new String[] { "golem" });
+
+        // La bruja y el necromancer flotan
+        ArquetipoEnemigo bruja = porDefecto("bruja", "Bruja_Fuego.atlas", false);
+        estadisticas(bruja, 4, 60f, 80f, 2, 180f, 1.5f, 4.0f);
+        tamanio(bruja, 150f, 30f, 20f, 90f, 110f);
+        registrar(bruja, new String[] { "bruja", "mago" });
+
+        ArquetipoEnemigo necromancer = porDefecto("necromancer", "Necromancer.atlas", false);
+        estadisticas(necromancer, 6, 40f, 60f, 1, 200f, 1.0f, 1.5f);
+        tamanio(necromancer, 160f, 40f, 20f, 80f, 88f);
+        registrar(necromancer, new String[] { "necromancer" });
+    }
+
+    private static ArquetipoEnemigo porDefecto(String id, String atlas, boolean gravedad) {
+        ArquetipoEnemigo arquetipo = new ArquetipoEnemigo();
+        arquetipo.id = id;
+        arquetipo.perfil = id;
+        arquetipo.atlas = atlas;
+        arquetipo.gravedad = gravedad;
+        return arquetipo;
+    }
+
+    private static void estadisticas(ArquetipoEnemigo arquetipo, int vida, float velocidad,
+                                     float distanciaMaxima, int dano, float rangoAtaque,
+                                     float duracionAtaque, float cooldownAtaque) {
+        arquetipo.vida = vida;
+        arquetipo.velocidad = velocidad;
+        arquetipo.distanciaMaxima = distanciaMaxima;
+        arquetipo.dano = dano;
+        arquetipo.rangoAtaque = rangoAtaque;
+        arquetipo.duracionAtaque = duracionAtaque;
+        arquetipo.cooldownAtaque = cooldownAtaque;
+    }
+
+    private static void tamanio(ArquetipoEnemigo arquetipo, float tamanio,
+                                float hitboxX, float hitboxY, float hitboxAncho, float hitboxAlto) {
+        arquetipo.tamanio = tamanio;
+        arquetipo.hitboxX = hitboxX;
+        arquetipo.hitboxY = hitboxY;
+        arquetipo.hitboxAncho = hitboxAncho;
+        arquetipo.hitboxAlto = hitboxAlto;
+    }
+
+    /**
+     * Olvida el catálogo; se vuelve a leer en el próximo getInstance().
+     */
+    public static void disposeInstancia() {
+        instance = null;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Fase amplia del combate cuerpo a cuerpo: indexa a los enemigos vivos en
+ * un {@link HashEspacial} en cada paso de simulación, de modo que los golpes del
+ * jugador y el daño por contacto solo miran a los enemigos cercanos en
+ * lugar de recorrer la lista entera.
+ *
+ * Los proyectiles enemigos tienen su propio hash en {@link SistemaProyectiles}.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class Combate {
+
+    public static final float TAMANIO_CELDA = 128f;
+
+    private final HashEspacial hash = new HashEspacial(TAMANIO_CELDA);
+    // Enemigo de cada identificador del hash en este frame
+    private final Array<Enemigos> indexados = new Array<>();
+    private final IntArray encontrados = new IntArray();
+
+    // Pares comprobados en el frame actual (todos sus pasos), por tipo de comprobación
+    private int paresAtaque = 0;
+    private int paresContacto = 0;
+
+    /**
+     * Pone a cero los contadores de pares. Llamar una vez por frame, antes
+     * de sus pasos de simulación.
+     */
+    public void comenzarFrame() {
+        paresAtaque = 0;
+        paresContacto = 0;
+    }
+
+    /**
+     * Vuelve a indexar a los enemigos vivos. Llamar en cada paso antes de
+     * las comprobaciones.
+     */
+    public void actualizar(Array<Enemigos> enemigos) {
+        hash.vaciar();
+        indexados.clear();
+
+        for (int i = 0; i < enemigos.size; i++) {
+            Enemigos enemigo = enemigos.get(i);
+            if (!enemigo.estaVivo()) continue;
+
+            Rectangle caja = enemigo.getHitbox();
+            hash.insertar(indexados.size, caja.x, caja.y, caja.width, caja.height);
+            indexados.add(enemigo);
+        }
+    }
+
+    /**
+     * Enemigos (vivos al indexar) cuya hitbox solapa con el área de ataque.
+     */
+    public void buscarGolpeados(Rectangle areaAtaque, Array<Enemigos> resultado) {
+        int antes = hash.getParesComprobados();
+        buscar(areaAtaque, resultado);
+        paresAtaque += hash.getParesComprobados() - antes;
+    }
+
+    /**
+     * Enemigos (vivos al indexar) que tocan la hitbox del jugador.
+     */
+    public void buscarEnContacto(Rectangle hitboxJugador, Array<Enemigos> resultado) {
+        int antes = hash.getParesComprobados();
+        buscar(hitboxJugador, resultado);
+        paresContacto += hash.getParesComprobados() - antes;
+    }
+
+    private void buscar(Rectangle area, Array<Enemigos> resultado) {
+        resultado.clear();
+        encontrados.clear();
+        hash.consultar(area.x, area.y, area.width, area.height, encontrados);
+        for (int k = 0; k < encontrados.size; k++) {
+            resultado.add(indexados.get(encontrados.items[k]));
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getEnemigosIndexados() { return indexados.size; }
+    public int getParesAtaque() { return paresAtaque; }
+    public int getParesContacto() { return paresContacto; }
+    /** Pares comprobados en el frame (ataque + contacto). */
+    public int getParesFrame() { return paresAtaque + paresContacto; }
+}
@@ -1,8 +1,8 @@
 package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
@@ -11,8 +11,13 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
+import io.github.javiergames.pieldelobo.Mapas.GrafoPlataformas;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
+import io.github.javiergames.pieldelobo.Recursos.BibliotecaAnimaciones;
+import io.github.javiergames.pieldelobo.Recursos.CacheAtlas;
 
 /**
  * Clase base abstracta para todos los enemigos.
@@ -21,9 +26,13 @@ import io.github.javiergames.pieldelobo.Mapas.MapaManager;
  *  * @author Javier Gala
  *  * @version 2.0
  */
-public abstract class Enemigos extends Actor {
+public abstract class Enemigos extends Actor implements Pool.Poolable {
     // Propiedades comunes
     protected TextureAtlas atlas;
+    // Ruta del atlas obtenido de CacheAtlas (null si no se obtuvo ninguno)
+    private String rutaAtlas;
+    // Arquetipo aplicado con aplicarArquetipo() (null hasta entonces)
+    protected ArquetipoEnemigo arquetipo;
     protected Animation<TextureRegion> animacionIdle;
     protected Animation<TextureRegion> animacionCaminar;
     protected Animation<TextureRegion> animacionAtacar;
@@ -47,7 +56,7 @@ public abstract class Enemigos extends Actor {
 
     // Movimiento
     protected float velocidad;
-    protected Vector2 direccionMovimiento = new Vector2(1, 0);
+    protected Vector2 direccionMovimiento = ContadorAsignaciones.vector(1, 0);
     protected float distanciaRecorrida = 0;
     protected float distanciaMaxima;
 
@@ -62,6 +71,8 @@ public abstract class Enemigos extends Actor {
     // Referencias
     protected MapaManager mapaManager;
     protected Protagonista objetivo;
+    // Si está asignado, los enemigos a distancia disparan a través de él en vez de crear actores
+    protected SistemaProyectiles sistemaProyectiles;
 
     // Hitbox
     protected float tamanioBase;
@@ -73,10 +84,46 @@ public abstract class Enemigos extends Actor {
     // ====================== GRAVEDAD ======================
     public boolean enSuelo = false;
     public float velocidadY = 0;
-    protected static final float GRAVEDAD = -800f;
+    protected static final float GRAVEDAD = -GrafoPlataformas.GRAVEDAD;
     public boolean aplicarGravedad = true; // Por defecto todos tienen gravedad
     protected int saltosRestantes = 1;
 
+    // Resultado reutilizado para los barridos contra el mapa
+    protected final MapaManager.ResultadoBarrido barrido = new MapaManager.ResultadoBarrido();
+
+    // Cajas propias que se reutilizan (ver getHitbox())
+    private final Rectangle hitbox = ContadorAsignaciones.rectangulo();
+    private final Rectangle sondaBorde = ContadorAsignaciones.rectangulo();
+
+    // ====================== LÍNEA DE VISIÓN ======================
+    // Cada cuánto se vuelve a lanzar el rayo hacia el objetivo (segundos)
+    protected static final float INTERVALO_LINEA_VISION = 0.25f;
+    private float tiempoLineaVision = 0;
+    private boolean lineaVisionLibre = true;
+
+    // ====================== NAVEGACIÓN ======================
+    // Cada cuánto se recalcula la ruta hacia el objetivo (segundos)
+    protected static final float INTERVALO_RUTA = 0.5f;
+    // Distancia a la que se da por alcanzado un punto de la ruta
+    private static final float TOLERANCIA_RUTA = 4f;
+    protected GrafoPlataformas.Plataforma plataformaActual;
+    private GrafoPlataformas.Plataforma plataformaObjetivo;
+    private final DefaultGraphPath<Connection<GrafoPlataformas.Plataforma>> ruta = new DefaultGraphPath<>();
+    private GrafoPlataformas.Conexion pasoRuta;
+    private float tiempoRuta = 0;
+    private boolean estabaEnSuelo = false;
+
+    // ====================== NIVEL DE ACTIVIDAD ======================
+    /** Cuánto se simula al enemigo según su distancia a la vista (ver {@link ActividadEnemigos}) */
+    public enum NivelActividad { ACTIVO, CERCANO, DORMIDO }
+
+    private NivelActividad nivelActividad = NivelActividad.ACTIVO;
+    // Cada cuánto piensa la IA en nivel CERCANO y tiempo acumulado desde la última vez
+    private float intervaloIA = 0;
+    private float tiempoIAPendiente = 0;
+    // Tiempo congelado en nivel DORMIDO, que se aplica al despertar
+    private float tiempoDormido = 0;
+
     // Textura para debug
     protected boolean mostrarDebug = false;
 
@@ -95,47 +142,48 @@ public abstract class Enemigos extends Actor {
 
     /**
      * Inicializa animaciones básicas por defecto para evitar NullPointerException.
+     * Usa el marcador compartido de {@link BibliotecaAnimaciones}.
      */
     private void inicializarAnimacionesPorDefecto() {
-        try {
-            // Crear un frame de color sólido para animaciones por defecto
-            Pixmap pixmap = new Pixmap(16, 16, Pixmap.Format.RGBA8888);
-            pixmap.setColor(1, 0, 0, 1); // Rojo (color de error/placeholder)
-            pixmap.fill();
-            Texture defaultTexture = new Texture(pixmap);
-            TextureRegion defaultFrame = new TextureRegion(defaultTexture);
-            pixmap.dispose();
-
-            // Crear arrays de frames por defecto
-            Array<TextureRegion> defaultFrames = new Array<>();
-            defaultFrames.add(defaultFrame);
-
-            // Inicializar TODAS las animaciones con frames por defecto
-            animacionIdle = new Animation<TextureRegion>(0.2f, defaultFrames);
-            animacionCaminar = new Animation<TextureRegion>(0.15f, defaultFrames);
-            animacionAtacar = new Animation<TextureRegion>(0.1f, defaultFrames);
-            animacionDano = new Animation<TextureRegion>(0.1f, defaultFrames);
-            animacionMuerte = new Animation<TextureRegion>(0.2f, defaultFrames);
-
-            // Establecer frame actual
-            frameActual = defaultFrame;
-            animacionesInicializadas = true;
-
-            Gdx.app.log(getClass().getSimpleName(), "Animaciones por defecto inicializadas");
+        aplicarAnimaciones(BibliotecaAnimaciones.getInstance().getPorDefecto());
+    }
 
-        } catch (Exception e) {
-            Gdx.app.error(getClass().getSimpleName(),
-                "Error crítico al inicializar animaciones por defecto", e);
-            // En caso de error extremo, al menos asegurar que frameActual no sea null
-            frameActual = new TextureRegion();
-        }
+    /**
+     * Toma las animaciones compartidas de un conjunto de la biblioteca.
+     */
+    private void aplicarAnimaciones(BibliotecaAnimaciones.AnimacionesEnemigo animaciones) {
+        animacionIdle = animaciones.idle;
+        animacionCaminar = animaciones.caminar;
+        animacionAtacar = animaciones.atacar;
+        animacionDano = animaciones.dano;
+        animacionMuerte = animaciones.muerte;
+        frameActual = animaciones.frameInicial;
+        atlas = animaciones.atlas;
+        animacionesInicializadas = true;
+    }
+
+    /**
+     * Clave con la que se guardan las animaciones en {@link BibliotecaAnimaciones}.
+     * Las subclases con variantes de aspecto deben sobrescribirla.
+     */
+    protected String getClaveAnimaciones() {
+        return getClass().getName();
     }
 
     /**
      * Carga las animaciones con manejo de errores.
      * Las clases hijas deben llamar a este método en sus constructores.
+     * Solo el primer enemigo de cada tipo las construye; el resto las toma
+     * ya hechas de {@link BibliotecaAnimaciones}.
      */
     public void cargarAnimacionesConSeguridad() {
+        BibliotecaAnimaciones biblioteca = BibliotecaAnimaciones.getInstance();
+        BibliotecaAnimaciones.AnimacionesEnemigo compartidas = biblioteca.obtener(getClaveAnimaciones());
+        if (compartidas != null) {
+            aplicarAnimaciones(compartidas);
+            return;
+        }
+
         try {
             cargarAnimaciones();
 
@@ -166,11 +214,14 @@ public abstract class Enemigos extends Actor {
                 frameActual = animacionIdle.getKeyFrame(0);
             } else if (frameActual == null) {
                 // Último recurso
-                Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-                pixmap.setColor(1, 1, 0, 1); // Amarillo
-                pixmap.fill();
-                frameActual = new TextureRegion(new Texture(pixmap));
-                pixmap.dispose();
+                frameActual = biblioteca.getMarcador();
+            }
+
+            // Sin atlas no hay nada que compartir: el siguiente lo vuelve a intentar
+            if (rutaAtlas != null) {
+                biblioteca.registrar(getClaveAnimaciones(), new BibliotecaAnimaciones.AnimacionesEnemigo(
+                    animacionIdle, animacionCaminar, animacionAtacar, animacionDano, animacionMuerte,
+                    frameActual, atlas, rutaAtlas));
             }
 
             Gdx.app.log(getClass().getSimpleName(), "Animaciones cargadas con seguridad");
@@ -193,9 +244,15 @@ public abstract class Enemigos extends Actor {
             return;
         }
 
+        if (nivelActividad == NivelActividad.DORMIDO) {
+            tiempoDormido += delta;
+            return;
+        }
+
         // Actualizar físicas (gravedad) primero
         if (aplicarGravedad) {
             actualizarFisicas(delta);
+            actualizarPlataforma();
         }
 
         if (recibiendoDano) {
@@ -203,12 +260,27 @@ public abstract class Enemigos extends Actor {
         }
 
         if (!recibiendoDano && !estaAtacando) {
-            actualizarIA(delta);
+            if (nivelActividad == NivelActividad.CERCANO) {
+                // Fuera de la vista la IA piensa a menos frecuencia, con todo el tiempo acumulado
+                tiempoIAPendiente += delta;
+                if (tiempoIAPendiente >= intervaloIA) {
+                    actualizarIA(tiempoIAPendiente);
+                    tiempoIAPendiente = 0;
+                }
+            } else {
+                actualizarIA(delta);
+            }
         }
 
-        actualizarAnimacion(delta);
+        if (nivelActividad == NivelActividad.ACTIVO) {
+            actualizarAnimacion(delta);
+        } else {
+            tiempoAnimacion += delta;
+        }
         actualizarAtaque(delta);
         actualizarCooldown(delta);
+
+        tiempoLineaVision -= delta;
     }
 
     /**
@@ -219,37 +291,34 @@ public abstract class Enemigos extends Actor {
             return;
         }
 
-        float yAnterior = getY();
-
         // Aplicar gravedad si no está en el suelo
-        if (!enSuelo) {
-            velocidadY += GRAVEDAD * delta;
-            setY(getY() + velocidadY * delta);
-        }
-
-        // Verificar colisiones verticales con el mapa
-        if (mapaManager != null) {
-            Rectangle hitboxActual = getHitbox();
-
-            if (mapaManager.hayColision(hitboxActual)) {
-                // Colisión detectada - revertir movimiento vertical
-                setY(yAnterior);
-
-                if (velocidadY < 0) {
-                    // Tocando suelo
-                    enSuelo = true;
-                    velocidadY = 0;
-                    saltosRestantes = 1;
-                } else if (velocidadY > 0) {
-                    // Golpeó techo
-                    velocidadY = 0;
-                }
-            } else {
-                // No hay colisión - sigue en el aire
-                if (velocidadY < 0) {
-                    enSuelo = false;
-                }
+        if (enSuelo) {
+            return;
+        }
+
+        velocidadY += GRAVEDAD * delta;
+        float movimientoY = velocidadY * delta;
+
+        if (mapaManager == null) {
+            setY(getY() + movimientoY);
+            return;
+        }
+
+        // Un solo barrido vertical: se detiene justo en el borde de lo que toque
+        if (mapaManager.barrer(getHitbox(), 0, movimientoY, barrido)) {
+            setY(getY() + barrido.dy);
+
+            if (velocidadY < 0) {
+                // Tocando suelo
+                enSuelo = true;
+                velocidadY = 0;
+                saltosRestantes = 1;
+            } else if (velocidadY > 0) {
+                // Golpeó techo
+                velocidadY = 0;
             }
+        } else {
+            setY(getY() + movimientoY);
         }
     }
 
@@ -362,6 +431,26 @@ public abstract class Enemigos extends Actor {
         );
     }
 
+    /**
+     * Indica si no hay paredes entre el enemigo y el objetivo.
+     * El rayo se lanza como mucho cada {@link #INTERVALO_LINEA_VISION} segundos;
+     * entre medias se devuelve el último resultado.
+     */
+    protected boolean tieneLineaDeVision() {
+        if (objetivo == null) return false;
+        if (mapaManager == null) return true;
+
+        if (tiempoLineaVision <= 0) {
+            tiempoLineaVision = INTERVALO_LINEA_VISION;
+            Rectangle propia = getHitbox();
+            Rectangle ajena = objetivo.getHitboxColision();
+            lineaVisionLibre = mapaManager.hayLineaDeVision(
+                propia.x + propia.width / 2, propia.y + propia.height / 2,
+                ajena.x + ajena.width / 2, ajena.y + ajena.height / 2);
+        }
+        return lineaVisionLibre;
+    }
+
     protected void mirarAlObjetivo() {
         if (objetivo != null) {
             mirandoDerecha = (objetivo.getX() > getX());
@@ -380,26 +469,139 @@ public abstract class Enemigos extends Actor {
         moverHorizontalmente(direccionMovimiento.x * velocidad * delta);
     }
 
+    /**
+     * Persigue al objetivo. Si el nivel tiene grafo de plataformas y el
+     * objetivo está en otra plataforma, sigue la ruta (andando, cayendo o
+     * saltando); si no, camina en línea recta hacia él como siempre.
+     */
     protected void seguirObjetivo(float delta) {
         if (objetivo == null) return;
 
-        float direccionX = Math.signum(objetivo.getX() - getX());
+        float destinoX = calcularDestinoRuta(delta);
+        float direccionX;
+        if (Float.isNaN(destinoX)) {
+            direccionX = Math.signum(objetivo.getX() - getX());
+        } else {
+            float distancia = destinoX - (getX() + offsetHitboxX + anchoHitbox / 2);
+            direccionX = Math.abs(distancia) <= TOLERANCIA_RUTA ? 0 : Math.signum(distancia);
+        }
+
         direccionMovimiento.x = direccionX;
-        mirandoDerecha = (direccionX > 0);
+        if (direccionX != 0) mirandoDerecha = (direccionX > 0);
 
         moverHorizontalmente(direccionX * velocidad * delta);
     }
 
+    // ====================== NAVEGACIÓN POR PLATAFORMAS ======================
+
+    /**
+     * Mantiene la plataforma sobre la que está el enemigo. Solo busca en el
+     * grafo al aterrizar o al salir del tramo actual; si ya no queda suelo
+     * bajo la caja, el enemigo empieza a caer.
+     */
+    protected void actualizarPlataforma() {
+        GrafoPlataformas grafo = mapaManager != null ? mapaManager.getGrafoPlataformas() : null;
+        if (grafo == null) {
+            plataformaActual = null;
+            return;
+        }
+
+        boolean aterrizo = enSuelo && !estabaEnSuelo;
+        estabaEnSuelo = enSuelo;
+        if (!enSuelo) return; // En el aire se conserva la última plataforma
+
+        float izquierda = getX() + offsetHitboxX;
+        float centroX = izquierda + anchoHitbox / 2;
+        if (plataformaActual != null && !aterrizo && plataformaActual.contieneX(centroX)) return;
+
+        GrafoPlataformas.Plataforma debajo = grafo.buscarPlataforma(centroX, getY() + offsetHitboxY);
+        if (debajo != null) {
+            plataformaActual = debajo;
+        } else if (plataformaActual != null &&
+            (izquierda >= plataformaActual.x1 || izquierda + anchoHitbox <= plataformaActual.x0)) {
+            // La caja ha salido por completo del borde
+            enSuelo = false;
+            estabaEnSuelo = false;
+        }
+    }
+
+    /**
+     * Calcula hacia qué X debe moverse el enemigo para seguir la ruta.
+     * Recalcula la ruta cada {@link #INTERVALO_RUTA} segundos o al terminar
+     * un paso, y salta cuando llega al punto de despegue.
+     *
+     * @return La X de destino, o NaN si no hay ruta que seguir
+     */
+    private float calcularDestinoRuta(float delta) {
+        GrafoPlataformas grafo = mapaManager != null ? mapaManager.getGrafoPlataformas() : null;
+        if (grafo == null || !aplicarGravedad) return Float.NaN;
+
+        tiempoRuta -= delta;
+
+        // En el aire se sigue hacia donde se quería aterrizar
+        if (!enSuelo) {
+            return pasoRuta != null ? pasoRuta.xLlegada : Float.NaN;
+        }
+
+        // Paso terminado o fuera de la ruta: hay que recalcular
+        if (pasoRuta != null && plataformaActual != pasoRuta.origen) {
+            pasoRuta = null;
+            tiempoRuta = 0;
+        }
+        if (tiempoRuta <= 0) {
+            planificarRuta(grafo);
+        }
+        if (pasoRuta == null) return Float.NaN;
+
+        float sentido = Math.signum(pasoRuta.xLlegada - pasoRuta.xSalida);
+        switch (pasoRuta.tipo) {
+            case SALTAR:
+                // Despegar con la caja junto al borde
+                float despegue = pasoRuta.xSalida - sentido * anchoHitbox / 2;
+                float centroX = getX() + offsetHitboxX + anchoHitbox / 2;
+                if (sentido * (centroX - despegue) >= -TOLERANCIA_RUTA) {
+                    saltar();
+                    return pasoRuta.xLlegada;
+                }
+                return despegue;
+            case CAER:
+            case ANDAR:
+            default:
+                // Avanzar hasta que la caja quede entera al otro lado del borde
+                return pasoRuta.xLlegada + sentido * (anchoHitbox / 2 + TOLERANCIA_RUTA);
+        }
+    }
+
+    private void planificarRuta(GrafoPlataformas grafo) {
+        tiempoRuta = INTERVALO_RUTA;
+        pasoRuta = null;
+        if (plataformaActual == null) return;
+
+        Rectangle caja = objetivo.getHitboxColision();
+        GrafoPlataformas.Plataforma destino = grafo.buscarPlataforma(caja.x + caja.width / 2, caja.y);
+        if (destino != null) {
+            plataformaObjetivo = destino;
+        } else {
+            // El objetivo está saltando: se usa la última plataforma conocida
+            destino = plataformaObjetivo;
+        }
+
+        if (destino == null || destino == plataformaActual) return;
+        if (grafo.buscarRuta(plataformaActual, destino, velocidad, ruta) && ruta.getCount() > 0) {
+            pasoRuta = (GrafoPlataformas.Conexion) ruta.get(0);
+        }
+    }
+
     protected void moverHorizontalmente(float deltaX) {
         if (estaMuerto || recibiendoDano) return;
 
-        float xAnterior = getX();
-        setX(getX() + deltaX);
-
-        if (mapaManager != null && mapaManager.hayColision(getHitbox())) {
-            setX(xAnterior);
+        if (mapaManager != null && mapaManager.barrer(getHitbox(), deltaX, 0, barrido)) {
+            // Avanzar hasta la pared y darse la vuelta
+            setX(getX() + barrido.dx);
             direccionMovimiento.x *= -1;
             mirandoDerecha = (direccionMovimiento.x > 0);
+        } else {
+            setX(getX() + deltaX);
         }
 
         // Verificar si hay suelo delante al moverse
@@ -414,8 +616,24 @@ public abstract class Enemigos extends Actor {
     protected void verificarBorde() {
         if (mapaManager == null || estaMuerto) return;
 
-        // Crear un hitbox de prueba un poco delante y abajo
-        Rectangle testHitbox = new Rectangle(
+        // Siguiendo una ruta, salir de la plataforma es intencionado
+        if (pasoRuta != null) return;
+
+        // Con el grafo de plataformas basta comparar con los extremos del tramo
+        if (plataformaActual != null) {
+            float izquierda = getX() + offsetHitboxX;
+            boolean borde = mirandoDerecha
+                ? izquierda + anchoHitbox >= plataformaActual.x1 && !plataformaActual.sigueDerecha
+                : izquierda <= plataformaActual.x0 && !plataformaActual.sigueIzquierda;
+            if (borde) {
+                direccionMovimiento.x *= -1;
+                mirandoDerecha = (direccionMovimiento.x > 0);
+            }
+            return;
+        }
+
+        // Probar un poco delante y abajo
+        sondaBorde.set(
             getX() + offsetHitboxX + (mirandoDerecha ? anchoHitbox : -10),
             getY() + offsetHitboxY - 20,
             10,
@@ -423,7 +641,7 @@ public abstract class Enemigos extends Actor {
         );
 
         // Si no hay suelo delante, cambiar dirección
-        if (!mapaManager.hayColision(testHitbox)) {
+        if (!mapaManager.hayColision(sondaBorde)) {
             direccionMovimiento.x *= -1;
             mirandoDerecha = (direccionMovimiento.x > 0);
         }
@@ -434,7 +652,7 @@ public abstract class Enemigos extends Actor {
      */
     protected void saltar() {
         if (saltosRestantes > 0 && enSuelo && aplicarGravedad) {
-            velocidadY = 300f; // Fuerza de salto
+            velocidadY = GrafoPlataformas.IMPULSO_SALTO; // Fuerza de salto
             enSuelo = false;
             saltosRestantes--;
         }
@@ -546,7 +764,8 @@ public abstract class Enemigos extends Actor {
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        if (frameActual == null) {
+        // Dormido está lejos de la vista: no hay nada que dibujar
+        if (frameActual == null || nivelActividad == NivelActividad.DORMIDO) {
             return;
         }
 
@@ -580,8 +799,12 @@ public abstract class Enemigos extends Actor {
         batch.setColor(1, 1, 1, 1);
     }
 
+    /**
+     * Hitbox del enemigo en su posición actual. Es un rectángulo propio que
+     * se actualiza en cada llamada: no modificarlo ni guardarlo.
+     */
     public Rectangle getHitbox() {
-        return new Rectangle(
+        return hitbox.set(
             getX() + offsetHitboxX,
             getY() + offsetHitboxY,
             anchoHitbox,
@@ -589,6 +812,169 @@ public abstract class Enemigos extends Actor {
         );
     }
 
+    // ====================== ARQUETIPO Y REUTILIZACIÓN ======================
+
+    /**
+     * Aplica los valores de un arquetipo de {@link CatalogoEnemigos}:
+     * estadísticas, tamaño, hitbox, gravedad y animaciones. Es el único sitio
+     * donde se fijan; las subclases solo aportan el comportamiento.
+     * Si el arquetipo no define animaciones se cargan las de la clase, que
+     * ya pueden usar la duración del ataque.
+     */
+    public void aplicarArquetipo(ArquetipoEnemigo arquetipo) {
+        this.arquetipo = arquetipo;
+
+        vidaMaxima = arquetipo.vida;
+        vidaActual = arquetipo.vida;
+        velocidad = arquetipo.velocidad;
+        distanciaMaxima = arquetipo.distanciaMaxima;
+        danoAtaque = arquetipo.dano;
+        rangoAtaque = arquetipo.rangoAtaque;
+        duracionAtaque = arquetipo.duracionAtaque;
+        cooldownAtaqueMaximo = arquetipo.cooldownAtaque;
+
+        tamanioBase = arquetipo.tamanio;
+        offsetHitboxX = arquetipo.hitboxX;
+        offsetHitboxY = arquetipo.hitboxY;
+        anchoHitbox = arquetipo.hitboxAncho;
+        altoHitbox = arquetipo.hitboxAlto;
+        setSize(tamanioBase, tamanioBase);
+
+        setAplicarGravedad(arquetipo.gravedad);
+
+        if (arquetipo.tieneAnimaciones()) {
+            aplicarAnimaciones(animacionesDeArquetipo(arquetipo));
+        } else {
+            cargarAnimacionesConSeguridad();
+        }
+    }
+
+    /**
+     * Animaciones de un arquetipo. Se construyen la primera vez a partir de
+     * los prefijos del archivo y se guardan en {@link BibliotecaAnimaciones}.
+     */
+    public static BibliotecaAnimaciones.AnimacionesEnemigo animacionesDeArquetipo(ArquetipoEnemigo arquetipo) {
+        BibliotecaAnimaciones biblioteca = BibliotecaAnimaciones.getInstance();
+        BibliotecaAnimaciones.AnimacionesEnemigo animaciones = biblioteca.obtener(arquetipo.getClaveAnimaciones());
+        if (animaciones != null) return animaciones;
+
+        if (arquetipo.atlas == null || !Gdx.files.internal(arquetipo.atlas).exists()) {
+            Gdx.app.log("Enemigos", "Atlas '" + arquetipo.atlas + "' de " + arquetipo.id + " no encontrado");
+            return biblioteca.getPorDefecto();
+        }
+
+        CacheAtlas cache = CacheAtlas.getInstance();
+        TextureAtlas atlasArquetipo = cache.obtener(arquetipo.atlas);
+        try {
+            Animation<TextureRegion> idle = construirAnimacion(atlasArquetipo, arquetipo.animacionIdle, 0);
+            Animation<TextureRegion> caminar = construirAnimacion(atlasArquetipo, arquetipo.animacionCaminar, 0);
+            Animation<TextureRegion> atacar = construirAnimacion(atlasArquetipo, arquetipo.animacionAtacar,
+                arquetipo.duracionAtaque);
+            Animation<TextureRegion> dano = construirAnimacion(atlasArquetipo, arquetipo.animacionDano, 0);
+            Animation<TextureRegion> muerte = construirAnimacion(atlasArquetipo, arquetipo.animacionMuerte, 0);
+
+            if (idle == null) {
+                Gdx.app.log("Enemigos", "Animación Idle de " + arquetipo.id + " no encontrada, usando la de por defecto");
+                idle = biblioteca.getPorDefecto().idle;
+            }
+
+            // La biblioteca toma su propia referencia al atlas
+            animaciones = new BibliotecaAnimaciones.AnimacionesEnemigo(idle, caminar, atacar, dano, muerte,
+                idle.getKeyFrame(0), atlasArquetipo, arquetipo.atlas);
+            biblioteca.registrar(arquetipo.getClaveAnimaciones(), animaciones);
+            Gdx.app.log("Enemigos", "Animaciones del arquetipo " + arquetipo.id + " cargadas");
+            return animaciones;
+        } finally {
+            cache.liberar(arquetipo.atlas);
+        }
+    }
+
+    /**
+     * Construye una animación con los frames [desde, hasta] del prefijo.
+     *
+     * @param duracionTotal Si el archivo no da duración por frame, se reparte
+     *                      esta entre los frames (0 para usar 0.1s)
+     * @return La animación, o null si no se encontró ningún frame
+     */
+    private static Animation<TextureRegion> construirAnimacion(TextureAtlas atlas,
+                                                               ArquetipoEnemigo.AnimacionArquetipo datos,
+                                                               float duracionTotal) {
+        if (datos == null) return null;
+
+        Array<TextureRegion> frames = new Array<>();
+        for (int i = datos.desde; i <= datos.hasta; i++) {
+            TextureRegion frame = datos.indexado
+                ? atlas.findRegion(datos.prefijo, i)
+                : atlas.findRegion(String.format("%s%03d", datos.prefijo, i));
+            if (frame != null) {
+                frames.add(frame);
+            }
+        }
+
+        if (frames.size == 0) {
+            Gdx.app.log("Enemigos", "Sin frames para '" + datos.prefijo + "'");
+            return null;
+        }
+
+        float duracion = datos.duracion > 0 ? datos.duracion
+            : duracionTotal > 0 ? duracionTotal / frames.size : 0.1f;
+        return new Animation<>(duracion, frames);
+    }
+
+    /**
+     * Deja el enemigo como recién creado para volver a usarlo desde el pool
+     * de {@link FabricaEnemigos}. Las estadísticas se vuelven a poner al
+     * aplicar el arquetipo; las subclases con estado propio lo limpian
+     * sobrescribiendo este método.
+     */
+    @Override
+    public void reset() {
+        clearActions();
+        setColor(1, 1, 1, 1);
+
+        vidaActual = vidaMaxima;
+        estaAtacando = false;
+        mirandoDerecha = true;
+        estaMuerto = false;
+        recibiendoDano = false;
+        tiempoAtaque = 0;
+        tiempoDano = 0;
+        tiempoMuerte = 0;
+        tiempoAnimacion = 0;
+        if (animacionIdle != null) frameActual = animacionIdle.getKeyFrame(0);
+
+        direccionMovimiento.set(1, 0);
+        distanciaRecorrida = 0;
+        puedeAtacar = true;
+        cooldownAtaque = 0;
+
+        enSuelo = !aplicarGravedad;
+        velocidadY = 0;
+        saltosRestantes = 1;
+
+        tiempoLineaVision = 0;
+        lineaVisionLibre = true;
+        plataformaActual = null;
+        plataformaObjetivo = null;
+        ruta.clear();
+        pasoRuta = null;
+        tiempoRuta = 0;
+        estabaEnSuelo = false;
+
+        nivelActividad = NivelActividad.ACTIVO;
+        intervaloIA = 0;
+        tiempoIAPendiente = 0;
+        tiempoDormido = 0;
+
+        mapaManager = null;
+        objetivo = null;
+        sistemaProyectiles = null;
+    }
+
+    public ArquetipoEnemigo getArquetipo() {
+        return arquetipo;
+    }
+
     // Getters y Setters
     public void setMapaManager(MapaManager mapaManager) {
         this.mapaManager = mapaManager;
@@ -598,6 +984,48 @@ public abstract class Enemigos extends Actor {
         this.objetivo = objetivo;
     }
 
+    public void setSistemaProyectiles(SistemaProyectiles sistemaProyectiles) {
+        this.sistemaProyectiles = sistemaProyectiles;
+    }
+
+    /**
+     * Cambia el nivel de actividad. Al salir de DORMIDO se pone al día de
+     * una vez con el tiempo que estuvo congelado.
+     *
+     * @param nivel Nuevo nivel
+     * @param intervaloIA Segundos entre actualizaciones de IA en nivel CERCANO
+     */
+    public void setNivelActividad(NivelActividad nivel, float intervaloIA) {
+        this.intervaloIA = intervaloIA;
+        if (nivel == nivelActividad) return;
+
+        if (nivelActividad == NivelActividad.DORMIDO) {
+            despertar(tiempoDormido);
+            tiempoDormido = 0;
+        }
+        tiempoIAPendiente = 0;
+        nivelActividad = nivel;
+    }
+
+    /**
+     * Puesta al día barata tras estar dormido: termina el daño y el ataque
+     * que hubiera a medias (sin golpear), avanza el enfriamiento y obliga a
+     * recalcular ruta y línea de visión. La posición no cambia.
+     */
+    protected void despertar(float tiempo) {
+        if (recibiendoDano) actualizarDano(tiempo);
+        estaAtacando = false;
+        tiempoAtaque = 0;
+        actualizarCooldown(tiempo);
+        tiempoAnimacion += tiempo;
+        tiempoRuta = 0;
+        tiempoLineaVision = 0;
+    }
+
+    public NivelActividad getNivelActividad() {
+        return nivelActividad;
+    }
+
     public boolean estaVivo() {
         return !estaMuerto && vidaActual > 0;
     }
@@ -634,19 +1062,47 @@ public abstract class Enemigos extends Actor {
     public void corregirPosicionInicial() {
         if (!aplicarGravedad || mapaManager == null) return;
 
-        // Bajar hasta encontrar suelo
-        for (int i = 0; i < 200; i++) {
-            setY(getY() - 1);
-            if (mapaManager.hayColision(getHitbox())) {
-                setY(getY() + 1); // Subir un píxel para no estar dentro del suelo
-                enSuelo = true;
-                velocidadY = 0;
-                break;
+        asentarEnSuelo(200);
+    }
+
+    /**
+     * Baja al enemigo hasta el suelo con un único barrido vertical.
+     * Si ya está tocando una colisión se considera apoyado donde está.
+     *
+     * @param distanciaMaxima Distancia máxima a bajar en píxeles
+     * @return true si encontró suelo (o ya estaba apoyado)
+     */
+    public boolean asentarEnSuelo(float distanciaMaxima) {
+        if (mapaManager == null) return false;
+
+        Rectangle hitbox = getHitbox();
+        if (!mapaManager.hayColision(hitbox)) {
+            if (!mapaManager.barrer(hitbox, 0, -distanciaMaxima, barrido)) {
+                return false;
             }
+            setY(getY() + barrido.dy);
         }
+
+        enSuelo = true;
+        velocidadY = 0;
+        return true;
+    }
+
+    /**
+     * Obtiene el atlas compartido de {@link CacheAtlas}. Todos los enemigos
+     * del mismo tipo usan la misma instancia; se devuelve en {@link #dispose()}.
+     */
+    protected TextureAtlas obtenerAtlas(String ruta) {
+        TextureAtlas compartido = CacheAtlas.getInstance().obtener(ruta);
+        rutaAtlas = ruta;
+        return compartido;
     }
 
     public void dispose() {
-        if (atlas != null) atlas.dispose();
+        if (rutaAtlas != null) {
+            CacheAtlas.getInstance().liberar(rutaAtlas);
+            rutaAtlas = null;
+            atlas = null;
+        }
     }
 }
@@ -2,7 +2,6 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 
@@ -22,31 +21,9 @@ public class Esqueleto extends Enemigos {
      */
     public Esqueleto(float x, float y) {
         super(x, y);
+        // Estadísticas, tamaño y animaciones llegan con aplicarArquetipo()
 
-        // ====================== CONFIGURACIÓN DEL ESQUELETO ======================
-        this.vidaMaxima = 3;
-        this.vidaActual = 3;
-        this.velocidad = 60f;
-        this.distanciaMaxima = 150f;
-        this.danoAtaque = 1;
-        this.rangoAtaque = 50f;
-        this.duracionAtaque = 0.5f;
-        this.cooldownAtaqueMaximo = 1.5f;
-
-        // ====================== CONFIGURACIÓN DE TAMAÑO Y HITBOX ======================
-        this.tamanioBase = 40f;
-        this.offsetHitboxX = 8f;
-        this.offsetHitboxY = 4f;
-        this.anchoHitbox = 24f;
-        this.altoHitbox = 32f;
-
-        setSize(tamanioBase, tamanioBase);
-
-        // Cargar animaciones con manejo de errores
-        cargarAnimacionesConSeguridad();
-
-        Gdx.app.log("Esqueleto", "Creado en posición: " + x + ", " + y +
-            " - Atlas disponible: " + (atlas != null));
+        Gdx.app.log("Esqueleto", "Creado en posición: " + x + ", " + y);
     }
 
     /**
@@ -63,7 +40,7 @@ public class Esqueleto extends Enemigos {
             }
 
             // Intentar cargar el atlas
-            atlas = new TextureAtlas(Gdx.files.internal("Esqueleto.atlas"));
+            atlas = obtenerAtlas("Esqueleto.atlas");
             Gdx.app.log("Esqueleto", "Atlas cargado exitosamente");
 
             // ====================== ANIMACIÓN IDLE (QUIETO) ======================
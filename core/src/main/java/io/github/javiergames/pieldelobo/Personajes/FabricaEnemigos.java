@@ -1,23 +1,35 @@
 package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
 
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
  * Fábrica para crear diferentes tipos de enemigos según información del mapa.
- * Ahora configura la gravedad apropiadamente.
+ *
+ * El tipo del spawn se resuelve con una búsqueda en {@link CatalogoEnemigos}
+ * (enemigos.json); el arquetipo dice qué clase crear y con qué valores.
+ * Cada arquetipo tiene su pool: los enemigos liberados con
+ * {@link #liberar(Enemigos)} se reutilizan en el siguiente spawn del mismo tipo.
  *
  *  * @author Javier Gala
- *  * @version 2.1
+ *  * @version 2.2
  */
 public class FabricaEnemigos {
 
     private MapaManager mapaManager;
     private Protagonista objetivo;
 
+    private final CatalogoEnemigos catalogo = CatalogoEnemigos.getInstance();
+    private final ObjectMap<String, Pool<Enemigos>> pools = new ObjectMap<>();
+
+    // Estadísticas
+    private int creados = 0;
+    private int reutilizados = 0;
+
     public FabricaEnemigos(MapaManager mapaManager, Protagonista objetivo) {
         this.mapaManager = mapaManager;
         this.objetivo = objetivo;
@@ -27,38 +39,26 @@ public class FabricaEnemigos {
      * Crea un enemigo según la información de spawn.
      */
     public Enemigos crearEnemigo(MapaManager.EnemigoSpawnInfo spawnInfo) {
-        Enemigos enemigo = null;
-        String tipo = spawnInfo.tipo.toLowerCase();
-
-        // Determinar qué tipo de enemigo crear
-        if (tipo.contains("esqueleto")) {
-            enemigo = new Esqueleto(spawnInfo.posicion.x, spawnInfo.posicion.y);
-        }
-        else if (tipo.contains("bandido_pesado") || tipo.contains("heavy")) {
-            enemigo = new Bandido(spawnInfo.posicion.x, spawnInfo.posicion.y, true);
-        }
-        else if (tipo.contains("bandido_ligero") || tipo.contains("light") || tipo.contains("bandido")) {
-            enemigo = new Bandido(spawnInfo.posicion.x, spawnInfo.posicion.y, false);
-        }
-        else if (tipo.contains("arquero")) {
-            enemigo = new Arquero(spawnInfo.posicion.x, spawnInfo.posicion.y);
-        }
-        else if (tipo.contains("golem")) {
-            enemigo = new Golem(spawnInfo.posicion.x, spawnInfo.posicion.y);
-        }
-        else if (tipo.contains("bruja") || tipo.contains("mago")) {
-            enemigo = new BrujaFuego(spawnInfo.posicion.x, spawnInfo.posicion.y);
-            // La BrujaFuego ya tiene gravedad desactivada en su constructor
+        ArquetipoEnemigo arquetipo = catalogo.buscar(spawnInfo.tipo);
+        if (arquetipo == null) {
+            Gdx.app.error("FabricaEnemigos", "Tipo de enemigo desconocido: " + spawnInfo.tipo);
+            return null;
         }
-        else if (tipo.contains("necromancer")) {
-            enemigo = new Necromancer(spawnInfo.posicion.x, spawnInfo.posicion.y);
-            // El Necromancer ya tiene gravedad desactivada en su constructor
+
+        Pool<Enemigos> pool = getPool(arquetipo);
+        if (pool.getFree() > 0) {
+            reutilizados++;
         }
-        else {
-            Gdx.app.error("FabricaEnemigos", "Tipo de enemigo desconocido: " + spawnInfo.tipo);
+        Enemigos enemigo = pool.obtain();
+        if (enemigo == null) {
+            Gdx.app.error("FabricaEnemigos", "Perfil desconocido '" + arquetipo.perfil +
+                "' en el arquetipo " + arquetipo.id);
             return null;
         }
 
+        enemigo.setPosition(spawnInfo.posicion.x, spawnInfo.posicion.y);
+        enemigo.aplicarArquetipo(arquetipo);
+
         // Configurar propiedades personalizadas si existen
         if (spawnInfo.vidaPersonalizada > 0) {
             Gdx.app.log("FabricaEnemigos", "Vida personalizada para " + spawnInfo.tipo +
@@ -66,25 +66,93 @@ public class FabricaEnemigos {
         }
 
         // Configurar dirección inicial
-        if (enemigo != null && !spawnInfo.mirandoDerecha) {
+        if (!spawnInfo.mirandoDerecha) {
             enemigo.mirandoDerecha = false;
             Gdx.app.log("FabricaEnemigos", spawnInfo.tipo + " mirando a la izquierda");
         }
 
         // Configurar referencias comunes
-        if (enemigo != null) {
-            enemigo.setMapaManager(mapaManager);
-            enemigo.setObjetivo(objetivo);
+        enemigo.setMapaManager(mapaManager);
+        enemigo.setObjetivo(objetivo);
 
-            // Si el enemigo tiene gravedad, corregir su posición inicial
-            if (enemigo.aplicarGravedad) {
-                enemigo.corregirPosicionInicial();
-            }
+        // Si el enemigo tiene gravedad, corregir su posición inicial
+        if (enemigo.aplicarGravedad) {
+            enemigo.corregirPosicionInicial();
         }
 
         return enemigo;
     }
 
+    /**
+     * Devuelve un enemigo a su pool para reutilizarlo. Debe estar ya fuera
+     * del stage. Los que no salieron de la fábrica se liberan sin más.
+     */
+    public void liberar(Enemigos enemigo) {
+        ArquetipoEnemigo arquetipo = enemigo.getArquetipo();
+        Pool<Enemigos> pool = arquetipo != null ? pools.get(arquetipo.id) : null;
+        if (pool == null) {
+            enemigo.dispose();
+            return;
+        }
+        pool.free(enemigo);
+    }
+
+    private Pool<Enemigos> getPool(final ArquetipoEnemigo arquetipo) {
+        Pool<Enemigos> pool = pools.get(arquetipo.id);
+        if (pool == null) {
+            pool = new Pool<Enemigos>(4, 32) {
+                @Override
+                protected Enemigos newObject() {
+                    Enemigos nuevo = instanciar(arquetipo.perfil);
+                    if (nuevo != null) creados++;
+                    return nuevo;
+                }
+
+                @Override
+                protected void discard(Enemigos enemigo) {
+                    enemigo.dispose();
+                }
+            };
+            pools.put(arquetipo.id, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Crea la clase que da el comportamiento de un perfil.
+     */
+    private static Enemigos instanciar(String perfil) {
+        switch (perfil) {
+            case "esqueleto":
+                return new Esqueleto(0, 0);
+            case "bandido_pesado":
+                return new Bandido(0, 0, true);
+            case "bandido_ligero":
+                return new Bandido(0, 0, false);
+            case "arquero":
+                return new Arquero(0, 0);
+            case "golem":
+                return new Golem(0, 0);
+            case "bruja":
+                return new BrujaFuego(0, 0);
+            case "necromancer":
+                return new Necromancer(0, 0);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Atlas que usa un tipo de enemigo, según su arquetipo. Sirve para
+     * precargarlo antes de crear el nivel.
+     *
+     * @return Ruta del atlas, o null si el tipo no es conocido
+     */
+    public static String rutaAtlas(String tipoSpawn) {
+        ArquetipoEnemigo arquetipo = CatalogoEnemigos.getInstance().buscar(tipoSpawn);
+        return arquetipo != null ? arquetipo.atlas : null;
+    }
+
     /**
      * Crea todos los enemigos desde un array de spawn info.
      */
@@ -103,4 +171,20 @@ public class FabricaEnemigos {
         Gdx.app.log("FabricaEnemigos", "Total enemigos creados: " + enemigos.size);
         return enemigos;
     }
+
+    /**
+     * Libera los enemigos que quedan en los pools.
+     */
+    public void dispose() {
+        for (Pool<Enemigos> pool : pools.values()) {
+            pool.clear();
+        }
+        pools.clear();
+        Gdx.app.log("FabricaEnemigos", "Enemigos creados: " + creados + ", reutilizados: " + reutilizados);
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getCreados() { return creados; }
+    public int getReutilizados() { return reutilizados; }
 }
@@ -1,13 +1,16 @@
 package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
  * Proyectil Flecha lanzado por el Arquero.
+ * Se reutilizan desde un pool; la textura es la misma para todas.
  *
  *  * @author Javier Gala
  *  * @version 1.0
@@ -16,27 +19,39 @@ public class Flecha extends Proyectil {
 
     private static TextureRegion texturaFlecha;
 
-    static {
-        // Cargar textura estática para todas las flechas
+    private static final Pool<Flecha> pool = new Pool<Flecha>(8, 64) {
+        @Override
+        protected Flecha newObject() {
+            return new Flecha();
+        }
+    };
 
-            Gdx.app.error("Flecha", "No se pudo cargar flecha.png, usando textura por defecto");
-            // Crear textura por defecto
-            texturaFlecha = crearTexturaPorDefecto(1, 0, 0); // Flecha amarilla
+    private Flecha() {
+        super();
     }
 
-    public Flecha(float x, float y, float velocidadX, float velocidadY, float dano,
-                  MapaManager mapaManager, Protagonista objetivo) {
-        super(x, y, velocidadX, velocidadY, dano, texturaFlecha, mapaManager, objetivo);
+    /**
+     * Saca una flecha del pool y la prepara para el disparo.
+     */
+    public static Flecha obtener(float x, float y, float velocidadX, float velocidadY, float dano,
+                                 MapaManager mapaManager, Protagonista objetivo) {
+        Flecha flecha = pool.obtain();
+        flecha.iniciar(x, y, velocidadX, velocidadY, dano, getTextura(), mapaManager, objetivo);
 
         // Velocidad más rápida para flechas
-        this.velocidad.scl(1.5f);
+        flecha.velocidad.scl(1.5f);
+        return flecha;
+    }
 
-        Gdx.app.log("Flecha", "Flecha creada con velocidad: " + velocidad);
+    @Override
+    protected void devolverAlPool() {
+        pool.free(this);
     }
 
     @Override
     public void act(float delta) {
         super.act(delta);
+        if (!activo) return;
 
         // Efecto visual: rotación según la velocidad
         if (velocidad.x != 0 || velocidad.y != 0) {
@@ -45,10 +60,16 @@ public class Flecha extends Proyectil {
         }
     }
 
+    static TextureRegion getTextura() {
+        if (texturaFlecha == null) {
+            texturaFlecha = crearTexturaPorDefecto(1, 0, 0);
+        }
+        return texturaFlecha;
+    }
+
     private static TextureRegion crearTexturaPorDefecto(float r, float g, float b) {
         // Crear una textura simple (triángulo para flecha)
-        com.badlogic.gdx.graphics.Pixmap pixmap = new com.badlogic.gdx.graphics.Pixmap(32, 8,
-            com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
+        Pixmap pixmap = new Pixmap(32, 8, Pixmap.Format.RGBA8888);
         pixmap.setColor(r, g, b, 1);
         pixmap.fillTriangle(0, 4, 24, 0, 24, 8); // Punta de flecha
         pixmap.setColor(r * 0.7f, g * 0.7f, b * 0.7f, 1);
@@ -56,6 +77,18 @@ public class Flecha extends Proyectil {
 
         Texture tex = new Texture(pixmap);
         pixmap.dispose();
+        Gdx.app.log("Flecha", "Textura de flecha generada");
         return new TextureRegion(tex);
     }
+
+    /**
+     * Libera la textura compartida y vacía el pool.
+     */
+    static void liberarRecursos() {
+        pool.clear();
+        if (texturaFlecha != null) {
+            texturaFlecha.getTexture().dispose();
+            texturaFlecha = null;
+        }
+    }
 }
@@ -2,7 +2,6 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 
@@ -21,28 +20,7 @@ public class Golem extends Enemigos {
      */
     public Golem(float x, float y) {
         super(x, y);
-
-        // ====================== CONFIGURACIÓN DEL GOLEM ======================
-        this.vidaMaxima = 10;
-        this.vidaActual = 10;
-        this.velocidad = 30f;
-        this.distanciaMaxima = 120f;
-        this.danoAtaque = 3;
-        this.rangoAtaque = 70f;
-        this.duracionAtaque = 1.2f;
-        this.cooldownAtaqueMaximo = 3.0f;
-
-        // ====================== CONFIGURACIÓN DE TAMAÑO Y HITBOX ======================
-        this.tamanioBase = 90f;
-        this.offsetHitboxX = 15f;
-        this.offsetHitboxY = 10f;
-        this.anchoHitbox = 60f;
-        this.altoHitbox = 44f;
-
-        setSize(tamanioBase, tamanioBase);
-
-        // Cargar animaciones con manejo de errores
-        cargarAnimacionesConSeguridad();
+        // Estadísticas, tamaño y animaciones llegan con aplicarArquetipo()
 
         Gdx.app.log("Golem", "Creado en posición: " + x + ", " + y);
     }
@@ -60,7 +38,7 @@ public class Golem extends Enemigos {
                 return;
             }
 
-            atlas = new TextureAtlas(Gdx.files.internal("Golem.atlas"));
+            atlas = obtenerAtlas("Golem.atlas");
             Gdx.app.log("Golem", "Atlas Golem cargado exitosamente");
 
             // ====================== ANIMACIÓN IDLE ======================
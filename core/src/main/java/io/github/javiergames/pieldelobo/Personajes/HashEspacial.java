@@ -0,0 +1,156 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+
+/**
+ * Hash espacial dinámico para entidades que se mueven cada frame.
+ *
+ * Cada entidad se identifica con un entero (su posición en la lista de quien
+ * la inserta) y se apunta en todas las celdas que toca su caja. Las celdas
+ * se guardan en un {@link IntMap} por clave de celda, así que no hace falta
+ * conocer el tamaño del nivel. Se vacía y se vuelve a llenar cada frame;
+ * las listas de las celdas se reutilizan, por lo que tras los primeros
+ * frames no crea objetos.
+ *
+ * Es distinto de la RejillaColisiones del mapa, que es estática y se
+ * construye una vez al cargar.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class HashEspacial {
+
+    private final float tamanioCelda;
+
+    private final IntMap<IntArray> celdas = new IntMap<>();
+    private final IntArray clavesUsadas = new IntArray();
+    private final Array<IntArray> listasLibres = new Array<>();
+
+    // Caja de cada entidad insertada
+    private float[] minX = new float[32];
+    private float[] minY = new float[32];
+    private float[] maxX = new float[32];
+    private float[] maxY = new float[32];
+
+    // Marca de la última consulta que vio cada entidad, para no repetirla
+    private int[] marca = new int[32];
+    private int marcaActual = 0;
+
+    // Pares caja-entidad comprobados desde el último vaciado
+    private int paresComprobados = 0;
+
+    /**
+     * @param tamanioCelda Lado de las celdas en píxeles. Conviene que sea algo
+     *                     mayor que las entidades habituales.
+     */
+    public HashEspacial(float tamanioCelda) {
+        this.tamanioCelda = tamanioCelda;
+    }
+
+    // ====================== CONSTRUCCIÓN ======================
+
+    /** Quita todas las entidades (las listas de las celdas se guardan para reutilizarlas). */
+    public void vaciar() {
+        for (int i = 0; i < clavesUsadas.size; i++) {
+            IntArray lista = celdas.remove(clavesUsadas.items[i]);
+            if (lista != null) {
+                lista.clear();
+                listasLibres.add(lista);
+            }
+        }
+        clavesUsadas.clear();
+        paresComprobados = 0;
+    }
+
+    /**
+     * Inserta una entidad con su caja.
+     *
+     * @param id Identificador (≥ 0) que devolverán las consultas
+     */
+    public void insertar(int id, float x, float y, float ancho, float alto) {
+        asegurarCapacidad(id + 1);
+        minX[id] = x;
+        minY[id] = y;
+        maxX[id] = x + ancho;
+        maxY[id] = y + alto;
+
+        int cx0 = celda(x), cx1 = celda(x + ancho);
+        int cy0 = celda(y), cy1 = celda(y + alto);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int clave = clave(cx, cy);
+                IntArray lista = celdas.get(clave);
+                if (lista == null) {
+                    lista = listasLibres.size > 0 ? listasLibres.pop() : new IntArray();
+                    celdas.put(clave, lista);
+                    clavesUsadas.add(clave);
+                }
+                lista.add(id);
+            }
+        }
+    }
+
+    // ====================== CONSULTAS ======================
+
+    /**
+     * Añade a resultado las entidades cuya caja solapa con la dada
+     * (cada una una sola vez).
+     */
+    public void consultar(float x, float y, float ancho, float alto, IntArray resultado) {
+        marcaActual++;
+        float x1 = x + ancho;
+        float y1 = y + alto;
+
+        int cx0 = celda(x), cx1 = celda(x1);
+        int cy0 = celda(y), cy1 = celda(y1);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                IntArray lista = celdas.get(clave(cx, cy));
+                if (lista == null) continue;
+
+                for (int k = 0; k < lista.size; k++) {
+                    int id = lista.items[k];
+                    if (marca[id] == marcaActual) continue;
+                    marca[id] = marcaActual;
+
+                    paresComprobados++;
+                    // Mismo criterio que Rectangle.overlaps
+                    if (minX[id] < x1 && maxX[id] > x && minY[id] < y1 && maxY[id] > y) {
+                        resultado.add(id);
+                    }
+                }
+            }
+        }
+    }
+
+    private int celda(float coordenada) {
+        return (int) Math.floor(coordenada / tamanioCelda);
+    }
+
+    /** Clave de celda; si dos celdas comparten clave solo se prueban más candidatos. */
+    private static int clave(int cx, int cy) {
+        return cx * 73856093 ^ cy * 19349663;
+    }
+
+    private void asegurarCapacidad(int necesaria) {
+        if (necesaria <= marca.length) return;
+
+        int nueva = Math.max(necesaria, marca.length * 2);
+        minX = Arrays.copyOf(minX, nueva);
+        minY = Arrays.copyOf(minY, nueva);
+        maxX = Arrays.copyOf(maxX, nueva);
+        maxY = Arrays.copyOf(maxY, nueva);
+        marca = Arrays.copyOf(marca, nueva);
+    }
+
+    // ====================== GETTERS ======================
+
+    public float getTamanioCelda() { return tamanioCelda; }
+    public int getCeldasOcupadas() { return clavesUsadas.size; }
+    /** Pares comprobados desde el último {@link #vaciar()}. */
+    public int getParesComprobados() { return paresComprobados; }
+}
@@ -2,8 +2,8 @@ package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 
@@ -34,30 +34,8 @@ public class Necromancer extends Enemigos {
 
     public Necromancer(float x, float y) {
         super(x, y);
-
-        // CONFIGURACIÓN BÁSICA
-        this.vidaMaxima = 6;
-        this.vidaActual = 6;
-        this.velocidad = 40f;
-        this.distanciaMaxima = 60f;
-        this.danoAtaque = 1;
-        this.rangoAtaque = 200f;  // Rango de ataque
-        this.duracionAtaque = 1.0f;  // Duración más corta para ataque
-        this.cooldownAtaqueMaximo = 1.5f;  // Cooldown más corto
-
-        // TAMAÑO Y HITBOX
-        this.tamanioBase = 160f;
-        this.offsetHitboxX = 40f;
-        this.offsetHitboxY = 20f;
-        this.anchoHitbox = 80f;
-        this.altoHitbox = 88f;
-
-        // SIN GRAVEDAD
-        this.aplicarGravedad = false;
-        this.enSuelo = true;
-
-        setSize(tamanioBase, tamanioBase);
-        cargarAnimacionesConSeguridad();
+        // Estadísticas, tamaño, animaciones y gravedad (flota)
+        // llegan con aplicarArquetipo()
 
         Gdx.app.log("Necromancer", "¡NECROMANCER CREADO EN (" + x + "," + y + ")!");
     }
@@ -71,7 +49,7 @@ public class Necromancer extends Enemigos {
                 return;
             }
 
-            atlas = new TextureAtlas(Gdx.files.internal("Necromancer.atlas"));
+            atlas = obtenerAtlas("Necromancer.atlas");
             Gdx.app.log("Necromancer", "Atlas Necromancer cargado exitosamente");
 
             // ====================== ANIMACIÓN IDLE ======================
@@ -196,7 +174,7 @@ public class Necromancer extends Enemigos {
 
         // DEBUG: Mostrar estado periódicamente
         if (Gdx.app.getLogLevel() >= com.badlogic.gdx.Application.LOG_DEBUG) {
-            if (Math.random() < 0.01f) { // 1% de probabilidad cada frame
+            if (MathUtils.random() < 0.01f) { // 1% de probabilidad cada frame
                 Gdx.app.debug("Necromancer_DEBUG",
                     "puedeAtacar=" + puedeAtacar +
                         ", estaAtacando=" + estaAtacando +
@@ -211,6 +189,17 @@ public class Necromancer extends Enemigos {
         Gdx.app.log("Necromancer", "¡STAGE ESTABLECIDO! " + (stage != null ? "NO NULL" : "NULL"));
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        lanzandoProyectil = false;
+        tiempoPreparacionProyectil = 0;
+        proyectilLanzado = false;
+        tiempoDesdeUltimoAtaque = 0;
+        tiempoFlotacion = 0;
+        stageReferencia = null;
+    }
+
     @Override
     protected void actualizarIA(float delta) {
         if (estaMuerto || recibiendoDano) return;
@@ -224,13 +213,13 @@ public class Necromancer extends Enemigos {
 
         // DEBUG: Mostrar distancia periódicamente
         if (Gdx.app.getLogLevel() >= com.badlogic.gdx.Application.LOG_DEBUG) {
-            if (Math.random() < 0.02f) { // 2% de probabilidad cada frame
+            if (MathUtils.random() < 0.02f) { // 2% de probabilidad cada frame
                 Gdx.app.debug("Necromancer_DIST", "Distancia: " + String.format("%.1f", distancia) +
                     " | Rango: " + rangoAtaque);
             }
         }
 
-        if (distancia <= rangoAtaque) {
+        if (distancia <= rangoAtaque && tieneLineaDeVision()) {
             // Detener movimiento y mirar al objetivo
             direccionMovimiento.set(0, 0);
             mirarAlObjetivo();
@@ -241,7 +230,7 @@ public class Necromancer extends Enemigos {
                 iniciarAtaqueProyectil();
             }
         } else {
-            // Acercarse al objetivo
+            // Acercarse al objetivo (también si hay una pared en medio)
             seguirObjetivo(delta);
         }
     }
@@ -302,7 +291,7 @@ public class Necromancer extends Enemigos {
         }
 
         // Verificaciones esenciales
-        if (stageReferencia == null) {
+        if (stageReferencia == null && sistemaProyectiles == null) {
             Gdx.app.error("Necromancer", "ERROR CRÍTICO: stageReferencia es NULL");
             return;
         }
@@ -347,17 +336,21 @@ public class Necromancer extends Enemigos {
         // CREAR PROYECTIL
         Gdx.app.log("Necromancer", "Creando proyectil en (" + origenX + "," + origenY + ")");
 
-        ProyectilOscuro proyectil = new ProyectilOscuro(
-            origenX, origenY,
-            dirX, dirY,
-            danoAtaque,
-            mapaManager,
-            objetivo
-        );
-
-        // AÑADIR AL STAGE
-        stageReferencia.addActor(proyectil);
-        Gdx.app.log("Necromancer", "¡PROYECTIL AÑADIDO AL STAGE!");
+        if (sistemaProyectiles != null) {
+            sistemaProyectiles.disparar(SistemaProyectiles.Tipo.OSCURO, origenX, origenY, dirX, dirY, danoAtaque);
+        } else {
+            ProyectilOscuro proyectil = ProyectilOscuro.obtener(
+                origenX, origenY,
+                dirX, dirY,
+                danoAtaque,
+                mapaManager,
+                objetivo
+            );
+
+            // AÑADIR AL STAGE
+            stageReferencia.addActor(proyectil);
+            Gdx.app.log("Necromancer", "¡PROYECTIL AÑADIDO AL STAGE!");
+        }
 
         // Sonido/efecto visual
         Gdx.app.log("Necromancer", "¡PROYECTIL OSCURO LANZADO CON ÉXITO!");
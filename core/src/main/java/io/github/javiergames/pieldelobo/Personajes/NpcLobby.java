@@ -6,15 +6,18 @@ import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
 import java.util.Random;
 
 import io.github.javiergames.pieldelobo.Dialogos.DialogoManager;
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.GestorJuego.GameState;
 import io.github.javiergames.pieldelobo.GestorJuego.SistemaProgresion;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
+import io.github.javiergames.pieldelobo.Recursos.CacheAtlas;
 
 /**
  * NPC controlado por IA para el lobby con animaciones completas y colisiones.
@@ -25,7 +28,10 @@ import io.github.javiergames.pieldelobo.Mapas.MapaManager;
  *  * @version 3.1
  */
 public class NpcLobby extends Actor {
+    private static final String RUTA_ATLAS = "Personajes_Laboratorio.atlas";
+    // Atlas compartido de CacheAtlas: se devuelve en dispose(), no se libera aquí
     private TextureAtlas atlas;
+    private final Rectangle hitbox = ContadorAsignaciones.rectangulo();
 
     // Animaciones completas como el protagonista
     private Animation<TextureRegion> animacionAndarArriba;
@@ -82,7 +88,8 @@ public class NpcLobby extends Actor {
      */
     public NpcLobby(String tipoNpc, float x, float y) {
         this.tipoNPC = tipoNpc;
-        this.random = new Random();
+        // Generador compartido: se puede sembrar para repetir una partida
+        this.random = MathUtils.random;
 
         // 1. Cargar animaciones
         cargarAnimacionesCompletas(tipoNpc);
@@ -267,7 +274,7 @@ public class NpcLobby extends Actor {
 
     private void cargarAnimacionesCompletas(String tipoNpc) {
         try {
-            atlas = new TextureAtlas(Gdx.files.internal("Personajes_Laboratorio.atlas"));
+            atlas = CacheAtlas.getInstance().obtener(RUTA_ATLAS);
             String prefix = obtenerPrefijoNpc(tipoNpc);
 
             // Animaciones idle
@@ -472,8 +479,9 @@ public class NpcLobby extends Actor {
         }
     }
 
+    /** Rectángulo propio que se actualiza en cada llamada: no modificarlo ni guardarlo. */
     public Rectangle getHitbox() {
-        return new Rectangle(
+        return hitbox.set(
             getX() + MARGEN_HITBOX_HORIZONTAL,
             getY() + MARGEN_HITBOX_VERTICAL,
             getWidth() - MARGEN_HITBOX_HORIZONTAL * 2,
@@ -495,7 +503,8 @@ public class NpcLobby extends Actor {
 
     public void dispose() {
         if (atlas != null) {
-            atlas.dispose();
+            CacheAtlas.getInstance().liberar(RUTA_ATLAS);
+            atlas = null;
             Gdx.app.log("NpcLobby", "Recursos del NPC liberados");
         }
     }
@@ -10,7 +10,9 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
 
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
+import io.github.javiergames.pieldelobo.Recursos.CacheAtlas;
 
 /**
  * Personaje para pantallas de menú/lobby con movimiento estilo top-down.
@@ -23,7 +25,10 @@ import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 public class PersonajeLobby extends Actor {
     // ====================== RECURSOS GRÁFICOS ======================
 
+    private static final String RUTA_ATLAS = "Personajes_Laboratorio.atlas";
+    // Atlas compartido de CacheAtlas: se devuelve en dispose(), no se libera aquí
     private TextureAtlas atlas;
+    private final Rectangle hitbox = ContadorAsignaciones.rectangulo();
     private Animation<TextureRegion> animacionAndar;
     private Animation<TextureRegion> animacionIdle;
     private Animation<TextureRegion> animacionAndarArriba;
@@ -120,7 +125,7 @@ public class PersonajeLobby extends Actor {
      */
     private void cargarAnimaciones() {
         try {
-            atlas = new TextureAtlas(Gdx.files.internal("Personajes_Laboratorio.atlas"));
+            atlas = CacheAtlas.getInstance().obtener(RUTA_ATLAS);
 
             // Animación idle ARRIBA
             Array<TextureRegion> idleArriba = new Array<>();
@@ -450,7 +455,8 @@ public class PersonajeLobby extends Actor {
      */
     public Rectangle getHitbox() {
         // Hitbox ajustado al tamaño real del sprite con márgenes proporcionales
-        return new Rectangle(
+        // (rectángulo propio que se actualiza en cada llamada: no modificarlo ni guardarlo)
+        return hitbox.set(
             getX() + MARGEN_HITBOX_HORIZONTAL,
             getY() + MARGEN_HITBOX_VERTICAL,
             getWidth() - MARGEN_HITBOX_HORIZONTAL * 2,
@@ -494,7 +500,8 @@ public class PersonajeLobby extends Actor {
      */
     public void dispose() {
         if (atlas != null) {
-            atlas.dispose();
+            CacheAtlas.getInstance().liberar(RUTA_ATLAS);
+            atlas = null;
             Gdx.app.log("PersonajeLobby", "Recursos liberados correctamente");
         }
     }
@@ -10,6 +10,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
 
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
@@ -98,6 +99,14 @@ public class Protagonista extends Actor {
     // ====================== DEBUG ======================
     private boolean mostrarDebugHitbox = false;
 
+    // Resultado reutilizado para los barridos contra el mapa
+    private final MapaManager.ResultadoBarrido barrido = new MapaManager.ResultadoBarrido();
+
+    // Hitboxes propias que se reutilizan (ver getHitboxColision())
+    private final Rectangle hitboxColision = ContadorAsignaciones.rectangulo();
+    private final Rectangle hitboxCombate = ContadorAsignaciones.rectangulo();
+    private final Rectangle areaAtaque = ContadorAsignaciones.rectangulo();
+
     // ====================== CONSTRUCTOR ======================
 
     public Protagonista() {
@@ -220,7 +229,6 @@ public class Protagonista extends Actor {
      */
     private void actualizarFisicas(float delta) {
         float xAnterior = getX();
-        float yAnterior = getY();
 
         // ===== 1. APLICAR GRAVEDAD MODERADA =====
         if (!enSuelo) { // Solo aplicar gravedad si no está en suelo
@@ -234,12 +242,9 @@ public class Protagonista extends Actor {
         float movimientoY = velocidadY * delta;
 
         if (movimientoY != 0) {
-            setY(getY() + movimientoY);
-
-            // Verificar colisión después de mover
-            if (mapaManager != null && mapaManager.hayColision(getHitboxColision())) {
-                // Revertir movimiento
-                setY(yAnterior);
+            // Barrido vertical: se detiene justo en el borde del suelo o del techo
+            if (mapaManager != null && mapaManager.barrer(getHitboxColision(), 0, movimientoY, barrido)) {
+                setY(getY() + barrido.dy);
 
                 if (movimientoY < 0) {
                     // Colisión con el suelo
@@ -247,19 +252,23 @@ public class Protagonista extends Actor {
                     velocidadY = 0;
                     saltosRestantes = MAX_SALTOS;
 
-                    // Ajuste sutil del suelo (menos agresivo)
-                    ajusteSueloSutil();
-
                 } else if (movimientoY > 0) {
                     // Colisión con techo
                     velocidadY = 0;
                 }
             } else {
+                setY(getY() + movimientoY);
+
                 // Si no hay colisión y estábamos cayendo, no está en suelo
                 if (movimientoY < 0) {
                     enSuelo = false;
                 }
             }
+
+            // Si empezó hundido en algo, ajuste sutil para salir por arriba
+            if (barrido.solapadoInicial) {
+                ajusteSueloSutil();
+            }
         }
 
         // ===== 3. VERIFICACIÓN DEL SUELO (solo si parece que está en suelo) =====
@@ -287,28 +296,10 @@ public class Protagonista extends Actor {
     private void ajusteSueloSutil() {
         if (mapaManager == null) return;
 
-        float incremento = AJUSTE_SUELO_PRECISION;
-        int maxAjustes = 5; // Máximo de ajustes (antes era 100)
-
-        // Solo hacer pequeños ajustes si es necesario
-        for (int i = 0; i < maxAjustes; i++) {
-            // Subir un poco
-            setY(getY() + incremento);
-
-            // Verificar si ya no hay colisión
-            if (!mapaManager.hayColision(getHitboxColision())) {
-                // Estamos justo sobre el suelo - perfecto
-                return;
-            }
-        }
-
-        // Si después de los ajustes sigue en colisión, volver a la posición anterior
-        // y usar un método más simple
-        for (int i = 0; i < maxAjustes * 2; i++) {
-            setY(getY() - incremento);
-            if (!mapaManager.hayColision(getHitboxColision())) {
-                return;
-            }
+        // Solo pequeños ajustes: como mucho 5 pasos de precisión
+        float subida = mapaManager.calcularSubidaParaLiberar(getHitboxColision(), AJUSTE_SUELO_PRECISION * 5);
+        if (subida > 0) {
+            setY(getY() + subida);
         }
     }
 
@@ -337,21 +328,12 @@ public class Protagonista extends Actor {
     private void ajustarPosicionExactaSuelo() {
         if (mapaManager == null) return;
 
-        float incremento = 0.5f; // Incremento muy pequeño
         float maxBusqueda = 10f; // Máximo de píxeles a buscar
 
-        // Guardar posición original
-        float yOriginal = getY();
-
-        // Buscar hacia arriba hasta encontrar el borde exacto del suelo
-        for (float i = 0; i < maxBusqueda; i += incremento) {
-            setY(yOriginal + i);
-            if (!mapaManager.hayColision(getHitboxColision())) {
-                // Encontramos la posición justo encima del suelo
-                // Retrocedemos un poco para estar seguro
-                setY(getY() - incremento);
-                break;
-            }
+        // Subir justo hasta el borde exacto del suelo
+        float subida = mapaManager.calcularSubidaParaLiberar(getHitboxColision(), maxBusqueda);
+        if (subida > 0) {
+            setY(getY() + subida);
         }
     }
 
@@ -396,17 +378,12 @@ public class Protagonista extends Actor {
     private void ajustarPosicionSuelo() {
         if (mapaManager == null) return;
 
-        float incremento = 1f;
         float maxBusqueda = 20f; // Máximo de píxeles a buscar
 
-        // Buscar hacia arriba hasta encontrar el suelo exacto
-        for (float i = 0; i < maxBusqueda; i += incremento) {
-            setY(getY() + incremento);
-            if (!mapaManager.hayColision(getHitboxColision())) {
-                // Encontramos la posición justo encima del suelo
-                setY(getY() - incremento); // Retroceder un paso
-                break;
-            }
+        // Subir hasta quedar apoyado sobre el suelo exacto
+        float subida = mapaManager.calcularSubidaParaLiberar(getHitboxColision(), maxBusqueda);
+        if (subida > 0) {
+            setY(getY() + subida);
         }
     }
 
@@ -489,6 +466,18 @@ public class Protagonista extends Actor {
     private void escaparDeEsquina() {
         Gdx.app.log("Protagonista", "¡Intentando escapar de esquina atascada!");
 
+        // Lo más habitual es estar hundido en el suelo: salir por arriba en una consulta
+        float subida = mapaManager.calcularSubidaParaLiberar(getHitboxColision(), 10f);
+        if (subida >= 0) {
+            setY(getY() + subida);
+            Gdx.app.log("Protagonista", "¡Escapado de esquina subiendo " + subida + "px!");
+            ultimaPosicionValidaX = getX();
+            ultimaPosicionValidaY = getY();
+            intentandoEscaparEsquina = false;
+            tiempoAtascado = 0;
+            return;
+        }
+
         // Intentar diferentes direcciones de escape
         float[][] direccionesEscapa = {
             {10, 0},   // Derecha
@@ -618,23 +607,23 @@ public class Protagonista extends Actor {
 
         // MOVIMIENTO HORIZONTAL SIMPLE
         if (direccionX != 0 && enSuelo) { // SOLO mover horizontalmente si está en suelo
-            float xAnterior = getX();
             float movX = direccionX * VELOCIDAD * delta;
-            setX(getX() + movX);
 
-            if (mapaManager != null && mapaManager.hayColision(getHitboxColision())) {
-                // Colisión horizontal - revertir
-                setX(xAnterior);
+            if (mapaManager != null && mapaManager.barrer(getHitboxColision(), movX, 0, barrido)) {
+                // Colisión horizontal - avanzar solo hasta la pared
+                setX(getX() + barrido.dx);
                 velocidadXActual = 0;
+            } else {
+                setX(getX() + movX);
             }
         } else if (direccionX != 0 && !enSuelo) {
             // Movimiento en el aire (más lento)
-            float xAnterior = getX();
             float movX = direccionX * VELOCIDAD * delta * 0.7f; // 70% de velocidad en aire
-            setX(getX() + movX);
 
-            if (mapaManager != null && mapaManager.hayColision(getHitboxColision())) {
-                setX(xAnterior);
+            if (mapaManager != null && mapaManager.barrer(getHitboxColision(), movX, 0, barrido)) {
+                setX(getX() + barrido.dx);
+            } else {
+                setX(getX() + movX);
             }
         }
     }
@@ -728,9 +717,11 @@ public class Protagonista extends Actor {
     }
 
     // ====================== HITBOXES ======================
+    // Los getters devuelven rectángulos propios que se actualizan en cada
+    // llamada: no modificarlos ni guardarlos entre frames.
 
     public Rectangle getHitboxColision() {
-        return new Rectangle(
+        return hitboxColision.set(
             getX() + OFFSET_COLISION_X,
             getY() + OFFSET_COLISION_Y,
             ANCHO_COLISION,
@@ -739,7 +730,7 @@ public class Protagonista extends Actor {
     }
 
     public Rectangle getHitboxCombate() {
-        return new Rectangle(
+        return hitboxCombate.set(
             getX() + OFFSET_COMBATE_X,
             getY() + OFFSET_COMBATE_Y,
             ANCHO_COMBATE,
@@ -757,7 +748,7 @@ public class Protagonista extends Actor {
         float altoAtaque = 40f;
         float offsetX = mirandoDerecha ? TAMANIO_BASE/2 : -anchoAtaque;
 
-        return new Rectangle(
+        return areaAtaque.set(
             getX() + offsetX,
             getY() + 10f,
             anchoAtaque,
@@ -1,24 +1,30 @@
 package io.github.javiergames.pieldelobo.Personajes;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Pool;
 
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
  * Clase base para todos los proyectiles (flechas, bolas de fuego, etc.)
  *
+ * Los proyectiles de los enemigos salen de un {@link Pool} por tipo: se
+ * piden con el método estático obtener(...) de cada subclase y
+ * {@link #eliminar()} los devuelve al pool, que llama a {@link #reset()}.
+ *
  *  * @author Javier Gala
  *  * @version 1.0
  */
-public class Proyectil extends Actor {
+public class Proyectil extends Actor implements Pool.Poolable {
     protected TextureRegion textura;
-    protected Vector2 velocidad;
+    protected final Vector2 velocidad = ContadorAsignaciones.vector();
     protected float dano;
     protected boolean activo = true;
     protected MapaManager mapaManager;
@@ -29,13 +35,40 @@ public class Proyectil extends Actor {
     protected float tiempoVida = 0;
     protected float duracionMaxima = 5f; // Desaparece después de 5 segundos
 
+    // Impacto previsto contra el mapa: el recorrido es recto, así que basta
+    // un barrido al empezar en lugar de probar la caja cada frame
+    private final MapaManager.ResultadoBarrido barrido = new MapaManager.ResultadoBarrido();
+    private final Vector2 velocidadPrevista = ContadorAsignaciones.vector();
+    private final Rectangle cajaPrevision = ContadorAsignaciones.rectangulo();
+    private final Rectangle hitbox = ContadorAsignaciones.rectangulo();
+    private boolean impactoCalculado = false;
+    private boolean comprobarCadaFrame = false;
+    private float instanteImpacto = Float.POSITIVE_INFINITY;
+
     public Proyectil(float x, float y, float velocidadX, float velocidadY, float dano,
                      TextureRegion textura, MapaManager mapaManager, Protagonista objetivo) {
+        iniciar(x, y, velocidadX, velocidadY, dano, textura, mapaManager, objetivo);
+    }
+
+    /**
+     * Constructor para los pools: el proyectil se configura con
+     * {@link #iniciar} al sacarlo.
+     */
+    protected Proyectil() {
+        activo = false;
+    }
+
+    /**
+     * Prepara el proyectil para un disparo (nuevo o sacado de un pool).
+     */
+    protected void iniciar(float x, float y, float velocidadX, float velocidadY, float dano,
+                           TextureRegion textura, MapaManager mapaManager, Protagonista objetivo) {
         this.textura = textura;
-        this.velocidad = new Vector2(velocidadX, velocidadY);
+        this.velocidad.set(velocidadX, velocidadY);
         this.dano = dano;
         this.mapaManager = mapaManager;
         this.objetivo = objetivo;
+        this.activo = true;
 
         setPosition(x, y);
 
@@ -45,9 +78,33 @@ public class Proyectil extends Actor {
         } else {
             setSize(16, 16); // Tamaño por defecto
         }
+    }
 
-        Gdx.app.log("Proyectil", "Creado en: " + x + ", " + y +
-            " Velocidad: " + velocidadX + ", " + velocidadY);
+    /**
+     * Deja el proyectil como recién creado antes de volver a su pool.
+     */
+    @Override
+    public void reset() {
+        activo = false;
+        textura = null;
+        velocidad.setZero();
+        dano = 0;
+        mapaManager = null;
+        objetivo = null;
+        esAmigable = false;
+        tiempoVida = 0;
+        duracionMaxima = 5f;
+
+        impactoCalculado = false;
+        comprobarCadaFrame = false;
+        instanteImpacto = Float.POSITIVE_INFINITY;
+        velocidadPrevista.setZero();
+
+        clearActions();
+        setColor(Color.WHITE);
+        setRotation(0);
+        setScale(1);
+        setOrigin(0, 0);
     }
 
     @Override
@@ -72,7 +129,7 @@ public class Proyectil extends Actor {
         setY(getY() + velocidad.y * delta);
 
         // Verificar colisiones con el mapa
-        if (mapaManager != null && mapaManager.hayColision(getHitbox())) {
+        if (mapaManager != null && chocaConMapa(xAnterior, yAnterior, delta)) {
             eliminar();
             Gdx.app.log("Proyectil", "Impactó contra el mapa");
             return;
@@ -82,8 +139,8 @@ public class Proyectil extends Actor {
         if (objetivo != null && objetivo.estaVivo() && !objetivo.estaInvencible()) {
             if (getHitbox().overlaps(objetivo.getHitbox())) {
                 objetivo.recibirDano();
-                eliminar();
                 Gdx.app.log("Proyectil", "¡Impacto al jugador! Daño: " + dano);
+                eliminar();
                 return;
             }
         }
@@ -94,6 +151,41 @@ public class Proyectil extends Actor {
         }
     }
 
+    /**
+     * Indica si el proyectil ha tocado el mapa en este frame.
+     * La primera vez (o si cambia la velocidad) barre la caja por todo el
+     * recorrido que le queda y guarda el instante del impacto.
+     */
+    private boolean chocaConMapa(float xAnterior, float yAnterior, float delta) {
+        if (!impactoCalculado || !velocidad.equals(velocidadPrevista)) {
+            preverImpacto(xAnterior, yAnterior, tiempoVida - delta);
+        }
+
+        if (comprobarCadaFrame) {
+            return mapaManager.hayColision(getHitbox());
+        }
+        return tiempoVida > instanteImpacto;
+    }
+
+    private void preverImpacto(float x, float y, float instante) {
+        impactoCalculado = true;
+        velocidadPrevista.set(velocidad);
+        instanteImpacto = Float.POSITIVE_INFINITY;
+
+        float restante = duracionMaxima - instante;
+        // Hitbox en la posición de antes de moverse este frame
+        Rectangle caja = cajaPrevision.set(getHitbox());
+        caja.x += x - getX();
+        caja.y += y - getY();
+        boolean choca = mapaManager.barrer(caja, velocidad.x * restante, velocidad.y * restante, barrido);
+
+        // Si nace dentro de una colisión el barrido no sirve: se prueba frame a frame como antes
+        comprobarCadaFrame = barrido.solapadoInicial;
+        if (choca) {
+            instanteImpacto = instante + barrido.tiempo * restante;
+        }
+    }
+
     @Override
     public void draw(Batch batch, float parentAlpha) {
         if (!activo || textura == null) return;
@@ -107,10 +199,14 @@ public class Proyectil extends Actor {
             getRotation());
     }
 
+    /**
+     * Hitbox en la posición actual. Es un rectángulo propio que se actualiza
+     * en cada llamada: no modificarlo ni guardarlo.
+     */
     public Rectangle getHitbox() {
         // Hitbox más pequeño que el sprite para equilibrio
         float margen = 4f;
-        return new Rectangle(
+        return hitbox.set(
             getX() + margen,
             getY() + margen,
             getWidth() - margen * 2,
@@ -119,8 +215,28 @@ public class Proyectil extends Actor {
     }
 
     public void eliminar() {
+        // Ya eliminado (y quizá de vuelta en el pool): no devolverlo dos veces
+        if (!activo) return;
+
         activo = false;
         remove(); // Remover del stage
+        devolverAlPool();
+    }
+
+    /**
+     * Devuelve el proyectil a su pool. Los que no vienen de uno no hacen nada.
+     */
+    protected void devolverAlPool() {
+    }
+
+    /**
+     * Libera los gráficos generados y vacía los pools de todos los proyectiles.
+     * Se llama al cerrar el juego.
+     */
+    public static void liberarRecursosCompartidos() {
+        Flecha.liberarRecursos();
+        BolaFuego.liberarRecursos();
+        ProyectilOscuro.liberarRecursos();
     }
 
     public boolean estaActivo() {
@@ -4,28 +4,58 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 
 import io.github.javiergames.pieldelobo.Mapas.MapaManager;
 
 /**
  * Proyectil Oscuro simplificado para el Necromancer.
+ * Se reutilizan desde un pool; la textura se genera una vez y la comparten todos.
  *
  *  * @author Javier Gala
  *  * @version 10.
  */
 public class ProyectilOscuro extends Proyectil {
 
-    public ProyectilOscuro(float x, float y, float velocidadX, float velocidadY, float dano,
-                           MapaManager mapaManager, Protagonista objetivo) {
-        super(x, y, velocidadX, velocidadY, dano, crearTexturaPorDefecto(), mapaManager, objetivo);
+    private static TextureRegion texturaOscura;
+
+    private static final Pool<ProyectilOscuro> pool = new Pool<ProyectilOscuro>(4, 32) {
+        @Override
+        protected ProyectilOscuro newObject() {
+            return new ProyectilOscuro();
+        }
+    };
+
+    private ProyectilOscuro() {
+        super();
+    }
+
+    /**
+     * Saca un proyectil oscuro del pool y lo prepara para el disparo.
+     */
+    public static ProyectilOscuro obtener(float x, float y, float velocidadX, float velocidadY, float dano,
+                                          MapaManager mapaManager, Protagonista objetivo) {
+        ProyectilOscuro proyectil = pool.obtain();
+        proyectil.iniciar(x, y, velocidadX, velocidadY, dano, getTextura(), mapaManager, objetivo);
 
         // Tamaño
-        setSize(24, 24);
+        proyectil.setSize(24, 24);
 
         // Establecer origen en el centro para rotación
-        setOrigin(getWidth() / 2, getHeight() / 2);
+        proyectil.setOrigin(proyectil.getWidth() / 2, proyectil.getHeight() / 2);
+        return proyectil;
+    }
 
-        Gdx.app.log("ProyectilOscuro", "¡PROYECTIL OSCURO CREADO! Pos: (" + x + "," + y + ")");
+    @Override
+    protected void devolverAlPool() {
+        pool.free(this);
+    }
+
+    static TextureRegion getTextura() {
+        if (texturaOscura == null) {
+            texturaOscura = crearTexturaPorDefecto();
+        }
+        return texturaOscura;
     }
 
     private static TextureRegion crearTexturaPorDefecto() {
@@ -46,12 +76,14 @@ public class ProyectilOscuro extends Proyectil {
 
         Texture tex = new Texture(pixmap);
         pixmap.dispose();
+        Gdx.app.log("ProyectilOscuro", "Textura de proyectil oscuro generada");
         return new TextureRegion(tex);
     }
 
     @Override
     public void act(float delta) {
         super.act(delta);
+        if (!activo) return;
 
         // Efecto visual: rotación
         if (velocidad.x != 0 || velocidad.y != 0) {
@@ -59,4 +91,15 @@ public class ProyectilOscuro extends Proyectil {
             setRotation(angulo);
         }
     }
+
+    /**
+     * Libera la textura compartida y vacía el pool.
+     */
+    static void liberarRecursos() {
+        pool.clear();
+        if (texturaOscura != null) {
+            texturaOscura.getTexture().dispose();
+            texturaOscura = null;
+        }
+    }
 }
@@ -0,0 +1,372 @@
+package io.github.javiergames.pieldelobo.Personajes;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
+import io.github.javiergames.pieldelobo.Mapas.MapaManager;
+
+/**
+ * Todos los proyectiles enemigos de un nivel en un solo actor.
+ *
+ * En lugar de un {@link Proyectil} (un Actor) por disparo, cada proyectil es
+ * una posición en arrays de floats: posición, velocidad, tamaño, vida e
+ * instante de impacto contra el mapa. {@link #act(float)} los mueve todos en
+ * un bucle y {@link #draw(Batch, float)} los dibuja de una pasada con el
+ * batch del stage. Al eliminar uno se mueve el último a su hueco, así que
+ * los vivos siempre ocupan las primeras {@link #getCantidad()} posiciones.
+ *
+ * Como en {@link Proyectil}, el recorrido es recto y el choque con el mapa
+ * se calcula con un barrido al disparar; solo los que nacen dentro de una
+ * colisión se prueban frame a frame. Contra el jugador solo se prueban los
+ * cercanos, gracias a un {@link HashEspacial} que se rellena cada frame.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class SistemaProyectiles extends Actor {
+
+    /**
+     * Tipos de proyectil, con los mismos valores que las clases de actor
+     * equivalentes ({@link Flecha}, {@link BolaFuego}, {@link ProyectilOscuro}).
+     */
+    public enum Tipo {
+        FLECHA(32, 8, 1.5f, false),
+        BOLA_FUEGO(32, 32, 0.8f, false),
+        OSCURO(24, 24, 1f, true);
+
+        final float ancho;
+        final float alto;
+        final float escalaVelocidad;
+        // Girar alrededor del centro (si no, de la esquina inferior izquierda)
+        final boolean origenCentrado;
+
+        Tipo(float ancho, float alto, float escalaVelocidad, boolean origenCentrado) {
+            this.ancho = ancho;
+            this.alto = alto;
+            this.escalaVelocidad = escalaVelocidad;
+            this.origenCentrado = origenCentrado;
+        }
+    }
+
+    private static final Tipo[] TIPOS = Tipo.values();
+    private static final float DURACION_MAXIMA = 5f;
+    private static final float MARGEN_HITBOX = 4f;
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final MapaManager mapaManager;
+    private final Protagonista objetivo;
+
+    // ====================== DATOS POR PROYECTIL ======================
+    private int cantidad = 0;
+    private int capacidad = 0;
+    private float[] x, y, vx, vy;
+    private float[] tiempoVida;
+    private float[] instanteImpacto;
+    private float[] rotacion;
+    private float[] dano;
+    private int[] tipo;
+    private boolean[] comprobarCadaFrame;
+
+    // Hash de las hitboxes de este frame (índice = posición en los arrays)
+    private final HashEspacial hash = new HashEspacial(Combate.TAMANIO_CELDA);
+    // Pares comprobados en el frame actual, sumando todos sus pasos
+    private int paresFrame = 0;
+
+    // Temporales reutilizados
+    private final IntArray encontrados = new IntArray();
+    private final IntArray impactos = new IntArray();
+    private final Rectangle caja = ContadorAsignaciones.rectangulo();
+    private final MapaManager.ResultadoBarrido barrido = new MapaManager.ResultadoBarrido();
+
+    // Segundos que se retrasa el dibujado para interpolar entre pasos
+    private float retrasoDibujo = 0f;
+
+    // Estadísticas
+    private int maximoSimultaneos = 0;
+
+    /**
+     * @param mapaManager Mapa contra el que chocan (puede ser null)
+     * @param objetivo Jugador al que dañan
+     */
+    public SistemaProyectiles(MapaManager mapaManager, Protagonista objetivo) {
+        this.mapaManager = mapaManager;
+        this.objetivo = objetivo;
+        asegurarCapacidad(CAPACIDAD_INICIAL);
+    }
+
+    // ====================== DISPARO ======================
+
+    /**
+     * Lanza un proyectil. Equivale a crear el actor del tipo y añadirlo al stage.
+     *
+     * @param tipo Tipo de proyectil
+     * @param origenX Esquina inferior izquierda del sprite
+     * @param origenY Esquina inferior izquierda del sprite
+     * @param velocidadX Velocidad antes de aplicar la escala del tipo
+     * @param velocidadY Velocidad antes de aplicar la escala del tipo
+     * @param dano Daño del impacto
+     */
+    public void disparar(Tipo tipo, float origenX, float origenY,
+                         float velocidadX, float velocidadY, float dano) {
+        if (cantidad == capacidad) {
+            asegurarCapacidad(capacidad * 2);
+        }
+
+        int i = cantidad++;
+        x[i] = origenX;
+        y[i] = origenY;
+        vx[i] = velocidadX * tipo.escalaVelocidad;
+        vy[i] = velocidadY * tipo.escalaVelocidad;
+        tiempoVida[i] = 0;
+        this.dano[i] = dano;
+        this.tipo[i] = tipo.ordinal();
+        rotacion[i] = vx[i] != 0 || vy[i] != 0 ? MathUtils.atan2(vy[i], vx[i]) * MathUtils.radiansToDegrees : 0;
+
+        preverImpacto(i);
+
+        if (cantidad > maximoSimultaneos) maximoSimultaneos = cantidad;
+    }
+
+    /**
+     * Barre la hitbox por todo el recorrido y guarda cuándo chocará con el mapa.
+     */
+    private void preverImpacto(int i) {
+        instanteImpacto[i] = Float.POSITIVE_INFINITY;
+        comprobarCadaFrame[i] = false;
+        if (mapaManager == null) return;
+
+        cargarHitbox(i);
+        boolean choca = mapaManager.barrer(caja, vx[i] * DURACION_MAXIMA, vy[i] * DURACION_MAXIMA, barrido);
+
+        // Si nace dentro de una colisión el barrido no sirve
+        comprobarCadaFrame[i] = barrido.solapadoInicial;
+        if (choca) {
+            instanteImpacto[i] = barrido.tiempo * DURACION_MAXIMA;
+        }
+    }
+
+    private void asegurarCapacidad(int nueva) {
+        if (nueva <= capacidad) return;
+
+        if (capacidad == 0) {
+            x = new float[nueva];
+            y = new float[nueva];
+            vx = new float[nueva];
+            vy = new float[nueva];
+            tiempoVida = new float[nueva];
+            instanteImpacto = new float[nueva];
+            rotacion = new float[nueva];
+            dano = new float[nueva];
+            tipo = new int[nueva];
+            comprobarCadaFrame = new boolean[nueva];
+        } else {
+            x = Arrays.copyOf(x, nueva);
+            y = Arrays.copyOf(y, nueva);
+            vx = Arrays.copyOf(vx, nueva);
+            vy = Arrays.copyOf(vy, nueva);
+            tiempoVida = Arrays.copyOf(tiempoVida, nueva);
+            instanteImpacto = Arrays.copyOf(instanteImpacto, nueva);
+            rotacion = Arrays.copyOf(rotacion, nueva);
+            dano = Arrays.copyOf(dano, nueva);
+            tipo = Arrays.copyOf(tipo, nueva);
+            comprobarCadaFrame = Arrays.copyOf(comprobarCadaFrame, nueva);
+            Gdx.app.log("SistemaProyectiles", "Capacidad ampliada a " + nueva);
+        }
+        capacidad = nueva;
+    }
+
+    // ====================== ACTUALIZACIÓN ======================
+
+    /**
+     * Pone a cero el contador de pares. Llamar una vez por frame, antes de
+     * sus pasos de simulación.
+     */
+    public void comenzarFrame() {
+        paresFrame = 0;
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+
+        int i = 0;
+        while (i < cantidad) {
+            float t = tiempoVida[i] + delta;
+            tiempoVida[i] = t;
+
+            // Desaparecer si ha pasado mucho tiempo o ha llegado al impacto previsto
+            if (t >= DURACION_MAXIMA || t > instanteImpacto[i]) {
+                quitar(i);
+                continue;
+            }
+
+            x[i] += vx[i] * delta;
+            y[i] += vy[i] * delta;
+            cargarHitbox(i);
+
+            if (comprobarCadaFrame[i] && mapaManager.hayColision(caja)) {
+                quitar(i);
+                continue;
+            }
+
+            i++;
+        }
+
+        indexar();
+        comprobarJugador();
+    }
+
+    /** Vuelve a llenar el hash con las hitboxes de los proyectiles vivos. */
+    private void indexar() {
+        hash.vaciar();
+        for (int i = 0; i < cantidad; i++) {
+            Tipo t = TIPOS[tipo[i]];
+            hash.insertar(i, x[i] + MARGEN_HITBOX, y[i] + MARGEN_HITBOX,
+                t.ancho - MARGEN_HITBOX * 2, t.alto - MARGEN_HITBOX * 2);
+        }
+    }
+
+    /**
+     * Solo los proyectiles cercanos al jugador se comparan con su hitbox.
+     * Los que le dan se quitan de mayor a menor índice para que el hueco
+     * que rellena quitar() no mueva a uno aún por quitar.
+     */
+    private void comprobarJugador() {
+        if (objetivo == null || !objetivo.estaVivo() || cantidad == 0) return;
+
+        encontrados.clear();
+        buscar(objetivo.getHitboxColision(), encontrados);
+        if (encontrados.size == 0) return;
+
+        impactos.clear();
+        for (int k = 0; k < encontrados.size; k++) {
+            // Al recibir daño el jugador se vuelve invencible: el resto lo atraviesa
+            if (objetivo.estaInvencible()) break;
+            objetivo.recibirDano();
+            impactos.add(encontrados.items[k]);
+        }
+
+        impactos.sort();
+        for (int k = impactos.size - 1; k >= 0; k--) {
+            quitar(impactos.items[k]);
+        }
+        // Los índices han cambiado
+        if (impactos.size > 0) indexar();
+    }
+
+    /**
+     * Añade a resultado los índices de los proyectiles cuya hitbox solapa
+     * con el área (para futuras comprobaciones contra enemigos, por ejemplo).
+     * Los índices valen hasta la siguiente actualización.
+     */
+    public void buscar(Rectangle area, IntArray resultado) {
+        int antes = hash.getParesComprobados();
+        hash.consultar(area.x, area.y, area.width, area.height, resultado);
+        paresFrame += hash.getParesComprobados() - antes;
+    }
+
+    /** Quita el proyectil i moviendo el último a su posición. */
+    private void quitar(int i) {
+        int ultimo = --cantidad;
+        if (i == ultimo) return;
+
+        x[i] = x[ultimo];
+        y[i] = y[ultimo];
+        vx[i] = vx[ultimo];
+        vy[i] = vy[ultimo];
+        tiempoVida[i] = tiempoVida[ultimo];
+        instanteImpacto[i] = instanteImpacto[ultimo];
+        rotacion[i] = rotacion[ultimo];
+        dano[i] = dano[ultimo];
+        tipo[i] = tipo[ultimo];
+        comprobarCadaFrame[i] = comprobarCadaFrame[ultimo];
+    }
+
+    /** Deja en {@link #caja} la hitbox del proyectil i (sprite menos un margen). */
+    private void cargarHitbox(int i) {
+        Tipo t = TIPOS[tipo[i]];
+        caja.set(x[i] + MARGEN_HITBOX, y[i] + MARGEN_HITBOX,
+            t.ancho - MARGEN_HITBOX * 2, t.alto - MARGEN_HITBOX * 2);
+    }
+
+    /** Elimina todos los proyectiles (al reiniciar el nivel, por ejemplo). */
+    public void vaciar() {
+        cantidad = 0;
+        hash.vaciar();
+    }
+
+    // ====================== DIBUJADO ======================
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (cantidad == 0) return;
+
+        TextureRegion flecha = Flecha.getTextura();
+        TextureRegion oscuro = ProyectilOscuro.getTextura();
+        Animation<TextureRegion> bolaFuego = BolaFuego.getAnimacion();
+
+        for (int i = 0; i < cantidad; i++) {
+            Tipo t = TIPOS[tipo[i]];
+            TextureRegion region;
+            boolean parpadea = false;
+
+            switch (t) {
+                case FLECHA:
+                    region = flecha;
+                    break;
+                case BOLA_FUEGO:
+                    region = bolaFuego != null ? bolaFuego.getKeyFrame(tiempoVida[i], true) : null;
+                    // Parpadeo el último segundo, como BolaFuego
+                    parpadea = tiempoVida[i] > DURACION_MAXIMA - 1f;
+                    break;
+                default:
+                    region = oscuro;
+                    break;
+            }
+            if (region == null) continue;
+
+            if (parpadea) {
+                batch.setColor(1, 1, 1, MathUtils.sin(tiempoVida[i] * 10) * 0.5f + 0.5f);
+            }
+
+            float origenX = t.origenCentrado ? t.ancho / 2 : 0;
+            float origenY = t.origenCentrado ? t.alto / 2 : 0;
+            // Vuelan en línea recta: la posición interpolada es la actual menos el retraso
+            float retraso = Math.min(retrasoDibujo, tiempoVida[i]);
+            batch.draw(region, x[i] - vx[i] * retraso, y[i] - vy[i] * retraso,
+                origenX, origenY, t.ancho, t.alto, 1, 1, rotacion[i]);
+
+            if (parpadea) {
+                batch.setColor(Color.WHITE);
+            }
+        }
+    }
+
+    /**
+     * Dibuja los proyectiles donde estaban hace tantos segundos, para
+     * interpolar entre los dos últimos pasos de simulación (ver
+     * {@link io.github.javiergames.pieldelobo.GestorJuego.PasoFijo}).
+     */
+    public void setRetrasoDibujo(float segundos) {
+        this.retrasoDibujo = Math.max(0f, segundos);
+    }
+
+    // ====================== GETTERS ======================
+
+    /** Proyectiles vivos. */
+    public int getCantidad() { return cantidad; }
+    public int getCapacidad() { return capacidad; }
+    public int getMaximoSimultaneos() { return maximoSimultaneos; }
+    /** Pares proyectil-caja comprobados en el frame (todos sus pasos). */
+    public int getParesFrame() { return paresFrame; }
+}
@@ -0,0 +1,188 @@
+package io.github.javiergames.pieldelobo.Recursos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Biblioteca de animaciones de enemigos, construidas una vez por tipo.
+ *
+ * El primer enemigo de cada tipo busca sus frames en el atlas y registra el
+ * resultado aquí; los siguientes reciben las mismas {@link Animation} y solo
+ * guardan su propio tiempo de animación y frame actual. Las animaciones no
+ * tienen estado, así que compartirlas es seguro mientras nadie cambie su
+ * modo de reproducción o duración de frame.
+ *
+ * Cada conjunto registrado mantiene una referencia en {@link CacheAtlas}
+ * sobre su atlas, para que las regiones sigan siendo válidas aunque mueran
+ * todos los enemigos de ese tipo.
+ *
+ * También guarda el frame de marcador (cuadro rojo de 16x16) que usan los
+ * enemigos mientras no tienen animaciones, en vez de crear una textura nueva
+ * por enemigo.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class BibliotecaAnimaciones {
+
+    // ====================== INSTANCIA SINGLETON ======================
+    private static BibliotecaAnimaciones instance;
+
+    /** Animaciones de un tipo de enemigo (compartidas, no modificar) */
+    public static class AnimacionesEnemigo {
+        public final Animation<TextureRegion> idle;
+        public final Animation<TextureRegion> caminar;
+        public final Animation<TextureRegion> atacar;
+        public final Animation<TextureRegion> dano;
+        public final Animation<TextureRegion> muerte;
+        public final TextureRegion frameInicial;
+        public final TextureAtlas atlas;
+        // Ruta del atlas en CacheAtlas (null para el conjunto por defecto)
+        final String rutaAtlas;
+
+        public AnimacionesEnemigo(Animation<TextureRegion> idle, Animation<TextureRegion> caminar,
+                                  Animation<TextureRegion> atacar, Animation<TextureRegion> dano,
+                                  Animation<TextureRegion> muerte, TextureRegion frameInicial,
+                                  TextureAtlas atlas, String rutaAtlas) {
+            this.idle = idle;
+            this.caminar = caminar;
+            this.atacar = atacar;
+            this.dano = dano;
+            this.muerte = muerte;
+            this.frameInicial = frameInicial;
+            this.atlas = atlas;
+            this.rutaAtlas = rutaAtlas;
+        }
+    }
+
+    private final ObjectMap<String, AnimacionesEnemigo> porTipo = new ObjectMap<>();
+
+    // Marcador compartido por todos los enemigos sin animaciones
+    private Texture texturaMarcador;
+    private TextureRegion marcador;
+    private AnimacionesEnemigo porDefecto;
+
+    // Estadísticas
+    private int construidas = 0;
+    private int reutilizadas = 0;
+
+    // ====================== CONSTRUCTOR PRIVADO ======================
+    private BibliotecaAnimaciones() {
+    }
+
+    /**
+     * Obtiene la instancia única de BibliotecaAnimaciones
+     */
+    public static BibliotecaAnimaciones getInstance() {
+        if (instance == null) {
+            instance = new BibliotecaAnimaciones();
+        }
+        return instance;
+    }
+
+    // ====================== CONJUNTOS POR TIPO ======================
+
+    /**
+     * Devuelve las animaciones ya construidas de un tipo, o null si es el
+     * primero de su tipo y tiene que construirlas.
+     */
+    public AnimacionesEnemigo obtener(String clave) {
+        AnimacionesEnemigo animaciones = porTipo.get(clave);
+        if (animaciones != null) reutilizadas++;
+        return animaciones;
+    }
+
+    /**
+     * Registra las animaciones de un tipo. Si tienen atlas se toma una
+     * referencia en {@link CacheAtlas} que dura lo que dure la biblioteca.
+     */
+    public void registrar(String clave, AnimacionesEnemigo animaciones) {
+        if (porTipo.containsKey(clave)) return;
+
+        if (animaciones.rutaAtlas != null) {
+            CacheAtlas.getInstance().obtener(animaciones.rutaAtlas);
+        }
+        porTipo.put(clave, animaciones);
+        construidas++;
+        Gdx.app.log("BibliotecaAnimaciones", "Animaciones registradas: " + clave);
+    }
+
+    // ====================== MARCADOR ======================
+
+    /**
+     * Frame de marcador compartido (cuadro rojo de 16x16).
+     */
+    public TextureRegion getMarcador() {
+        if (marcador == null) {
+            Pixmap pixmap = new Pixmap(16, 16, Pixmap.Format.RGBA8888);
+            pixmap.setColor(1, 0, 0, 1); // Rojo (color de error/placeholder)
+            pixmap.fill();
+            texturaMarcador = new Texture(pixmap);
+            pixmap.dispose();
+            marcador = new TextureRegion(texturaMarcador);
+        }
+        return marcador;
+    }
+
+    /**
+     * Animaciones por defecto: todas muestran el marcador.
+     */
+    public AnimacionesEnemigo getPorDefecto() {
+        if (porDefecto == null) {
+            Array<TextureRegion> frames = new Array<>();
+            frames.add(getMarcador());
+            porDefecto = new AnimacionesEnemigo(
+                new Animation<>(0.2f, frames),
+                new Animation<>(0.15f, frames),
+                new Animation<>(0.1f, frames),
+                new Animation<>(0.1f, frames),
+                new Animation<>(0.2f, frames),
+                marcador, null, null);
+        }
+        return porDefecto;
+    }
+
+    // ====================== LIBERACIÓN ======================
+
+    /**
+     * Olvida todos los conjuntos y devuelve sus referencias de atlas.
+     * Solo al cerrar: los enemigos creados desde la biblioteca no tienen
+     * referencia propia sobre el atlas.
+     */
+    private void vaciar() {
+        for (AnimacionesEnemigo animaciones : porTipo.values()) {
+            if (animaciones.rutaAtlas != null) {
+                CacheAtlas.getInstance().liberar(animaciones.rutaAtlas);
+            }
+        }
+        porTipo.clear();
+    }
+
+    /**
+     * Libera la biblioteca. Se llama al cerrar el juego, antes de liberar
+     * {@link CacheAtlas}.
+     */
+    public static void disposeInstancia() {
+        if (instance != null) {
+            instance.vaciar();
+            if (instance.texturaMarcador != null) {
+                instance.texturaMarcador.dispose();
+            }
+            Gdx.app.log("BibliotecaAnimaciones", "Biblioteca liberada (tipos construidos: " +
+                instance.construidas + ", reutilizados: " + instance.reutilizadas + ")");
+            instance = null;
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getNumeroTipos() { return porTipo.size; }
+    public int getConstruidas() { return construidas; }
+    public int getReutilizadas() { return reutilizadas; }
+}
@@ -0,0 +1,137 @@
+package io.github.javiergames.pieldelobo.Recursos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Caché de atlas de personajes compartidos con contador de referencias.
+ *
+ * Todos los personajes que usan el mismo fichero reciben la misma instancia
+ * de {@link TextureAtlas}, así que la textura se decodifica y se sube a la
+ * GPU una sola vez. Cada {@link #obtener(String)} suma una referencia y cada
+ * {@link #liberar(String)} la resta; al soltar la última, el atlas se libera.
+ *
+ * Si el atlas ya lo tiene cargado {@link GestorRecursos} (precargado por
+ * {@link CargaNivel}), se usa esa instancia y su vida la decide el AssetManager.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class CacheAtlas {
+
+    // ====================== INSTANCIA SINGLETON ======================
+    private static CacheAtlas instance;
+
+    /** Atlas compartido y número de personajes que lo usan */
+    private static class Entrada {
+        final TextureAtlas atlas;
+        // false si pertenece a GestorRecursos y no hay que liberarlo aquí
+        final boolean propio;
+        int referencias;
+
+        Entrada(TextureAtlas atlas, boolean propio) {
+            this.atlas = atlas;
+            this.propio = propio;
+        }
+    }
+
+    private final ObjectMap<String, Entrada> entradas = new ObjectMap<>();
+
+    // Estadísticas
+    private int cargas = 0;
+    private int reutilizaciones = 0;
+
+    // ====================== CONSTRUCTOR PRIVADO ======================
+    private CacheAtlas() {
+    }
+
+    /**
+     * Obtiene la instancia única de CacheAtlas
+     */
+    public static CacheAtlas getInstance() {
+        if (instance == null) {
+            instance = new CacheAtlas();
+        }
+        return instance;
+    }
+
+    // ====================== REFERENCIAS ======================
+
+    /**
+     * Devuelve el atlas compartido y suma una referencia.
+     * Si falla la carga se lanza la excepción de siempre y no se suma nada.
+     *
+     * @param ruta Ruta interna del .atlas
+     * @return El atlas (no llamar a dispose(); usar {@link #liberar(String)})
+     */
+    public TextureAtlas obtener(String ruta) {
+        Entrada entrada = entradas.get(ruta);
+        if (entrada == null) {
+            TextureAtlas precargado = GestorRecursos.getInstance().obtenerSiCargado(ruta, TextureAtlas.class);
+            if (precargado != null) {
+                entrada = new Entrada(precargado, false);
+            } else {
+                entrada = new Entrada(new TextureAtlas(Gdx.files.internal(ruta)), true);
+                cargas++;
+                Gdx.app.log("CacheAtlas", "Atlas cargado: " + ruta);
+            }
+            entradas.put(ruta, entrada);
+        } else {
+            reutilizaciones++;
+        }
+
+        entrada.referencias++;
+        return entrada.atlas;
+    }
+
+    /**
+     * Resta una referencia; con la última se libera el atlas.
+     */
+    public void liberar(String ruta) {
+        if (ruta == null) return;
+
+        Entrada entrada = entradas.get(ruta);
+        if (entrada == null) {
+            Gdx.app.error("CacheAtlas", "Se libera un atlas que no está en la caché: " + ruta);
+            return;
+        }
+
+        entrada.referencias--;
+        if (entrada.referencias <= 0) {
+            entradas.remove(ruta);
+            if (entrada.propio) {
+                entrada.atlas.dispose();
+                Gdx.app.log("CacheAtlas", "Atlas liberado: " + ruta);
+            }
+        }
+    }
+
+    /** Número de personajes que usan un atlas (0 si no está en la caché). */
+    public int getReferencias(String ruta) {
+        Entrada entrada = entradas.get(ruta);
+        return entrada != null ? entrada.referencias : 0;
+    }
+
+    /**
+     * Libera todos los atlas propios. Se llama al cerrar el juego, antes de
+     * liberar {@link GestorRecursos}.
+     */
+    public static void disposeInstancia() {
+        if (instance != null) {
+            for (Entrada entrada : instance.entradas.values()) {
+                if (entrada.propio) entrada.atlas.dispose();
+            }
+            instance.entradas.clear();
+            Gdx.app.log("CacheAtlas", "Caché de atlas liberada (cargas: " + instance.cargas +
+                ", reutilizaciones: " + instance.reutilizaciones + ")");
+            instance = null;
+        }
+    }
+
+    // ====================== GETTERS ======================
+
+    public int getNumeroAtlas() { return entradas.size; }
+    public int getCargas() { return cargas; }
+    public int getReutilizaciones() { return reutilizaciones; }
+}
@@ -0,0 +1,349 @@
+package io.github.javiergames.pieldelobo.Recursos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.github.javiergames.pieldelobo.GestorJuego.GameState;
+import io.github.javiergames.pieldelobo.Mapas.CacheNiveles;
+import io.github.javiergames.pieldelobo.Mapas.MapaManager;
+import io.github.javiergames.pieldelobo.Personajes.FabricaEnemigos;
+
+/**
+ * Carga asíncrona de todo lo que necesita un nivel: el mapa (compilado o
+ * TMX), la música, las texturas y la fuente del HUD y los atlas de los
+ * enemigos que aparecen en el mapa.
+ *
+ * Se avanza con {@link #actualizar(int)} desde el hilo de render, de modo que
+ * la pantalla que la usa (pantalla de carga, diálogo, vídeo...) sigue dibujando.
+ * Los atlas de enemigos se encolan en una segunda fase, cuando el mapa ya
+ * está cargado y se sabe qué enemigos tiene.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class CargaNivel {
+    // ====================== RECURSOS COMUNES ======================
+    public static final String FONDO = "fondo.jpg";
+    public static final String CORAZON_LLENO = "corazon_lleno.png";
+    public static final String CORAZON_VACIO = "corazon_vacio.png";
+    /** Nombre con el que se registra la fuente del HUD (el archivo real es retrocomputer.ttf) */
+    public static final String FUENTE_HUD = "fuente_hud.ttf";
+    private static final String ARCHIVO_FUENTE_HUD = "fonts/retrocomputer.ttf";
+    private static final String MAPA_POR_DEFECTO = "Tiled/nivel_villa.tmx";
+
+    // Mapa precargado mientras se muestra un diálogo (ruta de carga real)
+    private static String mapaPrecargado = null;
+
+    private final GestorRecursos recursos;
+    private final String rutaMapa;
+    private final String rutaCargaMapa;
+    private final boolean rutaDirecta;
+    private final String rutaMusica;
+
+    private MapaManager mapaManager;
+    // true mientras esta carga tenga una referencia al mapa en el AssetManager
+    private boolean mapaEnPropiedad = false;
+    private boolean fallida = false;
+    private boolean liberada = false;
+
+    /**
+     * Resuelve qué nivel hay que cargar según {@link GameState} y encola sus recursos.
+     */
+    public CargaNivel() {
+        GameState gameState = GameState.getInstance();
+        this.recursos = GestorRecursos.getInstance();
+
+        this.rutaMapa = resolverRutaMapa(gameState);
+        this.rutaDirecta = rutaMapa.equals(gameState.getMapaACargar());
+        this.rutaCargaMapa = MapaManager.rutaDeCarga(rutaMapa);
+        this.rutaMusica = resolverRutaMusica(gameState);
+
+        // Reinicio o nivel visitado hace poco: el mapa ya está preparado
+        this.mapaManager = CacheNiveles.getInstance().obtener(rutaMapa);
+
+        encolar();
+    }
+
+    private void encolar() {
+        Gdx.app.log("CargaNivel", "Encolando nivel: " + rutaCargaMapa);
+
+        if (mapaManager != null) {
+            cancelarPrecarga();
+            encolarAtlasEnemigos();
+        } else if (rutaCargaMapa.equals(mapaPrecargado)) {
+            // El mapa ya se estaba cargando durante el diálogo: esta carga se queda su referencia
+            mapaPrecargado = null;
+            mapaEnPropiedad = true;
+        } else {
+            cancelarPrecarga();
+            recursos.cargar(rutaCargaMapa, TiledMap.class);
+            mapaEnPropiedad = true;
+        }
+        if (rutaMusica != null) {
+            recursos.cargar(rutaMusica, Music.class);
+        }
+
+        // Recursos del HUD: se cargan una vez y se reutilizan en cada nivel
+        // (si falta alguno, MainScreen usa sus texturas de respaldo)
+        for (String textura : new String[]{FONDO, CORAZON_LLENO, CORAZON_VACIO}) {
+            if (Gdx.files.internal(textura).exists()) {
+                recursos.cargarPersistente(textura, Texture.class);
+            }
+        }
+        if (Gdx.files.internal(ARCHIVO_FUENTE_HUD).exists()) {
+            recursos.cargarPersistente(FUENTE_HUD, BitmapFont.class, crearParametrosFuente());
+        }
+    }
+
+    private static FreeTypeFontLoaderParameter crearParametrosFuente() {
+        FreeTypeFontLoaderParameter parametros = new FreeTypeFontLoaderParameter();
+        parametros.fontFileName = ARCHIVO_FUENTE_HUD;
+        parametros.fontParameters.size = 18;
+        parametros.fontParameters.color = Color.WHITE;
+        parametros.fontParameters.borderWidth = 1;
+        parametros.fontParameters.borderColor = Color.BLACK;
+        parametros.fontParameters.shadowOffsetX = 1;
+        parametros.fontParameters.shadowOffsetY = 1;
+        parametros.fontParameters.shadowColor = new Color(0, 0, 0, 0.7f);
+        return parametros;
+    }
+
+    /**
+     * Avanza la carga durante como mucho {@code milisegundos}.
+     *
+     * @return true cuando todo está listo (o la carga ha fallado, ver {@link #isFallida()})
+     */
+    public boolean actualizar(int milisegundos) {
+        if (fallida) return true;
+
+        try {
+            boolean colaTerminada = recursos.actualizar(milisegundos);
+
+            if (mapaManager == null && recursos.estaCargado(rutaCargaMapa)) {
+                prepararMapa();
+                return fallida;
+            }
+            if (colaTerminada && mapaManager == null) {
+                Gdx.app.error("CargaNivel", "La cola terminó sin el mapa: " + rutaCargaMapa);
+                fallida = true;
+            }
+            return colaTerminada;
+
+        } catch (Exception e) {
+            Gdx.app.error("CargaNivel", "Error cargando el nivel " + rutaMapa, e);
+            fallida = true;
+            return true;
+        }
+    }
+
+    /**
+     * Segunda fase: con el mapa ya cargado se construyen sus colisiones, se
+     * guarda el nivel en {@link CacheNiveles} y se encolan los atlas de los
+     * enemigos que aparecen en él.
+     */
+    private void prepararMapa() {
+        mapaManager = new MapaManager(recursos.get(rutaCargaMapa, TiledMap.class), rutaMapa);
+        if (!mapaManager.estaCargado()) {
+            fallida = true;
+            return;
+        }
+
+        // La referencia al mapa pasa a la caché, que la devuelve al expulsar el nivel
+        final String rutaRecurso = rutaCargaMapa;
+        boolean guardado = CacheNiveles.getInstance().guardar(rutaMapa, mapaManager, new Disposable() {
+            @Override
+            public void dispose() {
+                GestorRecursos.getInstance().descargar(rutaRecurso);
+            }
+        });
+        if (guardado) {
+            mapaEnPropiedad = false;
+        }
+
+        encolarAtlasEnemigos();
+    }
+
+    private void encolarAtlasEnemigos() {
+        Array<String> atlas = new Array<>();
+        for (MapaManager.EnemigoSpawnInfo spawn : mapaManager.obtenerInfoSpawnEnemigos()) {
+            String ruta = FabricaEnemigos.rutaAtlas(spawn.tipo);
+            if (ruta != null && !atlas.contains(ruta, false) && Gdx.files.internal(ruta).exists()) {
+                atlas.add(ruta);
+                recursos.cargarPersistente(ruta, TextureAtlas.class);
+            }
+        }
+        Gdx.app.log("CargaNivel", "Mapa listo, atlas de enemigos encolados: " + atlas);
+    }
+
+    /**
+     * Devuelve las referencias propias del nivel (música, y el mapa si no
+     * se lo ha quedado {@link CacheNiveles}). Los recursos del HUD y los
+     * atlas se conservan para el siguiente nivel.
+     */
+    public void liberar() {
+        if (liberada) return;
+        liberada = true;
+
+        if (mapaEnPropiedad) {
+            recursos.descargar(rutaCargaMapa);
+        }
+        if (rutaMusica != null) {
+            recursos.descargar(rutaMusica);
+        }
+        Gdx.app.log("CargaNivel", "Recursos del nivel devueltos: " + rutaMapa);
+    }
+
+    // ====================== PRECARGA ======================
+
+    /**
+     * Empieza a cargar un mapa antes de entrar al nivel, por ejemplo mientras
+     * se muestra el diálogo de una puerta. La pantalla que llama debe seguir
+     * invocando {@link GestorRecursos#actualizar(int)}.
+     */
+    public static void precargarMapa(String rutaTmx) {
+        if (CacheNiveles.getInstance().contiene(rutaTmx)) return;
+
+        String ruta = MapaManager.rutaDeCarga(rutaTmx);
+        if (ruta.equals(mapaPrecargado)) return;
+
+        cancelarPrecarga();
+        mapaPrecargado = ruta;
+        GestorRecursos.getInstance().cargar(ruta, TiledMap.class);
+        Gdx.app.log("CargaNivel", "Precargando mapa: " + ruta);
+    }
+
+    /** Descarta la precarga pendiente, si la hay. */
+    public static void cancelarPrecarga() {
+        if (mapaPrecargado != null) {
+            GestorRecursos.getInstance().descargar(mapaPrecargado);
+            mapaPrecargado = null;
+        }
+    }
+
+    // ====================== SELECCIÓN DE RECURSOS ======================
+
+    /**
+     * Determina el mapa a cargar según el estado del juego:
+     * mapa indicado, ID del nivel seleccionado, nivel actual o mapa por defecto.
+     */
+    public static String resolverRutaMapa(GameState gameState) {
+        // ========== OPCIÓN 1: Mapa específico en GameState ==========
+        String mapaACargar = gameState.getMapaACargar();
+        if (mapaACargar != null && !mapaACargar.isEmpty()) {
+            if (gameState.existeMapa(mapaACargar)) {
+                Gdx.app.log("CargaNivel", "✅ Usando mapa especificado en GameState: " + mapaACargar);
+                return mapaACargar;
+            }
+            Gdx.app.error("CargaNivel", "❌ Archivo no encontrado: " + mapaACargar);
+        }
+
+        // ========== OPCIÓN 2: Por ID del nivel seleccionado ==========
+        String nivelId = gameState.getNivelSeleccionadoId();
+        if (nivelId != null && !nivelId.isEmpty()) {
+            String ruta = gameState.obtenerRutaMapaPorNivelId(nivelId);
+            if (gameState.existeMapa(ruta)) {
+                Gdx.app.log("CargaNivel", "✅ Mapeo por ID exitoso: " + nivelId + " -> " + ruta);
+                return ruta;
+            }
+            Gdx.app.error("CargaNivel", "❌ Mapa mapeado no existe: " + ruta);
+        }
+
+        // ========== OPCIÓN 3: Por nivel actual ==========
+        String nivelActual = gameState.getNivelActual();
+        if (nivelActual != null && !nivelActual.isEmpty()) {
+            String ruta = gameState.obtenerRutaMapaPorNivelId(nivelActual);
+            if (gameState.existeMapa(ruta)) {
+                Gdx.app.log("CargaNivel", "✅ Mapeo por nivel actual exitoso: " + ruta);
+                return ruta;
+            }
+            Gdx.app.error("CargaNivel", "❌ Mapa no existe: " + ruta);
+        }
+
+        // ========== OPCIÓN 4: Último recurso ==========
+        Gdx.app.log("CargaNivel", "⚠️ Usando mapa por defecto");
+        return MAPA_POR_DEFECTO;
+    }
+
+    /**
+     * Determina la música del nivel actual.
+     *
+     * @return Ruta de un archivo existente, o null si no hay música disponible
+     */
+    public static String resolverRutaMusica(GameState gameState) {
+        String nivelId = gameState.getNivelActual();
+        if (nivelId == null || nivelId.isEmpty()) {
+            nivelId = gameState.getNivelSeleccionadoId();
+        }
+
+        String rutaMusica = "Musica/nivel_generico.mp3"; // Ruta por defecto
+        if (nivelId != null) {
+            switch (nivelId) {
+                case "nivel_1":
+                case "nivel_villa":
+                case "La Villa":
+                    rutaMusica = "Musica/Villa.mp3";
+                    break;
+                case "nivel_2":
+                case "jb-32.tmx":
+                case "Las Columnas":
+                    rutaMusica = "Musica/Columnas.mp3";
+                    break;
+                case "nivel_3":
+                case "mylevel1":
+                case "Las Cavernas":
+                    rutaMusica = "Musica/Caverna.mp3";
+                    break;
+                case "nivel_4":
+                case "level25":
+                case "La Luna":
+                    rutaMusica = "Musica/Luna.mp3";
+                    break;
+                case "nivel_5":
+                case "magicland":
+                case "El Cartillo":
+                    rutaMusica = "Musica/Castillo.mp3";
+                    break;
+                default:
+                    rutaMusica = "musica/nivel_generico.mp3";
+                    break;
+            }
+        }
+
+        if (Gdx.files.internal(rutaMusica).exists()) {
+            return rutaMusica;
+        }
+        Gdx.app.error("CargaNivel", "❌ Archivo de música no encontrado: " + rutaMusica);
+
+        // Música genérica como respaldo
+        String respaldo = "musica/nivel_generico.mp3";
+        return Gdx.files.internal(respaldo).exists() ? respaldo : null;
+    }
+
+    // ====================== GETTERS ======================
+
+    public float getProgreso() {
+        return recursos.getProgreso();
+    }
+
+    public boolean isFallida() { return fallida; }
+    public boolean isRutaDirecta() { return rutaDirecta; }
+    public String getRutaMapa() { return rutaMapa; }
+    public MapaManager getMapaManager() { return mapaManager; }
+
+    public Music getMusica() {
+        return rutaMusica != null ? recursos.obtenerSiCargado(rutaMusica, Music.class) : null;
+    }
+
+    public Texture getFondo() { return recursos.obtenerSiCargado(FONDO, Texture.class); }
+    public Texture getCorazonLleno() { return recursos.obtenerSiCargado(CORAZON_LLENO, Texture.class); }
+    public Texture getCorazonVacio() { return recursos.obtenerSiCargado(CORAZON_VACIO, Texture.class); }
+    public BitmapFont getFuenteHUD() { return recursos.obtenerSiCargado(FUENTE_HUD, BitmapFont.class); }
+}
@@ -0,0 +1,149 @@
+package io.github.javiergames.pieldelobo.Recursos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+
+import io.github.javiergames.pieldelobo.Mapas.CargadorNivelBinario;
+
+/**
+ * Punto único de acceso al {@link AssetManager} del juego.
+ * Registra los cargadores de mapas (.tmx y niveles compilados .nivel) y de
+ * fuentes FreeType, de modo que cualquier pantalla puede encolar recursos y
+ * dejar que se decodifiquen en segundo plano mientras sigue dibujando.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class GestorRecursos {
+
+    // ====================== INSTANCIA SINGLETON ======================
+    private static GestorRecursos instance;
+
+    private final AssetManager manager;
+
+    // ====================== CONSTRUCTOR PRIVADO ======================
+    private GestorRecursos() {
+        FileHandleResolver resolver = new InternalFileHandleResolver();
+        manager = new AssetManager(resolver);
+
+        manager.setLoader(TiledMap.class, ".tmx", new TmxMapLoader(resolver));
+        manager.setLoader(TiledMap.class, CargadorNivelBinario.EXTENSION, new CargadorNivelBinario(resolver));
+        manager.setLoader(FreeTypeFontGenerator.class, new FreeTypeFontGeneratorLoader(resolver));
+        manager.setLoader(BitmapFont.class, ".ttf", new FreetypeFontLoader(resolver));
+
+        Gdx.app.log("GestorRecursos", "✅ GestorRecursos inicializado");
+    }
+
+    /**
+     * Obtiene la instancia única de GestorRecursos
+     */
+    public static GestorRecursos getInstance() {
+        if (instance == null) {
+            instance = new GestorRecursos();
+        }
+        return instance;
+    }
+
+    // ====================== CARGA ======================
+
+    /**
+     * Encola un recurso. Cada llamada suma una referencia que se
+     * devuelve con {@link #descargar(String)}.
+     */
+    public <T> void cargar(String ruta, Class<T> tipo) {
+        manager.load(ruta, tipo);
+    }
+
+    public <T> void cargar(String ruta, Class<T> tipo, AssetLoaderParameters<T> parametros) {
+        manager.load(ruta, tipo, parametros);
+    }
+
+    /**
+     * Encola un recurso que se conserva toda la partida (HUD, atlas...).
+     * Si ya está cargado o en cola no suma otra referencia.
+     */
+    public <T> void cargarPersistente(String ruta, Class<T> tipo) {
+        if (!manager.contains(ruta)) {
+            manager.load(ruta, tipo);
+        }
+    }
+
+    public <T> void cargarPersistente(String ruta, Class<T> tipo, AssetLoaderParameters<T> parametros) {
+        if (!manager.contains(ruta)) {
+            manager.load(ruta, tipo, parametros);
+        }
+    }
+
+    /**
+     * Avanza la carga durante como mucho {@code milisegundos}.
+     * Debe llamarse desde el hilo de render.
+     *
+     * @return true si no queda nada en cola
+     */
+    public boolean actualizar(int milisegundos) {
+        return manager.update(milisegundos);
+    }
+
+    /** Progreso de la cola actual, entre 0 y 1. */
+    public float getProgreso() {
+        return manager.getProgress();
+    }
+
+    /** Bloquea hasta terminar la cola (solo para rutas de respaldo). */
+    public void terminarCarga() {
+        manager.finishLoading();
+    }
+
+    public boolean estaCargado(String ruta) {
+        return manager.isLoaded(ruta);
+    }
+
+    public boolean estaEnCola(String ruta) {
+        return manager.contains(ruta);
+    }
+
+    public <T> T get(String ruta, Class<T> tipo) {
+        return manager.get(ruta, tipo);
+    }
+
+    /**
+     * Devuelve el recurso si ya está cargado, sin bloquear ni encolarlo.
+     *
+     * @return El recurso, o null si no está disponible
+     */
+    public <T> T obtenerSiCargado(String ruta, Class<T> tipo) {
+        if (!manager.isLoaded(ruta, tipo)) return null;
+        return manager.get(ruta, tipo);
+    }
+
+    /** Devuelve una referencia; el recurso se libera cuando no quedan. */
+    public void descargar(String ruta) {
+        if (manager.contains(ruta)) {
+            manager.unload(ruta);
+        }
+    }
+
+    public AssetManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Libera todos los recursos. Se llama al cerrar el juego.
+     */
+    public static void disposeInstancia() {
+        if (instance != null) {
+            instance.manager.dispose();
+            instance = null;
+            Gdx.app.log("GestorRecursos", "Recursos liberados");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.javiergames.pieldelobo.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
 import io.github.javiergames.pieldelobo.GestorJuego.Main;
 
 /** Launches the desktop (LWJGL3) application. */
@@ -12,6 +13,8 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
+        // Medir la memoria que reserva cada frame de juego (ver ContadorAsignaciones)
+        ContadorAsignaciones.setMedidor(MedidorMemoriaJvm.crear());
         return new Lwjgl3Application(new Main(), getDefaultConfiguration());
     }
 
@@ -0,0 +1,44 @@
+package io.github.javiergames.pieldelobo.lwjgl3;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+import io.github.javiergames.pieldelobo.GestorJuego.ContadorAsignaciones;
+
+/**
+ * Medidor de memoria de escritorio: bytes reservados por el hilo actual
+ * según el ThreadMXBean de HotSpot. La consulta no reserva memoria, así que
+ * no se cuenta a sí misma.
+ *
+ * @author Javier Gala
+ * @version 1.0
+ */
+public class MedidorMemoriaJvm implements ContadorAsignaciones.MedidorMemoria {
+
+    private final ThreadMXBean hilos;
+
+    private MedidorMemoriaJvm(ThreadMXBean hilos) {
+        this.hilos = hilos;
+    }
+
+    /**
+     * @return El medidor, o null si la JVM no permite medir la memoria por hilo
+     */
+    public static MedidorMemoriaJvm crear() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof ThreadMXBean)) return null;
+
+        ThreadMXBean hilos = (ThreadMXBean) bean;
+        if (!hilos.isThreadAllocatedMemorySupported()) return null;
+        if (!hilos.isThreadAllocatedMemoryEnabled()) {
+            hilos.setThreadAllocatedMemoryEnabled(true);
+        }
+        return new MedidorMemoriaJvm(hilos);
+    }
+
+    @Override
+    public long bytesReservados() {
+        return hilos.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,672 @@
+package io.github.javiergames.pieldelobo.Mapas;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.BaseTmxMapLoader;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compila los mapas Tiled (.tmx) a niveles binarios (.nivel) que carga
+ * {@link CargadorNivelBinario}. Es una herramienta de construcción del
+ * módulo tools: la tarea de Gradle {@code compilarNiveles} la ejecuta antes
+ * de empaquetar los recursos de escritorio y Android.
+ *
+ * Corre dentro de una aplicación headless de libGDX (para tener Gdx.app y
+ * Gdx.files) y no necesita contexto gráfico: el TMX se analiza con el mismo
+ * código de libGDX, pero las imágenes se sustituyen por regiones que solo
+ * recuerdan su fichero y su recorte.
+ *
+ * Uso: {@code CompiladorNiveles <carpeta de salida> <carpeta o .tmx>...}
+ * (por defecto, "build/niveles/Tiled" y "Tiled").
+ *
+ * @author Javier Gala
+ * @version 1.1
+ */
+public class CompiladorNiveles {
+
+    public static void main(String[] args) {
+        final String salida = args.length > 0 ? args[0] : "build/niveles/Tiled";
+        final String[] entradas = args.length > 1
+            ? Arrays.copyOfRange(args, 1, args.length)
+            : new String[]{"Tiled"};
+
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                compilarTodo(new File(salida), entradas);
+                Gdx.app.exit();
+            }
+        }, new HeadlessApplicationConfiguration());
+    }
+
+    /**
+     * Compila los mapas de las carpetas o ficheros indicados.
+     *
+     * @return Número de niveles generados
+     */
+    public static int compilarTodo(File carpetaSalida, String... entradas) {
+        Array<File> mapas = new Array<>();
+        for (String entrada : entradas) {
+            File fichero = new File(entrada);
+            if (fichero.isDirectory()) {
+                File[] tmx = fichero.listFiles((dir, nombre) -> nombre.toLowerCase().endsWith(".tmx"));
+                if (tmx != null) {
+                    Arrays.sort(tmx);
+                    mapas.addAll(tmx);
+                }
+            } else {
+                mapas.add(fichero);
+            }
+        }
+
+        if (!carpetaSalida.isDirectory() && !carpetaSalida.mkdirs()) {
+            Gdx.app.error("CompiladorNiveles", "No se pudo crear la carpeta " + carpetaSalida.getPath());
+            return 0;
+        }
+
+        int compilados = 0;
+        for (File tmx : mapas) {
+            if (compilar(tmx, carpetaSalida)) compilados++;
+        }
+        Gdx.app.log("CompiladorNiveles", "Niveles compilados: " + compilados + "/" + mapas.size);
+        return compilados;
+    }
+
+    /**
+     * Compila un .tmx a su .nivel dentro de la carpeta de salida. Si el mapa
+     * usa algo que el formato binario no soporta, se borra el .nivel anterior
+     * para que el juego cargue el TMX.
+     *
+     * @return true si se generó el fichero
+     */
+    public static boolean compilar(File tmx, File carpetaSalida) {
+        File nivel = new File(carpetaSalida, CargadorNivelBinario.rutaCompilada(tmx.getName()));
+        long inicio = System.currentTimeMillis();
+
+        try {
+            LectorTmx lector = new LectorTmx();
+            TiledMap mapa = lector.leer(Gdx.files.absolute(tmx.getAbsolutePath()));
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(nivel)))) {
+                new Escritor(mapa, tmx.getAbsoluteFile().getParentFile()).escribir(out);
+            }
+
+            Gdx.app.log("CompiladorNiveles", tmx.getName() + " -> " + nivel.getName() + " (" +
+                tmx.length() / 1024 + " KB -> " + nivel.length() / 1024 + " KB, " +
+                (System.currentTimeMillis() - inicio) + " ms)");
+            return true;
+
+        } catch (Exception e) {
+            Gdx.app.error("CompiladorNiveles", tmx.getName() + " omitido: " + e.getMessage());
+            if (nivel.exists() && !nivel.delete()) {
+                Gdx.app.error("CompiladorNiveles", "No se pudo borrar el nivel antiguo: " + nivel.getPath());
+            }
+            return false;
+        }
+    }
+
+    // ====================== LECTURA DEL TMX ======================
+
+    /**
+     * Región sin textura: guarda el fichero de imagen y el recorte para
+     * poder escribirlos, y responde a las medidas que consulta el cargador.
+     */
+    static class RegionSimulada extends TextureRegion {
+        final String ruta;
+        final int x, y, ancho, alto;
+
+        RegionSimulada(String ruta, int x, int y, int ancho, int alto) {
+            this.ruta = ruta;
+            this.x = x;
+            this.y = y;
+            this.ancho = ancho;
+            this.alto = alto;
+        }
+
+        @Override public int getRegionX() { return x; }
+        @Override public int getRegionY() { return y; }
+        @Override public int getRegionWidth() { return ancho; }
+        @Override public int getRegionHeight() { return alto; }
+    }
+
+    /**
+     * Cargador TMX de libGDX sin texturas. Reutiliza todo el análisis del
+     * XML (tilesets externos, codificaciones, objetos, propiedades) para que
+     * el nivel compilado sea idéntico al que se obtiene del .tmx.
+     *
+     * Se usa directamente con {@link #leer(FileHandle)}, pero también sirve
+     * como cargador de un AssetManager (rutas absolutas): el mapa se lee en
+     * loadAsync y se entrega en loadSync.
+     */
+    static class LectorTmx extends BaseTmxMapLoader<BaseTmxMapLoader.Parameters> {
+        private final ObjectMap<String, RegionSimulada> imagenes = new ObjectMap<>();
+        // Mapa leído en loadAsync, pendiente de entregar en loadSync
+        private TiledMap mapaLeido;
+
+        LectorTmx() {
+            super(new AbsoluteFileHandleResolver());
+        }
+
+        TiledMap leer(FileHandle tmx) {
+            root = xml.parse(tmx);
+
+            for (Element objeto : root.getChildrenByNameRecursively("object")) {
+                if (objeto.getAttribute("gid", null) != null) {
+                    throw new GdxRuntimeException("los objetos de tile no están soportados");
+                }
+            }
+
+            // Medidas de las capas de imagen, que el cargador pide al resolver
+            for (Element capaImagen : root.getChildrenByNameRecursively("imagelayer")) {
+                Element imagen = capaImagen.getChildByName("image");
+                if (imagen != null) {
+                    registrarImagen(getRelativeFileHandle(tmx, imagen.getAttribute("source")), imagen);
+                }
+            }
+
+            return loadTiledMap(tmx, new Parameters(), new ImageResolver() {
+                @Override
+                public TextureRegion getImage(String name) {
+                    RegionSimulada region = imagenes.get(name);
+                    if (region == null) throw new GdxRuntimeException("Imagen sin medidas: " + name);
+                    return region;
+                }
+            });
+        }
+
+        private RegionSimulada registrarImagen(FileHandle imagen, Element elemento) {
+            return registrarImagen(imagen, elemento.getIntAttribute("width", 0), elemento.getIntAttribute("height", 0));
+        }
+
+        private RegionSimulada registrarImagen(FileHandle imagen, int ancho, int alto) {
+            RegionSimulada region = imagenes.get(imagen.path());
+            if (region != null) return region;
+
+            if (!imagen.exists()) {
+                throw new GdxRuntimeException("No existe la imagen " + imagen.path());
+            }
+            if (ancho <= 0 || alto <= 0) {
+                int[] medidas = leerMedidasPng(imagen.file());
+                ancho = medidas[0];
+                alto = medidas[1];
+            }
+            region = new RegionSimulada(imagen.path(), 0, 0, ancho, alto);
+            imagenes.put(imagen.path(), region);
+            return region;
+        }
+
+        /** Mismo recorte de tiles que {@code TmxMapLoader.addStaticTiles}. */
+        @Override
+        protected void addStaticTiles(FileHandle tmxFile, ImageResolver imageResolver, TiledMapTileSet tileSet,
+                                      Element element, Array<Element> tileElements, String name, int firstgid,
+                                      int tilewidth, int tileheight, int spacing, int margin, String source,
+                                      int offsetX, int offsetY, String imageSource, int imageWidth, int imageHeight,
+                                      FileHandle image) {
+            MapProperties props = tileSet.getProperties();
+            if (image != null) {
+                RegionSimulada textura = registrarImagen(image, imageWidth, imageHeight);
+
+                props.put("imagesource", imageSource);
+                props.put("imagewidth", imageWidth);
+                props.put("imageheight", imageHeight);
+                props.put("tilewidth", tilewidth);
+                props.put("tileheight", tileheight);
+                props.put("margin", margin);
+                props.put("spacing", spacing);
+
+                int limiteX = textura.getRegionWidth() - tilewidth;
+                int limiteY = textura.getRegionHeight() - tileheight;
+                int id = firstgid;
+
+                for (int y = margin; y <= limiteY; y += tileheight + spacing) {
+                    for (int x = margin; x <= limiteX; x += tilewidth + spacing) {
+                        addStaticTiledMapTile(tileSet, new RegionSimulada(textura.ruta, x, y, tilewidth, tileheight),
+                            id++, offsetX, offsetY);
+                    }
+                }
+            } else {
+                // Cada tile tiene su propia imagen
+                for (Element tileElement : tileElements) {
+                    Element imageElement = tileElement.getChildByName("image");
+                    if (imageElement == null) continue;
+
+                    String imagenTile = imageElement.getAttribute("source");
+                    FileHandle fichero = source != null
+                        ? getRelativeFileHandle(getRelativeFileHandle(tmxFile, source), imagenTile)
+                        : getRelativeFileHandle(tmxFile, imagenTile);
+
+                    int tileId = firstgid + tileElement.getIntAttribute("id");
+                    addStaticTiledMapTile(tileSet, registrarImagen(fichero, imageElement), tileId, offsetX, offsetY);
+                }
+            }
+        }
+
+        @Override
+        protected Array<AssetDescriptor> getDependencyAssetDescriptors(FileHandle mapFile,
+                                                                       TextureLoader.TextureParameter textureParameter) {
+            return new Array<>();
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            // Sin texturas no hay nada que hacer en el hilo de GL: se lee todo aquí
+            mapaLeido = leer(file);
+        }
+
+        @Override
+        public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            TiledMap mapa = mapaLeido;
+            mapaLeido = null;
+            return mapa;
+        }
+    }
+
+    /** Lee ancho y alto de la cabecera IHDR de un PNG. */
+    static int[] leerMedidasPng(File imagen) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(imagen))) {
+            if (in.readLong() != 0x89504E470D0A1A0AL) {
+                throw new GdxRuntimeException("Sin medidas en el TMX y no es PNG: " + imagen.getName());
+            }
+            in.readInt(); // longitud del bloque IHDR
+            in.readInt(); // "IHDR"
+            return new int[]{in.readInt(), in.readInt()};
+        } catch (IOException e) {
+            throw new GdxRuntimeException("No se pudo leer " + imagen.getName(), e);
+        }
+    }
+
+    // ====================== ESCRITURA DEL NIVEL ======================
+
+    /**
+     * Escribe el mapa cargado en el formato de {@link CargadorNivelBinario}.
+     * El orden de los campos debe coincidir exactamente con el de la lectura.
+     */
+    static class Escritor {
+        private final TiledMap mapa;
+        private final File carpetaMapa;
+        private final Array<String> rutas = new Array<>();
+        private final ObjectIntMap<String> indicesRutas = new ObjectIntMap<>();
+
+        Escritor(TiledMap mapa, File carpetaMapa) {
+            this.mapa = mapa;
+            this.carpetaMapa = carpetaMapa;
+        }
+
+        void escribir(DataOutputStream salida) throws IOException {
+            recogerImagenes();
+
+            salida.writeInt(CargadorNivelBinario.MAGICO);
+            salida.writeShort(CargadorNivelBinario.VERSION);
+
+            Deflater compresor = new Deflater(Deflater.BEST_COMPRESSION);
+            DeflaterOutputStream comprimido = new DeflaterOutputStream(salida, compresor);
+            DataOutputStream out = new DataOutputStream(comprimido);
+
+            out.writeInt(rutas.size);
+            for (String ruta : rutas) {
+                out.writeUTF(rutaRelativa(ruta));
+            }
+
+            escribirPropiedades(out, mapa.getProperties());
+
+            Array<TiledMapTileSet> tilesets = new Array<>();
+            for (TiledMapTileSet tileset : mapa.getTileSets()) {
+                tilesets.add(tileset);
+            }
+            out.writeInt(tilesets.size);
+            for (TiledMapTileSet tileset : tilesets) {
+                escribirTileset(out, tileset);
+            }
+
+            escribirCapas(out, mapa.getLayers());
+            escribirColisiones(out);
+
+            out.flush();
+            comprimido.finish();
+            compresor.end();
+        }
+
+        private void recogerImagenes() {
+            for (TiledMapTileSet tileset : mapa.getTileSets()) {
+                for (StaticTiledMapTile tile : tilesEstaticos(tileset).values()) {
+                    indiceImagen(tile.getTextureRegion());
+                }
+            }
+            recogerImagenesCapas(mapa.getLayers());
+        }
+
+        private void recogerImagenesCapas(MapLayers capas) {
+            for (MapLayer capa : capas) {
+                if (capa instanceof TiledMapImageLayer) {
+                    indiceImagen(((TiledMapImageLayer) capa).getTextureRegion());
+                } else if (capa instanceof MapGroupLayer) {
+                    recogerImagenesCapas(((MapGroupLayer) capa).getLayers());
+                }
+            }
+        }
+
+        private int indiceImagen(TextureRegion region) {
+            if (region == null) return -1;
+            String ruta = ((RegionSimulada) region).ruta;
+            int indice = indicesRutas.get(ruta, -1);
+            if (indice < 0) {
+                indice = rutas.size;
+                rutas.add(ruta);
+                indicesRutas.put(ruta, indice);
+            }
+            return indice;
+        }
+
+        /** Ruta de la imagen relativa a la carpeta del mapa, con '/' como separador. */
+        private String rutaRelativa(String ruta) {
+            return carpetaMapa.toPath().relativize(new File(ruta).getAbsoluteFile().toPath())
+                .toString().replace('\\', '/');
+        }
+
+        /**
+         * Tiles estáticos del tileset, incluidos los fotogramas de las
+         * animaciones (que en el tileset quedan tapados por el tile animado).
+         */
+        private IntMap<StaticTiledMapTile> tilesEstaticos(TiledMapTileSet tileset) {
+            IntMap<StaticTiledMapTile> estaticos = new IntMap<>();
+            for (TiledMapTile tile : tileset) {
+                if (tile instanceof StaticTiledMapTile) {
+                    estaticos.put(tile.getId(), (StaticTiledMapTile) tile);
+                } else if (tile instanceof AnimatedTiledMapTile) {
+                    for (StaticTiledMapTile fotograma : ((AnimatedTiledMapTile) tile).getFrameTiles()) {
+                        estaticos.put(fotograma.getId(), fotograma);
+                    }
+                }
+            }
+            return estaticos;
+        }
+
+        private void escribirTileset(DataOutputStream out, TiledMapTileSet tileset) throws IOException {
+            escribirTextoOpcional(out, tileset.getName());
+            escribirPropiedades(out, tileset.getProperties());
+
+            IntMap<StaticTiledMapTile> estaticos = tilesEstaticos(tileset);
+            out.writeInt(estaticos.size);
+            for (StaticTiledMapTile tile : estaticos.values()) {
+                RegionSimulada region = (RegionSimulada) tile.getTextureRegion();
+                out.writeInt(tile.getId());
+                out.writeInt(indiceImagen(region));
+                out.writeInt(region.x);
+                out.writeInt(region.y);
+                out.writeInt(region.ancho);
+                out.writeInt(region.alto);
+                out.writeFloat(tile.getOffsetX());
+                out.writeFloat(tile.getOffsetY());
+            }
+
+            Array<AnimatedTiledMapTile> animados = new Array<>();
+            Array<TiledMapTile> conDatos = new Array<>();
+            for (TiledMapTile tile : tileset) {
+                if (tile instanceof AnimatedTiledMapTile) animados.add((AnimatedTiledMapTile) tile);
+                if (tile.getProperties().getKeys().hasNext() || tile.getObjects().getCount() > 0) conDatos.add(tile);
+            }
+
+            out.writeInt(animados.size);
+            for (AnimatedTiledMapTile animado : animados) {
+                StaticTiledMapTile[] fotogramas = animado.getFrameTiles();
+                int[] intervalos = animado.getAnimationIntervals();
+                out.writeInt(animado.getId());
+                out.writeInt(fotogramas.length);
+                for (int i = 0; i < fotogramas.length; i++) {
+                    out.writeInt(fotogramas[i].getId());
+                    out.writeInt(intervalos[i]);
+                }
+            }
+
+            out.writeInt(conDatos.size);
+            for (TiledMapTile tile : conDatos) {
+                out.writeInt(tile.getId());
+                escribirPropiedades(out, tile.getProperties());
+                escribirObjetos(out, tile.getObjects());
+            }
+        }
+
+        private void escribirCapas(DataOutputStream out, MapLayers capas) throws IOException {
+            out.writeInt(capas.size());
+            for (MapLayer capa : capas) {
+                if (capa instanceof TiledMapTileLayer) {
+                    out.writeByte(CargadorNivelBinario.CAPA_TILES);
+                    escribirCeldas(out, (TiledMapTileLayer) capa);
+                } else if (capa instanceof TiledMapImageLayer) {
+                    TiledMapImageLayer imagen = (TiledMapImageLayer) capa;
+                    out.writeByte(CargadorNivelBinario.CAPA_IMAGEN);
+                    out.writeInt(indiceImagen(imagen.getTextureRegion()));
+                    out.writeFloat(imagen.getX());
+                    out.writeFloat(imagen.getY());
+                    out.writeBoolean(imagen.isRepeatX());
+                    out.writeBoolean(imagen.isRepeatY());
+                } else if (capa instanceof MapGroupLayer) {
+                    out.writeByte(CargadorNivelBinario.CAPA_GRUPO);
+                } else {
+                    out.writeByte(CargadorNivelBinario.CAPA_OBJETOS);
+                }
+
+                escribirTextoOpcional(out, capa.getName());
+                out.writeFloat(capa.getOpacity());
+                out.writeBoolean(capa.isVisible());
+                out.writeFloat(capa.getOffsetX());
+                out.writeFloat(capa.getOffsetY());
+                out.writeFloat(capa.getParallaxX());
+                out.writeFloat(capa.getParallaxY());
+                out.writeInt(Color.rgba8888(capa.getTintColor()));
+                escribirPropiedades(out, capa.getProperties());
+
+                if (capa instanceof MapGroupLayer) {
+                    escribirCapas(out, ((MapGroupLayer) capa).getLayers());
+                } else if (!(capa instanceof TiledMapTileLayer) && !(capa instanceof TiledMapImageLayer)) {
+                    escribirObjetos(out, capa.getObjects());
+                }
+            }
+        }
+
+        /** Celdas fila a fila en tramos (repeticiones, valor); las zonas vacías ocupan un solo tramo. */
+        private void escribirCeldas(DataOutputStream out, TiledMapTileLayer capa) throws IOException {
+            int ancho = capa.getWidth();
+            int alto = capa.getHeight();
+            out.writeInt(ancho);
+            out.writeInt(alto);
+            out.writeInt(capa.getTileWidth());
+            out.writeInt(capa.getTileHeight());
+
+            int total = ancho * alto;
+            int anterior = 0;
+            int repeticiones = 0;
+            for (int i = 0; i < total; i++) {
+                int valor = empaquetarCelda(capa.getCell(i % ancho, i / ancho));
+                if (valor != anterior && repeticiones > 0) {
+                    out.writeInt(repeticiones);
+                    out.writeInt(anterior);
+                    repeticiones = 0;
+                }
+                anterior = valor;
+                repeticiones++;
+            }
+            if (repeticiones > 0) {
+                out.writeInt(repeticiones);
+                out.writeInt(anterior);
+            }
+        }
+
+        private static int empaquetarCelda(TiledMapTileLayer.Cell celda) {
+            if (celda == null || celda.getTile() == null) return 0;
+
+            int gid = celda.getTile().getId();
+            if ((gid & ~CargadorNivelBinario.MASCARA_GID) != 0) {
+                throw new GdxRuntimeException("gid fuera de rango: " + gid);
+            }
+            int valor = gid | (celda.getRotation() & 3) << CargadorNivelBinario.DESPLAZAMIENTO_ROTACION;
+            if (celda.getFlipHorizontally()) valor |= CargadorNivelBinario.BIT_VOLTEO_H;
+            if (celda.getFlipVertically()) valor |= CargadorNivelBinario.BIT_VOLTEO_V;
+            return valor;
+        }
+
+        private void escribirObjetos(DataOutputStream out, MapObjects objetos) throws IOException {
+            out.writeInt(objetos.getCount());
+            for (MapObject objeto : objetos) {
+                if (objeto instanceof RectangleMapObject) {
+                    Rectangle r = ((RectangleMapObject) objeto).getRectangle();
+                    out.writeByte(CargadorNivelBinario.OBJETO_RECTANGULO);
+                    escribirCaja(out, r.x, r.y, r.width, r.height);
+                } else if (objeto instanceof EllipseMapObject) {
+                    Ellipse e = ((EllipseMapObject) objeto).getEllipse();
+                    out.writeByte(CargadorNivelBinario.OBJETO_ELIPSE);
+                    escribirCaja(out, e.x, e.y, e.width, e.height);
+                } else if (objeto instanceof PolygonMapObject) {
+                    Polygon p = ((PolygonMapObject) objeto).getPolygon();
+                    out.writeByte(CargadorNivelBinario.OBJETO_POLIGONO);
+                    escribirVertices(out, p.getX(), p.getY(), p.getVertices());
+                } else if (objeto instanceof PolylineMapObject) {
+                    Polyline p = ((PolylineMapObject) objeto).getPolyline();
+                    out.writeByte(CargadorNivelBinario.OBJETO_POLILINEA);
+                    escribirVertices(out, p.getX(), p.getY(), p.getVertices());
+                } else {
+                    out.writeByte(CargadorNivelBinario.OBJETO_GENERICO);
+                }
+
+                escribirTextoOpcional(out, objeto.getName());
+                out.writeBoolean(objeto.isVisible());
+                out.writeFloat(objeto.getOpacity());
+                out.writeInt(Color.rgba8888(objeto.getColor()));
+                escribirPropiedades(out, objeto.getProperties());
+            }
+        }
+
+        private static void escribirCaja(DataOutputStream out, float x, float y, float ancho, float alto) throws IOException {
+            out.writeFloat(x);
+            out.writeFloat(y);
+            out.writeFloat(ancho);
+            out.writeFloat(alto);
+        }
+
+        private static void escribirVertices(DataOutputStream out, float x, float y, float[] vertices) throws IOException {
+            out.writeFloat(x);
+            out.writeFloat(y);
+            out.writeInt(vertices.length);
+            for (float v : vertices) {
+                out.writeFloat(v);
+            }
+        }
+
+        private void escribirPropiedades(DataOutputStream out, MapProperties propiedades) throws IOException {
+            Array<String> claves = new Array<>();
+            for (Iterator<String> it = propiedades.getKeys(); it.hasNext(); ) {
+                claves.add(it.next());
+            }
+
+            out.writeInt(claves.size);
+            for (String clave : claves) {
+                Object valor = propiedades.get(clave);
+                out.writeUTF(clave);
+
+                if (valor instanceof Integer) {
+                    out.writeByte(CargadorNivelBinario.PROP_ENTERO);
+                    out.writeInt((Integer) valor);
+                } else if (valor instanceof Long) {
+                    out.writeByte(CargadorNivelBinario.PROP_LARGO);
+                    out.writeLong((Long) valor);
+                } else if (valor instanceof Float) {
+                    out.writeByte(CargadorNivelBinario.PROP_DECIMAL);
+                    out.writeFloat((Float) valor);
+                } else if (valor instanceof Double) {
+                    out.writeByte(CargadorNivelBinario.PROP_DOBLE);
+                    out.writeDouble((Double) valor);
+                } else if (valor instanceof Boolean) {
+                    out.writeByte(CargadorNivelBinario.PROP_BOOLEANO);
+                    out.writeBoolean((Boolean) valor);
+                } else if (valor instanceof Color) {
+                    out.writeByte(CargadorNivelBinario.PROP_COLOR);
+                    out.writeInt(Color.rgba8888((Color) valor));
+                } else if (valor instanceof MapProperties) {
+                    out.writeByte(CargadorNivelBinario.PROP_CLASE);
+                    escribirPropiedades(out, (MapProperties) valor);
+                } else if (valor instanceof MapObject) {
+                    out.writeByte(CargadorNivelBinario.PROP_OBJETO);
+                    out.writeInt(((MapObject) valor).getProperties().get("id", 0, Integer.class));
+                } else {
+                    out.writeByte(CargadorNivelBinario.PROP_TEXTO);
+                    out.writeUTF(String.valueOf(valor));
+                }
+            }
+        }
+
+        /**
+         * Rectángulos de colisión con el mismo criterio que {@link MapaManager}:
+         * la capa de colisiones más los tiles con {@code solid=true}.
+         */
+        private void escribirColisiones(DataOutputStream out) throws IOException {
+            Array<Rectangle> colisiones = new Array<>();
+            MapLayer capa = MapaManager.buscarCapaColisiones(mapa);
+            if (capa != null) {
+                for (MapObject objeto : capa.getObjects()) {
+                    if (objeto instanceof RectangleMapObject) {
+                        colisiones.add(((RectangleMapObject) objeto).getRectangle());
+                    }
+                }
+            }
+            MapaBitsColision.extraerTilesSolidos(mapa, 1f, colisiones);
+
+            out.writeInt(colisiones.size);
+            for (Rectangle r : colisiones) {
+                escribirCaja(out, r.x, r.y, r.width, r.height);
+            }
+        }
+
+        private static void escribirTextoOpcional(DataOutputStream out, String texto) throws IOException {
+            out.writeBoolean(texto != null);
+            if (texto != null) out.writeUTF(texto);
+        }
+    }
+}